@@ -25,6 +25,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
@@ -53,6 +54,7 @@ import org.apache.qpid.server.model.ConfiguredObject;
 import org.apache.qpid.server.store.Event;
 import org.apache.qpid.server.store.EventListener;
 import org.apache.qpid.server.store.EventManager;
+import org.apache.qpid.server.store.InMemoryMessageTracker;
 import org.apache.qpid.server.store.MessageEnqueueRecord;
 import org.apache.qpid.server.store.MessageHandle;
 import org.apache.qpid.server.store.MessageStore;
@@ -109,6 +111,7 @@ public abstract class AbstractBDBMessageStore implements MessageStore
     private final Random _lockConflictRandom = new Random();
     private final AtomicLong _inMemorySize = new AtomicLong();
     private final AtomicLong _bytesEvacuatedFromMemory = new AtomicLong();
+    private final InMemoryMessageTracker _inMemoryMessages = new InMemoryMessageTracker();
     private final Set<StoredBDBMessage<?>> _messages = Collections.newSetFromMap(new ConcurrentHashMap<>());
     private final Set<MessageDeleteListener> _messageDeleteListeners = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
@@ -118,6 +121,7 @@ public abstract class AbstractBDBMessageStore implements MessageStore
         if (_messageStoreOpen.compareAndSet(false, true))
         {
             _parent = parent;
+            _inMemoryMessages.configure(parent);
 
             final SizeMonitoringSettings sizeMonitorSettings = (SizeMonitoringSettings) parent;
             _persistentSizeHighThreshold = sizeMonitorSettings.getStoreOverfullSize();
@@ -144,6 +148,7 @@ public abstract class AbstractBDBMessageStore implements MessageStore
                 message.clear(true);
             }
             _messages.clear();
+            _inMemoryMessages.clear();
             _inMemorySize.set(0);
             _bytesEvacuatedFromMemory.set(0);
             doClose();
@@ -214,6 +219,12 @@ public abstract class AbstractBDBMessageStore implements MessageStore
     {
         final StoredBDBMessage<T> message = new StoredBDBMessage<>(newMessageId, metaData, recovered);
         _messages.add(message);
+        if (recovered)
+        {
+            // new messages are only tracked once all their content has been added, as flowing a partially
+            // received message to disk would store it truncated
+            _inMemoryMessages.loaded(message);
+        }
         return message;
     }
 
@@ -250,6 +261,18 @@ public abstract class AbstractBDBMessageStore implements MessageStore
         return _bytesEvacuatedFromMemory.get();
     }
 
+    @Override
+    public long getBytesReloadedIntoMemory()
+    {
+        return _inMemoryMessages.getBytesReloaded();
+    }
+
+    @Override
+    public Iterator<StoredMessage<?>> getFlowToDiskCandidates()
+    {
+        return _inMemoryMessages.isEnabled() ? _inMemoryMessages.evictionCandidates() : null;
+    }
+
     @Override
     public boolean isPersistent()
     {
@@ -1077,6 +1100,7 @@ public abstract class AbstractBDBMessageStore implements MessageStore
                     metaData = (T) getMessageMetaData(_messageId);
                     _messageDataRef = new MessageDataRef<>(metaData, _messageDataRef.getData(), false);
                     _inMemorySize.addAndGet(getMetadataSize());
+                    _inMemoryMessages.reloaded(this, getMetadataSize());
                 }
                 return metaData;
             }
@@ -1108,6 +1132,13 @@ public abstract class AbstractBDBMessageStore implements MessageStore
         public StoredMessage<T> allContentAdded()
         {
             _inMemorySize.addAndGet(getContentSize());
+            synchronized (this)
+            {
+                if (_messageDataRef != null)
+                {
+                    _inMemoryMessages.loaded(this);
+                }
+            }
             return this;
         }
 
@@ -1125,6 +1156,7 @@ public abstract class AbstractBDBMessageStore implements MessageStore
                     data = AbstractBDBMessageStore.this.getAllContent(_messageId);
                     _messageDataRef.setData(data);
                     _inMemorySize.addAndGet(getContentSize());
+                    _inMemoryMessages.reloaded(this, getContentSize());
                 }
                 else
                 {
@@ -1224,6 +1256,7 @@ public abstract class AbstractBDBMessageStore implements MessageStore
             }
             _messageDataRef = null;
             _inMemorySize.addAndGet(-bytesCleared);
+            _inMemoryMessages.released(this);
             if (!_messageDeleteListeners.isEmpty())
             {
                 for (final MessageDeleteListener messageDeleteListener : _messageDeleteListeners)
@@ -1279,6 +1312,7 @@ public abstract class AbstractBDBMessageStore implements MessageStore
                 final long bytesCleared = _messageDataRef.clear(false);
                 _inMemorySize.addAndGet(-bytesCleared);
                 _bytesEvacuatedFromMemory.addAndGet(bytesCleared);
+                _inMemoryMessages.released(this);
             }
             return true;
         }
@@ -0,0 +1,172 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.model;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import org.apache.qpid.server.License;
+
+/**
+ * Generates, for each interface declaring managed attributes or statistics, a class named
+ * {@code <Interface>Accessors} holding a function per getter which calls the getter directly.  At runtime
+ * {@code ConfiguredObjectMethodAttributeOrStatistic} uses these functions in preference to invoking the getter
+ * reflectively.
+ */
+@SupportedAnnotationTypes({ConfiguredObjectAccessorGenerator.MANAGED_ATTRIBUTE_CLASS_NAME,
+                           ConfiguredObjectAccessorGenerator.DERIVED_ATTRIBUTE_CLASS_NAME,
+                           ConfiguredObjectAccessorGenerator.MANAGED_STATISTIC_CLASS_NAME})
+public class ConfiguredObjectAccessorGenerator extends AbstractProcessor
+{
+    static final String MANAGED_ATTRIBUTE_CLASS_NAME = "org.apache.qpid.server.model.ManagedAttribute";
+    static final String DERIVED_ATTRIBUTE_CLASS_NAME = "org.apache.qpid.server.model.DerivedAttribute";
+    static final String MANAGED_STATISTIC_CLASS_NAME = "org.apache.qpid.server.model.ManagedStatistic";
+
+    private static final String ACCESSORS_CLASS_SUFFIX = "Accessors";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latest();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv)
+    {
+        if (roundEnv.processingOver())
+        {
+            return false;
+        }
+
+        final Map<TypeElement, Set<ExecutableElement>> gettersByInterface = new LinkedHashMap<>();
+        for (TypeElement annotation : annotations)
+        {
+            for (Element e : roundEnv.getElementsAnnotatedWith(annotation))
+            {
+                if (e.getKind() == ElementKind.METHOD
+                    && e.getEnclosingElement().getKind() == ElementKind.INTERFACE
+                    && e.getEnclosingElement().getEnclosingElement().getKind() == ElementKind.PACKAGE
+                    && ((ExecutableElement) e).getParameters().isEmpty()
+                    && !e.getModifiers().contains(Modifier.STATIC))
+                {
+                    gettersByInterface.computeIfAbsent((TypeElement) e.getEnclosingElement(),
+                                                       k -> new LinkedHashSet<>())
+                                      .add((ExecutableElement) e);
+                }
+            }
+        }
+
+        for (Map.Entry<TypeElement, Set<ExecutableElement>> entry : gettersByInterface.entrySet())
+        {
+            generateAccessors(entry.getKey(), entry.getValue());
+        }
+
+        return false;
+    }
+
+    private void generateAccessors(final TypeElement interfaceElement, final Set<ExecutableElement> getters)
+    {
+        final PackageElement packageElement = (PackageElement) interfaceElement.getEnclosingElement();
+        final String interfaceName = interfaceElement.getQualifiedName().toString();
+        final String accessorsSimpleName = interfaceElement.getSimpleName().toString() + ACCESSORS_CLASS_SUFFIX;
+        final String accessorsName = interfaceName + ACCESSORS_CLASS_SUFFIX;
+        final String castType = interfaceName + getWildcardTypeArguments(interfaceElement);
+
+        try
+        {
+            final JavaFileObject accessorsFile = processingEnv.getFiler().createSourceFile(accessorsName,
+                                                                                          interfaceElement);
+            try (PrintWriter pw = new PrintWriter(new OutputStreamWriter(accessorsFile.openOutputStream(), "UTF-8")))
+            {
+                pw.println("/*");
+                for (String headerLine : License.LICENSE)
+                {
+                    pw.println(" *" + headerLine);
+                }
+                pw.println(" */");
+                pw.println();
+                pw.print("package ");
+                pw.print(packageElement.getQualifiedName());
+                pw.println(";");
+                pw.println();
+                pw.println("public final class " + accessorsSimpleName);
+                pw.println("{");
+                pw.println("    private " + accessorsSimpleName + "()");
+                pw.println("    {");
+                pw.println("    }");
+                pw.println();
+                pw.println("    public static java.util.Map<String, java.util.function.Function<Object, Object>> getAccessors()");
+                pw.println("    {");
+                pw.println("        final java.util.Map<String, java.util.function.Function<Object, Object>> accessors = new java.util.HashMap<>();");
+                for (ExecutableElement getter : getters)
+                {
+                    final String methodName = getter.getSimpleName().toString();
+                    pw.println("        accessors.put(\"" + methodName + "\", object -> ((" + castType + ") object)."
+                               + methodName + "());");
+                }
+                pw.println("        return accessors;");
+                pw.println("    }");
+                pw.println("}");
+            }
+        }
+        catch (IOException e)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                                                     "Failed to write file: "
+                                                     + accessorsName
+                                                     + " - "
+                                                     + e.getLocalizedMessage());
+        }
+    }
+
+    private String getWildcardTypeArguments(final TypeElement interfaceElement)
+    {
+        final int typeParameterCount = interfaceElement.getTypeParameters().size();
+        if (typeParameterCount == 0)
+        {
+            return "";
+        }
+        final StringBuilder typeArguments = new StringBuilder("<");
+        for (int i = 0; i < typeParameterCount; i++)
+        {
+            typeArguments.append(i == 0 ? "?" : ",?");
+        }
+        return typeArguments.append('>').toString();
+    }
+}
@@ -31,4 +31,10 @@ public @interface CompositeType
 {
     String symbolicDescriptor();
     long numericDescriptor();
+
+    /**
+     * If false, no constructor is generated for the type, which must then be decoded by a hand written
+     * {@code <Type>Constructor} in the {@code codec} sub-package.
+     */
+    boolean generateConstructor() default true;
 }
@@ -136,6 +136,12 @@ public class CompositeTypeConstructorGenerator  extends AbstractProcessor
         String compositeTypeConstructorName = compositeTypeConstructorPackage + "." + compositeTypeConstructorNameSimpleName;
         final CompositeType annotation = typeElement.getAnnotation(CompositeType.class);
 
+        if (!annotation.generateConstructor())
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Using hand written composite constructor for " + objectQualifiedClassName);
+            return;
+        }
+
         processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Generating composite constructor file for " + objectQualifiedClassName);
 
         try
@@ -3429,9 +3429,10 @@ public abstract class AbstractConfiguredObject<X extends ConfiguredObject<X>> im
         Collection<ConfiguredObjectStatistic<?, ?>> stats = getTypeRegistry().getStatistics(getClass());
         Map<String,Object> map = new HashMap<>();
         boolean allStats = statistics == null || statistics.isEmpty();
+        Set<String> selectedStatistics = allStats ? Collections.emptySet() : new HashSet<>(statistics);
         for(ConfiguredObjectStatistic stat : stats)
         {
-            if(allStats || statistics.contains(stat.getName()))
+            if(allStats || selectedStatistics.contains(stat.getName()))
             {
                 Object value = stat.getValue(this);
                 if(value != null)
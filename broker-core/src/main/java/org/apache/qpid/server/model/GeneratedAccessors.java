@@ -0,0 +1,80 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.model;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Looks up the getter functions generated at build time by {@code ConfiguredObjectAccessorGenerator} for the
+ * interfaces declaring managed attributes and statistics.
+ */
+final class GeneratedAccessors
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeneratedAccessors.class);
+
+    private static final String ACCESSORS_CLASS_SUFFIX = "Accessors";
+    private static final String GET_ACCESSORS_METHOD_NAME = "getAccessors";
+
+    private static final Map<Class<?>, Map<String, Function<Object, Object>>> ACCESSORS = new ConcurrentHashMap<>();
+
+    private GeneratedAccessors()
+    {
+    }
+
+    /**
+     * @return a function calling the given getter directly, or null if no accessor was generated for it, in which
+     * case the caller should fall back to invoking the getter reflectively
+     */
+    static Function<Object, Object> getAccessor(final Method getter)
+    {
+        return ACCESSORS.computeIfAbsent(getter.getDeclaringClass(), GeneratedAccessors::loadAccessors)
+                        .get(getter.getName());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Function<Object, Object>> loadAccessors(final Class<?> declaringClass)
+    {
+        final String accessorsClassName = declaringClass.getName() + ACCESSORS_CLASS_SUFFIX;
+        try
+        {
+            final Class<?> accessorsClass =
+                    Class.forName(accessorsClassName, true, declaringClass.getClassLoader());
+            return (Map<String, Function<Object, Object>>) accessorsClass.getMethod(GET_ACCESSORS_METHOD_NAME)
+                                                                         .invoke(null);
+        }
+        catch (ClassNotFoundException e)
+        {
+            LOGGER.debug("No generated accessors found for {}", declaringClass.getName());
+        }
+        catch (ReflectiveOperationException | ClassCastException e)
+        {
+            LOGGER.warn("Unable to load generated accessors {}", accessorsClassName, e);
+        }
+        return Collections.emptyMap();
+    }
+}
@@ -26,5 +26,6 @@ public enum OverflowPolicy
     RING,
     PRODUCER_FLOW_CONTROL,
     FLOW_TO_DISK,
-    REJECT
+    REJECT,
+    PRODUCER_FLOW_THROTTLING
 }
@@ -22,6 +22,7 @@ package org.apache.qpid.server.model;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.net.ssl.SSLContext;
@@ -127,6 +128,25 @@ public interface Port<X extends Port<X>> extends ConfiguredObject<X>
     @DerivedAttribute(description = "TLS session cache size")
     int getTLSSessionCacheSize();
 
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT, label = "TLS Handshakes",
+            description = "Total number of TLS handshakes completed on this port since broker startup")
+    long getTlsHandshakeCount();
+
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT, label = "Resumed TLS Handshakes",
+            description = "Total number of TLS handshakes completed on this port since broker startup by resuming"
+                          + " a cached TLS session. Relative to the number of TLS handshakes this gives the"
+                          + " session resumption hit ratio.")
+    long getTlsResumedHandshakeCount();
+
+    @ManagedOperation(nonModifying = true,
+            description = "Returns histograms of the time taken, in milliseconds, to complete full and resumed"
+                          + " TLS handshakes on this port since broker startup. AMQP ports measure from the receipt of"
+                          + " the ClientHello, HTTP ports from the acceptance of the connection.",
+            changesConfiguredObjectState = false)
+    Map<String, Map<String, Long>> getTlsHandshakeTimes();
+
+    void registerTlsHandshake(boolean resumed, long durationMillis);
+
     Collection<Connection> getConnections();
 
     void start();
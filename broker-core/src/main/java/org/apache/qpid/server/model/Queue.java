@@ -209,6 +209,22 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
                           + " 'maximumQueueDepthBytes' and 'maximumQueueDepthMessages'.")
     double DEFAULT_FLOW_CONTROL_RESUME_LIMIT = 80.0;
 
+    String QUEUE_FLOW_THROTTLE_START_LIMIT = "queue.queueFlowThrottleStartLimit";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = QUEUE_FLOW_THROTTLE_START_LIMIT,
+            description = "Percentage of the values of attributes 'maximumQueueDepthBytes' and"
+                          + " 'maximumQueueDepthMessages' at which the ProducerFlowThrottling overflow policy"
+                          + " starts to throttle producing sessions.")
+    double DEFAULT_FLOW_THROTTLE_START_LIMIT = 50.0;
+
+    String QUEUE_FLOW_THROTTLE_PERIOD = "queue.queueFlowThrottlePeriod";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = QUEUE_FLOW_THROTTLE_PERIOD,
+            description = "Period, in milliseconds, over which the ProducerFlowThrottling overflow policy shapes"
+                          + " a producing session. The session is paused for a share of each period proportional"
+                          + " to how far the queue depth lies between the throttle start limit and the maximum.")
+    long DEFAULT_FLOW_THROTTLE_PERIOD = 500L;
+
     @SuppressWarnings("unused")
     @DerivedAttribute
     boolean isQueueFlowStopped();
@@ -330,11 +346,15 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
 
     @ManagedAttribute(defaultValue = "${queue.defaultOverflowPolicy}",
             description = "Queue overflow policy."
-                          + " Options are ProducerFlowControl, Ring, FlowToDisk, Reject, and None."
+                          + " Options are ProducerFlowControl, ProducerFlowThrottling, Ring, FlowToDisk, Reject, and None."
                           + " The policy comes into effect where queue limits described by maximumQueueDepthBytes"
                           + " and/or maximumQueueDepthMessage are breached."
                           + " ProducerFlowControl - the producing sessions are blocked until queue size"
                           + " falls beneath resume threshold (see context variable queue.queueFlowResumeLimit)."
+                          + " ProducerFlowThrottling - the producing sessions are paused for a growing share of time as"
+                          + " queue size rises above the throttle start threshold (see context variable"
+                          + " queue.queueFlowThrottleStartLimit) and are blocked as for ProducerFlowControl"
+                          + " when the limits are breached."
                           + " Ring - oldest messages are discarded."
                           + " Reject - incoming messages are rejected."
                           + " FlowToDisk - new incoming messages are written to disk and immediately evicted from memory."
@@ -519,6 +539,20 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
             description = "Total number of enqueued malformed messages.")
     long getTotalMalformedMessages();
 
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.BYTES, label = "Flowed to disk",
+            description = "Total size of message content released from memory by the virtual host's flow to disk"
+                          + " check when it walks the queues (see context variable"
+                          + " 'virtualhost.flowToDiskWalkQueues').")
+    long getTotalFlowedToDiskBytes();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.MESSAGES,
+            label = "Flow to disk distance",
+            description = "Number of messages ahead of the first message whose content was released from memory by"
+                          + " the latest flow to disk check walking the queues, or -1 if no content was released.")
+    long getFlowToDiskDistance();
+
     @ManagedOperation(description = "move messages from this queue to another", changesConfiguredObjectState = false)
     List<Long> moveMessages(@Param(name = "destination", description = "The queue to which the messages should be moved", mandatory = true) Queue<?> destination,
                             @Param(name = "messageIds", description = "If provided, only messages in the queue whose (internal) message-id is supplied will be considered for moving") List<Long> messageIds,
@@ -539,6 +573,23 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
                               @Param(name = "limit", description = "Maximum number of messages to delete", defaultValue = "-1") int limit);
 
 
+    @ManagedOperation(description = "starts moving, copying or deleting messages in the background, committing the"
+                                    + " changes in batches. Returns the status of the new operation.",
+            changesConfiguredObjectState = false)
+    Map<String, Object> startMessageOperation(@Param(name = "operation", mandatory = true, validValues = {"MOVE", "COPY", "DELETE"}, description = "MOVE, COPY or DELETE") String operation,
+                                              @Param(name = "destination", description = "The queue to which the messages should be moved or copied. Not used by DELETE") Queue<?> destination,
+                                              @Param(name = "messageIds", description = "If provided, only messages in the queue whose (internal) message-id is supplied will be considered") List<Long> messageIds,
+                                              @Param(name = "selector", description = "A (JMS) selector - if provided, only messages which match the selector will be considered") String selector,
+                                              @Param(name = "limit", description = "Maximum number of messages to process", defaultValue = "-1") int limit);
+
+    @ManagedOperation(nonModifying = true, changesConfiguredObjectState = false,
+            description = "returns the status of the background message operations started on this queue")
+    List<Map<String, Object>> getMessageOperations();
+
+    @ManagedOperation(description = "cancels a background message operation. Batches already committed are not undone.",
+            changesConfiguredObjectState = false)
+    boolean cancelMessageOperation(@Param(name = "id", mandatory = true, description = "The id of the operation") String id);
+
     @ManagedOperation(description = "removes all messages from this queue", changesConfiguredObjectState = false)
     long clearQueue();
 
@@ -615,6 +666,8 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
 
     boolean checkValid(QueueEntry queueEntry);
 
+    void flowToDiskChecked(long flowedToDiskBytes, long flowToDiskDistance);
+
     enum ExpiryPolicy
     {
         DELETE,
@@ -89,6 +89,8 @@ public abstract class AbstractPort<X extends AbstractPort<X>> extends AbstractCo
     private List<String> _tlsCipherSuiteAllowList;
     private List<String> _tlsCipherSuiteDenyList;
 
+    private final TlsHandshakeStatistics _tlsHandshakeStatistics = new TlsHandshakeStatistics();
+
     public AbstractPort(Map<String, Object> attributes,
                         Container<?> container)
     {
@@ -510,6 +512,30 @@ public abstract class AbstractPort<X extends AbstractPort<X>> extends AbstractCo
         return getSSLContext() != null;
     }
 
+    @Override
+    public long getTlsHandshakeCount()
+    {
+        return _tlsHandshakeStatistics.getHandshakeCount();
+    }
+
+    @Override
+    public long getTlsResumedHandshakeCount()
+    {
+        return _tlsHandshakeStatistics.getResumedHandshakeCount();
+    }
+
+    @Override
+    public Map<String, Map<String, Long>> getTlsHandshakeTimes()
+    {
+        return _tlsHandshakeStatistics.getHandshakeTimes();
+    }
+
+    @Override
+    public void registerTlsHandshake(final boolean resumed, final long durationMillis)
+    {
+        _tlsHandshakeStatistics.registerHandshake(resumed, durationMillis);
+    }
+
     @Override
     public boolean updateTLS()
     {
@@ -116,14 +116,31 @@ public interface AmqpPort<X extends AmqpPort<X>> extends Port<X>
 
     String TLS_SESSION_TIMEOUT = "qpid.port.amqp.tlsSessionTimeout";
     @SuppressWarnings("unused")
-    @ManagedContextDefault(name = TLS_SESSION_TIMEOUT, description = "TLS session timeout for AMQP ports (seconds).")
+    @ManagedContextDefault(name = TLS_SESSION_TIMEOUT, description = "TLS session timeout for AMQP ports (seconds)."
+            + " Changes are applied to new connections by the updateTLS operation.")
     int DEFAULT_TLS_SESSION_TIMEOUT = 5* 60;
 
     String TLS_SESSION_CACHE_SIZE = "qpid.port.amqp.tlsSessionCacheSize";
     @SuppressWarnings("unused")
-    @ManagedContextDefault(name = TLS_SESSION_CACHE_SIZE, description = "TLS session cache size for AMQP ports.")
+    @ManagedContextDefault(name = TLS_SESSION_CACHE_SIZE, description = "TLS session cache size for AMQP ports."
+            + " Changes are applied to new connections by the updateTLS operation.")
     int DEFAULT_TLS_SESSION_CACHE_SIZE = 100;
 
+    String PORT_AMQP_TLS_HANDSHAKE_POOL_SIZE = "qpid.port.amqp.tlsHandshakePool.size";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = PORT_AMQP_TLS_HANDSHAKE_POOL_SIZE,
+            description = "Number of threads used to run TLS handshake tasks (key exchange and certificate"
+                          + " validation) for connections to AMQP ports, so that they do not occupy the port's IO"
+                          + " threads. A value of 0 runs the tasks on the IO threads.")
+    int DEFAULT_PORT_AMQP_TLS_HANDSHAKE_POOL_SIZE = Math.max(Runtime.getRuntime().availableProcessors() / 2, 1);
+
+    String PORT_AMQP_TLS_HANDSHAKE_QUEUE_SIZE = "qpid.port.amqp.tlsHandshakePool.queueSize";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = PORT_AMQP_TLS_HANDSHAKE_QUEUE_SIZE,
+            description = "Maximum number of TLS handshake tasks waiting for a handshake thread on AMQP ports."
+                          + " When the queue is full, handshake tasks are run on the IO threads.")
+    int DEFAULT_PORT_AMQP_TLS_HANDSHAKE_QUEUE_SIZE = 16384;
+
     String CONNECTION_PROPERTY_ENRICHERS = "qpid.port.connection_property_enrichers";
     @SuppressWarnings("unused")
     @ManagedContextDefault(name = CONNECTION_PROPERTY_ENRICHERS,
@@ -167,6 +184,14 @@ public interface AmqpPort<X extends AmqpPort<X>> extends Port<X>
             description = "Total number of connections made through this port since broker startup")
     long getTotalConnectionCount();
 
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.TIME_DURATION, label = "TLS Handshake Queueing Time",
+            description = "Total time, in milliseconds, for which TLS handshake tasks have waited for a handshake thread")
+    long getTlsHandshakeQueueingTime();
+
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.COUNT, label = "Queued TLS Handshake Tasks",
+            description = "Current number of TLS handshake tasks waiting for a handshake thread")
+    int getTlsHandshakeQueueSize();
+
     @DerivedAttribute(description = "Maximum time allowed for a new connection to send a protocol header."
                                     + " If the connection does not send a protocol header within this time,"
                                     + " the connection will be aborted.")
@@ -199,5 +224,12 @@ public interface AmqpPort<X extends AmqpPort<X>> extends Port<X>
 
     int getNetworkBufferSize();
 
+    /**
+     * Runs a TLS handshake task on the port's handshake pool.
+     *
+     * @return false if the pool is disabled or full, in which case the caller must run the task itself
+     */
+    boolean executeTlsHandshakeTask(Runnable task);
+
     List<ConnectionPropertyEnricher> getConnectionPropertyEnrichers();
 }
@@ -31,6 +31,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -94,11 +100,13 @@ public class AmqpPortImpl extends AbstractPort<AmqpPortImpl> implements AmqpPort
     private final AtomicInteger _connectionCount = new AtomicInteger();
     private final AtomicBoolean _connectionCountWarningGiven = new AtomicBoolean();
     private final AtomicLong _totalConnectionCount = new AtomicLong();
+    private final AtomicLong _tlsHandshakeQueueingTime = new AtomicLong();
 
     private final Container<?> _container;
     private final AtomicBoolean _closingOrDeleting = new AtomicBoolean();
 
     private volatile AcceptingTransport _transport;
+    private volatile ThreadPoolExecutor _tlsHandshakeExecutor;
     private volatile SSLContext _sslContext;
     private volatile int _connectionWarnCount;
     private volatile long _protocolHandshakeTimeout;
@@ -247,6 +255,10 @@ public class AmqpPortImpl extends AbstractPort<AmqpPortImpl> implements AmqpPort
             {
                 _sslContext = createSslContext();
             }
+            if (transports.contains(Transport.SSL))
+            {
+                _tlsHandshakeExecutor = createTlsHandshakeExecutor();
+            }
             Protocol defaultSupportedProtocolReply = getDefaultAmqpSupportedReply();
             try
             {
@@ -280,6 +292,9 @@ public class AmqpPortImpl extends AbstractPort<AmqpPortImpl> implements AmqpPort
         final Set<Transport> transports = getTransports();
         if (transports.contains(Transport.SSL) || transports.contains(Transport.WSS))
         {
+            // pick up any change to the session cache settings made through the port context
+            _tlsSessionTimeout = getContextValue(Integer.class, AmqpPort.TLS_SESSION_TIMEOUT);
+            _tlsSessionCacheSize = getContextValue(Integer.class, AmqpPort.TLS_SESSION_CACHE_SIZE);
             _sslContext = createSslContext();
             return _transport.updatesSSLContext();
         }
@@ -325,6 +340,80 @@ public class AmqpPortImpl extends AbstractPort<AmqpPortImpl> implements AmqpPort
 
             _transport.close();
         }
+        if (_tlsHandshakeExecutor != null)
+        {
+            _tlsHandshakeExecutor.shutdown();
+            _tlsHandshakeExecutor = null;
+        }
+    }
+
+    private ThreadPoolExecutor createTlsHandshakeExecutor()
+    {
+        final int poolSize = getContextValue(Integer.class, PORT_AMQP_TLS_HANDSHAKE_POOL_SIZE);
+        if (poolSize <= 0)
+        {
+            return null;
+        }
+        final int queueSize = getContextValue(Integer.class, PORT_AMQP_TLS_HANDSHAKE_QUEUE_SIZE);
+        final long keepAliveTimeout = getContextValue(Long.class, PORT_AMQP_THREAD_POOL_KEEP_ALIVE_TIMEOUT);
+        final String name = getName();
+        final ThreadFactory factory = new ThreadFactory()
+        {
+            private final AtomicInteger _count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(final Runnable r)
+            {
+                final Thread thread = Executors.defaultThreadFactory().newThread(r);
+                thread.setName("TLS-Handshake-" + name + "-" + _count.incrementAndGet());
+                return thread;
+            }
+        };
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize,
+                                                                   poolSize,
+                                                                   keepAliveTimeout,
+                                                                   TimeUnit.MINUTES,
+                                                                   new LinkedBlockingQueue<>(Math.max(queueSize, 1)),
+                                                                   factory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public boolean executeTlsHandshakeTask(final Runnable task)
+    {
+        final ThreadPoolExecutor executor = _tlsHandshakeExecutor;
+        if (executor != null)
+        {
+            final long queuedTime = System.currentTimeMillis();
+            try
+            {
+                executor.execute(() ->
+                                 {
+                                     _tlsHandshakeQueueingTime.addAndGet(System.currentTimeMillis() - queuedTime);
+                                     task.run();
+                                 });
+                return true;
+            }
+            catch (RejectedExecutionException e)
+            {
+                LOGGER.debug("TLS handshake task rejected by handshake pool of port '{}'", getName());
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public long getTlsHandshakeQueueingTime()
+    {
+        return _tlsHandshakeQueueingTime.get();
+    }
+
+    @Override
+    public int getTlsHandshakeQueueSize()
+    {
+        final ThreadPoolExecutor executor = _tlsHandshakeExecutor;
+        return executor == null ? 0 : executor.getQueue().size();
     }
 
     @Override
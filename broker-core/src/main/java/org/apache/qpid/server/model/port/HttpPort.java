@@ -64,12 +64,14 @@ public interface HttpPort<X extends HttpPort<X>> extends Port<X>
 
     String TLS_SESSION_TIMEOUT = "qpid.port.http.tlsSessionTimeout";
     @SuppressWarnings("unused")
-    @ManagedContextDefault(name = TLS_SESSION_TIMEOUT, description = "TLS session timeout for HTTP ports (seconds).")
+    @ManagedContextDefault(name = TLS_SESSION_TIMEOUT, description = "TLS session timeout for HTTP ports (seconds)."
+            + " Changes are applied to new connections by the updateTLS operation.")
     int DEFAULT_TLS_SESSION_TIMEOUT = 15 * 60;
 
     String TLS_SESSION_CACHE_SIZE = "qpid.port.http.tlsSessionCacheSize";
     @SuppressWarnings("unused")
-    @ManagedContextDefault(name = TLS_SESSION_CACHE_SIZE, description = "TLS session cache size for HTTP ports.")
+    @ManagedContextDefault(name = TLS_SESSION_CACHE_SIZE, description = "TLS session cache size for HTTP ports."
+            + " Changes are applied to new connections by the updateTLS operation.")
     int DEFAULT_TLS_SESSION_CACHE_SIZE = 1000;
 
     @Override
@@ -173,6 +173,9 @@ public class HttpPortImpl extends AbstractPort<HttpPortImpl> implements HttpPort
     {
         if (getTransports().contains(Transport.SSL))
         {
+            // pick up any change to the session cache settings made through the port context
+            _tlsSessionTimeout = getContextValue(Integer.class, HttpPort.TLS_SESSION_TIMEOUT);
+            _tlsSessionCacheSize = getContextValue(Integer.class, HttpPort.TLS_SESSION_CACHE_SIZE);
             final PortManager portManager = getPortManager();
             return portManager != null && portManager.updateSSLContext(this);
         }
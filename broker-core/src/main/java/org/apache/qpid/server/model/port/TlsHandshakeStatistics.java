@@ -0,0 +1,95 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.model.port;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts completed TLS handshakes on a port, separating full handshakes from those resuming a cached session,
+ * and records handshake durations in a fixed set of exponentially sized buckets.
+ */
+class TlsHandshakeStatistics
+{
+    private static final long[] BUCKET_UPPER_BOUNDS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+
+    private final LongAdder _fullHandshakes = new LongAdder();
+    private final LongAdder _resumedHandshakes = new LongAdder();
+    private final AtomicLongArray _fullHandshakeTimes = new AtomicLongArray(BUCKET_UPPER_BOUNDS.length + 1);
+    private final AtomicLongArray _resumedHandshakeTimes = new AtomicLongArray(BUCKET_UPPER_BOUNDS.length + 1);
+
+    void registerHandshake(final boolean resumed, final long durationMillis)
+    {
+        if (resumed)
+        {
+            _resumedHandshakes.increment();
+            _resumedHandshakeTimes.incrementAndGet(bucketIndex(durationMillis));
+        }
+        else
+        {
+            _fullHandshakes.increment();
+            _fullHandshakeTimes.incrementAndGet(bucketIndex(durationMillis));
+        }
+    }
+
+    long getHandshakeCount()
+    {
+        return _fullHandshakes.sum() + _resumedHandshakes.sum();
+    }
+
+    long getResumedHandshakeCount()
+    {
+        return _resumedHandshakes.sum();
+    }
+
+    Map<String, Map<String, Long>> getHandshakeTimes()
+    {
+        final Map<String, Map<String, Long>> times = new LinkedHashMap<>();
+        times.put("full", toHistogram(_fullHandshakeTimes));
+        times.put("resumed", toHistogram(_resumedHandshakeTimes));
+        return times;
+    }
+
+    private static int bucketIndex(final long durationMillis)
+    {
+        int index = 0;
+        while (index < BUCKET_UPPER_BOUNDS.length && durationMillis > BUCKET_UPPER_BOUNDS[index])
+        {
+            index++;
+        }
+        return index;
+    }
+
+    private static Map<String, Long> toHistogram(final AtomicLongArray buckets)
+    {
+        final Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKET_UPPER_BOUNDS.length; i++)
+        {
+            histogram.put("<=" + BUCKET_UPPER_BOUNDS[i] + "ms", buckets.get(i));
+        }
+        histogram.put(">" + BUCKET_UPPER_BOUNDS[BUCKET_UPPER_BOUNDS.length - 1] + "ms",
+                      buckets.get(BUCKET_UPPER_BOUNDS.length));
+        return histogram;
+    }
+}
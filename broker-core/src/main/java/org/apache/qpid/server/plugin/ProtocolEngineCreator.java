@@ -39,5 +39,13 @@ public interface ProtocolEngineCreator extends Pluggable
                                      final AggregateTicker aggregateTicker);
 
     byte[] getSuggestedAlternativeHeader();
+
+    /**
+     * Invoked once when a port supporting this protocol version is started, before it accepts any connection,
+     * allowing state shared by all the connections of the protocol to be configured from the broker.
+     */
+    default void initialise(Broker<?> broker)
+    {
+    }
 }
 
@@ -42,6 +42,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -165,6 +166,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     private final AtomicInteger _activeSubscriberCount = new AtomicInteger();
 
     private final QueueStatistics _queueStatistics = new QueueStatistics();
+    private volatile long _flowToDiskDistance = -1L;
 
     /** max allowed size(KB) of a single message */
     @ManagedAttributeField( afterSet = "updateAlertChecks" )
@@ -269,6 +271,8 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     private static final int COMPLETING_RECOVERY = 2;
     private static final int RECOVERED = 3;
 
+    private static final int MAX_RETAINED_FINISHED_MESSAGE_OPERATIONS = 10;
+
     private final AtomicInteger _recovering = new AtomicInteger(RECOVERING);
     private final AtomicInteger _enqueuingWhileRecovering = new AtomicInteger(0);
     private final ConcurrentLinkedQueue<EnqueueRequest> _postRecoveryQueue = new ConcurrentLinkedQueue<>();
@@ -281,6 +285,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     private boolean _closing;
     private Map<String, String> _mimeTypeToFileExtension = Collections.emptyMap();
     private AdvanceConsumersTask _queueHouseKeepingTask;
+    private final Map<UUID, BackgroundMessageOperation> _messageOperations = new LinkedHashMap<>();
     private volatile int _bindingCount;
     private volatile RejectPolicyHandler _rejectPolicyHandler;
     private volatile OverflowPolicyHandler _postEnqueueOverflowPolicyHandler;
@@ -350,6 +355,11 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         {
             throw new IllegalConfigurationException("Flow resume limit value cannot be greater than 100 or lower than 0");
         }
+        Double flowThrottleStartLimit = getContextValue(Double.class, QUEUE_FLOW_THROTTLE_START_LIMIT);
+        if (flowThrottleStartLimit != null && (flowThrottleStartLimit < 0.0 || flowThrottleStartLimit > 100.0))
+        {
+            throw new IllegalConfigurationException("Flow throttle start limit value cannot be greater than 100 or lower than 0");
+        }
     }
 
     @Override
@@ -599,6 +609,9 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
             case PRODUCER_FLOW_CONTROL:
                 overflowPolicyHandler = new ProducerFlowControlOverflowPolicyHandler(this, getEventLogger());
                 break;
+            case PRODUCER_FLOW_THROTTLING:
+                overflowPolicyHandler = new ProducerFlowThrottlingOverflowPolicyHandler(this, getEventLogger());
+                break;
             case FLOW_TO_DISK:
                 overflowPolicyHandler = new FlowToDiskOverflowPolicyHandler(this);
                 break;
@@ -2028,6 +2041,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
 
                 _stopped.set(true);
                 _queueHouseKeepingTask.cancel();
+                cancelMessageOperations();
 
                 performQueueDeleteTasks();
 
@@ -2122,9 +2136,18 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         _stopped.set(true);
         _closing = false;
         _queueHouseKeepingTask.cancel();
+        cancelMessageOperations();
         return Futures.immediateFuture(null);
     }
 
+    private void cancelMessageOperations()
+    {
+        synchronized (_messageOperations)
+        {
+            _messageOperations.values().forEach(BackgroundMessageOperation::cancel);
+        }
+    }
+
     @Override
     public void checkCapacity()
     {
@@ -2518,6 +2541,25 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         return _queueStatistics.getMalformedCount();
     }
 
+    @Override
+    public long getTotalFlowedToDiskBytes()
+    {
+        return _queueStatistics.getFlowedToDiskSize();
+    }
+
+    @Override
+    public long getFlowToDiskDistance()
+    {
+        return _flowToDiskDistance;
+    }
+
+    @Override
+    public void flowToDiskChecked(final long flowedToDiskBytes, final long flowToDiskDistance)
+    {
+        _queueStatistics.addToFlowedToDisk(flowedToDiskBytes);
+        _flowToDiskDistance = flowToDiskDistance;
+    }
+
     @Override
     public void reallocateMessages()
     {
@@ -3341,6 +3383,10 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         {
             return ((ProducerFlowControlOverflowPolicyHandler) _postEnqueueOverflowPolicyHandler).isQueueFlowStopped();
         }
+        else if (_postEnqueueOverflowPolicyHandler instanceof ProducerFlowThrottlingOverflowPolicyHandler)
+        {
+            return ((ProducerFlowThrottlingOverflowPolicyHandler) _postEnqueueOverflowPolicyHandler).isQueueFlowStopped();
+        }
         return false;
     }
 
@@ -3537,6 +3583,106 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         return transaction.getModifiedMessageIds();
     }
 
+    @Override
+    public Map<String, Object> startMessageOperation(final String operation,
+                                                     final Queue<?> destination,
+                                                     final List<Long> messageIds,
+                                                     final String selector,
+                                                     final int limit)
+    {
+        final BackgroundMessageOperation.Type type;
+        try
+        {
+            type = BackgroundMessageOperation.Type.valueOf(String.valueOf(operation).toUpperCase());
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException(String.format("Unknown message operation '%s'", operation));
+        }
+        if (type != BackgroundMessageOperation.Type.DELETE && destination == null)
+        {
+            throw new IllegalArgumentException(String.format("Message operation %s requires a destination", type));
+        }
+
+        final JMSSelectorFilter filter = parseSelector(selector);
+        final QueueEntryTransaction transaction;
+        switch (type)
+        {
+            case MOVE:
+                transaction = new MoveMessagesTransaction(this, messageIds, destination, filter, limit);
+                break;
+            case COPY:
+                transaction = new CopyMessagesTransaction(this, messageIds, destination, filter, limit);
+                break;
+            default:
+                transaction = new DeleteMessagesTransaction(this, messageIds, filter, limit);
+                break;
+        }
+
+        final BackgroundMessageOperation backgroundOperation =
+                new BackgroundMessageOperation(type,
+                                               type == BackgroundMessageOperation.Type.DELETE ? null : destination,
+                                               transaction,
+                                               _virtualHost);
+        synchronized (_messageOperations)
+        {
+            long finished = _messageOperations.values().stream().filter(BackgroundMessageOperation::isFinished).count();
+            final Iterator<BackgroundMessageOperation> iterator = _messageOperations.values().iterator();
+            while (finished >= MAX_RETAINED_FINISHED_MESSAGE_OPERATIONS && iterator.hasNext())
+            {
+                if (iterator.next().isFinished())
+                {
+                    iterator.remove();
+                    finished--;
+                }
+            }
+            _messageOperations.put(backgroundOperation.getId(), backgroundOperation);
+        }
+
+        final String taskName = String.format("Queue Message Operation : %s : %s", getName(), type);
+        _virtualHost.executeMessageOperationTask(taskName,
+                                                 backgroundOperation,
+                                                 getSystemTaskControllerContext(taskName, _virtualHost.getPrincipal()));
+        return backgroundOperation.getStatus();
+    }
+
+    @Override
+    public List<Map<String, Object>> getMessageOperations()
+    {
+        final List<Map<String, Object>> operations = new ArrayList<>();
+        synchronized (_messageOperations)
+        {
+            for (BackgroundMessageOperation operation : _messageOperations.values())
+            {
+                operations.add(operation.getStatus());
+            }
+        }
+        return operations;
+    }
+
+    @Override
+    public boolean cancelMessageOperation(final String id)
+    {
+        final BackgroundMessageOperation operation;
+        synchronized (_messageOperations)
+        {
+            try
+            {
+                operation = _messageOperations.get(UUID.fromString(id));
+            }
+            catch (IllegalArgumentException e)
+            {
+                throw new IllegalArgumentException(String.format("Invalid operation id '%s'", id));
+            }
+        }
+        if (operation == null || operation.isFinished())
+        {
+            return false;
+        }
+        operation.cancel();
+        return true;
+    }
+
     private JMSSelectorFilter parseSelector(final String selector)
     {
         try
@@ -23,6 +23,7 @@ package org.apache.qpid.server.queue;
 import java.util.Iterator;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +38,12 @@ public class AssignedConsumerMessageGroupManager implements MessageGroupManager
 
     private final String _groupId;
     private final ConcurrentMap<Integer, QueueConsumer<?,?>> _groupMap = new ConcurrentHashMap<>();
+    /**
+     * Entries which were passed over by other consumers because their group is assigned to the keyed consumer,
+     * ordered by queue position.  Used in place of a walk of the whole queue when the consumer's groups are released.
+     */
+    private final ConcurrentMap<QueueConsumer<?,?>, ConcurrentSkipListSet<QueueEntry>> _skippedEntries =
+            new ConcurrentHashMap<>();
     private final int _groupMask;
 
     AssignedConsumerMessageGroupManager(final String groupId, final int maxGroups)
@@ -67,14 +74,50 @@ public class AssignedConsumerMessageGroupManager implements MessageGroupManager
         else
         {
             QueueConsumer<?,?> assignedSub = _groupMap.get(groupVal.hashCode() & _groupMask);
-            return assignedSub == null || assignedSub == sub;
+            if(assignedSub == null || assignedSub == sub)
+            {
+                return true;
+            }
+            else
+            {
+                addSkippedEntry(assignedSub, entry);
+                return false;
+            }
         }
     }
 
     @Override
     public boolean acceptMessage(QueueConsumer<?,?> sub, QueueEntry entry)
     {
-        return assignMessage(sub, entry) && entry.acquire(sub);
+        if(assignMessage(sub, entry) && entry.acquire(sub))
+        {
+            final ConcurrentSkipListSet<QueueEntry> skippedEntries = _skippedEntries.get(sub);
+            if(skippedEntries != null)
+            {
+                skippedEntries.remove(entry);
+            }
+            return true;
+        }
+        else
+        {
+            return false;
+        }
+    }
+
+    private void addSkippedEntry(final QueueConsumer<?,?> assignedSub, final QueueEntry entry)
+    {
+        // the set is created when a group is assigned; an assignment cleared since it was read must not leave
+        // behind a set which would never be removed
+        final ConcurrentSkipListSet<QueueEntry> skippedEntries = _skippedEntries.get(assignedSub);
+        if(skippedEntries != null && skippedEntries.add(entry))
+        {
+            // discard entries at the head which have since been consumed by other means (e.g. expiry)
+            Iterator<QueueEntry> iterator = skippedEntries.iterator();
+            while(iterator.hasNext() && iterator.next().isDeleted())
+            {
+                iterator.remove();
+            }
+        }
     }
 
     private Object getGroupValue(final QueueEntry entry)
@@ -103,13 +146,16 @@ public class AssignedConsumerMessageGroupManager implements MessageGroupManager
                 if(assignedSub == null)
                 {
                     LOGGER.debug("Assigning group {} to sub {}", groupVal, sub);
+                    // created before the assignment is visible so that no skipped entry can be missed
+                    _skippedEntries.computeIfAbsent(sub, s -> new ConcurrentSkipListSet<>());
                     assignedSub = _groupMap.putIfAbsent(group, sub);
-                    return assignedSub == null || assignedSub == sub;
-                }
-                else
-                {
-                    return false;
+                    if(assignedSub == null || assignedSub == sub)
+                    {
+                        return true;
+                    }
                 }
+                addSkippedEntry(assignedSub, entry);
+                return false;
             }
         }
     }
@@ -117,52 +163,24 @@ public class AssignedConsumerMessageGroupManager implements MessageGroupManager
     @Override
     public QueueEntry findEarliestAssignedAvailableEntry(QueueConsumer<?,?> sub)
     {
-        EntryFinder visitor = new EntryFinder(sub);
-        sub.getQueue().visit(visitor);
-        return visitor.getEntry();
-    }
-
-    private class EntryFinder implements QueueEntryVisitor
-    {
-        private QueueEntry _entry;
-        private QueueConsumer<?,?> _sub;
-
-        EntryFinder(final QueueConsumer<?, ?> sub)
+        final ConcurrentSkipListSet<QueueEntry> skippedEntries = _skippedEntries.get(sub);
+        if(skippedEntries != null)
         {
-            _sub = sub;
-        }
-
-        @Override
-        public boolean visit(final QueueEntry entry)
-        {
-            if(!entry.isAvailable())
-            {
-                return false;
-            }
-
-            Object groupVal = getGroupValue(entry);
-            if(groupVal == null)
+            Iterator<QueueEntry> iterator = skippedEntries.iterator();
+            while(iterator.hasNext())
             {
-                return false;
-            }
-
-            Integer group = groupVal.hashCode() & _groupMask;
-            QueueConsumer<?,?> assignedSub = _groupMap.get(group);
-            if(assignedSub == _sub)
-            {
-                _entry = entry;
-                return true;
-            }
-            else
-            {
-                return false;
+                QueueEntry entry = iterator.next();
+                if(entry.isAvailable())
+                {
+                    return entry;
+                }
+                else if(entry.isDeleted())
+                {
+                    iterator.remove();
+                }
             }
         }
-
-        public QueueEntry getEntry()
-        {
-            return _entry;
-        }
+        return null;
     }
 
     @Override
@@ -176,5 +194,6 @@ public class AssignedConsumerMessageGroupManager implements MessageGroupManager
                 subIter.remove();
             }
         }
+        _skippedEntries.remove(sub);
     }
 }
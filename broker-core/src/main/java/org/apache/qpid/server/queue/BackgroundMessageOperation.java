@@ -0,0 +1,142 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
+
+/**
+ * A move, copy or delete of messages started by {@link Queue#startMessageOperation} which runs on the virtual host's
+ * message operation threads, committing its work in batches.
+ */
+final class BackgroundMessageOperation implements Runnable
+{
+    enum Type
+    {
+        MOVE, COPY, DELETE
+    }
+
+    enum Status
+    {
+        PENDING, RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    private final UUID _id = UUID.randomUUID();
+    private final Type _type;
+    private final Queue<?> _destination;
+    private final QueueEntryTransaction _transaction;
+    private final QueueManagingVirtualHost<?> _virtualHost;
+    private final long _createdTime = System.currentTimeMillis();
+    private volatile Status _status = Status.PENDING;
+    private volatile long _startTime;
+    private volatile long _endTime;
+    private volatile String _errorMessage;
+
+    BackgroundMessageOperation(final Type type,
+                               final Queue<?> destination,
+                               final QueueEntryTransaction transaction,
+                               final QueueManagingVirtualHost<?> virtualHost)
+    {
+        _type = type;
+        _destination = destination;
+        _transaction = transaction;
+        _transaction.countModifiedMessagesOnly();
+        _virtualHost = virtualHost;
+    }
+
+    UUID getId()
+    {
+        return _id;
+    }
+
+    boolean isFinished()
+    {
+        final Status status = _status;
+        return status == Status.COMPLETED || status == Status.CANCELLED || status == Status.FAILED;
+    }
+
+    void cancel()
+    {
+        _transaction.cancel();
+    }
+
+    @Override
+    public void run()
+    {
+        if (_transaction.isCancelled())
+        {
+            finish(Status.CANCELLED);
+            return;
+        }
+
+        _startTime = System.currentTimeMillis();
+        _status = Status.RUNNING;
+        try
+        {
+            _virtualHost.executeBatchedTransaction(_transaction);
+            finish(_transaction.isCancelled() ? Status.CANCELLED : Status.COMPLETED);
+        }
+        catch (RuntimeException e)
+        {
+            _errorMessage = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            finish(Status.FAILED);
+            throw e;
+        }
+    }
+
+    private void finish(final Status status)
+    {
+        _endTime = System.currentTimeMillis();
+        _status = status;
+    }
+
+    Map<String, Object> getStatus()
+    {
+        final Map<String, Object> status = new LinkedHashMap<>();
+        status.put("id", _id.toString());
+        status.put("operation", _type.name());
+        if (_destination != null)
+        {
+            status.put("destination", _destination.getName());
+        }
+        status.put("status", _status.name());
+        status.put("messagesProcessed", _transaction.getModifiedMessageCount());
+        status.put("createdTime", new Date(_createdTime));
+        if (_startTime != 0)
+        {
+            status.put("startTime", new Date(_startTime));
+        }
+        if (_endTime != 0)
+        {
+            status.put("endTime", new Date(_endTime));
+        }
+        if (_errorMessage != null)
+        {
+            status.put("errorMessage", _errorMessage);
+        }
+        return status;
+    }
+}
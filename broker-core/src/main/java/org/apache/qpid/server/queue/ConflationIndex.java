@@ -0,0 +1,210 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+/**
+ * Maps conflation key values to the latest entry for that key.
+ * <p>
+ * The index is split into lock-striped segments, each an open-addressing hash table with linear probing held in a
+ * pair of parallel arrays, so no object is allocated per key beyond the key itself (which the message header already
+ * holds). Removal uses backward shift deletion, so no tombstones accumulate as keys come and go.
+ */
+class ConflationIndex<E extends Comparable<? super E>>
+{
+    private static final int SEGMENT_BITS = 4;
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+    private final Segment<E>[] _segments;
+
+    @SuppressWarnings("unchecked")
+    ConflationIndex()
+    {
+        _segments = new Segment[1 << SEGMENT_BITS];
+        for (int i = 0; i < _segments.length; i++)
+        {
+            _segments[i] = new Segment<>();
+        }
+    }
+
+    /**
+     * Makes the given entry the latest for the key unless a newer entry is already present.
+     *
+     * @return the entry superseded by this operation: the previous entry for the key if it was older, the given
+     * entry if a newer entry was already present, or null if there was no entry for the key
+     */
+    E putIfNewer(final Object key, final E entry)
+    {
+        final int hash = hash(key);
+        return segmentFor(hash).putIfNewer(key, hash, entry);
+    }
+
+    E get(final Object key)
+    {
+        final int hash = hash(key);
+        return segmentFor(hash).get(key, hash);
+    }
+
+    /**
+     * Removes the mapping for the key only if it is currently mapped to the given entry.
+     */
+    boolean remove(final Object key, final E entry)
+    {
+        final int hash = hash(key);
+        return segmentFor(hash).remove(key, hash, entry);
+    }
+
+    int size()
+    {
+        int size = 0;
+        for (Segment<E> segment : _segments)
+        {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment<E> segmentFor(final int hash)
+    {
+        return _segments[hash >>> (32 - SEGMENT_BITS)];
+    }
+
+    private static int hash(final Object key)
+    {
+        final int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Segment<E extends Comparable<? super E>>
+    {
+        private Object[] _keys = new Object[INITIAL_SEGMENT_CAPACITY];
+        private Object[] _entries = new Object[INITIAL_SEGMENT_CAPACITY];
+        private int _size;
+
+        synchronized E putIfNewer(final Object key, final int hash, final E entry)
+        {
+            final int mask = _keys.length - 1;
+            int index = hash & mask;
+            Object existingKey;
+            while ((existingKey = _keys[index]) != null)
+            {
+                if (existingKey.equals(key))
+                {
+                    @SuppressWarnings("unchecked")
+                    final E existing = (E) _entries[index];
+                    if (existing.compareTo(entry) < 0)
+                    {
+                        _entries[index] = entry;
+                        return existing;
+                    }
+                    return existing == entry ? null : entry;
+                }
+                index = (index + 1) & mask;
+            }
+            _keys[index] = key;
+            _entries[index] = entry;
+            if (++_size > (_keys.length >> 1))
+            {
+                resize();
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized E get(final Object key, final int hash)
+        {
+            final int index = indexOf(key, hash);
+            return index < 0 ? null : (E) _entries[index];
+        }
+
+        synchronized boolean remove(final Object key, final int hash, final E entry)
+        {
+            int index = indexOf(key, hash);
+            if (index < 0 || _entries[index] != entry)
+            {
+                return false;
+            }
+
+            // backward shift deletion: move later members of the probe sequence into the gap
+            final int mask = _keys.length - 1;
+            int next = (index + 1) & mask;
+            Object nextKey;
+            while ((nextKey = _keys[next]) != null)
+            {
+                final int home = hash(nextKey) & mask;
+                if (((next - home) & mask) >= ((next - index) & mask))
+                {
+                    _keys[index] = nextKey;
+                    _entries[index] = _entries[next];
+                    index = next;
+                }
+                next = (next + 1) & mask;
+            }
+            _keys[index] = null;
+            _entries[index] = null;
+            _size--;
+            return true;
+        }
+
+        synchronized int size()
+        {
+            return _size;
+        }
+
+        private int indexOf(final Object key, final int hash)
+        {
+            final int mask = _keys.length - 1;
+            int index = hash & mask;
+            Object existingKey;
+            while ((existingKey = _keys[index]) != null)
+            {
+                if (existingKey.equals(key))
+                {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void resize()
+        {
+            final Object[] oldKeys = _keys;
+            final Object[] oldEntries = _entries;
+            _keys = new Object[oldKeys.length << 1];
+            _entries = new Object[oldKeys.length << 1];
+            final int mask = _keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++)
+            {
+                final Object key = oldKeys[i];
+                if (key != null)
+                {
+                    int index = hash(key) & mask;
+                    while (_keys[index] != null)
+                    {
+                        index = (index + 1) & mask;
+                    }
+                    _keys[index] = key;
+                    _entries[index] = oldEntries[i];
+                }
+            }
+        }
+    }
+}
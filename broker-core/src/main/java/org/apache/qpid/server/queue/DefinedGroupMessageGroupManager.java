@@ -21,7 +21,9 @@
 package org.apache.qpid.server.queue;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -41,6 +43,7 @@ public class DefinedGroupMessageGroupManager implements MessageGroupManager
     private final String _groupId;
     private final String _defaultGroup;
     private final Map<Object, Group> _groupMap = new HashMap<>();
+    private final Map<QueueConsumer<?,?>, Set<Group>> _consumerGroups = new HashMap<>();
     private final ConsumerResetHelper _resetHelper;
 
     private final class Group
@@ -78,6 +81,7 @@ public class DefinedGroupMessageGroupManager implements MessageGroupManager
             if(--_activeCount == 0)
             {
                 _groupMap.remove(_group);
+                removeConsumerGroup(this);
                 if(!_skippedEntries.isEmpty())
                 {
                     _resetHelper.resetSubPointersForGroups(_skippedEntries.first());
@@ -134,6 +138,18 @@ public class DefinedGroupMessageGroupManager implements MessageGroupManager
         {
             _skippedEntries.add(entry);
         }
+
+        QueueEntry getEarliestAvailableSkippedEntry()
+        {
+            for(QueueEntry entry : _skippedEntries)
+            {
+                if(entry.isAvailable())
+                {
+                    return entry;
+                }
+            }
+            return null;
+        }
     }
 
     DefinedGroupMessageGroupManager(final String groupId, String defaultGroup, ConsumerResetHelper resetHelper)
@@ -170,9 +186,14 @@ public class DefinedGroupMessageGroupManager implements MessageGroupManager
 
         if(group == null || !group.isValid())
         {
+            if(group != null)
+            {
+                removeConsumerGroup(group);
+            }
             group = new Group(groupId, sub);
 
             _groupMap.put(groupId, group);
+            _consumerGroups.computeIfAbsent(sub, s -> new HashSet<>()).add(group);
 
             // there's a small chance that the group became empty between the point at which getNextAvailable() was
             // called on the consumer, and when accept message is called... in that case we want to avoid delivering
@@ -200,53 +221,37 @@ public class DefinedGroupMessageGroupManager implements MessageGroupManager
     @Override
     public synchronized QueueEntry findEarliestAssignedAvailableEntry(final QueueConsumer<?,?> sub)
     {
-        EntryFinder visitor = new EntryFinder(sub);
-        sub.getQueue().visit(visitor);
-        return visitor.getEntry();
-    }
-
-    private class EntryFinder implements QueueEntryVisitor
-    {
-        private QueueEntry _entry;
-        private QueueConsumer<?,?> _sub;
-
-        EntryFinder(final QueueConsumer<?, ?> sub)
+        QueueEntry earliest = null;
+        final Set<Group> groups = _consumerGroups.get(sub);
+        if(groups != null)
         {
-            _sub = sub;
-        }
-
-        @Override
-        public boolean visit(final QueueEntry entry)
-        {
-            if(!entry.isAvailable())
-            {
-                return false;
-            }
-
-            Object groupId = getKey(entry);
-
-            Group group = _groupMap.get(groupId);
-            if(group != null && group.getConsumer() == _sub)
+            for(Group group : groups)
             {
-                _entry = entry;
-                return true;
-            }
-            else
-            {
-                return false;
+                QueueEntry entry = group.getEarliestAvailableSkippedEntry();
+                if(entry != null && (earliest == null || entry.compareTo(earliest) < 0))
+                {
+                    earliest = entry;
+                }
             }
         }
+        return earliest;
+    }
 
-        public QueueEntry getEntry()
+    private void removeConsumerGroup(final Group group)
+    {
+        final QueueConsumer<?,?> consumer = group.getConsumer();
+        final Set<Group> groups = consumer == null ? null : _consumerGroups.get(consumer);
+        if(groups != null && groups.remove(group) && groups.isEmpty())
         {
-            return _entry;
+            _consumerGroups.remove(consumer);
         }
     }
 
     
     @Override
-    public void clearAssignments(final QueueConsumer<?,?> sub)
+    public synchronized void clearAssignments(final QueueConsumer<?,?> sub)
     {
+        _consumerGroups.remove(sub);
     }
     
     private Object getKey(QueueEntry entry)
@@ -23,7 +23,10 @@ package org.apache.qpid.server.queue;
 import org.apache.qpid.server.model.ManagedAttribute;
 import org.apache.qpid.server.model.ManagedContextDefault;
 import org.apache.qpid.server.model.ManagedObject;
+import org.apache.qpid.server.model.ManagedStatistic;
 import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.model.StatisticType;
+import org.apache.qpid.server.model.StatisticUnit;
 
 @ManagedObject( category = false, type= LastValueQueue.LAST_VALUE_QUEUE_TYPE,
         amqpName = "org.apache.qpid.LastValueQueue")
@@ -35,6 +38,22 @@ public interface LastValueQueue<X extends LastValueQueue<X>> extends Queue<X>
     String DEFAULT_LVQ_KEY = "qpid.LVQ_key";
     String LAST_VALUE_QUEUE_TYPE = "lvq";
 
+    String COMPACT_CONFLATION_INDEX = "queue.lvq.compactConflationIndex";
+    @ManagedContextDefault(name = COMPACT_CONFLATION_INDEX,
+            description = "If true, last value queues track the latest entry for each conflation key in an"
+                          + " open-addressing index rather than a concurrent map of per-key references.")
+    boolean DEFAULT_COMPACT_CONFLATION_INDEX = false;
+
     @ManagedAttribute(defaultValue = "${queue.lvqKey}")
     String getLvqKey();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.COUNT, label = "Conflation Keys",
+                      description = "Current number of distinct conflation key values held by this queue.")
+    int getConflationKeyCount();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.MESSAGES, label = "Conflated",
+                      description = "Total number of messages replaced by a newer message with the same conflation key.")
+    long getConflatedMessages();
 }
@@ -58,4 +58,16 @@ public class LastValueQueueImpl extends AbstractQueue<LastValueQueueImpl> implem
     {
         return _lvqKey;
     }
+
+    @Override
+    public int getConflationKeyCount()
+    {
+        return _entries == null ? 0 : _entries.getConflationKeyCount();
+    }
+
+    @Override
+    public long getConflatedMessages()
+    {
+        return _entries == null ? 0L : _entries.getReplacedEntryCount();
+    }
 }
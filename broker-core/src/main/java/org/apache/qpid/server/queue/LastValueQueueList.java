@@ -25,6 +25,7 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.slf4j.Logger;
@@ -54,6 +55,9 @@ public class LastValueQueueList extends OrderedQueueEntryList
     private final ConcurrentMap<Object, AtomicReference<ConflationQueueEntry>> _latestValuesMap =
         new ConcurrentHashMap<Object, AtomicReference<ConflationQueueEntry>>();
 
+    private final ConflationIndex<ConflationQueueEntry> _conflationIndex;
+    private final AtomicLong _replacedEntries = new AtomicLong();
+
     private final ConflationQueueEntry _deleteInProgress = new ConflationQueueEntry(this);
     private final ConflationQueueEntry _newerEntryAlreadyBeenAndGone = new ConflationQueueEntry(this);
 
@@ -61,6 +65,9 @@ public class LastValueQueueList extends OrderedQueueEntryList
     {
         super(queue, queueStatistics, HEAD_CREATOR);
         _conflationKey = queue.getLvqKey();
+        _conflationIndex = queue.getContextValue(Boolean.class, LastValueQueue.COMPACT_CONFLATION_INDEX)
+                ? new ConflationIndex<>()
+                : null;
     }
 
     private ConflationQueueEntry createHead()
@@ -86,7 +93,11 @@ public class LastValueQueueList extends OrderedQueueEntryList
         final ConflationQueueEntry addedEntry = (ConflationQueueEntry) super.add(message, enqueueRecord);
 
         final Object keyValue = message.getMessageHeader().getHeader(_conflationKey);
-        if (keyValue != null)
+        if (keyValue != null && _conflationIndex != null)
+        {
+            addToConflationIndex(addedEntry, keyValue);
+        }
+        else if (keyValue != null)
         {
             if(LOGGER.isDebugEnabled())
             {
@@ -121,6 +132,7 @@ public class LastValueQueueList extends OrderedQueueEntryList
 
             if (entryFromMap == _newerEntryAlreadyBeenAndGone)
             {
+                _replacedEntries.incrementAndGet();
                 discardEntry(addedEntry);
             }
             else if (entryFromMap.compareTo(addedEntry) > 0)
@@ -129,6 +141,7 @@ public class LastValueQueueList extends OrderedQueueEntryList
                 {
                     LOGGER.debug("New entry " + addedEntry.getEntryId() + " for message " + addedEntry.getMessage().getMessageNumber() + " being immediately discarded because a newer entry arrived. The newer entry is: " + entryFromMap + " for message " + entryFromMap.getMessage().getMessageNumber());
                 }
+                _replacedEntries.incrementAndGet();
                 discardEntry(addedEntry);
             }
             else if (entryFromMap.compareTo(addedEntry) < 0)
@@ -137,6 +150,7 @@ public class LastValueQueueList extends OrderedQueueEntryList
                 {
                     LOGGER.debug("Entry " + addedEntry + " for message " + addedEntry.getMessage().getMessageNumber() + " replacing older entry " + entryFromMap + " for message " + entryFromMap.getMessage().getMessageNumber());
                 }
+                _replacedEntries.incrementAndGet();
                 discardEntry(entryFromMap);
             }
 
@@ -146,6 +160,43 @@ public class LastValueQueueList extends OrderedQueueEntryList
         return addedEntry;
     }
 
+    private void addToConflationIndex(final ConflationQueueEntry addedEntry, final Object keyValue)
+    {
+        addedEntry.setConflationKeyValue(keyValue);
+        final ConflationQueueEntry supersededEntry = _conflationIndex.putIfNewer(keyValue, addedEntry);
+        if (supersededEntry != null)
+        {
+            if(LOGGER.isDebugEnabled())
+            {
+                LOGGER.debug("Entry " + supersededEntry + " with conflation key " + keyValue + " superseded on arrival of entry " + addedEntry);
+            }
+            _replacedEntries.incrementAndGet();
+            discardEntry(supersededEntry);
+        }
+
+        // the entry may have been deleted before it was indexed, in which case it must not be left in the index
+        if (addedEntry.isDeleted())
+        {
+            _conflationIndex.remove(keyValue, addedEntry);
+        }
+    }
+
+    /**
+     * @return the number of distinct conflation key values currently held
+     */
+    int getConflationKeyCount()
+    {
+        return _conflationIndex == null ? _latestValuesMap.size() : _conflationIndex.size();
+    }
+
+    /**
+     * @return the number of entries which have been superseded by a newer entry with the same conflation key value
+     */
+    long getReplacedEntryCount()
+    {
+        return _replacedEntries.get();
+    }
+
     @Override
     public QueueEntry getLeastSignificantOldestEntry()
     {
@@ -204,6 +255,7 @@ public class LastValueQueueList extends OrderedQueueEntryList
     {
 
         private AtomicReference<ConflationQueueEntry> _latestValueReference;
+        private Object _conflationKeyValue;
 
         private ConflationQueueEntry(final LastValueQueueList queueEntryList)
         {
@@ -236,7 +288,11 @@ public class LastValueQueueList extends OrderedQueueEntryList
         @Override
         protected void onDelete()
         {
-            if(_latestValueReference != null && _latestValueReference.compareAndSet(this, _deleteInProgress))
+            if(_conflationKeyValue != null)
+            {
+                _conflationIndex.remove(_conflationKeyValue, this);
+            }
+            else if(_latestValueReference != null && _latestValueReference.compareAndSet(this, _deleteInProgress))
             {
                 Object key = getMessage().getMessageHeader().getHeader(_conflationKey);
                 _latestValuesMap.remove(key,_latestValueReference);
@@ -258,9 +314,21 @@ public class LastValueQueueList extends OrderedQueueEntryList
             }
         }
 
+        void setConflationKeyValue(final Object conflationKeyValue)
+        {
+            _conflationKeyValue = conflationKeyValue;
+        }
+
         private void discardIfReleasedEntryIsNoLongerLatest()
         {
-            if(_latestValueReference != null)
+            if(_conflationKeyValue != null)
+            {
+                if(_conflationIndex.get(_conflationKeyValue) != this)
+                {
+                    discardEntry(this);
+                }
+            }
+            else if(_latestValueReference != null)
             {
                 if(_latestValueReference.get() != this)
                 {
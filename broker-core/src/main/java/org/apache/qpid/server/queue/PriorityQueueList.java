@@ -20,6 +20,8 @@
 */
 package org.apache.qpid.server.queue;
 
+import java.util.concurrent.atomic.AtomicLongArray;
+
 import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.store.MessageEnqueueRecord;
 
@@ -51,6 +53,12 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
                 };
         private final PriorityQueueImpl _queue;
         private final PriorityQueueEntrySubList[] _priorityLists;
+        /**
+         * One bit per priority level which is set whenever the level may hold a valid entry.  A bit is only cleared
+         * after the sub list has been found empty, and is re-set if the sub list is found non-empty on a re-check,
+         * so a set bit may be stale but a clear bit never hides an entry.
+         */
+        private final AtomicLongArray _nonEmptyLevels;
         private final int _priorities;
         private final int _priorityOffset;
 
@@ -59,8 +67,11 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
             super(queue, DUMMY_HEAD_CREATOR);
             _queue = queue;
             _priorityLists = new PriorityQueueEntrySubList[priorities];
+            _nonEmptyLevels = new AtomicLongArray((priorities + 63) >>> 6);
             _priorities = priorities;
-            _priorityOffset = 5-((priorities + 1)/2);
+            // fewer levels than the JMS range of 0-9 are centred on the default priority; with more levels
+            // message priorities map directly onto levels
+            _priorityOffset = Math.max(0, 5-((priorities + 1)/2));
             for(int i = 0; i < priorities; i++)
             {
                 _priorityLists[i] = new PriorityQueueEntrySubList(queue, i);
@@ -82,7 +93,8 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
         @Override
         public PriorityQueueEntry add(ServerMessage message, final MessageEnqueueRecord enqueueRecord)
         {
-            int index = message.getMessageHeader().getPriority() - _priorityOffset;
+            // priorities are unsigned octets, AMQP 1.0 permits the full 0-255 range
+            int index = (message.getMessageHeader().getPriority() & 0xFF) - _priorityOffset;
             if(index >= _priorities)
             {
                 index = _priorities-1;
@@ -91,7 +103,9 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
             {
                 index = 0;
             }
-            return (PriorityQueueEntry) _priorityLists[index].add(message, enqueueRecord);
+            final PriorityQueueEntry entry = (PriorityQueueEntry) _priorityLists[index].add(message, enqueueRecord);
+            markNonEmpty(index);
+            return entry;
 
         }
 
@@ -109,43 +123,99 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
 
             if(next == null)
             {
-                final PriorityQueueList nodeEntryList = (PriorityQueueList) ((PriorityQueueEntry)node).getQueueEntryList();
-                int index;
-                for(index = _priorityLists.length-1; _priorityLists[index] != nodeEntryList; index--)
+                final PriorityQueueEntrySubList nodeEntryList =
+                        (PriorityQueueEntrySubList) ((PriorityQueueEntry)node).getQueueEntryList();
+                int index = nodeEntryList.getListPriority();
+
+                while(next == null && (index = highestNonEmptyLevelBelow(index)) >= 0)
                 {
-                    // do nothing loop is just to find the index
+                    next = firstValidEntry(index);
                 }
 
-                while(next == null && index != 0)
+            }
+            return next;
+        }
+
+        private void markNonEmpty(final int level)
+        {
+            final int word = level >>> 6;
+            final long bit = 1L << (level & 63);
+            long bits;
+            while(((bits = _nonEmptyLevels.get(word)) & bit) == 0L
+                  && !_nonEmptyLevels.compareAndSet(word, bits, bits | bit))
+            {
+                // retry
+            }
+        }
+
+        private void markEmpty(final int level)
+        {
+            final int word = level >>> 6;
+            final long bit = 1L << (level & 63);
+            long bits;
+            while(((bits = _nonEmptyLevels.get(word)) & bit) != 0L
+                  && !_nonEmptyLevels.compareAndSet(word, bits, bits & ~bit))
+            {
+                // retry
+            }
+        }
+
+        /**
+         * @return the highest level strictly below {@code level} whose non-empty bit is set, or -1 if there is none
+         */
+        int highestNonEmptyLevelBelow(final int level)
+        {
+            if(level <= 0)
+            {
+                return -1;
+            }
+            int word = (level - 1) >>> 6;
+            long bits = _nonEmptyLevels.get(word) & (-1L >>> (63 - ((level - 1) & 63)));
+            while(bits == 0L)
+            {
+                if(--word < 0)
                 {
-                    index--;
-                    next = (PriorityQueueEntry) _priorityLists[index].getHead().getNextValidEntry();
+                    return -1;
                 }
+                bits = _nonEmptyLevels.get(word);
+            }
+            return (word << 6) + 63 - Long.numberOfLeadingZeros(bits);
+        }
 
+        private PriorityQueueEntry firstValidEntry(final int level)
+        {
+            final QueueEntry head = _priorityLists[level].getHead();
+            PriorityQueueEntry first = (PriorityQueueEntry) head.getNextValidEntry();
+            if(first == null)
+            {
+                markEmpty(level);
+                // re-check in case an entry was added concurrently before the bit was cleared
+                first = (PriorityQueueEntry) head.getNextValidEntry();
+                if(first != null)
+                {
+                    markNonEmpty(level);
+                }
             }
-            return next;
+            return first;
         }
 
         private final class PriorityQueueEntryListIterator implements QueueEntryIterator
         {
+            // created lazily so that levels which never receive a message cost nothing to iterate
             private final QueueEntryIterator[] _iterators = new QueueEntryIterator[ _priorityLists.length ];
             private PriorityQueueEntry _lastNode;
 
             PriorityQueueEntryListIterator()
             {
-                for(int i = 0; i < _priorityLists.length; i++)
-                {
-                    _iterators[i] = _priorityLists[i].iterator();
-                }
-                _lastNode = (PriorityQueueEntry) _iterators[_iterators.length - 1].getNode();
+                _lastNode = (PriorityQueueEntry) _priorityLists[_priorityLists.length - 1].getHead();
             }
 
             @Override
             public boolean atTail()
             {
-                for(int i = 0; i < _iterators.length; i++)
+                for(int i = highestNonEmptyLevelBelow(_iterators.length); i >= 0; i = highestNonEmptyLevelBelow(i))
                 {
-                    if(!_iterators[i].atTail())
+                    if(!getIterator(i).atTail())
                     {
                         return false;
                     }
@@ -162,16 +232,28 @@ abstract public class PriorityQueueList extends OrderedQueueEntryList
             @Override
             public boolean advance()
             {
-                for(int i = _iterators.length-1; i >= 0; i--)
+                for(int i = highestNonEmptyLevelBelow(_iterators.length); i >= 0; i = highestNonEmptyLevelBelow(i))
                 {
-                    if(_iterators[i].advance())
+                    final QueueEntryIterator iterator = getIterator(i);
+                    if(iterator.advance())
                     {
-                        _lastNode = (PriorityQueueEntry) _iterators[i].getNode();
+                        _lastNode = (PriorityQueueEntry) iterator.getNode();
                         return true;
                     }
                 }
                 return false;
             }
+
+            private QueueEntryIterator getIterator(final int level)
+            {
+                QueueEntryIterator iterator = _iterators[level];
+                if(iterator == null)
+                {
+                    iterator = _priorityLists[level].iterator();
+                    _iterators[level] = iterator;
+                }
+                return iterator;
+            }
         }
 
         @Override
@@ -0,0 +1,510 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.qpid.server.queue;
+
+import java.security.AccessController;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.security.auth.Subject;
+
+import org.apache.qpid.server.connection.SessionPrincipal;
+import org.apache.qpid.server.logging.EventLogger;
+import org.apache.qpid.server.logging.messages.QueueMessages;
+import org.apache.qpid.server.model.AbstractConfigurationChangeListener;
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.model.OverflowPolicy;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.session.AMQPSession;
+import org.apache.qpid.server.util.Action;
+
+/**
+ * Shapes producers as the queue fills rather than stopping them only once it is full.
+ * <p>
+ * While the queue depth lies between the throttle start limit and the maximum, each publishing session is paused
+ * once per throttle period for a share of that period proportional to how far the depth has progressed towards the
+ * maximum. Once the maximum is breached, publishing sessions are blocked as with
+ * {@link ProducerFlowControlOverflowPolicyHandler} until the depth falls to the flow resume limit. Pausing and
+ * blocking both use the existing session blocking hooks, so each protocol stops credit or links to this queue in the
+ * same way as for producer flow control.
+ */
+public class ProducerFlowThrottlingOverflowPolicyHandler implements OverflowPolicyHandler
+{
+    private final Handler _handler;
+
+    ProducerFlowThrottlingOverflowPolicyHandler(Queue<?> queue, EventLogger eventLogger)
+    {
+        _handler = new Handler(queue, eventLogger);
+        queue.addChangeListener(_handler);
+    }
+
+    boolean isQueueFlowStopped()
+    {
+        return _handler.isQueueFlowStopped();
+    }
+
+    @Override
+    public void checkOverflow(final QueueEntry newlyEnqueued)
+    {
+        _handler.checkOverflow(newlyEnqueued);
+    }
+
+    private static class Handler extends AbstractConfigurationChangeListener
+    {
+        private final Queue<?> _queue;
+        private final EventLogger _eventLogger;
+        private final AtomicBoolean _overfullReported = new AtomicBoolean(false);
+        private final ConcurrentMap<AMQPSession<?, ?>, SessionThrottle> _sessionThrottles = new ConcurrentHashMap<>();
+        private final Set<AMQPSession<?, ?>> _blockedSessions = ConcurrentHashMap.newKeySet();
+        private volatile long _nextPruneTime;
+        private volatile double _queueFlowResumeLimit;
+        private volatile double _queueFlowThrottleStartLimit;
+        private volatile long _queueFlowThrottlePeriod;
+        private boolean _checkCapacity;
+
+        private Handler(final Queue<?> queue, final EventLogger eventLogger)
+        {
+            _queue = queue;
+            _eventLogger = eventLogger;
+            updateLimits();
+        }
+
+        private boolean updateLimits()
+        {
+            final Double resumeLimit = _queue.getContextValue(Double.class, Queue.QUEUE_FLOW_RESUME_LIMIT);
+            final Double throttleStartLimit = _queue.getContextValue(Double.class, Queue.QUEUE_FLOW_THROTTLE_START_LIMIT);
+            final Long throttlePeriod = _queue.getContextValue(Long.class, Queue.QUEUE_FLOW_THROTTLE_PERIOD);
+
+            final double queueFlowResumeLimit = resumeLimit == null ? 0 : resumeLimit;
+            final double queueFlowThrottleStartLimit = throttleStartLimit == null ? 100.0 : throttleStartLimit;
+            final long queueFlowThrottlePeriod = throttlePeriod == null ? 0L : throttlePeriod;
+            final boolean changed = queueFlowResumeLimit != _queueFlowResumeLimit
+                                    || queueFlowThrottleStartLimit != _queueFlowThrottleStartLimit
+                                    || queueFlowThrottlePeriod != _queueFlowThrottlePeriod;
+            _queueFlowResumeLimit = queueFlowResumeLimit;
+            _queueFlowThrottleStartLimit = queueFlowThrottleStartLimit;
+            _queueFlowThrottlePeriod = queueFlowThrottlePeriod;
+            return changed;
+        }
+
+        private void checkOverflow(final QueueEntry newlyEnqueued)
+        {
+            long maximumQueueDepthBytes = _queue.getMaximumQueueDepthBytes();
+            long maximumQueueDepthMessages = _queue.getMaximumQueueDepthMessages();
+            if (maximumQueueDepthBytes >= 0L || maximumQueueDepthMessages >= 0L)
+            {
+                checkOverfull(newlyEnqueued, maximumQueueDepthBytes, maximumQueueDepthMessages);
+            }
+
+            checkUnderfull(maximumQueueDepthBytes, maximumQueueDepthMessages);
+        }
+
+        @Override
+        public void attributeSet(final ConfiguredObject<?> object,
+                                 final String attributeName,
+                                 final Object oldAttributeValue,
+                                 final Object newAttributeValue)
+        {
+            super.attributeSet(object, attributeName, oldAttributeValue, newAttributeValue);
+            if (Queue.CONTEXT.equals(attributeName) && updateLimits())
+            {
+                _checkCapacity = true;
+            }
+            if (Queue.MAXIMUM_QUEUE_DEPTH_BYTES.equals(attributeName)
+                || Queue.MAXIMUM_QUEUE_DEPTH_MESSAGES.equals(attributeName))
+            {
+                _checkCapacity = true;
+            }
+        }
+
+        @Override
+        public void bulkChangeEnd(final ConfiguredObject<?> object)
+        {
+            super.bulkChangeEnd(object);
+            if (_queue.getOverflowPolicy() == OverflowPolicy.PRODUCER_FLOW_THROTTLING)
+            {
+                if (_checkCapacity)
+                {
+                    _checkCapacity = false;
+                    checkUnderfull(_queue.getMaximumQueueDepthBytes(), _queue.getMaximumQueueDepthMessages());
+                }
+            }
+            else
+            {
+                _queue.removeChangeListener(this);
+                checkUnderfull(-1, -1);
+                for (Map.Entry<AMQPSession<?, ?>, SessionThrottle> entry : _sessionThrottles.entrySet())
+                {
+                    final AMQPSession<?, ?> session = entry.getKey();
+                    final SessionThrottle throttle = entry.getValue();
+                    throttle.release(session);
+                    session.removeDeleteTask(throttle.getSessionDeleteTask());
+                }
+                _sessionThrottles.clear();
+                _blockedSessions.clear();
+            }
+        }
+
+        boolean isQueueFlowStopped()
+        {
+            return _overfullReported.get();
+        }
+
+        private void checkUnderfull(long maximumQueueDepthBytes, long maximumQueueDepthMessages)
+        {
+            long queueDepthBytes = _queue.getQueueDepthBytes();
+            long queueDepthMessages = _queue.getQueueDepthMessages();
+
+            if (isUnderfull(queueDepthBytes, maximumQueueDepthBytes)
+                && isUnderfull(queueDepthMessages, maximumQueueDepthMessages))
+            {
+                if (_overfullReported.compareAndSet(true, false))
+                {
+                    _eventLogger.message(_queue.getLogSubject(),
+                                         QueueMessages.UNDERFULL(queueDepthBytes,
+                                                                 getLimit(maximumQueueDepthBytes, _queueFlowResumeLimit),
+                                                                 queueDepthMessages,
+                                                                 getLimit(maximumQueueDepthMessages, _queueFlowResumeLimit)));
+                }
+
+                for (final AMQPSession<?, ?> blockedSession : _blockedSessions)
+                {
+                    final SessionThrottle throttle = _sessionThrottles.get(blockedSession);
+                    if (throttle != null)
+                    {
+                        throttle.unblock(blockedSession);
+                    }
+                    _blockedSessions.remove(blockedSession);
+                }
+
+                final long now = System.currentTimeMillis();
+                if (!_sessionThrottles.isEmpty() && now >= _nextPruneTime
+                    && getFillRatio(queueDepthBytes, maximumQueueDepthBytes, queueDepthMessages, maximumQueueDepthMessages)
+                       < _queueFlowThrottleStartLimit / 100.0)
+                {
+                    _nextPruneTime = now + _queueFlowThrottlePeriod;
+                    pruneIdleSessionThrottles(now);
+                }
+            }
+        }
+
+        private void checkOverfull(final QueueEntry newlyEnqueued,
+                                   final long maximumQueueDepthBytes,
+                                   final long maximumQueueDepthMessages)
+        {
+            final long queueDepthBytes = _queue.getQueueDepthBytes();
+            final long queueDepthMessages = _queue.getQueueDepthMessages();
+
+            if ((maximumQueueDepthBytes >= 0L && queueDepthBytes > maximumQueueDepthBytes) ||
+                (maximumQueueDepthMessages >= 0L && queueDepthMessages > maximumQueueDepthMessages))
+            {
+                final AMQPSession<?, ?> session = getPublishingSession(newlyEnqueued);
+                if (session != null)
+                {
+                    if (_overfullReported.compareAndSet(false, true))
+                    {
+                        _eventLogger.message(_queue.getLogSubject(),
+                                             QueueMessages.OVERFULL(queueDepthBytes,
+                                                                    maximumQueueDepthBytes,
+                                                                    queueDepthMessages,
+                                                                    maximumQueueDepthMessages));
+                    }
+
+                    _blockedSessions.add(session);
+                    SessionThrottle throttle = getSessionThrottle(session);
+                    while (!throttle.block(session))
+                    {
+                        throttle = getEvictedSessionThrottleReplacement(session, throttle);
+                    }
+                }
+            }
+            else
+            {
+                final double fillRatio =
+                        getFillRatio(queueDepthBytes, maximumQueueDepthBytes, queueDepthMessages, maximumQueueDepthMessages);
+                final double startRatio = _queueFlowThrottleStartLimit / 100.0;
+                final long throttlePeriod = _queueFlowThrottlePeriod;
+                if (fillRatio >= startRatio && startRatio < 1.0 && throttlePeriod > 0L)
+                {
+                    final long pause = Math.round(throttlePeriod * (fillRatio - startRatio) / (1.0 - startRatio));
+                    final AMQPSession<?, ?> session = pause > 0L ? getPublishingSession(newlyEnqueued) : null;
+                    if (session != null)
+                    {
+                        SessionThrottle throttle = getSessionThrottle(session);
+                        ThrottleOutcome outcome;
+                        while ((outcome = throttle.throttle(session, pause, throttlePeriod)) == ThrottleOutcome.EVICTED)
+                        {
+                            throttle = getEvictedSessionThrottleReplacement(session, throttle);
+                        }
+                        if (outcome == ThrottleOutcome.STARTED)
+                        {
+                            final SessionThrottle startedThrottle = throttle;
+                            _queue.getVirtualHost().scheduleTask(pause, () -> startedThrottle.endThrottle(session));
+                        }
+                    }
+                }
+            }
+        }
+
+        private SessionThrottle getSessionThrottle(final AMQPSession<?, ?> session)
+        {
+            final SessionThrottle throttle = _sessionThrottles.get(session);
+            if (throttle != null)
+            {
+                return throttle;
+            }
+
+            final SessionThrottle created = new SessionThrottle(_queue, s -> removeSessionThrottle(session));
+            final SessionThrottle existing = _sessionThrottles.putIfAbsent(session, created);
+            if (existing != null)
+            {
+                return existing;
+            }
+            session.addDeleteTask(created.getSessionDeleteTask());
+            return created;
+        }
+
+        /**
+         * Called when a throttle was evicted by a concurrent prune after it was looked up: the evicted throttle is
+         * removed from the map, if the prune has not yet done so, and a fresh one is returned.
+         */
+        private SessionThrottle getEvictedSessionThrottleReplacement(final AMQPSession<?, ?> session,
+                                                                     final SessionThrottle evicted)
+        {
+            _sessionThrottles.remove(session, evicted);
+            return getSessionThrottle(session);
+        }
+
+        /**
+         * Removes the throttles of sessions which are neither paused nor blocked and are not due a pause. Each throttle
+         * is marked as evicted under its own monitor, so a session looking it up concurrently either blocks or pauses
+         * through it before the eviction, in which case it is no longer idle and is kept, or finds it evicted and
+         * retries with a new throttle.
+         */
+        private void pruneIdleSessionThrottles(final long now)
+        {
+            for (Map.Entry<AMQPSession<?, ?>, SessionThrottle> entry : _sessionThrottles.entrySet())
+            {
+                final SessionThrottle throttle = entry.getValue();
+                if (throttle.evictIfIdle(now))
+                {
+                    final AMQPSession<?, ?> session = entry.getKey();
+                    _sessionThrottles.remove(session, throttle);
+                    session.removeDeleteTask(throttle.getSessionDeleteTask());
+                }
+            }
+        }
+
+        private void removeSessionThrottle(final AMQPSession<?, ?> session)
+        {
+            _blockedSessions.remove(session);
+            _sessionThrottles.remove(session);
+        }
+
+        /**
+         * Returns the session which published the newly enqueued entry, or null if the check was not triggered by a
+         * publish (for example when capacity is rechecked after a dequeue), so that sessions which only consume or
+         * acknowledge are never paused or blocked.
+         */
+        private AMQPSession<?, ?> getPublishingSession(final QueueEntry newlyEnqueued)
+        {
+            if (newlyEnqueued == null)
+            {
+                return null;
+            }
+            final Subject subject = Subject.getSubject(AccessController.getContext());
+            if (subject != null)
+            {
+                final Set<SessionPrincipal> sessionPrincipals = subject.getPrincipals(SessionPrincipal.class);
+                if (!sessionPrincipals.isEmpty())
+                {
+                    final SessionPrincipal sessionPrincipal = sessionPrincipals.iterator().next();
+                    if (sessionPrincipal != null)
+                    {
+                        final AMQPSession<?, ?> session = sessionPrincipal.getSession();
+                        if (session.getConnectionReference() == newlyEnqueued.getMessage().getConnectionReference())
+                        {
+                            return session;
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+
+        private double getFillRatio(final long queueDepthBytes,
+                                    final long maximumQueueDepthBytes,
+                                    final long queueDepthMessages,
+                                    final long maximumQueueDepthMessages)
+        {
+            return Math.max(getFillRatio(queueDepthBytes, maximumQueueDepthBytes),
+                            getFillRatio(queueDepthMessages, maximumQueueDepthMessages));
+        }
+
+        private double getFillRatio(final long queueDepth, final long maximumQueueDepth)
+        {
+            if (maximumQueueDepth < 0)
+            {
+                return 0.0;
+            }
+            return maximumQueueDepth == 0 ? (queueDepth > 0 ? 1.0 : 0.0) : (double) queueDepth / maximumQueueDepth;
+        }
+
+        private boolean isUnderfull(final long queueDepth,
+                                    final long maximumQueueDepth)
+        {
+            return maximumQueueDepth < 0 || queueDepth <= getLimit(maximumQueueDepth, _queueFlowResumeLimit);
+        }
+
+        private long getLimit(final long maximumQueueDepth, final double percentage)
+        {
+            if (maximumQueueDepth >= 0)
+            {
+                return (long) Math.ceil(percentage / 100.0 * maximumQueueDepth);
+            }
+            return -1;
+        }
+    }
+
+    private enum ThrottleOutcome
+    {
+        STARTED, SKIPPED, EVICTED
+    }
+
+    /**
+     * Tracks whether a session is paused by the throttle, blocked because the queue is overfull, or both, so that
+     * the session is blocked on the first of these and unblocked only once neither applies.  Once evicted from the
+     * handler's map a throttle refuses to pause or block its session.
+     */
+    private static final class SessionThrottle
+    {
+        private final Queue<?> _queue;
+        private final Action<Object> _sessionDeleteTask;
+        private boolean _throttled;
+        private boolean _blocked;
+        private boolean _evicted;
+        private long _blockedSince;
+        private long _nextThrottleTime;
+
+        private SessionThrottle(final Queue<?> queue, final Action<Object> sessionDeleteTask)
+        {
+            _queue = queue;
+            _sessionDeleteTask = sessionDeleteTask;
+        }
+
+        Action<Object> getSessionDeleteTask()
+        {
+            return _sessionDeleteTask;
+        }
+
+        synchronized ThrottleOutcome throttle(final AMQPSession<?, ?> session, final long pause, final long period)
+        {
+            if (_evicted)
+            {
+                return ThrottleOutcome.EVICTED;
+            }
+            final long now = System.currentTimeMillis();
+            if (_throttled || _blocked || now < _nextThrottleTime)
+            {
+                return ThrottleOutcome.SKIPPED;
+            }
+            _throttled = true;
+            _nextThrottleTime = now + period;
+            startBlocking(session, now);
+            return ThrottleOutcome.STARTED;
+        }
+
+        synchronized void endThrottle(final AMQPSession<?, ?> session)
+        {
+            if (_throttled)
+            {
+                _throttled = false;
+                stopBlockingIfReleased(session);
+            }
+        }
+
+        /**
+         * @return false if the throttle has been evicted, in which case the session is not blocked
+         */
+        synchronized boolean block(final AMQPSession<?, ?> session)
+        {
+            if (_evicted)
+            {
+                return false;
+            }
+            if (!_blocked)
+            {
+                _blocked = true;
+                if (!_throttled)
+                {
+                    startBlocking(session, System.currentTimeMillis());
+                }
+            }
+            return true;
+        }
+
+        synchronized void unblock(final AMQPSession<?, ?> session)
+        {
+            if (_blocked)
+            {
+                _blocked = false;
+                stopBlockingIfReleased(session);
+            }
+        }
+
+        synchronized void release(final AMQPSession<?, ?> session)
+        {
+            final boolean wasBlocking = _throttled || _blocked;
+            _throttled = false;
+            _blocked = false;
+            if (wasBlocking)
+            {
+                stopBlockingIfReleased(session);
+            }
+        }
+
+        synchronized boolean evictIfIdle(final long now)
+        {
+            if (!_throttled && !_blocked && now >= _nextThrottleTime)
+            {
+                _evicted = true;
+            }
+            return _evicted;
+        }
+
+        private void startBlocking(final AMQPSession<?, ?> session, final long now)
+        {
+            _blockedSince = now;
+            session.block(_queue);
+        }
+
+        private void stopBlockingIfReleased(final AMQPSession<?, ?> session)
+        {
+            if (!_throttled && !_blocked)
+            {
+                session.unblock(_queue);
+                session.recordProducerFlowThrottledTime(System.currentTimeMillis() - _blockedSince);
+            }
+        }
+    }
+}
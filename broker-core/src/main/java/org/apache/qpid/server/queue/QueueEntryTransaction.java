@@ -35,6 +35,9 @@ abstract class QueueEntryTransaction implements QueueManagingVirtualHost.Transac
     private final MessageFilter _filter;
     private final List<Long> _modifiedMessageIds = new ArrayList<>();
     private int _limit;
+    private volatile int _modifiedMessageCount;
+    private volatile boolean _cancelled;
+    private boolean _recordModifiedMessageIds = true;
 
     QueueEntryTransaction(Queue sourceQueue, List<Long> messageIds, final MessageFilter filter, final int limit)
     {
@@ -64,14 +67,18 @@ abstract class QueueEntryTransaction implements QueueManagingVirtualHost.Transac
                             && (_filter == null || _filter.matches(entry.asFilterable())))
                         {
                             stop = updateEntry(entry, txn);
-                            _modifiedMessageIds.add(messageId);
+                            if (_recordModifiedMessageIds)
+                            {
+                                _modifiedMessageIds.add(messageId);
+                            }
+                            _modifiedMessageCount++;
                             if (_limit > 0)
                             {
                                 _limit--;
                             }
                         }
                     }
-                    return stop || _limit == 0 || (_messageIds != null && _messageIds.isEmpty());
+                    return stop || _cancelled || _limit == 0 || (_messageIds != null && _messageIds.isEmpty());
                 }
             });
         }
@@ -85,4 +92,34 @@ abstract class QueueEntryTransaction implements QueueManagingVirtualHost.Transac
     {
         return _modifiedMessageIds;
     }
+
+    /**
+     * @return the number of messages visited so far, which may be read whilst the transaction is in progress
+     */
+    int getModifiedMessageCount()
+    {
+        return _modifiedMessageCount;
+    }
+
+    /**
+     * Counts the modified messages without retaining their ids, so that operations on very deep queues do not
+     * accumulate a list as long as the queue. {@link #getModifiedMessageIds()} then returns an empty list.
+     */
+    void countModifiedMessagesOnly()
+    {
+        _recordModifiedMessageIds = false;
+    }
+
+    /**
+     * Stops the transaction visiting further messages. Work already committed by earlier batches is not undone.
+     */
+    void cancel()
+    {
+        _cancelled = true;
+    }
+
+    boolean isCancelled()
+    {
+        return _cancelled;
+    }
 }
@@ -60,6 +60,14 @@ abstract class QueueSizeLimitRespectingTransaction extends QueueEntryTransaction
         return !underfull;
     }
 
+    @Override
+    public void batchCommitted()
+    {
+        // messages in the committed batch are now counted in the destination's own depth
+        _pendingQueueDepthMessages = 0;
+        _pendingQueueDepthBytes = 0;
+    }
+
     abstract void performOperation(final QueueEntry entry,
                                    final QueueManagingVirtualHost.Transaction txn,
                                    final Queue destinationQueue);
@@ -56,6 +56,7 @@ final class QueueStatistics
     private final AtomicLong _expiredSize = new AtomicLong();
     private final AtomicInteger _malformedCount = new AtomicInteger();
     private final AtomicLong _malformedSize = new AtomicLong();
+    private final AtomicLong _flowedToDiskSize = new AtomicLong();
 
     public final int getQueueCount()
     {
@@ -167,6 +168,11 @@ final class QueueStatistics
         return _malformedSize.get();
     }
 
+    public long getFlowedToDiskSize()
+    {
+        return _flowedToDiskSize.get();
+    }
+
     void addToQueue(long size)
     {
         int count = _queueCount.incrementAndGet();
@@ -258,4 +264,9 @@ final class QueueStatistics
         _malformedCount.incrementAndGet();
         _malformedSize.addAndGet(size);
     }
+
+    void addToFlowedToDisk(final long size)
+    {
+        _flowedToDiskSize.addAndGet(size);
+    }
 }
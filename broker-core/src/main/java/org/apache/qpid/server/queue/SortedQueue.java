@@ -21,6 +21,7 @@
 package org.apache.qpid.server.queue;
 
 import org.apache.qpid.server.model.ManagedAttribute;
+import org.apache.qpid.server.model.ManagedContextDefault;
 import org.apache.qpid.server.model.ManagedObject;
 import org.apache.qpid.server.model.Queue;
 
@@ -31,6 +32,12 @@ public interface SortedQueue<X extends SortedQueue<X>> extends Queue<X>
     String SORT_KEY = "sortKey";
     String SORTED_QUEUE_TYPE = "sorted";
 
+    String CONCURRENT_ENTRY_LIST = "queue.sorted.concurrentEntryList";
+    @ManagedContextDefault(name = CONCURRENT_ENTRY_LIST,
+            description = "If true, sorted queues hold their entries in a concurrent skip list allowing enqueue and"
+                          + " consumer iteration without a queue-wide lock, rather than in a red/black tree.")
+    boolean DEFAULT_CONCURRENT_ENTRY_LIST = false;
+
     @ManagedAttribute( mandatory = true )
     String getSortKey();
 
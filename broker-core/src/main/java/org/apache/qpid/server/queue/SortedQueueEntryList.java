@@ -695,12 +695,13 @@ public class SortedQueueEntryList extends AbstractQueueEntryList
         @Override
         public boolean advance()
         {
-            if(!atTail())
+            SortedQueueEntry nextNode = next(_lastNode);
+            if(nextNode != null)
             {
-                SortedQueueEntry nextNode = next(_lastNode);
-                while(nextNode.isDeleted() && next(nextNode) != null)
+                SortedQueueEntry afterNext;
+                while(nextNode.isDeleted() && (afterNext = next(nextNode)) != null)
                 {
-                    nextNode = next(nextNode);
+                    nextNode = afterNext;
                 }
                 _lastNode = nextNode;
                 return true;
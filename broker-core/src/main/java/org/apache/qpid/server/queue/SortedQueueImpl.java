@@ -38,7 +38,8 @@ public class SortedQueueImpl extends OutOfOrderQueue<SortedQueueImpl> implements
 
     @ManagedAttributeField
     private String _sortKey;
-    private SortedQueueEntryList _entries;
+    private QueueEntryList _entries;
+    private boolean _concurrentEntryList;
 
     @ManagedObjectFactoryConstructor
     public SortedQueueImpl(Map<String, Object> attributes, QueueManagingVirtualHost<?> virtualHost)
@@ -50,7 +51,10 @@ public class SortedQueueImpl extends OutOfOrderQueue<SortedQueueImpl> implements
     protected void onOpen()
     {
         super.onOpen();
-        _entries = new SortedQueueEntryList(this, getQueueStatistics());
+        _concurrentEntryList = getContextValue(Boolean.class, CONCURRENT_ENTRY_LIST);
+        _entries = _concurrentEntryList
+                ? new ConcurrentSortedQueueEntryList(this, getQueueStatistics())
+                : new SortedQueueEntryList(this, getQueueStatistics());
     }
 
     @Override
@@ -58,6 +62,10 @@ public class SortedQueueImpl extends OutOfOrderQueue<SortedQueueImpl> implements
                         final Action<? super MessageInstance> action,
                         MessageEnqueueRecord record)
     {
+        if (_concurrentEntryList)
+        {
+            return super.doEnqueue(message, action, record);
+        }
         synchronized (_sortedQueueLock)
         {
             return super.doEnqueue(message, action, record);
@@ -65,7 +73,7 @@ public class SortedQueueImpl extends OutOfOrderQueue<SortedQueueImpl> implements
     }
 
     @Override
-    SortedQueueEntryList getEntries()
+    QueueEntryList getEntries()
     {
         return _entries;
     }
@@ -56,6 +56,8 @@ public interface AMQPSession<S extends org.apache.qpid.server.session.AMQPSessio
 
     boolean getBlocking();
 
+    void recordProducerFlowThrottledTime(long throttledTime);
+
     int getUnacknowledgedMessageCount();
 
     @Override
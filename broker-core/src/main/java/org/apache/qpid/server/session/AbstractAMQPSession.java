@@ -30,6 +30,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.security.auth.Subject;
 
@@ -77,6 +78,7 @@ public abstract class AbstractAMQPSession<S extends AbstractAMQPSession<S, X>,
 
     protected final List<Action<? super S>> _taskList = new CopyOnWriteArrayList<>();
     private final AtomicInteger _consumerCount = new AtomicInteger();
+    private final AtomicLong _producerFlowThrottledTime = new AtomicLong();
 
     protected final Set<AbstractConsumerTarget> _consumersWithPendingWork = new ScheduledConsumerTargetSet<>();
     private Iterator<AbstractConsumerTarget> _processPendingIterator;
@@ -162,6 +164,18 @@ public abstract class AbstractAMQPSession<S extends AbstractAMQPSession<S, X>,
         return getUnacknowledgedMessageCount();
     }
 
+    @Override
+    public long getProducerFlowThrottledTime()
+    {
+        return _producerFlowThrottledTime.get();
+    }
+
+    @Override
+    public void recordProducerFlowThrottledTime(final long throttledTime)
+    {
+        _producerFlowThrottledTime.addAndGet(throttledTime);
+    }
+
     @Override
     public void addDeleteTask(final Action<? super S> task)
     {
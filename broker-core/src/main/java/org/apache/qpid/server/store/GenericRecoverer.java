@@ -20,12 +20,15 @@
  */
 package org.apache.qpid.server.store;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -87,8 +90,11 @@ public class GenericRecoverer
             LOGGER.debug("Recovering the children of " + _root);
         }
 
+        final long startTime = System.currentTimeMillis();
         records = resolveDiscontinuity(records);
         resolveObjects(_root, records, isNew);
+        LOGGER.debug("Recovered {} configured object(s) beneath {} in {} ms",
+                     records.size(), _root, System.currentTimeMillis() - startTime);
     }
 
     private List<ConfiguredObjectRecord> resolveDiscontinuity(final List<ConfiguredObjectRecord> records)
@@ -146,62 +152,57 @@ public class GenericRecoverer
                                 final boolean isNew)
     {
         ConfiguredObjectFactory factory = parentObject.getObjectFactory();
-        Map<UUID, ConfiguredObject<?>> resolvedObjects = new HashMap<UUID, ConfiguredObject<?>>();
+        Map<UUID, ConfiguredObject<?>> resolvedObjects = new HashMap<>();
         resolvedObjects.put(parentObject.getId(), parentObject);
 
-        Collection<ConfiguredObjectRecord> recordsWithUnresolvedParents = new ArrayList<ConfiguredObjectRecord>(records);
-        Collection<UnresolvedConfiguredObject<? extends ConfiguredObject>> recordsWithUnresolvedDependencies =
-                new ArrayList<UnresolvedConfiguredObject<? extends ConfiguredObject>>();
+        // Index the records by parent so that each record is visited once, when its parent is resolved,
+        // rather than on every pass over all the records still waiting for their parents.
+        Map<UUID, List<ConfiguredObjectRecord>> recordsWithUnresolvedParents = new LinkedHashMap<>();
+        for (ConfiguredObjectRecord record : records)
+        {
+            Collection<UUID> parentIds = record.getParents().values();
+            if (parentIds.size() > 1)
+            {
+                throw new IllegalStateException(String.format("Unexpected number of parents %d for record %s ", parentIds.size(), record));
+            }
+            recordsWithUnresolvedParents.computeIfAbsent(parentIds.iterator().next(), id -> new ArrayList<>())
+                                        .add(record);
+        }
 
-        boolean updatesMade;
+        Collection<UnresolvedConfiguredObject<? extends ConfiguredObject>> recordsWithUnresolvedDependencies =
+                new ArrayList<>();
+        Deque<ConfiguredObject<?>> newlyResolvedObjects = new ArrayDeque<>();
+        newlyResolvedObjects.add(parentObject);
 
         do
         {
-            updatesMade = false;
-            Iterator<ConfiguredObjectRecord> iter = recordsWithUnresolvedParents.iterator();
-            while (iter.hasNext())
+            ConfiguredObject<?> resolvedParent;
+            while ((resolvedParent = newlyResolvedObjects.poll()) != null)
             {
-                ConfiguredObjectRecord record = iter.next();
-                Collection<ConfiguredObject<?>> parents = new ArrayList<ConfiguredObject<?>>();
-                boolean foundParents = true;
-                for (UUID parentId : record.getParents().values())
+                List<ConfiguredObjectRecord> childRecords = recordsWithUnresolvedParents.remove(resolvedParent.getId());
+                if (childRecords == null)
                 {
-                    if (!resolvedObjects.containsKey(parentId))
-                    {
-                        foundParents = false;
-                        break;
-                    }
-                    else
-                    {
-                        parents.add(resolvedObjects.get(parentId));
-                    }
+                    continue;
                 }
-                if (parents.size() > 1)
+                for (ConfiguredObjectRecord record : childRecords)
                 {
-                    throw new IllegalStateException(String.format("Unexpected number of parents %d for record %s ", parents.size(), record));
-                }
-                if (foundParents)
-                {
-                    iter.remove();
-                    ConfiguredObject<?>[] parentArray = parents.toArray(new ConfiguredObject<?>[parents.size()]);
-                    UnresolvedConfiguredObject<? extends ConfiguredObject> recovered =  factory.recover(record, parentArray[0]);
+                    UnresolvedConfiguredObject<? extends ConfiguredObject> recovered = factory.recover(record, resolvedParent);
                     Collection<ConfiguredObjectDependency<?>> dependencies = recovered.getUnresolvedDependencies();
                     if (dependencies.isEmpty())
                     {
-                        updatesMade = true;
                         ConfiguredObject<?> resolved = recovered.resolve();
                         if(!isNew)
                         {
                             resolved.decryptSecrets();
                         }
                         resolvedObjects.put(resolved.getId(), resolved);
+                        newlyResolvedObjects.add(resolved);
                     }
                     else
                     {
                         recordsWithUnresolvedDependencies.add(recovered);
                     }
                 }
-
             }
 
             Iterator<UnresolvedConfiguredObject<? extends ConfiguredObject>> unresolvedIter = recordsWithUnresolvedDependencies.iterator();
@@ -239,14 +240,14 @@ public class GenericRecoverer
                 }
                 if(unresolvedObject.getUnresolvedDependencies().isEmpty())
                 {
-                    updatesMade = true;
                     unresolvedIter.remove();
                     ConfiguredObject<?> resolved = unresolvedObject.resolve();
                     resolvedObjects.put(resolved.getId(), resolved);
+                    newlyResolvedObjects.add(resolved);
                 }
             }
 
-        } while(updatesMade && !(recordsWithUnresolvedDependencies.isEmpty() && recordsWithUnresolvedParents.isEmpty()));
+        } while(!newlyResolvedObjects.isEmpty());
 
         if(!recordsWithUnresolvedDependencies.isEmpty())
         {
@@ -254,7 +255,9 @@ public class GenericRecoverer
         }
         if(!recordsWithUnresolvedParents.isEmpty())
         {
-            throw new IllegalArgumentException("Cannot resolve object because their parents cannot be found" + recordsWithUnresolvedParents);
+            List<ConfiguredObjectRecord> unresolvedRecords = new ArrayList<>();
+            recordsWithUnresolvedParents.values().forEach(unresolvedRecords::addAll);
+            throw new IllegalArgumentException("Cannot resolve object because their parents cannot be found" + unresolvedRecords);
         }
     }
 
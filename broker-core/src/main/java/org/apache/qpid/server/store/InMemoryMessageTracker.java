@@ -0,0 +1,117 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
+
+/**
+ * Keeps track of the stored messages of a message store which hold metadata or content in memory, so that flow to
+ * disk can find the messages to evict without walking the queues.
+ * <p>
+ * Stores call {@link #loaded(StoredMessage)} once all the content of a new message has been added or when a message is
+ * recovered, {@link #reloaded(StoredMessage, long)} when evicted metadata or content is read back from disk and
+ * {@link #released(StoredMessage)} when a message's in-memory data is flowed to disk or the message is removed.  A new
+ * message must not be tracked before its content is complete, as flowing it to disk would store it truncated.
+ * Callers are expected to hold the lock of the stored message so that the tracker agrees with the message's state.
+ * <p>
+ * Tracking is disabled unless the store's virtual host takes its flow to disk candidates from the store rather than
+ * walking its queues (see {@link QueueManagingVirtualHost#FLOW_TO_DISK_WALK_QUEUES}), so that messages do not pay
+ * for an index nobody reads.
+ */
+public final class InMemoryMessageTracker
+{
+    private final ConcurrentNavigableMap<Long, StoredMessage<?>> _messages = new ConcurrentSkipListMap<>();
+    private final AtomicLong _bytesReloaded = new AtomicLong();
+    private volatile boolean _enabled;
+
+    /**
+     * Enables tracking if the flow to disk check of the given message store parent does not walk the queues.  Must
+     * be called as the store is opened, before any message is created or recovered.
+     */
+    public void configure(final ConfiguredObject<?> parent)
+    {
+        _enabled = parent.getContextKeys(false).contains(QueueManagingVirtualHost.FLOW_TO_DISK_WALK_QUEUES)
+                   && !parent.getContextValue(Boolean.class, QueueManagingVirtualHost.FLOW_TO_DISK_WALK_QUEUES);
+    }
+
+    public boolean isEnabled()
+    {
+        return _enabled;
+    }
+
+    public void loaded(final StoredMessage<?> message)
+    {
+        if (_enabled)
+        {
+            _messages.put(message.getMessageNumber(), message);
+        }
+    }
+
+    public void reloaded(final StoredMessage<?> message, final long bytes)
+    {
+        if (_enabled)
+        {
+            _messages.put(message.getMessageNumber(), message);
+        }
+        _bytesReloaded.addAndGet(bytes);
+    }
+
+    public void released(final StoredMessage<?> message)
+    {
+        if (_enabled)
+        {
+            _messages.remove(message.getMessageNumber());
+        }
+    }
+
+    /**
+     * Returns the messages with in-memory data, most recently arrived first.  Recent messages are generally the
+     * furthest from being delivered, whereas the content of older messages will typically be needed again shortly,
+     * having been reloaded for delivery.  The iterator is weakly consistent and tolerates messages being released
+     * whilst it is in use.
+     */
+    public Iterator<StoredMessage<?>> evictionCandidates()
+    {
+        return _messages.descendingMap().values().iterator();
+    }
+
+    public int getMessageCount()
+    {
+        return _messages.size();
+    }
+
+    public long getBytesReloaded()
+    {
+        return _bytesReloaded.get();
+    }
+
+    public void clear()
+    {
+        _messages.clear();
+        _bytesReloaded.set(0);
+    }
+}
@@ -22,6 +22,7 @@ package org.apache.qpid.server.store;
 
 
 import java.io.File;
+import java.util.Iterator;
 
 import org.apache.qpid.server.model.ConfiguredObject;
 import org.apache.qpid.server.store.handler.DistributedTransactionHandler;
@@ -65,6 +66,27 @@ public interface MessageStore
 
     long getBytesEvacuatedFromMemory();
 
+    /**
+     * @return the number of bytes of message metadata and content read back into memory having previously been
+     * flowed to disk
+     */
+    default long getBytesReloadedIntoMemory()
+    {
+        return 0L;
+    }
+
+    /**
+     * Returns the messages holding metadata or content in memory, in the order in which they should be flowed to
+     * disk.
+     *
+     * @return the candidates for flow to disk, or null if the store does not keep track of them, in which case they
+     * have to be found by walking the queues
+     */
+    default Iterator<StoredMessage<?>> getFlowToDiskCandidates()
+    {
+        return null;
+    }
+
     /**
      * Is this store capable of persisting the data
      *
@@ -32,6 +32,9 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import org.apache.qpid.server.configuration.IllegalConfigurationException;
 import org.apache.qpid.server.configuration.store.StoreConfigurationChangeListener;
 import org.apache.qpid.server.filter.FilterSupport;
@@ -50,6 +53,8 @@ import org.apache.qpid.server.util.FixedKeyMapCreator;
 
 public class VirtualHostStoreUpgraderAndRecoverer extends AbstractConfigurationStoreUpgraderAndRecoverer
 {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualHostStoreUpgraderAndRecoverer.class);
+
     private final VirtualHostNode<?> _virtualHostNode;
 
     @SuppressWarnings("serial")
@@ -1117,6 +1122,7 @@ public class VirtualHostStoreUpgraderAndRecoverer extends AbstractConfigurationS
     public boolean upgradeAndRecover(final DurableConfigurationStore durableConfigurationStore,
                                      final ConfiguredObjectRecord... initialRecords)
     {
+        final long startTime = System.currentTimeMillis();
         final List<ConfiguredObjectRecord> records = new ArrayList<>();
         boolean isNew = durableConfigurationStore.openConfigurationStore(new ConfiguredObjectRecordHandler()
         {
@@ -1126,12 +1132,24 @@ public class VirtualHostStoreUpgraderAndRecoverer extends AbstractConfigurationS
                 records.add(record);
             }
         }, initialRecords);
+        final long readTime = System.currentTimeMillis();
 
         List<ConfiguredObjectRecord> upgradedRecords = upgrade(durableConfigurationStore,
                                                                records,
                                                                VirtualHost.class.getSimpleName(),
                                                                VirtualHost.MODEL_VERSION);
+        final long upgradeTime = System.currentTimeMillis();
+
         recover(_virtualHostNode, durableConfigurationStore, upgradedRecords, isNew);
+        final long recoverTime = System.currentTimeMillis();
+
+        LOGGER.info("Configuration of virtual host node '{}': {} record(s) read in {} ms, upgraded in {} ms,"
+                    + " recovered in {} ms",
+                    _virtualHostNode.getName(),
+                    records.size(),
+                    readTime - startTime,
+                    upgradeTime - readTime,
+                    recoverTime - upgradeTime);
         return isNew;
     }
 
@@ -39,6 +39,17 @@ public interface MessageStoreSerializer extends Pluggable
                    OutputStream outputStream) throws IOException;
     void deserialize(final Map<String, UUID> queueMap, MessageStore store, InputStream inputStream) throws IOException;
 
+    /**
+     * Deserializes into the given store, using up to {@code threadCount} threads to write the messages.
+     */
+    default void deserialize(final Map<String, UUID> queueMap,
+                             MessageStore store,
+                             InputStream inputStream,
+                             int threadCount) throws IOException
+    {
+        deserialize(queueMap, store, inputStream);
+    }
+
     interface Factory
     {
         MessageStoreSerializer newInstance();
@@ -23,10 +23,27 @@ package org.apache.qpid.server.store.serializer.v1;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.message.EnqueueableMessage;
@@ -51,9 +68,14 @@ import org.apache.qpid.server.util.ServerScopedRuntimeException;
 @PluggableService
 public class MessageStoreSerializer_v1 implements MessageStoreSerializer
 {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageStoreSerializer_v1.class);
 
     public static final String VERSION = "v1.0";
 
+    private static final int PROGRESS_LOG_INTERVAL = 100000;
+    private static final int ENQUEUE_BATCH_SIZE = 1000;
+    private static final int MAX_PENDING_MESSAGES_PER_THREAD = 16;
+
     @Override
     public String getType()
     {
@@ -66,17 +88,25 @@ public class MessageStoreSerializer_v1 implements MessageStoreSerializer
                           final OutputStream outputStream)
             throws IOException
     {
+        final long startTime = System.currentTimeMillis();
         final Serializer serializer = new Serializer(outputStream);
 
         serializeQueueMappings(queueMap, serializer);
 
-        serializeMessages(storeReader, serializer);
+        // The store may be in use whilst it is exported, so only the message instances and distributed transactions
+        // referring to messages that made it into the export are written.
+        final MessageNumberSet exportedMessageNumbers = serializeMessages(storeReader, serializer);
 
-        serializeMessageInstances(storeReader, serializer);
+        final int instanceCount = serializeMessageInstances(storeReader, serializer, exportedMessageNumbers);
 
-        serializeDistributedTransactions(storeReader, serializer);
+        serializeDistributedTransactions(storeReader, serializer, exportedMessageNumbers);
 
         serializer.complete();
+
+        LOGGER.info("Exported {} message(s) and {} message instance(s) in {} ms",
+                    exportedMessageNumbers.size(),
+                    instanceCount,
+                    System.currentTimeMillis() - startTime);
     }
 
 
@@ -89,34 +119,40 @@ public class MessageStoreSerializer_v1 implements MessageStoreSerializer
         }
     }
 
-    private void serializeMessages(final MessageStore.MessageStoreReader storeReader, final Serializer serializer)
+    private MessageNumberSet serializeMessages(final MessageStore.MessageStoreReader storeReader,
+                                               final Serializer serializer)
             throws IOException
     {
-        SerializerMessageHandler messageHandler = new SerializerMessageHandler(serializer);
+        SerializerMessageHandler messageHandler = new SerializerMessageHandler(serializer, storeReader);
 
         storeReader.visitMessages(messageHandler);
         if (messageHandler.getException() != null)
         {
             throw messageHandler.getException();
         }
+        return messageHandler.getExportedMessageNumbers();
     }
 
-    private void serializeMessageInstances(final MessageStore.MessageStoreReader storeReader,
-                                           final Serializer serializer) throws IOException
+    private int serializeMessageInstances(final MessageStore.MessageStoreReader storeReader,
+                                          final Serializer serializer,
+                                          final MessageNumberSet exportedMessageNumbers) throws IOException
     {
-        SerializerMessageInstanceHandler messageInstanceHandler = new SerializerMessageInstanceHandler(serializer);
+        SerializerMessageInstanceHandler messageInstanceHandler =
+                new SerializerMessageInstanceHandler(serializer, exportedMessageNumbers);
         storeReader.visitMessageInstances(messageInstanceHandler);
         if (messageInstanceHandler.getException() != null)
         {
             throw messageInstanceHandler.getException();
         }
+        return messageInstanceHandler.getInstanceCount();
     }
 
     private void serializeDistributedTransactions(final MessageStore.MessageStoreReader storeReader,
-                                                  final Serializer serializer) throws IOException
+                                                  final Serializer serializer,
+                                                  final MessageNumberSet exportedMessageNumbers) throws IOException
     {
         SerializerDistributedTransactionHandler distributedTransactionHandler =
-                new SerializerDistributedTransactionHandler(serializer);
+                new SerializerDistributedTransactionHandler(serializer, exportedMessageNumbers);
         storeReader.visitDistributedTransactions(distributedTransactionHandler);
         if (distributedTransactionHandler.getException() != null)
         {
@@ -128,9 +164,19 @@ public class MessageStoreSerializer_v1 implements MessageStoreSerializer
     @Override
     public void deserialize(final Map<String, UUID> queueMap, final MessageStore store, final InputStream inputStream) throws IOException
     {
+        deserialize(queueMap, store, inputStream, 1);
+    }
+
+    @Override
+    public void deserialize(final Map<String, UUID> queueMap,
+                            final MessageStore store,
+                            final InputStream inputStream,
+                            final int threadCount) throws IOException
+    {
+        final long startTime = System.currentTimeMillis();
         final Deserializer deserializer = new Deserializer(inputStream);
 
-        Map<Long, StoredMessage<?>> messageMap = new HashMap<>();
+        Map<Long, StoredMessage<?>> messageMap = new ConcurrentHashMap<>();
         Map<UUID, UUID> queueIdMap = new HashMap<>();
 
         Record nextRecord = deserializer.readRecord();
@@ -146,9 +192,11 @@ public class MessageStoreSerializer_v1 implements MessageStoreSerializer
 
         nextRecord = deserializeQueueMappings(queueMap, queueIdMap, deserializer, nextRecord);
 
-        nextRecord = deserializeMessages(messageMap, store, deserializer, nextRecord);
+        nextRecord = deserializeMessages(messageMap, store, deserializer, nextRecord, threadCount);
 
-        nextRecord = deserializeMessageInstances(store, queueIdMap, messageMap, deserializer, nextRecord);
+        final List<ListenableFuture<Void>> commitFutures = new ArrayList<>();
+
+        nextRecord = deserializeMessageInstances(store, queueIdMap, messageMap, deserializer, nextRecord, commitFutures);
 
         nextRecord = deserializeDistributedTransactions(store, queueIdMap, messageMap, deserializer, nextRecord);
 
@@ -157,6 +205,31 @@ public class MessageStoreSerializer_v1 implements MessageStoreSerializer
             throw new IllegalArgumentException("Unexpected record type '"+nextRecord.getType()+"' expecting DIGEST");
         }
 
+        awaitCommits(commitFutures);
+
+        LOGGER.info("Imported {} message(s) in {} ms", messageMap.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private void awaitCommits(final List<ListenableFuture<Void>> commitFutures) throws IOException
+    {
+        try
+        {
+            Futures.allAsList(commitFutures).get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted whilst waiting for imported message instances to be committed");
+        }
+        catch (ExecutionException e)
+        {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            throw new ServerScopedRuntimeException("Failed to commit imported message instances", cause);
+        }
     }
 
     private Record deserializeDistributedTransactions(final MessageStore store,
@@ -208,9 +281,15 @@ public class MessageStoreSerializer_v1 implements MessageStoreSerializer
                                                final Map<UUID, UUID> queueIdMap,
                                                final Map<Long, StoredMessage<?>> messageMap,
                                                final Deserializer deserializer,
-                                               Record nextRecord)
+                                               Record nextRecord,
+                                               final List<ListenableFuture<Void>> commitFutures)
             throws IOException
     {
+        // Enqueues are written in a transaction per queue which is committed every ENQUEUE_BATCH_SIZE instances,
+        // rather than in a transaction per instance.
+        final Map<UUID, Transaction> queueTransactions = new HashMap<>();
+        final Map<UUID, Integer> queueTransactionSizes = new HashMap<>();
+        int instanceCount = 0;
         while(nextRecord.getType() == RecordType.MESSAGE_INSTANCE)
         {
             MessageInstanceRecord messageInstanceRecord = (MessageInstanceRecord) nextRecord;
@@ -218,7 +297,7 @@ public class MessageStoreSerializer_v1 implements MessageStoreSerializer
             final UUID queueId = queueIdMap.get(messageInstanceRecord.getQueueId());
             if(storedMessage != null && queueId != null)
             {
-                final Transaction txn = store.newTransaction();
+                final Transaction txn = queueTransactions.computeIfAbsent(queueId, id -> store.newTransaction());
 
                 EnqueueableMessage msg = new EnqueueableMessage()
                 {
@@ -262,10 +341,24 @@ public class MessageStoreSerializer_v1 implements MessageStoreSerializer
                     }
                 }, msg);
 
-                txn.commitTranAsync(null);
+                if (queueTransactionSizes.merge(queueId, 1, Integer::sum) >= ENQUEUE_BATCH_SIZE)
+                {
+                    commitFutures.add(queueTransactions.remove(queueId).commitTranAsync(null));
+                    queueTransactionSizes.remove(queueId);
+                }
+
+                if (++instanceCount % PROGRESS_LOG_INTERVAL == 0)
+                {
+                    LOGGER.info("Imported {} message instance(s)", instanceCount);
+                }
             }
             nextRecord = deserializer.readRecord();
         }
+
+        for (Transaction txn : queueTransactions.values())
+        {
+            commitFutures.add(txn.commitTranAsync(null));
+        }
         return nextRecord;
     }
 
@@ -297,76 +390,206 @@ public class MessageStoreSerializer_v1 implements MessageStoreSerializer
     private Record deserializeMessages(final Map<Long, StoredMessage<?>> messageNumberMap,
                                        final MessageStore store,
                                        final Deserializer deserializer,
-                                       Record record)
+                                       Record record,
+                                       final int threadCount)
             throws IOException
     {
-        while(record.getType() == RecordType.MESSAGE)
-        {
-            MessageRecord messageRecord = (MessageRecord) record;
-            long originalMessageNumber = messageRecord.getMessageNumber();
-            byte[] metaData = messageRecord.getMetaData();
-            final MessageMetaDataType metaDataType = MessageMetaDataTypeRegistry.fromOrdinal(metaData[0] & 0xff);
-            final MessageHandle<StorableMessageMetaData> handle;
-            try (QpidByteBuffer buf = QpidByteBuffer.wrap(metaData, 1, metaData.length - 1))
+        final ExecutorService executorService;
+        final Executor executor;
+        final Semaphore pendingMessages;
+        if (threadCount > 1)
+        {
+            final AtomicInteger threadNumber = new AtomicInteger();
+            executorService = Executors.newFixedThreadPool(threadCount, runnable ->
             {
-                try
-                {
-                    StorableMessageMetaData storableMessageMetaData = metaDataType.createMetaData(buf);
-                    handle = store.addMessage(storableMessageMetaData);
-                }
-                catch (ConnectionScopedRuntimeException e)
+                final Thread thread = new Thread(runnable, "MessageStoreImport-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor = executorService;
+            pendingMessages = new Semaphore(threadCount * MAX_PENDING_MESSAGES_PER_THREAD);
+        }
+        else
+        {
+            executorService = null;
+            executor = Runnable::run;
+            pendingMessages = null;
+        }
+
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        final AtomicInteger messageCount = new AtomicInteger();
+        try
+        {
+            while (record.getType() == RecordType.MESSAGE && failure.get() == null)
+            {
+                final MessageRecord messageRecord = (MessageRecord) record;
+                // the store assigns message numbers when a message is added, so messages are added on this thread
+                // in the order of the extract to preserve their relative order; only the content is written by the
+                // import threads
+                final MessageHandle<StorableMessageMetaData> handle = addMessage(messageRecord, store);
+                if (pendingMessages != null)
                 {
-                    throw new IllegalArgumentException("Could not deserialize message metadata", e);
+                    pendingMessages.acquire();
                 }
+                executor.execute(() ->
+                                 {
+                                     try
+                                     {
+                                         messageNumberMap.put(messageRecord.getMessageNumber(),
+                                                              storeContent(messageRecord, handle));
+                                         if (messageCount.incrementAndGet() % PROGRESS_LOG_INTERVAL == 0)
+                                         {
+                                             LOGGER.info("Imported {} message(s)", messageCount.get());
+                                         }
+                                     }
+                                     catch (RuntimeException e)
+                                     {
+                                         failure.compareAndSet(null, e);
+                                     }
+                                     finally
+                                     {
+                                         if (pendingMessages != null)
+                                         {
+                                             pendingMessages.release();
+                                         }
+                                     }
+                                 });
+
+                record = deserializer.readRecord();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted whilst importing messages");
+        }
+        finally
+        {
+            if (executorService != null)
+            {
+                executorService.shutdown();
+                awaitTermination(executorService);
             }
+        }
+
+        if (failure.get() != null)
+        {
+            throw failure.get();
+        }
+        return record;
+    }
 
-            try (QpidByteBuffer buf = QpidByteBuffer.wrap(messageRecord.getContent()))
+    private void awaitTermination(final ExecutorService executorService) throws InterruptedIOException
+    {
+        try
+        {
+            while (!executorService.awaitTermination(1, TimeUnit.SECONDS))
             {
-                handle.addContent(buf);
+                LOGGER.debug("Waiting for message import threads to finish");
             }
-            final StoredMessage<StorableMessageMetaData> storedMessage = handle.allContentAdded();
+        }
+        catch (InterruptedException e)
+        {
+            executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted whilst waiting for message import threads to finish");
+        }
+    }
+
+    private MessageHandle<StorableMessageMetaData> addMessage(final MessageRecord messageRecord,
+                                                              final MessageStore store)
+    {
+        byte[] metaData = messageRecord.getMetaData();
+        final MessageMetaDataType metaDataType = MessageMetaDataTypeRegistry.fromOrdinal(metaData[0] & 0xff);
+        try (QpidByteBuffer buf = QpidByteBuffer.wrap(metaData, 1, metaData.length - 1))
+        {
             try
             {
-                storedMessage.flowToDisk();
-                messageNumberMap.put(originalMessageNumber, storedMessage);
+                StorableMessageMetaData storableMessageMetaData = metaDataType.createMetaData(buf);
+                return store.addMessage(storableMessageMetaData);
             }
-            catch (RuntimeException e)
+            catch (ConnectionScopedRuntimeException e)
             {
-                if (e instanceof ServerScopedRuntimeException)
-                {
-                    throw e;
-                }
-                throw new IllegalArgumentException("Could not decode message metadata", e);
+                throw new IllegalArgumentException("Could not deserialize message metadata", e);
             }
+        }
+    }
 
-            record = deserializer.readRecord();
+    private StoredMessage<StorableMessageMetaData> storeContent(final MessageRecord messageRecord,
+                                                                final MessageHandle<StorableMessageMetaData> handle)
+    {
+        try (QpidByteBuffer buf = QpidByteBuffer.wrap(messageRecord.getContent()))
+        {
+            handle.addContent(buf);
+        }
+        final StoredMessage<StorableMessageMetaData> storedMessage = handle.allContentAdded();
+        try
+        {
+            storedMessage.flowToDisk();
+            return storedMessage;
+        }
+        catch (RuntimeException e)
+        {
+            if (e instanceof ServerScopedRuntimeException)
+            {
+                throw e;
+            }
+            throw new IllegalArgumentException("Could not decode message metadata", e);
         }
-        return record;
     }
 
 
     private static class SerializerMessageHandler implements MessageHandler
     {
         private final Serializer _serializer;
+        private final MessageStore.MessageStoreReader _storeReader;
+        private final MessageNumberSet _exportedMessageNumbers = new MessageNumberSet();
+        private long _exportedContentSize;
         private IOException _exception;
 
-        public SerializerMessageHandler(final Serializer serializer)
+        public SerializerMessageHandler(final Serializer serializer,
+                                        final MessageStore.MessageStoreReader storeReader)
         {
             _serializer = serializer;
+            _storeReader = storeReader;
         }
 
         @Override
         public boolean handle(final StoredMessage<?> storedMessage)
         {
+            final MessageRecord messageRecord;
+            try
+            {
+                messageRecord = new MessageRecord(storedMessage);
+            }
+            catch (RuntimeException e)
+            {
+                if (_storeReader.getMessage(storedMessage.getMessageNumber()) == null)
+                {
+                    LOGGER.debug("Message {} was deleted whilst being exported", storedMessage.getMessageNumber());
+                    return true;
+                }
+                throw e;
+            }
+
             try
             {
-                _serializer.add(new MessageRecord(storedMessage));
+                _serializer.add(messageRecord);
             }
             catch (IOException e)
             {
                 _exception = e;
                 return false;
             }
+
+            _exportedMessageNumbers.add(messageRecord.getMessageNumber());
+            _exportedContentSize += messageRecord.getContent().length;
+            if (_exportedMessageNumbers.size() % PROGRESS_LOG_INTERVAL == 0)
+            {
+                LOGGER.info("Exported {} message(s) totalling {} content byte(s)",
+                            _exportedMessageNumbers.size(),
+                            _exportedContentSize);
+            }
             return true;
         }
 
@@ -374,24 +597,38 @@ public class MessageStoreSerializer_v1 implements MessageStoreSerializer
         {
             return _exception;
         }
+
+        public MessageNumberSet getExportedMessageNumbers()
+        {
+            return _exportedMessageNumbers;
+        }
     }
 
     private static class SerializerMessageInstanceHandler implements MessageInstanceHandler
     {
         private final Serializer _serializer;
+        private final MessageNumberSet _exportedMessageNumbers;
+        private int _instanceCount;
         private IOException _exception;
 
-        private SerializerMessageInstanceHandler(final Serializer serializer)
+        private SerializerMessageInstanceHandler(final Serializer serializer, final MessageNumberSet exportedMessageNumbers)
         {
             _serializer = serializer;
+            _exportedMessageNumbers = exportedMessageNumbers;
         }
 
         @Override
         public boolean handle(final MessageEnqueueRecord record)
         {
+            if (!_exportedMessageNumbers.contains(record.getMessageNumber()))
+            {
+                return true;
+            }
+
             try
             {
                 _serializer.add(new MessageInstanceRecord(record));
+                _instanceCount++;
             }
             catch (IOException e)
             {
@@ -406,16 +643,24 @@ public class MessageStoreSerializer_v1 implements MessageStoreSerializer
         {
             return _exception;
         }
+
+        public int getInstanceCount()
+        {
+            return _instanceCount;
+        }
     }
 
     private static class SerializerDistributedTransactionHandler implements DistributedTransactionHandler
     {
         private final Serializer _serializer;
+        private final MessageNumberSet _exportedMessageNumbers;
         private IOException _exception;
 
-        public SerializerDistributedTransactionHandler(final Serializer serializer)
+        public SerializerDistributedTransactionHandler(final Serializer serializer,
+                                                       final MessageNumberSet exportedMessageNumbers)
         {
             _serializer = serializer;
+            _exportedMessageNumbers = exportedMessageNumbers;
         }
 
         @Override
@@ -423,6 +668,12 @@ public class MessageStoreSerializer_v1 implements MessageStoreSerializer
                               final Transaction.EnqueueRecord[] enqueues,
                               final Transaction.DequeueRecord[] dequeues)
         {
+            if (!allMessagesExported(enqueues, dequeues))
+            {
+                LOGGER.debug("Distributed transaction {} completed whilst being exported", storedXid);
+                return true;
+            }
+
             try
             {
                 _serializer.add(new DTXRecord(storedXid, enqueues, dequeues));
@@ -435,10 +686,73 @@ public class MessageStoreSerializer_v1 implements MessageStoreSerializer
             return true;
         }
 
+        private boolean allMessagesExported(final Transaction.EnqueueRecord[] enqueues,
+                                            final Transaction.DequeueRecord[] dequeues)
+        {
+            for (Transaction.EnqueueRecord enqueue : enqueues)
+            {
+                if (!_exportedMessageNumbers.contains(enqueue.getMessage().getMessageNumber()))
+                {
+                    return false;
+                }
+            }
+            for (Transaction.DequeueRecord dequeue : dequeues)
+            {
+                if (!_exportedMessageNumbers.contains(dequeue.getEnqueueRecord().getMessageNumber()))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         public IOException getException()
         {
             return _exception;
         }
 
     }
+
+    /**
+     * The numbers of the exported messages, held as a bitmap of pages covering 65536 consecutive message numbers
+     * each. Message numbers are allocated sequentially, so this needs around one bit per message rather than the
+     * tens of bytes per message of a set of boxed longs.
+     */
+    private static final class MessageNumberSet
+    {
+        private static final int PAGE_SHIFT = 16;
+        private static final int PAGE_MASK = (1 << PAGE_SHIFT) - 1;
+
+        private final Map<Long, long[]> _pages = new HashMap<>();
+        private int _size;
+
+        void add(final long messageNumber)
+        {
+            final long[] page = _pages.computeIfAbsent(messageNumber >>> PAGE_SHIFT,
+                                                       p -> new long[1 << (PAGE_SHIFT - 6)]);
+            final int bit = (int) (messageNumber & PAGE_MASK);
+            final long mask = 1L << bit;
+            if ((page[bit >>> 6] & mask) == 0)
+            {
+                page[bit >>> 6] |= mask;
+                _size++;
+            }
+        }
+
+        boolean contains(final long messageNumber)
+        {
+            final long[] page = _pages.get(messageNumber >>> PAGE_SHIFT);
+            if (page == null)
+            {
+                return false;
+            }
+            final int bit = (int) (messageNumber & PAGE_MASK);
+            return (page[bit >>> 6] & (1L << bit)) != 0;
+        }
+
+        int size()
+        {
+            return _size;
+        }
+    }
 }
@@ -72,6 +72,10 @@ public class MultiVersionProtocolEngineFactory implements ProtocolEngineFactory
         final List<ProtocolEngineCreator> creators = new ArrayList<ProtocolEngineCreator>();
         for(ProtocolEngineCreator c : new QpidServiceLoader().instancesOf(ProtocolEngineCreator.class))
         {
+            if (supportedVersions.contains(c.getVersion()))
+            {
+                c.initialise(broker);
+            }
             creators.add(c);
         }
         Collections.sort(creators, new ProtocolEngineCreatorComparator());
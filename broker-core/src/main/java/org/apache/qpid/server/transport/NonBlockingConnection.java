@@ -64,6 +64,9 @@ public class NonBlockingConnection implements ServerNetworkConnection, ByteBuffe
 
     private volatile boolean _partialRead = false;
 
+    private volatile boolean _awaitingTlsHandshakeTasks;
+    private volatile boolean _processBufferedInput;
+
     private final AmqpPort _port;
     private final AtomicBoolean _scheduled = new AtomicBoolean();
     private volatile long _scheduledTime;
@@ -216,7 +219,7 @@ public class NonBlockingConnection implements ServerNetworkConnection, ByteBuffe
 
     boolean wantsRead()
     {
-        return _fullyWritten;
+        return _fullyWritten && !_awaitingTlsHandshakeTasks;
     }
 
     boolean wantsWrite()
@@ -491,8 +494,9 @@ public class NonBlockingConnection implements ServerNetworkConnection, ByteBuffe
         {
             long readData = readFromNetwork();
 
-            if (readData > 0)
+            if (readData > 0 || _processBufferedInput)
             {
+                _processBufferedInput = false;
                 return _delegate.processData();
             }
             else
@@ -661,6 +665,31 @@ public class NonBlockingConnection implements ServerNetworkConnection, ByteBuffe
         return _scheduledTime;
     }
 
+    void awaitTlsHandshakeTasks()
+    {
+        _awaitingTlsHandshakeTasks = true;
+    }
+
+    void cancelAwaitTlsHandshakeTasks()
+    {
+        _awaitingTlsHandshakeTasks = false;
+    }
+
+    void tlsHandshakeTasksComplete()
+    {
+        // input buffered whilst the tasks ran must be processed even if no more arrives from the network
+        _processBufferedInput = true;
+        _awaitingTlsHandshakeTasks = false;
+        // flag the work before checking whether the connection is scheduled: an IO thread still running doWork() checks
+        // the flag once it finishes, whereas until the protocol is negotiated the engine does not pass notifyWork() to
+        // the listener, so the connection must also be scheduled directly
+        _protocolEngine.notifyWork();
+        if (!_scheduled.get())
+        {
+            getScheduler().schedule(this);
+        }
+    }
+
     void reportUnexpectedByteBufferSizeUsage()
     {
         if (!_unexpectedByteBufferSizeReported)
@@ -28,6 +28,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.SNIHostName;
 import javax.net.ssl.SSLEngine;
@@ -43,6 +44,7 @@ import org.slf4j.LoggerFactory;
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.model.port.AmqpPort;
 import org.apache.qpid.server.transport.network.security.ssl.SSLUtil;
+import org.apache.qpid.server.transport.network.security.ssl.TlsHandshakeTrackingKeyManager;
 import org.apache.qpid.server.util.ServerScopedRuntimeException;
 
 public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDelegate
@@ -51,6 +53,7 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
 
     private final SSLEngine _sslEngine;
     private final NonBlockingConnection _parent;
+    private final AmqpPort<?> _port;
     private final int _networkBufferSize;
     private SSLEngineResult _status;
     private final List<QpidByteBuffer> _encryptedOutput = new ArrayList<>();
@@ -61,11 +64,14 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
     private QpidByteBuffer _netInputBuffer;
     private QpidByteBuffer _netOutputBuffer;
     private QpidByteBuffer _applicationBuffer;
+    private volatile boolean _handshakeTasksPending;
+    private long _handshakeStartNanos;
 
 
     public NonBlockingConnectionTLSDelegate(NonBlockingConnection parent, AmqpPort port)
     {
         _parent = parent;
+        _port = port;
         _sslEngine = createSSLEngine(port);
         _networkBufferSize = port.getNetworkBufferSize();
 
@@ -84,12 +90,17 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
     @Override
     public boolean readyForRead()
     {
-        return _sslEngine.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.NEED_WRAP;
+        return !_handshakeTasksPending
+               && _sslEngine.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.NEED_WRAP;
     }
 
     @Override
     public boolean processData() throws IOException
     {
+        if(_handshakeTasksPending)
+        {
+            return false;
+        }
         if(!_hostChecked)
         {
             try (QpidByteBuffer buffer = _netInputBuffer.duplicate())
@@ -106,6 +117,7 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
                         _sslEngine.setSSLParameters(sslParameters);
                     }
                     _hostChecked = true;
+                    _handshakeStartNanos = System.nanoTime();
                 }
                 else
                 {
@@ -143,7 +155,8 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
             restoreApplicationBufferForWrite();
 
         }
-        while((_netInputBuffer.hasRemaining() && (_netInputBuffer.position()>oldNetBufferPos)) || tasksRun);
+        while(!_handshakeTasksPending
+              && ((_netInputBuffer.hasRemaining() && (_netInputBuffer.position()>oldNetBufferPos)) || tasksRun));
 
         if(_netInputBuffer.hasRemaining())
         {
@@ -191,7 +204,8 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
                 }
             }
         }
-        return new WriteResult(bufsSent && _encryptedOutput.isEmpty(), totalConsumed);
+        // whilst handshake tasks are pending, unsent application data is picked up once they complete
+        return new WriteResult((bufsSent || _handshakeTasksPending) && _encryptedOutput.isEmpty(), totalConsumed);
     }
 
     protected void restoreApplicationBufferForWrite()
@@ -236,7 +250,8 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
         boolean encrypted;
         do
         {
-            if(_sslEngine.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.NEED_UNWRAP)
+            if(!_handshakeTasksPending
+               && _sslEngine.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.NEED_UNWRAP)
             {
                 if(_netOutputBuffer.remaining() < _sslEngine.getSession().getPacketBufferSize())
                 {
@@ -287,20 +302,61 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
 
     private boolean runSSLEngineTasks(final SSLEngineResult status)
     {
-        if(status.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_TASK)
+        if(status.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.FINISHED)
+        {
+            _port.registerTlsHandshake(TlsHandshakeTrackingKeyManager.isResumedHandshake(_sslEngine),
+                                       TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - _handshakeStartNanos));
+        }
+        else if(status.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_TASK)
         {
+            final List<Runnable> tasks = new ArrayList<>();
             Runnable task;
             while((task = _sslEngine.getDelegatedTask()) != null)
             {
-                task.run();
+                tasks.add(task);
             }
 
+            _handshakeTasksPending = true;
+            _parent.awaitTlsHandshakeTasks();
+            if (_port.executeTlsHandshakeTask(() -> runTasksAndResume(tasks)))
+            {
+                return false;
+            }
+            _handshakeTasksPending = false;
+            _parent.cancelAwaitTlsHandshakeTasks();
+            runTasks(tasks);
             return true;
         }
 
         return false;
     }
 
+    private void runTasksAndResume(final List<Runnable> tasks)
+    {
+        try
+        {
+            runTasks(tasks);
+        }
+        catch (RuntimeException e)
+        {
+            LOGGER.warn("Unexpected exception running TLS handshake task for connection {}", _parent, e);
+            _parent.close();
+        }
+        finally
+        {
+            _handshakeTasksPending = false;
+            _parent.tlsHandshakeTasksComplete();
+        }
+    }
+
+    private void runTasks(final List<Runnable> tasks)
+    {
+        for (Runnable task : tasks)
+        {
+            task.run();
+        }
+    }
+
     @Override
     public Principal getPeerPrincipal()
     {
@@ -318,7 +374,8 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
     @Override
     public boolean needsWork()
     {
-        return _sslEngine.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.NEED_UNWRAP;
+        return !_handshakeTasksPending
+               && _sslEngine.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.NEED_UNWRAP;
     }
 
     private synchronized void checkPeerPrincipal()
@@ -73,6 +73,7 @@ import javax.net.ssl.SSLPeerUnverifiedException;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.StandardConstants;
 import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509KeyManager;
 import javax.net.ssl.X509TrustManager;
 
 import org.apache.qpid.server.util.ServerScopedRuntimeException;
@@ -929,6 +930,17 @@ public class SSLUtil
         {
             sslContext = tryGetSSLContext();
             KeyManager[] keyManagers = keyStore.getKeyManagers();
+            if (keyManagers != null)
+            {
+                keyManagers = keyManagers.clone();
+                for (int i = 0; i < keyManagers.length; i++)
+                {
+                    if (keyManagers[i] instanceof X509KeyManager)
+                    {
+                        keyManagers[i] = new TlsHandshakeTrackingKeyManager((X509KeyManager) keyManagers[i]);
+                    }
+                }
+            }
 
             TrustManager[] trustManagers;
             if(trustStores == null || trustStores.isEmpty())
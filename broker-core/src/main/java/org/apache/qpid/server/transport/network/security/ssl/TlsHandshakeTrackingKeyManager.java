@@ -0,0 +1,116 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.transport.network.security.ssl;
+
+import java.net.Socket;
+import java.security.Principal;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.X509ExtendedKeyManager;
+import javax.net.ssl.X509KeyManager;
+
+/**
+ * Wraps the key manager of a port in order to tell full TLS handshakes from those which resume a cached session.
+ * Only a full handshake selects the server's key, whereas a resumed handshake, whether by session id or by session
+ * ticket, reuses the keys of the original session without consulting the key manager.
+ */
+public class TlsHandshakeTrackingKeyManager extends X509ExtendedKeyManager
+{
+    private static final Set<SSLEngine> FULL_HANDSHAKE_ENGINES =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final X509KeyManager _delegate;
+
+    public TlsHandshakeTrackingKeyManager(final X509KeyManager delegate)
+    {
+        _delegate = delegate;
+    }
+
+    /**
+     * Returns true if the handshake just completed by the given engine resumed a session rather than selecting the
+     * server key. Must be called once, on completion of the handshake.
+     */
+    public static boolean isResumedHandshake(final SSLEngine engine)
+    {
+        return !FULL_HANDSHAKE_ENGINES.remove(engine);
+    }
+
+    @Override
+    public String chooseEngineServerAlias(final String keyType, final Principal[] issuers, final SSLEngine engine)
+    {
+        if (engine != null)
+        {
+            FULL_HANDSHAKE_ENGINES.add(engine);
+        }
+        return _delegate instanceof X509ExtendedKeyManager
+                ? ((X509ExtendedKeyManager) _delegate).chooseEngineServerAlias(keyType, issuers, engine)
+                : _delegate.chooseServerAlias(keyType, issuers, null);
+    }
+
+    @Override
+    public String chooseEngineClientAlias(final String[] keyType, final Principal[] issuers, final SSLEngine engine)
+    {
+        return _delegate instanceof X509ExtendedKeyManager
+                ? ((X509ExtendedKeyManager) _delegate).chooseEngineClientAlias(keyType, issuers, engine)
+                : _delegate.chooseClientAlias(keyType, issuers, null);
+    }
+
+    @Override
+    public String[] getClientAliases(final String keyType, final Principal[] issuers)
+    {
+        return _delegate.getClientAliases(keyType, issuers);
+    }
+
+    @Override
+    public String chooseClientAlias(final String[] keyType, final Principal[] issuers, final Socket socket)
+    {
+        return _delegate.chooseClientAlias(keyType, issuers, socket);
+    }
+
+    @Override
+    public String[] getServerAliases(final String keyType, final Principal[] issuers)
+    {
+        return _delegate.getServerAliases(keyType, issuers);
+    }
+
+    @Override
+    public String chooseServerAlias(final String keyType, final Principal[] issuers, final Socket socket)
+    {
+        return _delegate.chooseServerAlias(keyType, issuers, socket);
+    }
+
+    @Override
+    public X509Certificate[] getCertificateChain(final String alias)
+    {
+        return _delegate.getCertificateChain(alias);
+    }
+
+    @Override
+    public PrivateKey getPrivateKey(final String alias)
+    {
+        return _delegate.getPrivateKey(alias);
+    }
+}
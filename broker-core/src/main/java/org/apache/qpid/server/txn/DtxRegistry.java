@@ -22,20 +22,32 @@
 package org.apache.qpid.server.txn;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.qpid.server.session.AMQPSession;
 import org.apache.qpid.server.store.MessageStore;
 import org.apache.qpid.server.store.StoreException;
 import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
 
+/**
+ * Holds the distributed transaction branches of a virtual host.  Operations on a branch are serialised by the
+ * branch's own lock, so that branches are prepared, committed and rolled back (including the store work this
+ * entails) concurrently with one another.
+ */
 public class DtxRegistry
 {
-    private final Map<ComparableXid, DtxBranch> _branches = new HashMap<>();
+    private final ConcurrentMap<ComparableXid, DtxBranch> _branches = new ConcurrentHashMap<>();
     private final QueueManagingVirtualHost<?> _virtualHost;
+    private final AtomicLong _preparedCount = new AtomicLong();
+    private final AtomicLong _prepareTime = new AtomicLong();
+    private final AtomicLong _committedCount = new AtomicLong();
+    private final AtomicLong _commitTime = new AtomicLong();
+    private final AtomicLong _rolledBackCount = new AtomicLong();
 
     public DtxRegistry(final QueueManagingVirtualHost<?> virtualHost)
     {
@@ -115,28 +127,31 @@ public class DtxRegistry
         }
     }
 
-    public synchronized DtxBranch getBranch(Xid xid)
+    public DtxBranch getBranch(Xid xid)
     {
         return _branches.get(new ComparableXid(xid));
     }
 
-    public synchronized boolean registerBranch(DtxBranch branch)
+    public boolean registerBranch(DtxBranch branch)
     {
-        ComparableXid xid = new ComparableXid(branch.getXid());
-        if(!_branches.containsKey(xid))
-        {
-            _branches.put(xid, branch);
-            return true;
-        }
-        return false;
+        return _branches.putIfAbsent(new ComparableXid(branch.getXid()), branch) == null;
     }
 
-    synchronized boolean unregisterBranch(DtxBranch branch)
+    boolean unregisterBranch(DtxBranch branch)
     {
-        return (_branches.remove(new ComparableXid(branch.getXid())) != null);
+        return _branches.remove(new ComparableXid(branch.getXid()), branch);
     }
 
-    public synchronized void commit(Xid id, boolean onePhase)
+    /**
+     * Whether the branch, on whose lock the caller is synchronized, is still registered: another thread may have
+     * completed it (and a new branch may have been started with the same xid) whilst the caller waited for the lock.
+     */
+    private boolean isRegistered(final DtxBranch branch)
+    {
+        return getBranch(branch.getXid()) == branch;
+    }
+
+    public void commit(Xid id, boolean onePhase)
             throws IncorrectDtxStateException, UnknownDtxBranchException, StoreException, RollbackOnlyDtxException, TimeoutDtxException
     {
         DtxBranch branch = getBranch(id);
@@ -144,7 +159,11 @@ public class DtxRegistry
         {
             synchronized (branch)
             {
-                if(!branch.hasAssociatedActiveSessions())
+                if(!isRegistered(branch))
+                {
+                    throw new UnknownDtxBranchException(id);
+                }
+                else if(!branch.hasAssociatedActiveSessions())
                 {
                     branch.clearAssociations();
 
@@ -166,9 +185,12 @@ public class DtxRegistry
                         throw new IncorrectDtxStateException("Cannot call two-phase commit on a non-prepared branch",
                                                              id);
                     }
+                    final long startTime = System.nanoTime();
                     branch.commit();
                     branch.setState(DtxBranch.State.FORGOTTEN);
                     unregisterBranch(branch);
+                    _commitTime.addAndGet(System.nanoTime() - startTime);
+                    _committedCount.incrementAndGet();
                 }
                 else
                 {
@@ -182,7 +204,7 @@ public class DtxRegistry
         }
     }
 
-    public synchronized void prepare(Xid id)
+    public void prepare(Xid id)
             throws UnknownDtxBranchException,
             IncorrectDtxStateException, StoreException, RollbackOnlyDtxException, TimeoutDtxException
     {
@@ -191,7 +213,11 @@ public class DtxRegistry
         {
             synchronized (branch)
             {
-                if(!branch.hasAssociatedActiveSessions())
+                if(!isRegistered(branch))
+                {
+                    throw new UnknownDtxBranchException(id);
+                }
+                else if(!branch.hasAssociatedActiveSessions())
                 {
                     branch.clearAssociations();
 
@@ -208,8 +234,11 @@ public class DtxRegistry
                     }
                     else
                     {
+                        final long startTime = System.nanoTime();
                         branch.prepare();
                         branch.setState(DtxBranch.State.PREPARED);
+                        _prepareTime.addAndGet(System.nanoTime() - startTime);
+                        _preparedCount.incrementAndGet();
                     }
                 }
                 else
@@ -224,7 +253,7 @@ public class DtxRegistry
         }
     }
 
-    public synchronized void rollback(Xid id)
+    public void rollback(Xid id)
             throws IncorrectDtxStateException,
             UnknownDtxBranchException,
             StoreException, TimeoutDtxException
@@ -235,6 +264,10 @@ public class DtxRegistry
         {
             synchronized (branch)
             {
+                if(!isRegistered(branch))
+                {
+                    throw new UnknownDtxBranchException(id);
+                }
                 if(branch.expired() || branch.getState() == DtxBranch.State.TIMEDOUT)
                 {
                     unregisterBranch(branch);
@@ -246,6 +279,7 @@ public class DtxRegistry
                     branch.rollback();
                     branch.setState(DtxBranch.State.FORGOTTEN);
                     unregisterBranch(branch);
+                    _rolledBackCount.incrementAndGet();
                 }
                 else
                 {
@@ -267,7 +301,11 @@ public class DtxRegistry
         {
             synchronized (branch)
             {
-                if(!branch.hasAssociatedSessions())
+                if(!isRegistered(branch))
+                {
+                    throw new UnknownDtxBranchException(id);
+                }
+                else if(!branch.hasAssociatedSessions())
                 {
                     if(branch.getState() != DtxBranch.State.HEUR_COM && branch.getState() != DtxBranch.State.HEUR_RB)
                     {
@@ -315,7 +353,7 @@ public class DtxRegistry
         }
     }
 
-    public synchronized List<Xid> recover()
+    public List<Xid> recover()
     {
         List<Xid> inDoubt = new ArrayList<>();
         for(DtxBranch branch : _branches.values())
@@ -328,7 +366,7 @@ public class DtxRegistry
         return inDoubt;
     }
 
-    public synchronized void endAssociations(AMQPSession<?,?> session)
+    public void endAssociations(AMQPSession<?,?> session)
     {
         for(DtxBranch branch : _branches.values())
         {
@@ -342,7 +380,7 @@ public class DtxRegistry
     }
 
 
-    public synchronized void close()
+    public void close()
     {
         for(DtxBranch branch : _branches.values())
         {
@@ -351,4 +389,40 @@ public class DtxRegistry
         _branches.clear();
     }
 
+    public int getBranchCount()
+    {
+        return _branches.size();
+    }
+
+    public long getPreparedCount()
+    {
+        return _preparedCount.get();
+    }
+
+    /**
+     * @return the total time in milliseconds spent preparing branches
+     */
+    public long getPrepareTime()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(_prepareTime.get());
+    }
+
+    public long getCommittedCount()
+    {
+        return _committedCount.get();
+    }
+
+    /**
+     * @return the total time in milliseconds spent committing branches
+     */
+    public long getCommitTime()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(_commitTime.get());
+    }
+
+    public long getRolledBackCount()
+    {
+        return _rolledBackCount.get();
+    }
+
 }
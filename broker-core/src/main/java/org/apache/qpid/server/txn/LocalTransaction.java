@@ -27,7 +27,6 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.google.common.util.concurrent.ListenableFuture;
@@ -41,7 +40,6 @@ import org.apache.qpid.server.store.MessageEnqueueRecord;
 import org.apache.qpid.server.store.MessageStore;
 import org.apache.qpid.server.store.Transaction;
 import org.apache.qpid.server.store.TransactionLogResource;
-import org.apache.qpid.server.util.ServerScopedRuntimeException;
 
 /**
  * A concrete implementation of ServerTransaction where enqueue/dequeue
@@ -74,7 +72,6 @@ public class LocalTransaction implements ServerTransaction
     private final MessageStore _transactionLog;
     private volatile long _txnStartTime = 0L;
     private volatile long _txnUpdateTime = 0l;
-    private ListenableFuture<Runnable> _asyncTran;
     private volatile boolean _outstandingWork;
     private final LocalTransactionState _finalState;
     private final Set<LocalTransactionListener> _localTransactionListeners = new CopyOnWriteArraySet<>();
@@ -116,14 +113,12 @@ public class LocalTransaction implements ServerTransaction
     @Override
     public void addPostTransactionAction(Action postTransactionAction)
     {
-        sync();
         _postTransactionActions.add(postTransactionAction);
     }
 
     @Override
     public void dequeue(MessageEnqueueRecord record, Action postTransactionAction)
     {
-        sync();
         _outstandingWork = true;
         _postTransactionActions.add(postTransactionAction);
         initTransactionStartTimeIfNecessaryAndAdvanceUpdateTime();
@@ -150,7 +145,6 @@ public class LocalTransaction implements ServerTransaction
     @Override
     public void dequeue(Collection<MessageInstance> queueEntries, Action postTransactionAction)
     {
-        sync();
         _outstandingWork = true;
         _postTransactionActions.add(postTransactionAction);
         initTransactionStartTimeIfNecessaryAndAdvanceUpdateTime();
@@ -183,7 +177,7 @@ public class LocalTransaction implements ServerTransaction
     {
         try
         {
-            doRollbackActions();
+            doRollbackActions(_postTransactionActions);
         }
         finally
         {
@@ -214,7 +208,6 @@ public class LocalTransaction implements ServerTransaction
     @Override
     public void enqueue(TransactionLogResource queue, EnqueueableMessage message, EnqueueAction postTransactionAction)
     {
-        sync();
         _outstandingWork = true;
         initTransactionStartTimeIfNecessaryAndAdvanceUpdateTime();
         _transactionObserver.onMessageEnqueue(this, message);
@@ -299,7 +292,6 @@ public class LocalTransaction implements ServerTransaction
     @Override
     public void enqueue(Collection<? extends BaseQueue> queues, EnqueueableMessage message, EnqueueAction postTransactionAction)
     {
-        sync();
         _outstandingWork = true;
         initTransactionStartTimeIfNecessaryAndAdvanceUpdateTime();
         _transactionObserver.onMessageEnqueue(this, message);
@@ -377,7 +369,6 @@ public class LocalTransaction implements ServerTransaction
     @Override
     public void commit(Runnable immediateAction)
     {
-        sync();
         if(!_state.compareAndSet(LocalTransactionState.ACTIVE, LocalTransactionState.DISCHARGING))
         {
             LocalTransactionState state = _state.get();
@@ -399,7 +390,7 @@ public class LocalTransaction implements ServerTransaction
                 immediateAction.run();
             }
 
-            doPostTransactionActions();
+            doPostTransactionActions(_postTransactionActions);
         }
         finally
         {
@@ -407,17 +398,21 @@ public class LocalTransaction implements ServerTransaction
         }
     }
 
-    private void doRollbackActions()
+    private void doRollbackActions(final List<Action> postTransactionActions)
     {
-        for(Action action : _postTransactionActions)
+        for(Action action : postTransactionActions)
         {
             action.onRollback();
         }
     }
 
-    public void commitAsync(final Runnable deferred)
+    /**
+     * Commits the transaction without waiting for the store commit to complete, leaving the transaction immediately
+     * available for further work.  The post transaction actions, followed by the deferred action, are performed
+     * when the future recorded with the given recorder is completed.
+     */
+    public void commitAsync(final Runnable deferred, final AsyncAutoCommitTransaction.FutureRecorder recorder)
     {
-        sync();
         if(!_state.compareAndSet(LocalTransactionState.ACTIVE, LocalTransactionState.DISCHARGING))
         {
             LocalTransactionState state = _state.get();
@@ -427,50 +422,56 @@ public class LocalTransaction implements ServerTransaction
             throw new IllegalStateException(message);
         }
 
-        if(_transaction != null)
+        if(_transaction == null)
         {
-
-            Runnable action = new Runnable()
-                                {
-                                    @Override
-                                    public void run()
-                                    {
-                                        try
-                                        {
-                                            doPostTransactionActions();
-                                            deferred.run();
-                                        }
-                                        finally
-                                        {
-                                            resetDetails();
-                                        }
-
-                                    }
-                                };
-            _asyncTran = _transaction.commitTranAsync(action);
-
+            try
+            {
+                doPostTransactionActions(_postTransactionActions);
+                deferred.run();
+            }
+            finally
+            {
+                resetDetails();
+            }
         }
         else
         {
-                try
+            final List<Action> postTransactionActions = new ArrayList<>(_postTransactionActions);
+            final ListenableFuture<Void> future;
+            try
+            {
+                future = _transaction.commitTranAsync((Void) null);
+            }
+            finally
+            {
+                resetDetails();
+            }
+
+            recorder.recordFuture(future, new Action()
+            {
+                @Override
+                public void postCommit()
                 {
-                    doPostTransactionActions();
+                    doPostTransactionActions(postTransactionActions);
                     deferred.run();
                 }
-                finally
+
+                @Override
+                public void onRollback()
                 {
-                    resetDetails();
+                    doRollbackActions(postTransactionActions);
                 }
+            });
         }
     }
 
-    private void doPostTransactionActions()
+    private void doPostTransactionActions(final List<Action> postTransactionActions)
     {
-        LOGGER.debug("Beginning {} post transaction actions",  _postTransactionActions.size());
+        LOGGER.debug("Beginning {} post transaction actions",  postTransactionActions.size());
 
-        for(int i = 0; i < _postTransactionActions.size(); i++)
+        for(int i = 0; i < postTransactionActions.size(); i++)
         {
-            _postTransactionActions.get(i).postCommit();
+            postTransactionActions.get(i).postCommit();
         }
 
         LOGGER.debug("Completed post transaction actions");
@@ -480,7 +481,6 @@ public class LocalTransaction implements ServerTransaction
     @Override
     public void rollback()
     {
-        sync();
         if (!_state.compareAndSet(LocalTransactionState.ACTIVE, LocalTransactionState.DISCHARGING)
             && !_state.compareAndSet(LocalTransactionState.ROLLBACK_ONLY, LocalTransactionState.DISCHARGING)
             && _state.get() != LocalTransactionState.DISCHARGING)
@@ -500,7 +500,7 @@ public class LocalTransaction implements ServerTransaction
         {
             try
             {
-                doRollbackActions();
+                doRollbackActions(_postTransactionActions);
             }
             finally
             {
@@ -509,50 +509,6 @@ public class LocalTransaction implements ServerTransaction
         }
     }
 
-    public void sync()
-    {
-        if(_asyncTran != null)
-        {
-            boolean interrupted = false;
-            try
-            {
-                while (true)
-                {
-                    try
-                    {
-                        _asyncTran.get().run();
-                        break;
-                    }
-                    catch (InterruptedException e)
-                    {
-                        interrupted = true;
-                    }
-
-                }
-            }
-            catch(ExecutionException e)
-            {
-                if(e.getCause() instanceof RuntimeException)
-                {
-                    throw (RuntimeException)e.getCause();
-                }
-                else if(e.getCause() instanceof Error)
-                {
-                    throw (Error) e.getCause();
-                }
-                else
-                {
-                    throw new ServerScopedRuntimeException(e.getCause());
-                }
-            }
-            if(interrupted)
-            {
-                Thread.currentThread().interrupt();
-            }
-            _asyncTran = null;
-        }
-    }
-
     private void initTransactionStartTimeIfNecessaryAndAdvanceUpdateTime()
     {
         long currentTime = _activityTime.getActivityTime();
@@ -568,7 +524,6 @@ public class LocalTransaction implements ServerTransaction
     {
         _outstandingWork = false;
         _transactionObserver.onDischarge(this);
-        _asyncTran = null;
         _transaction = null;
         _postTransactionActions.clear();
         _txnStartTime = 0L;
@@ -64,6 +64,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import javax.security.auth.Subject;
 
@@ -174,6 +176,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     private static final int HOUSEKEEPING_SHUTDOWN_TIMEOUT = 5;
 
     private volatile ScheduledThreadPoolExecutor _houseKeepingTaskExecutor;
+    private volatile ScheduledThreadPoolExecutor _messageOperationExecutor;
     private volatile ScheduledFuture<?> _statisticsReportingFuture;
 
     private final Broker<?> _broker;
@@ -283,6 +286,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     private Collection<VirtualHostLogger> _virtualHostLoggersToClose;
     private PreferenceStore _preferenceStore;
     private long _flowToDiskCheckPeriod;
+    private boolean _flowToDiskWalkQueues;
     private volatile boolean _isDiscardGlobalSharedSubscriptionLinksOnDetach;
     private volatile ConnectionPrincipalStatisticsRegistry _connectionPrincipalStatisticsRegistry;
     private volatile HouseKeepingTask _statisticsCheckTask;
@@ -608,6 +612,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
 
         _fileSystemMaxUsagePercent = getContextValue(Integer.class, Broker.STORE_FILESYSTEM_MAX_USAGE_PERCENT);
         _flowToDiskCheckPeriod = getContextValue(Long.class, FLOW_TO_DISK_CHECK_PERIOD);
+        _flowToDiskWalkQueues = getContextValue(Boolean.class, FLOW_TO_DISK_WALK_QUEUES);
         _isDiscardGlobalSharedSubscriptionLinksOnDetach = getContextValue(Boolean.class, DISCARD_GLOBAL_SHARED_SUBSCRIPTION_LINKS_ON_DETACH);
 
         QpidServiceLoader serviceLoader = new QpidServiceLoader();
@@ -659,6 +664,14 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                                                                  getHousekeepingThreadCount(),
                                                                  getSystemTaskSubject("Housekeeping", getPrincipal()));
         }
+        if(_messageOperationExecutor == null || _messageOperationExecutor.isTerminated())
+        {
+            _messageOperationExecutor = new HousekeepingExecutor("virtualhost-" + getName() + "-messageOperations",
+                                                                 getContextValue(Integer.class,
+                                                                                 QUEUE_MESSAGE_OPERATION_THREAD_COUNT),
+                                                                 getSystemTaskSubject("Message Operations",
+                                                                                      getPrincipal()));
+        }
     }
 
     private void checkVHostStateIsActive()
@@ -910,26 +923,38 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     }
 
     @Override
-    public Content exportMessageStore()
+    public Content exportMessageStore(final boolean compress)
     {
-        return new MessageStoreContent();
+        return new MessageStoreContent(compress);
     }
 
     private class MessageStoreContent implements Content, CustomRestHeaders
     {
+        private final boolean _compress;
+
+        private MessageStoreContent(final boolean compress)
+        {
+            _compress = compress;
+        }
 
         @Override
         public void write(final OutputStream outputStream) throws IOException
         {
-            doSync(doOnConfigThread(new Task<ListenableFuture<Void>, IOException>()
+            final OutputStream target = _compress ? new GZIPOutputStream(outputStream) : outputStream;
+            final boolean active = doSync(doOnConfigThread(new Task<ListenableFuture<Boolean>, IOException>()
             {
                 @Override
-                public ListenableFuture<Void> execute() throws IOException
+                public ListenableFuture<Boolean> execute() throws IOException
                 {
-                    if (getState() != State.STOPPED)
+                    if (getState() == State.ACTIVE)
+                    {
+                        // the export of an active store is not run on the configuration thread
+                        return Futures.immediateFuture(Boolean.TRUE);
+                    }
+                    else if (getState() != State.STOPPED)
                     {
                         throw new IllegalArgumentException(
-                                "The exportMessageStore operation can only be called when the virtual host is stopped");
+                                "The exportMessageStore operation can only be called when the virtual host is active or stopped");
                     }
 
                     _messageStore.openMessageStore(AbstractVirtualHost.this);
@@ -949,13 +974,13 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                         });
                         MessageStoreSerializer serializer = new QpidServiceLoader().getInstancesByType(MessageStoreSerializer.class).get(MessageStoreSerializer.LATEST);
                         MessageStore.MessageStoreReader reader = _messageStore.newMessageStoreReader();
-                        serializer.serialize(queueMap, reader, outputStream);
+                        serializer.serialize(queueMap, reader, target);
                     }
                     finally
                     {
                         _messageStore.closeMessageStore();
                     }
-                    return Futures.immediateFuture(null);
+                    return Futures.immediateFuture(Boolean.FALSE);
                 }
 
                 @Override
@@ -973,9 +998,41 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                 @Override
                 public String getArguments()
                 {
-                    return null;
+                    return "compress=" + _compress;
                 }
             }));
+
+            if (active)
+            {
+                exportActiveMessageStore(target);
+            }
+
+            if (_compress)
+            {
+                ((GZIPOutputStream) target).finish();
+            }
+        }
+
+        private void exportActiveMessageStore(final OutputStream target) throws IOException
+        {
+            final Map<UUID, String> queueMap = new HashMap<>();
+            for (Queue<?> queue : getChildren(Queue.class))
+            {
+                if (queue.isDurable())
+                {
+                    queueMap.put(queue.getId(), queue.getName());
+                }
+            }
+            final MessageStoreSerializer serializer = MessageStoreSerializer.FACTORY.newInstance();
+            final MessageStore.MessageStoreReader reader = _messageStore.newMessageStoreReader();
+            try
+            {
+                serializer.serialize(queueMap, reader, target);
+            }
+            finally
+            {
+                reader.close();
+            }
         }
 
         @Override
@@ -1002,9 +1059,12 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                 String asciiName = vhostName.replaceAll("[^\\x20-\\x7E]", "?")
                                                  .replace('\\', '?')
                                                  .replaceAll("%[0-9a-fA-F]{2}", "?");
-                String disposition = String.format("attachment; filename=\"%s_messages.bin\"; filename*=\"UTF-8''%s_messages.bin\"",
+                String extension = _compress ? "bin.gz" : "bin";
+                String disposition = String.format("attachment; filename=\"%s_messages.%s\"; filename*=\"UTF-8''%s_messages.%s\"",
                                                    asciiName,
-                                                   URLEncoder.encode(vhostName, StandardCharsets.UTF_8.name())
+                                                   extension,
+                                                   URLEncoder.encode(vhostName, StandardCharsets.UTF_8.name()),
+                                                   extension
                                                    );
                 return disposition;
             }
@@ -1024,8 +1084,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
             final URL url = convertStringToURL(source);
 
             try (InputStream input = url.openStream();
-                 BufferedInputStream bufferedInputStream = new BufferedInputStream(input);
-                 DataInputStream data = new DataInputStream(bufferedInputStream))
+                 DataInputStream data = new DataInputStream(new BufferedInputStream(decompressIfNecessary(input))))
             {
 
                 final MessageStoreSerializer serializer = MessageStoreSerializer.FACTORY.newInstance(data);
@@ -1059,7 +1118,11 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                                 }
                             });
 
-                            serializer.deserialize(queueMap, _messageStore, data);
+                            serializer.deserialize(queueMap,
+                                                   _messageStore,
+                                                   data,
+                                                   getContextValue(Integer.class,
+                                                                   MESSAGE_STORE_IMPORT_THREAD_COUNT));
                         }
                         finally
                         {
@@ -1105,6 +1168,15 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         }
     }
 
+    private InputStream decompressIfNecessary(final InputStream input) throws IOException
+    {
+        final BufferedInputStream bufferedInput = new BufferedInputStream(input);
+        bufferedInput.mark(2);
+        final int magic = bufferedInput.read() | (bufferedInput.read() << 8);
+        bufferedInput.reset();
+        return magic == GZIPInputStream.GZIP_MAGIC ? new GZIPInputStream(bufferedInput) : bufferedInput;
+    }
+
     private void checkMessageStoreEmpty()
     {
         final MessageStore.MessageStoreReader reader = _messageStore.newMessageStoreReader();
@@ -1203,6 +1275,12 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
 
     private void shutdownHouseKeeping()
     {
+        if(_messageOperationExecutor != null)
+        {
+            _messageOperationExecutor.shutdownNow();
+            _messageOperationExecutor = null;
+        }
+
         if(_houseKeepingTaskExecutor != null)
         {
             _houseKeepingTaskExecutor.shutdown();
@@ -1267,6 +1345,19 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         });
     }
 
+    @Override
+    public void executeMessageOperationTask(final String name, final Runnable task, AccessControlContext context)
+    {
+        _messageOperationExecutor.execute(new HouseKeepingTask(name, this, context)
+        {
+            @Override
+            public void execute()
+            {
+                task.run();
+            }
+        });
+    }
+
 
     @Override
     public List<String> getEnabledConnectionValidators()
@@ -1484,6 +1575,48 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         return _messageStore == null ? -1 : _messageStore.getBytesEvacuatedFromMemory();
     }
 
+    @Override
+    public long getBytesReloadedIntoMemory()
+    {
+        return _messageStore == null ? -1 : _messageStore.getBytesReloadedIntoMemory();
+    }
+
+    @Override
+    public int getDtxBranchCount()
+    {
+        return _dtxRegistry.getBranchCount();
+    }
+
+    @Override
+    public long getDtxPreparedCount()
+    {
+        return _dtxRegistry.getPreparedCount();
+    }
+
+    @Override
+    public long getDtxPrepareTime()
+    {
+        return _dtxRegistry.getPrepareTime();
+    }
+
+    @Override
+    public long getDtxCommittedCount()
+    {
+        return _dtxRegistry.getCommittedCount();
+    }
+
+    @Override
+    public long getDtxCommitTime()
+    {
+        return _dtxRegistry.getCommitTime();
+    }
+
+    @Override
+    public long getDtxRolledBackCount()
+    {
+        return _dtxRegistry.getRolledBackCount();
+    }
+
     @Override
     public <T extends ConfiguredObject<?>> T getAttainedChildFromAddress(final Class<T> childClass,
                                                                          final String address)
@@ -2108,58 +2241,155 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
             super("FlowToDiskChecking["+AbstractVirtualHost.this.getName()+"]", AbstractVirtualHost.this, _housekeepingJobContext);
         }
 
+        /**
+         * Flows messages to disk until the in-memory size falls below the target.  By default the queues are walked
+         * so that consumers are taken into account.  If the walk is disabled and the message store keeps track of the
+         * messages holding data in memory, only as many of those as necessary are visited instead.
+         */
         @Override
         public void execute()
         {
             if (isOverTargetSize())
             {
-                long currentTargetSize = _targetSize.get();
-                List<QueueEntryIterator> queueIterators = new ArrayList<>();
-                for (Queue<?> q : getChildren(Queue.class))
+                final Iterator<StoredMessage<?>> candidates =
+                        _flowToDiskWalkQueues ? null : _messageStore.getFlowToDiskCandidates();
+                if (candidates == null)
                 {
-                    queueIterators.add(q.queueEntryIterator());
+                    walkQueues();
                 }
-                Collections.shuffle(queueIterators);
+                else
+                {
+                    while (candidates.hasNext() && isOverTargetSize())
+                    {
+                        candidates.next().flowToDisk();
+                    }
+                }
+            }
+        }
 
-                long cumulativeSize = 0;
-                final Iterator<QueueEntryIterator> cyclicIterators = cycle(queueIterators);
-                while (cyclicIterators.hasNext())
+        /**
+         * Walks the queues from their heads, keeping content in memory for the entries nearest to delivery until the
+         * target size is reached and flowing the content of the remainder to disk.  Queues with consumers are walked
+         * first (in turn, a message at a time) so that memory is preferentially retained for the messages their
+         * consumers will be sent next, and the content of messages on queues without consumers is released first.
+         */
+        private void walkQueues()
+        {
+            long currentTargetSize = _targetSize.get();
+            List<QueueFlowToDiskCheck> consumedQueues = new ArrayList<>();
+            List<QueueFlowToDiskCheck> unconsumedQueues = new ArrayList<>();
+            for (Queue<?> q : getChildren(Queue.class))
+            {
+                final QueueFlowToDiskCheck check = new QueueFlowToDiskCheck(q);
+                if (q.getConsumerCount() > 0)
                 {
-                    final QueueEntryIterator queueIterator = cyclicIterators.next();
-                    if (queueIterator.advance())
+                    consumedQueues.add(check);
+                }
+                else
+                {
+                    unconsumedQueues.add(check);
+                }
+            }
+            Collections.shuffle(consumedQueues);
+            Collections.shuffle(unconsumedQueues);
+
+            long cumulativeSize = checkQueues(consumedQueues, 0L, currentTargetSize);
+            checkQueues(unconsumedQueues, cumulativeSize, currentTargetSize);
+
+            for (QueueFlowToDiskCheck check : consumedQueues)
+            {
+                check.complete();
+            }
+            for (QueueFlowToDiskCheck check : unconsumedQueues)
+            {
+                check.complete();
+            }
+        }
+
+        private long checkQueues(final List<QueueFlowToDiskCheck> queueChecks,
+                                 long cumulativeSize,
+                                 final long currentTargetSize)
+        {
+            final Iterator<QueueFlowToDiskCheck> cyclicChecks = cycle(new ArrayList<>(queueChecks));
+            while (cyclicChecks.hasNext())
+            {
+                final QueueFlowToDiskCheck check = cyclicChecks.next();
+                final QueueEntryIterator queueIterator = check.getIterator();
+                if (queueIterator.advance())
+                {
+                    QueueEntry node = queueIterator.getNode();
+                    if (node != null && !node.isDeleted())
                     {
-                        QueueEntry node = queueIterator.getNode();
-                        if (node != null && !node.isDeleted())
+                        try (MessageReference messageReference = node.getMessage().newReference())
                         {
-                            try (MessageReference messageReference = node.getMessage().newReference())
+                            final StoredMessage storedMessage = messageReference.getMessage().getStoredMessage();
+                            final long inMemorySize = storedMessage.getInMemorySize();
+                            if (inMemorySize > 0)
                             {
-                                final StoredMessage storedMessage = messageReference.getMessage().getStoredMessage();
-                                final long inMemorySize = storedMessage.getInMemorySize();
-                                if (inMemorySize > 0)
+                                if (cumulativeSize <= currentTargetSize)
                                 {
-                                    if (cumulativeSize <= currentTargetSize)
-                                    {
-                                        cumulativeSize += inMemorySize;
-                                    }
+                                    cumulativeSize += inMemorySize;
+                                }
 
-                                    if (cumulativeSize > currentTargetSize && node.getQueue().checkValid(node))
-                                    {
-                                        storedMessage.flowToDisk();
-                                    }
+                                if (cumulativeSize > currentTargetSize && node.getQueue().checkValid(node))
+                                {
+                                    storedMessage.flowToDisk();
+                                    check.flowedToDisk(inMemorySize);
                                 }
                             }
-                            catch (MessageDeletedException e)
-                            {
-                                // pass
-                            }
                         }
-                    }
-                    else
-                    {
-                        cyclicIterators.remove();
+                        catch (MessageDeletedException e)
+                        {
+                            // pass
+                        }
+                        check.advanced();
                     }
                 }
+                else
+                {
+                    cyclicChecks.remove();
+                }
             }
+            return cumulativeSize;
+        }
+    }
+
+    private static class QueueFlowToDiskCheck
+    {
+        private final Queue<?> _queue;
+        private final QueueEntryIterator _iterator;
+        private long _position;
+        private long _flowedToDiskBytes;
+        private long _flowToDiskDistance = -1L;
+
+        private QueueFlowToDiskCheck(final Queue<?> queue)
+        {
+            _queue = queue;
+            _iterator = queue.queueEntryIterator();
+        }
+
+        QueueEntryIterator getIterator()
+        {
+            return _iterator;
+        }
+
+        void flowedToDisk(final long size)
+        {
+            if (_flowToDiskDistance < 0)
+            {
+                _flowToDiskDistance = _position;
+            }
+            _flowedToDiskBytes += size;
+        }
+
+        void advanced()
+        {
+            _position++;
+        }
+
+        void complete()
+        {
+            _queue.flowToDiskChecked(_flowedToDiskBytes, _flowToDiskDistance);
         }
     }
 
@@ -2235,108 +2465,156 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     @Override
     public void executeTransaction(TransactionalOperation op)
     {
-        final MessageStore store = getMessageStore();
-        final LocalTransaction txn = new LocalTransaction(store);
+        final BatchingTransaction txn = new BatchingTransaction(getMessageStore(), op, 0);
+        op.withinTransaction(txn);
+        txn.commit();
+    }
 
-        op.withinTransaction(new Transaction()
+    @Override
+    public void executeBatchedTransaction(TransactionalOperation op)
+    {
+        final BatchingTransaction txn =
+                new BatchingTransaction(getMessageStore(),
+                                        op,
+                                        getContextValue(Integer.class, QUEUE_MESSAGE_OPERATION_BATCH_SIZE));
+        op.withinTransaction(txn);
+        txn.commit();
+    }
+
+    /**
+     * Performs the operations of a {@link TransactionalOperation}, committing them each time the batch size is
+     * reached so that operations on very deep queues do not build a single huge store transaction. A batch size of
+     * zero or less performs all the operations in one store transaction.
+     */
+    private static final class BatchingTransaction implements Transaction
+    {
+        private final MessageStore _store;
+        private final TransactionalOperation _operation;
+        private final int _batchSize;
+        private LocalTransaction _txn;
+        private int _operationsInBatch;
+
+        private BatchingTransaction(final MessageStore store,
+                                    final TransactionalOperation operation,
+                                    final int batchSize)
         {
-            @Override
-            public void dequeue(final QueueEntry messageInstance)
+            _store = store;
+            _operation = operation;
+            _batchSize = batchSize;
+            _txn = new LocalTransaction(store);
+        }
+
+        @Override
+        public void dequeue(final QueueEntry messageInstance)
+        {
+            final ServerTransaction.Action deleteAction = new ServerTransaction.Action()
             {
-                final ServerTransaction.Action deleteAction = new ServerTransaction.Action()
+                @Override
+                public void postCommit()
                 {
-                    @Override
-                    public void postCommit()
-                    {
-                        messageInstance.delete();
-                    }
-
-                    @Override
-                    public void onRollback()
-                    {
-                    }
-                };
+                    messageInstance.delete();
+                }
 
-                boolean acquired = messageInstance.acquireOrSteal(new Runnable()
-                                                                    {
-                                                                        @Override
-                                                                        public void run()
-                                                                        {
-                                                                            ServerTransaction txn = new AutoCommitTransaction(store);
-                                                                            txn.dequeue(messageInstance.getEnqueueRecord(), deleteAction);
-                                                                        }
-                                                                    });
-                if(acquired)
+                @Override
+                public void onRollback()
                 {
-                    txn.dequeue(messageInstance.getEnqueueRecord(), deleteAction);
                 }
-            }
+            };
 
-            @Override
-            public void copy(QueueEntry entry, final Queue<?> queue)
+            boolean acquired = messageInstance.acquireOrSteal(new Runnable()
+                                                                {
+                                                                    @Override
+                                                                    public void run()
+                                                                    {
+                                                                        ServerTransaction txn = new AutoCommitTransaction(_store);
+                                                                        txn.dequeue(messageInstance.getEnqueueRecord(), deleteAction);
+                                                                    }
+                                                                });
+            if(acquired)
             {
-                final ServerMessage message = entry.getMessage();
+                _txn.dequeue(messageInstance.getEnqueueRecord(), deleteAction);
+                operationPerformed();
+            }
+        }
 
-                txn.enqueue(queue, message, new ServerTransaction.EnqueueAction()
-                {
-                    @Override
-                    public void postCommit(MessageEnqueueRecord... records)
-                    {
-                        queue.enqueue(message, null, records[0]);
-                    }
+        @Override
+        public void copy(QueueEntry entry, final Queue<?> queue)
+        {
+            final ServerMessage message = entry.getMessage();
 
-                    @Override
-                    public void onRollback()
-                    {
-                    }
-                });
+            _txn.enqueue(queue, message, new ServerTransaction.EnqueueAction()
+            {
+                @Override
+                public void postCommit(MessageEnqueueRecord... records)
+                {
+                    queue.enqueue(message, null, records[0]);
+                }
 
-            }
+                @Override
+                public void onRollback()
+                {
+                }
+            });
+            operationPerformed();
+        }
 
-            @Override
-            public void move(final QueueEntry entry, final Queue<?> queue)
+        @Override
+        public void move(final QueueEntry entry, final Queue<?> queue)
+        {
+            final ServerMessage message = entry.getMessage();
+            if(entry.acquire())
             {
-                final ServerMessage message = entry.getMessage();
-                if(entry.acquire())
-                {
-                    txn.enqueue(queue, message,
-                                new ServerTransaction.EnqueueAction()
-                                {
+                _txn.enqueue(queue, message,
+                             new ServerTransaction.EnqueueAction()
+                             {
 
-                                    @Override
-                                    public void postCommit(MessageEnqueueRecord... records)
-                                    {
-                                        queue.enqueue(message, null, records[0]);
-                                    }
+                                 @Override
+                                 public void postCommit(MessageEnqueueRecord... records)
+                                 {
+                                     queue.enqueue(message, null, records[0]);
+                                 }
 
-                                    @Override
-                                    public void onRollback()
-                                    {
-                                        entry.release();
-                                    }
-                                });
-                    txn.dequeue(entry.getEnqueueRecord(),
-                                new ServerTransaction.Action()
-                                {
+                                 @Override
+                                 public void onRollback()
+                                 {
+                                     entry.release();
+                                 }
+                             });
+                _txn.dequeue(entry.getEnqueueRecord(),
+                             new ServerTransaction.Action()
+                             {
 
-                                    @Override
-                                    public void postCommit()
-                                    {
-                                        entry.delete();
-                                    }
+                                 @Override
+                                 public void postCommit()
+                                 {
+                                     entry.delete();
+                                 }
 
-                                    @Override
-                                    public void onRollback()
-                                    {
+                                 @Override
+                                 public void onRollback()
+                                 {
 
-                                    }
-                                });
+                                 }
+                             });
+                operationPerformed();
+            }
+        }
 
-                }
+        private void operationPerformed()
+        {
+            if (_batchSize > 0 && ++_operationsInBatch >= _batchSize)
+            {
+                commit();
+                _txn = new LocalTransaction(_store);
             }
+        }
 
-        });
-        txn.commit();
+        private void commit()
+        {
+            _txn.commit();
+            _operationsInBatch = 0;
+            _operation.batchCommitted();
+        }
     }
 
     @Override
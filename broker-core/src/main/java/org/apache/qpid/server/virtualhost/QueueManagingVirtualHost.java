@@ -82,6 +82,17 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
     @ManagedContextDefault(name = FLOW_TO_DISK_CHECK_PERIOD)
     long DEFAULT_FLOW_TO_DISK_CHECK_PERIOD = 30000L;
 
+    String FLOW_TO_DISK_WALK_QUEUES = "virtualhost.flowToDiskWalkQueues";
+    @ManagedContextDefault(name = FLOW_TO_DISK_WALK_QUEUES,
+            description = "If true, the flow to disk check walks the queues to choose the messages to flow to disk,"
+                          + " releasing the content of messages on queues without consumers first and retaining the"
+                          + " content of the messages nearest delivery on queues with consumers. If false, and the"
+                          + " message store keeps track of the messages held in memory, the most recently arrived"
+                          + " of those messages are flowed to disk first without regard to consumers, which avoids"
+                          + " walking very deep queues. The stores only keep track of the messages held in memory"
+                          + " when this is false, and the setting takes effect when the virtual host is restarted.")
+    boolean DEFAULT_FLOW_TO_DISK_WALK_QUEUES = true;
+
     String CONNECTION_THREAD_POOL_KEEP_ALIVE_TIMEOUT = "connectionThreadPoolKeepAliveTimeout";
     @SuppressWarnings("unused")
     @ManagedContextDefault(name = QueueManagingVirtualHost.CONNECTION_THREAD_POOL_KEEP_ALIVE_TIMEOUT)
@@ -93,6 +104,23 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
     @ManagedContextDefault( name = "virtualhost.housekeepingThreadCount")
     int DEFAULT_HOUSEKEEPING_THREAD_COUNT = 4;
 
+    String QUEUE_MESSAGE_OPERATION_BATCH_SIZE = "virtualhost.queueMessageOperationBatchSize";
+    @ManagedContextDefault(name = QUEUE_MESSAGE_OPERATION_BATCH_SIZE,
+            description = "The maximum number of messages moved, copied or deleted by a background queue message"
+                          + " operation in a single store transaction.")
+    int DEFAULT_QUEUE_MESSAGE_OPERATION_BATCH_SIZE = 1000;
+
+    String QUEUE_MESSAGE_OPERATION_THREAD_COUNT = "virtualhost.queueMessageOperationThreadCount";
+    @ManagedContextDefault(name = QUEUE_MESSAGE_OPERATION_THREAD_COUNT,
+            description = "The number of threads used to run background queue message operations.")
+    int DEFAULT_QUEUE_MESSAGE_OPERATION_THREAD_COUNT = 1;
+
+    String MESSAGE_STORE_IMPORT_THREAD_COUNT = "virtualhost.messageStoreImportThreadCount";
+    @ManagedContextDefault(name = MESSAGE_STORE_IMPORT_THREAD_COUNT,
+            description = "The number of threads used to write messages to the message store during a message store"
+                          + " import.")
+    int DEFAULT_MESSAGE_STORE_IMPORT_THREAD_COUNT = 4;
+
     String VIRTUALHOST_STATISTICS_REPORING_PERIOD = "virtualhost.statisticsReportingPeriod";
     @ManagedContextDefault(name = VIRTUALHOST_STATISTICS_REPORING_PERIOD)
     int DEFAULT_STATISTICS_REPORTING_PERIOD = 0;
@@ -285,6 +313,47 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
                       description = "Total Number of Bytes Evacuated from Memory Due to Flow to Disk.")
     long getBytesEvacuatedFromMemory();
 
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.BYTES, label = "Reloaded Message Bytes",
+                      description = "Total Number of Bytes Reloaded into Memory after having been Evacuated by Flow to Disk.")
+    long getBytesReloadedIntoMemory();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.COUNT,
+                      label = "Distributed Transaction Branches",
+                      description = "Current number of distributed transaction branches known to this virtualhost.")
+    int getDtxBranchCount();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT,
+                      label = "Prepared Distributed Transactions",
+                      description = "Total number of distributed transaction branches prepared.")
+    long getDtxPreparedCount();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.TIME_DURATION,
+                      label = "Distributed Transaction Prepare Time",
+                      description = "Total time, in milliseconds, spent preparing distributed transaction branches.")
+    long getDtxPrepareTime();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT,
+                      label = "Committed Distributed Transactions",
+                      description = "Total number of distributed transaction branches committed.")
+    long getDtxCommittedCount();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.TIME_DURATION,
+                      label = "Distributed Transaction Commit Time",
+                      description = "Total time, in milliseconds, spent committing distributed transaction branches.")
+    long getDtxCommitTime();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT,
+                      label = "Rolled Back Distributed Transactions",
+                      description = "Total number of distributed transaction branches rolled back by the client.")
+    long getDtxRolledBackCount();
+
     @SuppressWarnings("unused")
     @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME,
             units = StatisticUnit.BYTES,
@@ -315,12 +384,16 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
                           + "confidential information",
             defaultValue = "false") boolean includeSecureAttributes);
     @ManagedOperation(nonModifying = true,
-            description = "Extract message store content",
+            description = "Extract message store content. If the virtual host is active, the extract contains the"
+                          + " messages present when each message is read, together with those of their queue"
+                          + " entries and distributed transactions which remain when these are read.",
             secure = true,
             changesConfiguredObjectState = false)
-    Content exportMessageStore();
+    Content exportMessageStore(@Param(name="compress",
+                                      description = "compress the extract using GZIP",
+                                      defaultValue = "false") boolean compress);
 
-    @ManagedOperation(description = "Import message store content",
+    @ManagedOperation(description = "Import message store content. The extract may be GZIP compressed.",
             secure = true,
             changesConfiguredObjectState = false)
     void importMessageStore(@Param(name="source", description = "Extract file", mandatory = true)String source);
@@ -353,8 +426,12 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
 
     void executeTransaction(TransactionalOperation op);
 
+    void executeBatchedTransaction(TransactionalOperation op);
+
     void executeTask(String name, Runnable task, AccessControlContext context);
 
+    void executeMessageOperationTask(String name, Runnable task, AccessControlContext context);
+
     void scheduleHouseKeepingTask(long period, HouseKeepingTask task);
 
     ScheduledFuture<?> scheduleTask(long delay, Runnable timeoutTask);
@@ -392,5 +469,13 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
         void withinTransaction(Transaction txn);
 
         List<Long> getModifiedMessageIds();
+
+        /**
+         * Called when the work performed so far has been committed, which may happen part way through
+         * {@link #withinTransaction(Transaction)} if the operation spans more than one batch.
+         */
+        default void batchCommitted()
+        {
+        }
     }
 }
@@ -31,6 +31,7 @@ import javax.security.auth.Subject;
 
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -106,6 +107,7 @@ public abstract class AbstractStandardVirtualHostNode<X extends AbstractStandard
             final QueueManagingVirtualHost<?> recoveredHost = host;
             final ListenableFuture<Void> openFuture;
             recoveredHost.setFirstOpening(isNew && initialRecords.length == 0);
+            final long openStartTime = System.currentTimeMillis();
             openFuture = Subject.doAs(getSubjectWithAddedSystemRights(),
                                       new PrivilegedAction<ListenableFuture<Void>>()
                                       {
@@ -116,6 +118,10 @@ public abstract class AbstractStandardVirtualHostNode<X extends AbstractStandard
 
                                           }
                                       });
+            openFuture.addListener(() -> LOGGER.info("Virtual host '{}' opened in {} ms",
+                                                     recoveredHost.getName(),
+                                                     System.currentTimeMillis() - openStartTime),
+                                   MoreExecutors.directExecutor());
             return openFuture;
         }
         else
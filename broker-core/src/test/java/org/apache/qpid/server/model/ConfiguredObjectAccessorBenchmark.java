@@ -0,0 +1,239 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.server.configuration.updater.CurrentThreadTaskExecutor;
+import org.apache.qpid.server.configuration.updater.TaskExecutor;
+import org.apache.qpid.server.store.ConfiguredObjectRecord;
+import org.apache.qpid.server.store.ConfiguredObjectRecordImpl;
+import org.apache.qpid.server.store.NullMessageStore;
+import org.apache.qpid.server.store.StoreException;
+import org.apache.qpid.server.store.handler.ConfiguredObjectRecordHandler;
+import org.apache.qpid.server.virtualhost.TestMemoryVirtualHost;
+import org.apache.qpid.server.virtualhostnode.TestVirtualHostNode;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+/**
+ * Measures recovering a virtual host with many queues, and reading the statistics of all its queues through the
+ * generated accessors compared with invoking the getters reflectively.
+ * Not part of the default test run, execute with
+ * {@code mvn test -Dtest=ConfiguredObjectAccessorBenchmark -DargLine=-Xmx2g}.
+ * The number of queues may be changed with {@code -Dqpid.benchmark.queueCount}.
+ */
+public class ConfiguredObjectAccessorBenchmark extends UnitTestBase
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfiguredObjectAccessorBenchmark.class);
+
+    private static final int QUEUE_COUNT = Integer.getInteger("qpid.benchmark.queueCount", 50000);
+    private static final int ROUNDS = 5;
+
+    private TaskExecutor _taskExecutor;
+    private Broker<?> _broker;
+    private long _valuesRead;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _taskExecutor = new CurrentThreadTaskExecutor();
+        _taskExecutor.start();
+        final Broker broker = BrokerTestHelper.createBrokerMock();
+        when(broker.getTaskExecutor()).thenReturn(_taskExecutor);
+        when(broker.getChildExecutor()).thenReturn(_taskExecutor);
+        final SystemConfig<?> systemConfig = memoizeGetters(SystemConfig.class, broker.getParent());
+        when(broker.getParent()).thenReturn(systemConfig);
+        _broker = memoizeGetters(Broker.class, broker);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        _taskExecutor.stopImmediately();
+    }
+
+    @Test
+    public void recoverAndReadStatistics() throws Exception
+    {
+        final UUID virtualHostId = UUID.randomUUID();
+        final List<ConfiguredObjectRecord> records = new ArrayList<>(QUEUE_COUNT + 1);
+        final Map<String, Object> virtualHostAttributes = new HashMap<>();
+        virtualHostAttributes.put(VirtualHost.NAME, "testVirtualHost");
+        virtualHostAttributes.put(VirtualHost.TYPE, TestMemoryVirtualHost.VIRTUAL_HOST_TYPE);
+        virtualHostAttributes.put(VirtualHost.MODEL_VERSION, BrokerModel.MODEL_VERSION);
+        records.add(new ConfiguredObjectRecordImpl(virtualHostId,
+                                                   VirtualHost.class.getSimpleName(),
+                                                   virtualHostAttributes));
+        final Map<String, UUID> queueParents = new HashMap<>();
+        queueParents.put(VirtualHost.class.getSimpleName(), virtualHostId);
+        for (int i = 0; i < QUEUE_COUNT; i++)
+        {
+            final Map<String, Object> queueAttributes = new HashMap<>();
+            queueAttributes.put(Queue.NAME, "queue" + i);
+            queueAttributes.put(Queue.DURABLE, true);
+            records.add(new ConfiguredObjectRecordImpl(UUID.randomUUID(),
+                                                       Queue.class.getSimpleName(),
+                                                       queueAttributes,
+                                                       queueParents));
+        }
+
+        final Map<String, Object> nodeAttributes = new HashMap<>();
+        nodeAttributes.put(VirtualHostNode.NAME, "testNode");
+        nodeAttributes.put(VirtualHostNode.ID, UUID.randomUUID());
+        final VirtualHostNode<?> node = new TestVirtualHostNode(_broker, nodeAttributes, new NullMessageStore()
+        {
+            @Override
+            public boolean openConfigurationStore(final ConfiguredObjectRecordHandler handler,
+                                                  final ConfiguredObjectRecord... initialRecords)
+                    throws StoreException
+            {
+                records.forEach(handler::handle);
+                return false;
+            }
+        });
+        try
+        {
+            final long startTime = System.nanoTime();
+            node.open();
+            node.start();
+            final long recoveryTime = System.nanoTime() - startTime;
+
+            final VirtualHost<?> virtualHost = node.getVirtualHost();
+            assertNotNull("Virtual host was not recovered", virtualHost);
+            final Collection<? extends Queue> queues = virtualHost.getChildren(Queue.class);
+            assertEquals("Unexpected number of recovered queues", QUEUE_COUNT, queues.size());
+            LOGGER.info("Opened virtual host node recovering {} queues in {} ms", QUEUE_COUNT, recoveryTime / 1000000L);
+
+            final Collection<ConfiguredObjectStatistic<?, ?>> statistics =
+                    virtualHost.getModel().getTypeRegistry().getStatistics(queues.iterator().next().getClass());
+            for (int round = 0; round < ROUNDS; round++)
+            {
+                final long generatedTime = readStatistics(queues);
+                final long reflectiveTime = readStatisticsReflectively(queues, statistics);
+                LOGGER.info("Statistics of {} queues read in {} ms through getStatistics(),"
+                            + " in {} ms invoking the {} statistic getters reflectively",
+                            QUEUE_COUNT,
+                            generatedTime / 1000000L,
+                            reflectiveTime / 1000000L,
+                            statistics.size());
+            }
+            assertTrue("No statistic values read", _valuesRead > 0);
+        }
+        finally
+        {
+            node.close();
+        }
+    }
+
+    /**
+     * Every call to a mock captures a stack trace, and each of the queues looks up the context of its ancestors
+     * many times as it is resolved, so the calls to the mocked broker would otherwise dominate the recovery time.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T memoizeGetters(final Class<T> type, final Object delegate)
+    {
+        final Map<Method, Object> values = new ConcurrentHashMap<>();
+        final Object none = new Object();
+        // keep the extra interfaces of the mock, such as SystemPrincipalSource
+        final Class<?>[] interfaces = Stream.concat(Stream.of(type), Stream.of(delegate.getClass().getInterfaces()))
+                                            .filter(i -> !i.getName().startsWith("org.mockito."))
+                                            .distinct()
+                                            .toArray(Class<?>[]::new);
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), interfaces, (proxy, method, args) ->
+        {
+            try
+            {
+                if (args == null || args.length == 0)
+                {
+                    Object value = values.get(method);
+                    if (value == null)
+                    {
+                        value = method.invoke(delegate);
+                        values.put(method, value == null ? none : value);
+                    }
+                    return value == none ? null : value;
+                }
+                return method.invoke(delegate, args);
+            }
+            catch (InvocationTargetException e)
+            {
+                throw e.getTargetException();
+            }
+        });
+    }
+
+    private long readStatistics(final Collection<? extends Queue> queues)
+    {
+        final long startTime = System.nanoTime();
+        for (Queue<?> queue : queues)
+        {
+            _valuesRead += queue.getStatistics().size();
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    private long readStatisticsReflectively(final Collection<? extends Queue> queues,
+                                            final Collection<ConfiguredObjectStatistic<?, ?>> statistics)
+            throws Exception
+    {
+        final Method[] getters = statistics.stream()
+                                           .filter(statistic -> statistic instanceof ConfiguredObjectMethodStatistic)
+                                           .map(statistic -> ((ConfiguredObjectMethodStatistic<?, ?>) statistic).getGetter())
+                                           .toArray(Method[]::new);
+        final long startTime = System.nanoTime();
+        for (Queue<?> queue : queues)
+        {
+            // mirror getStatistics(), which also builds a map of the non-null values
+            final Map<String, Object> map = new HashMap<>();
+            for (Method getter : getters)
+            {
+                final Object value = getter.invoke(queue);
+                if (value != null)
+                {
+                    map.put(getter.getName(), value);
+                }
+            }
+            _valuesRead += map.size();
+        }
+        return System.nanoTime() - startTime;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.model.testmodels.singleton.TestSingleton;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class GeneratedAccessorsTest extends UnitTestBase
+{
+    @Test
+    public void testStatisticAccessor() throws Exception
+    {
+        final Function<Object, Object> accessor =
+                GeneratedAccessors.getAccessor(Queue.class.getMethod("getQueueDepthMessages"));
+        assertNotNull("Accessor not generated", accessor);
+
+        final Queue<?> queue = mock(Queue.class);
+        when(queue.getQueueDepthMessages()).thenReturn(42);
+        assertEquals(42, accessor.apply(queue));
+    }
+
+    @Test
+    public void testAttributeAccessor() throws Exception
+    {
+        final Function<Object, Object> accessor =
+                GeneratedAccessors.getAccessor(TestSingleton.class.getMethod("getStringValue"));
+        assertNotNull("Accessor not generated", accessor);
+
+        final TestSingleton<?> object = mock(TestSingleton.class);
+        when(object.getStringValue()).thenReturn("value");
+        assertEquals("value", accessor.apply(object));
+    }
+
+    @Test
+    public void testNoAccessorForUnmanagedMethod() throws Exception
+    {
+        assertNull(GeneratedAccessors.getAccessor(Runnable.class.getMethod("run")));
+        assertNull(GeneratedAccessors.getAccessor(Queue.class.getMethod("getChildren", Class.class)));
+    }
+}
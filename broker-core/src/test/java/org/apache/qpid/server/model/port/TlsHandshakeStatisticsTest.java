@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.model.port;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class TlsHandshakeStatisticsTest extends UnitTestBase
+{
+    @Test
+    public void testHandshakesCountedAndBucketed()
+    {
+        final TlsHandshakeStatistics statistics = new TlsHandshakeStatistics();
+        statistics.registerHandshake(false, 0);
+        statistics.registerHandshake(false, 15);
+        statistics.registerHandshake(false, 20);
+        statistics.registerHandshake(true, 3);
+        statistics.registerHandshake(true, 10000);
+
+        assertEquals(5, statistics.getHandshakeCount());
+        assertEquals(2, statistics.getResumedHandshakeCount());
+
+        final Map<String, Map<String, Long>> times = statistics.getHandshakeTimes();
+        final Map<String, Long> full = times.get("full");
+        assertEquals(Long.valueOf(1), full.get("<=1ms"));
+        assertEquals(Long.valueOf(2), full.get("<=20ms"));
+        assertEquals(Long.valueOf(0), full.get(">5000ms"));
+
+        final Map<String, Long> resumed = times.get("resumed");
+        assertEquals(Long.valueOf(1), resumed.get("<=5ms"));
+        assertEquals(Long.valueOf(1), resumed.get(">5000ms"));
+        assertEquals(13, resumed.size());
+    }
+}
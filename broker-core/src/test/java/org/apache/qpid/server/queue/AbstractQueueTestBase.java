@@ -40,6 +40,7 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -1219,6 +1220,110 @@ abstract class AbstractQueueTestBase extends UnitTestBase
                             (long) target.getQueueDepthMessages());
     }
 
+    @Test
+    public void testCopyMessageInBatchesRespectsQueueSizeLimits() throws Exception
+    {
+        _virtualHost.setAttributes(Collections.singletonMap(QueueManagingVirtualHost.CONTEXT,
+                                                            Collections.singletonMap(QueueManagingVirtualHost.QUEUE_MESSAGE_OPERATION_BATCH_SIZE,
+                                                                                     "1")));
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(Queue.NAME, getTestName() + "_target");
+        attributes.put(Queue.OVERFLOW_POLICY, OverflowPolicy.RING);
+        attributes.put(Queue.MAXIMUM_QUEUE_DEPTH_MESSAGES, 2);
+
+        Queue target = _virtualHost.createChild(Queue.class, attributes);
+
+        _queue.enqueue(createMessage(1L), null, null);
+        _queue.enqueue(createMessage(2L), null, null);
+        _queue.enqueue(createMessage(3L), null, null);
+
+        final String id = (String) _queue.startMessageOperation("COPY", target, null, null, -1).get("id");
+        final Map<String, Object> status = awaitMessageOperation(id);
+
+        assertEquals("Unexpected operation status", "COMPLETED", status.get("status"));
+        assertEquals("Unexpected number of messages on source queue after test",
+                            (long) 3,
+                            (long) _queue.getQueueDepthMessages());
+        assertEquals("Unexpected number of messages on target queue after test",
+                            (long) 2,
+                            (long) target.getQueueDepthMessages());
+    }
+
+    @Test
+    public void testSynchronousMoveMessagesNotBatched() throws Exception
+    {
+        _virtualHost.setAttributes(Collections.singletonMap(QueueManagingVirtualHost.CONTEXT,
+                                                            Collections.singletonMap(QueueManagingVirtualHost.QUEUE_MESSAGE_OPERATION_BATCH_SIZE,
+                                                                                     "1")));
+        Queue<?> target = _virtualHost.createChild(Queue.class, Collections.singletonMap(Queue.NAME, getTestName() + "_target"));
+
+        _queue.enqueue(createMessage(1L), null, null);
+        _queue.enqueue(createMessage(2L), null, null);
+        _queue.enqueue(createMessage(3L), null, null);
+
+        final List<Long> moved = _queue.moveMessages(target, null, null, -1);
+
+        assertEquals("Unexpected moved message ids", Arrays.asList(1L, 2L, 3L), moved);
+        assertEquals("Unexpected number of messages on source queue", 0, _queue.getQueueDepthMessages());
+        assertEquals("Unexpected number of messages on target queue", 3, target.getQueueDepthMessages());
+    }
+
+    @Test
+    public void testBackgroundMoveMessages() throws Exception
+    {
+        Queue<?> target = _virtualHost.createChild(Queue.class, Collections.singletonMap(Queue.NAME, getTestName() + "_target"));
+
+        _queue.enqueue(createMessage(1L), null, null);
+        _queue.enqueue(createMessage(2L), null, null);
+        _queue.enqueue(createMessage(3L), null, null);
+
+        final Map<String, Object> started = _queue.startMessageOperation("MOVE", target, null, null, -1);
+        final String id = (String) started.get("id");
+        assertEquals("MOVE", started.get("operation"));
+
+        final Map<String, Object> status = awaitMessageOperation(id);
+
+        assertEquals("Unexpected operation status", "COMPLETED", status.get("status"));
+        assertEquals("Unexpected number of messages processed", 3, status.get("messagesProcessed"));
+        assertEquals("Unexpected number of messages on source queue", 0, _queue.getQueueDepthMessages());
+        assertEquals("Unexpected number of messages on target queue", 3, target.getQueueDepthMessages());
+        assertFalse("Finished operation should not be cancellable", _queue.cancelMessageOperation(id));
+    }
+
+    private Map<String, Object> awaitMessageOperation(final String id) throws InterruptedException
+    {
+        Map<String, Object> status = null;
+        final long timeout = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < timeout)
+        {
+            status = _queue.getMessageOperations().stream()
+                           .filter(operation -> id.equals(operation.get("id")))
+                           .findFirst()
+                           .orElse(null);
+            if (status != null && !"PENDING".equals(status.get("status")) && !"RUNNING".equals(status.get("status")))
+            {
+                break;
+            }
+            Thread.sleep(10);
+        }
+        assertNotNull("Operation not found", status);
+        return status;
+    }
+
+    @Test
+    public void testStartMessageOperationWithoutDestination()
+    {
+        try
+        {
+            _queue.startMessageOperation("COPY", null, null, null, -1);
+            fail("Exception is expected");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // pass
+        }
+    }
+
     @Test
     public void testEnqueuedMessageFlowedToDisk() throws Exception
     {
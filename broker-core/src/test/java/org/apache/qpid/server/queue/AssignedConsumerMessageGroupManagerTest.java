@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.message.AMQMessageHeader;
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class AssignedConsumerMessageGroupManagerTest extends UnitTestBase
+{
+    private AssignedConsumerMessageGroupManager _groupManager;
+    private QueueConsumer<?,?> _consumer1;
+    private QueueConsumer<?,?> _consumer2;
+    private final Map<QueueEntry, Long> _positions = new IdentityHashMap<>();
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _groupManager = new AssignedConsumerMessageGroupManager(null, 255);
+        _consumer1 = mock(QueueConsumer.class);
+        _consumer2 = mock(QueueConsumer.class);
+    }
+
+    @Test
+    public void testEarliestAssignedEntryIsEntrySkippedByOtherConsumer()
+    {
+        final QueueEntry entry1 = createEntry(1, "groupA");
+        final QueueEntry entry2 = createEntry(2, "groupA");
+        final QueueEntry entry3 = createEntry(3, "groupA");
+
+        assertTrue(_groupManager.acceptMessage(_consumer1, entry1));
+        assertNull(_groupManager.findEarliestAssignedAvailableEntry(_consumer1));
+
+        assertFalse(_groupManager.mightAssign(entry3, _consumer2));
+        assertFalse(_groupManager.mightAssign(entry2, _consumer2));
+
+        assertEquals(entry2, _groupManager.findEarliestAssignedAvailableEntry(_consumer1));
+        assertNull(_groupManager.findEarliestAssignedAvailableEntry(_consumer2));
+
+        assertTrue(_groupManager.acceptMessage(_consumer1, entry2));
+        assertEquals(entry3, _groupManager.findEarliestAssignedAvailableEntry(_consumer1));
+    }
+
+    @Test
+    public void testUnavailableEntriesIgnored()
+    {
+        final QueueEntry entry1 = createEntry(1, "groupA");
+        final QueueEntry entry2 = createEntry(2, "groupA");
+
+        assertTrue(_groupManager.acceptMessage(_consumer1, entry1));
+        assertFalse(_groupManager.acceptMessage(_consumer2, entry2));
+        assertEquals(entry2, _groupManager.findEarliestAssignedAvailableEntry(_consumer1));
+
+        when(entry2.isAvailable()).thenReturn(false);
+        when(entry2.isDeleted()).thenReturn(true);
+        assertNull(_groupManager.findEarliestAssignedAvailableEntry(_consumer1));
+    }
+
+    @Test
+    public void testClearAssignments()
+    {
+        final QueueEntry entry1 = createEntry(1, "groupA");
+        final QueueEntry entry2 = createEntry(2, "groupA");
+
+        assertTrue(_groupManager.acceptMessage(_consumer1, entry1));
+        assertFalse(_groupManager.mightAssign(entry2, _consumer2));
+
+        _groupManager.clearAssignments(_consumer1);
+
+        assertNull(_groupManager.findEarliestAssignedAvailableEntry(_consumer1));
+        assertTrue(_groupManager.mightAssign(entry2, _consumer2));
+        assertTrue(_groupManager.acceptMessage(_consumer2, entry2));
+    }
+
+    private QueueEntry createEntry(final long position, final String group)
+    {
+        final AMQMessageHeader header = mock(AMQMessageHeader.class);
+        when(header.getGroupId()).thenReturn(group);
+        final ServerMessage<?> message = mock(ServerMessage.class);
+        when(message.getMessageHeader()).thenReturn(header);
+
+        final QueueEntry entry = mock(QueueEntry.class);
+        when(entry.getMessage()).thenReturn(message);
+        when(entry.isAvailable()).thenReturn(true);
+        when(entry.acquire(any())).thenReturn(true);
+        when(entry.compareTo(any(QueueEntry.class))).then(invocation -> {
+            final QueueEntry other = invocation.getArgument(0);
+            return Long.compare(position, _positions.get(other));
+        });
+        _positions.put(entry, position);
+        return entry;
+    }
+}
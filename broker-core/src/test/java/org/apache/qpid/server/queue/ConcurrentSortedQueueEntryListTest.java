@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.message.AMQMessageHeader;
+import org.apache.qpid.server.message.MessageReference;
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.model.BrokerTestHelper;
+import org.apache.qpid.server.model.LifetimePolicy;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.store.TransactionLogResource;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
+
+public class ConcurrentSortedQueueEntryListTest extends QueueEntryListTestBase
+{
+    private final static String keysSorted[] = SortedQueueEntryListTest.keys.clone();
+
+    private SortedQueueImpl _testQueue;
+    private ConcurrentSortedQueueEntryList _list;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        Map<String,Object> attributes = new HashMap<>();
+        attributes.put(Queue.ID, UUID.randomUUID());
+        attributes.put(Queue.NAME, getTestName());
+        attributes.put(Queue.DURABLE, false);
+        attributes.put(Queue.LIFETIME_POLICY, LifetimePolicy.PERMANENT);
+        attributes.put(SortedQueue.SORT_KEY, "KEY");
+        attributes.put(Queue.CONTEXT, Collections.singletonMap(SortedQueue.CONCURRENT_ENTRY_LIST, "true"));
+
+        final QueueManagingVirtualHost virtualHost = BrokerTestHelper.createVirtualHost("testVH", this);
+        _testQueue = new SortedQueueImpl(attributes, virtualHost);
+        _testQueue.open();
+        _list = (ConcurrentSortedQueueEntryList) _testQueue.getEntries();
+
+        Arrays.sort(keysSorted);
+
+        long messageId = 0L;
+        for(final String key : SortedQueueEntryListTest.keys)
+        {
+            _list.add(generateTestMessage(messageId++, key), null);
+        }
+    }
+
+    @Override
+    public ConcurrentSortedQueueEntryList getTestList()
+    {
+        return getTestList(false);
+    }
+
+    @Override
+    public ConcurrentSortedQueueEntryList getTestList(boolean newList)
+    {
+        if(newList)
+        {
+            return new ConcurrentSortedQueueEntryList(_testQueue, _testQueue.getQueueStatistics());
+        }
+        else
+        {
+            return _list;
+        }
+    }
+
+    @Override
+    public int getExpectedListLength()
+    {
+        return SortedQueueEntryListTest.keys.length;
+    }
+
+    @Override
+    public long getExpectedFirstMsgId()
+    {
+        return 67L;
+    }
+
+    @Override
+    public ServerMessage getTestMessageToAdd()
+    {
+        return generateTestMessage(1, "test value");
+    }
+
+    @Override
+    protected SortedQueueImpl getTestQueue()
+    {
+        return _testQueue;
+    }
+
+    @Override
+    @Test
+    public void testIterator() throws Exception
+    {
+        super.testIterator();
+
+        final QueueEntryIterator iter = getTestList().iterator();
+        int count = 0;
+        while(iter.advance())
+        {
+            assertEquals("Sorted queue entry value does not match sorted key array",
+                         keysSorted[count++],
+                         iter.getNode().getMessage().getMessageHeader().getHeader("KEY"));
+        }
+    }
+
+    @Test
+    public void testNextOfDeletedEntry() throws Exception
+    {
+        final ConcurrentSortedQueueEntryList list = getTestList(true);
+        final ConcurrentSortedQueueEntry a = list.add(generateTestMessage(1, "A"), null);
+        final ConcurrentSortedQueueEntry b = list.add(generateTestMessage(2, "B"), null);
+        final ConcurrentSortedQueueEntry c = list.add(generateTestMessage(3, "C"), null);
+
+        assertTrue(b.acquire());
+        b.delete();
+
+        assertEquals(c, list.next(b));
+        assertEquals(c, list.next(a));
+        assertEquals(c, list.getTail());
+        assertNull(list.next(c));
+    }
+
+    @Test
+    public void testNullSortKeysPreserveArrivalOrder() throws Exception
+    {
+        final ConcurrentSortedQueueEntryList list = getTestList(true);
+        for(long messageId = 0; messageId < 200; messageId++)
+        {
+            list.add(generateTestMessage(messageId, null), null);
+        }
+
+        final QueueEntryIterator iter = list.iterator();
+        long count = 0;
+        while(iter.advance())
+        {
+            assertNull(iter.getNode().getMessage().getMessageHeader().getHeader("KEY"));
+            assertEquals(Long.valueOf(count++), Long.valueOf(iter.getNode().getMessage().getMessageNumber()));
+        }
+        assertEquals(200, count);
+    }
+
+    @Test
+    public void testConcurrentAdd() throws Exception
+    {
+        final ConcurrentSortedQueueEntryList list = getTestList(true);
+        final int threads = 4;
+        final int messagesPerThread = 500;
+        final ServerMessage[][] messages = new ServerMessage[threads][messagesPerThread];
+        for (int t = 0; t < threads; t++)
+        {
+            for (int i = 0; i < messagesPerThread; i++)
+            {
+                messages[t][i] = generateTestMessage(t * messagesPerThread + i, String.format("%06d", i * threads + t));
+            }
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        try
+        {
+            for (int t = 0; t < threads; t++)
+            {
+                final ServerMessage[] threadMessages = messages[t];
+                executor.submit(() -> {
+                    start.await();
+                    for (ServerMessage message : threadMessages)
+                    {
+                        list.add(message, null);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        assertTrue("Adding threads did not finish", executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        final QueueEntryIterator iter = list.iterator();
+        int count = 0;
+        while(iter.advance())
+        {
+            assertEquals(String.format("%06d", count++), iter.getNode().getMessage().getMessageHeader().getHeader("KEY"));
+        }
+        assertEquals(threads * messagesPerThread, count);
+    }
+
+    private ServerMessage generateTestMessage(final long id, final String keyValue)
+    {
+        final ServerMessage message = mock(ServerMessage.class);
+        AMQMessageHeader hdr = mock(AMQMessageHeader.class);
+        when(message.getMessageHeader()).thenReturn(hdr);
+        when(hdr.getHeader(eq("KEY"))).thenReturn(keyValue);
+        when(hdr.containsHeader(eq("KEY"))).thenReturn(true);
+        when(hdr.getHeaderNames()).thenReturn(Collections.singleton("KEY"));
+        MessageReference ref = mock(MessageReference.class);
+        when(ref.getMessage()).thenReturn(message);
+        when(message.newReference()).thenReturn(ref);
+        when(message.newReference(any(TransactionLogResource.class))).thenReturn(ref);
+        when(message.getMessageNumber()).thenReturn(id);
+
+        return message;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class ConflationIndexTest extends UnitTestBase
+{
+    private final ConflationIndex<Long> _index = new ConflationIndex<>();
+
+    @Test
+    public void testPutAndGet()
+    {
+        assertNull(_index.putIfNewer("a", 1L));
+        assertNull(_index.putIfNewer(2L, 2L));
+
+        assertEquals(Long.valueOf(1L), _index.get("a"));
+        assertEquals(Long.valueOf(2L), _index.get(2L));
+        assertNull(_index.get("b"));
+        assertEquals(2, _index.size());
+    }
+
+    @Test
+    public void testNewerEntryReplacesOlder()
+    {
+        final Long older = 1L;
+        final Long newer = 2L;
+        _index.putIfNewer("a", older);
+
+        assertSame(older, _index.putIfNewer("a", newer));
+        assertSame(newer, _index.get("a"));
+        assertEquals(1, _index.size());
+    }
+
+    @Test
+    public void testOlderEntryIsRejected()
+    {
+        final Long older = 1L;
+        final Long newer = 2L;
+        _index.putIfNewer("a", newer);
+
+        assertSame(older, _index.putIfNewer("a", older));
+        assertSame(newer, _index.get("a"));
+    }
+
+    @Test
+    public void testRemoveOnlyRemovesMatchingEntry()
+    {
+        final Long entry = 1000L;
+        _index.putIfNewer("a", entry);
+
+        assertFalse(_index.remove("a", 2000L));
+        assertEquals(1, _index.size());
+        assertTrue(_index.remove("a", entry));
+        assertNull(_index.get("a"));
+        assertEquals(0, _index.size());
+    }
+
+    @Test
+    public void testManyKeysSurviveGrowthAndRemoval()
+    {
+        final int numberOfKeys = 10000;
+        final Long[] entries = new Long[numberOfKeys];
+        for (int i = 0; i < numberOfKeys; i++)
+        {
+            entries[i] = (long) i;
+            assertNull(_index.putIfNewer("key" + i, entries[i]));
+        }
+        assertEquals(numberOfKeys, _index.size());
+
+        for (int i = 0; i < numberOfKeys; i += 2)
+        {
+            assertTrue(_index.remove("key" + i, entries[i]));
+        }
+        assertEquals(numberOfKeys / 2, _index.size());
+
+        for (int i = 0; i < numberOfKeys; i++)
+        {
+            if (i % 2 == 0)
+            {
+                assertNull(_index.get("key" + i));
+            }
+            else
+            {
+                assertSame(entries[i], _index.get("key" + i));
+            }
+        }
+    }
+}
@@ -26,6 +26,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -55,15 +56,26 @@ public class LastValueQueueListTest extends UnitTestBase
 
     @Before
     public void setUp() throws Exception
+    {
+        _queue = createQueue(false);
+        _list = _queue.getEntries();
+    }
+
+    private LastValueQueueImpl createQueue(final boolean compactConflationIndex) throws Exception
     {
         Map<String,Object> queueAttributes = new HashMap<String, Object>();
         queueAttributes.put(Queue.ID, UUID.randomUUID());
         queueAttributes.put(Queue.NAME, getTestName());
         queueAttributes.put(LastValueQueue.LVQ_KEY, CONFLATION_KEY);
+        if (compactConflationIndex)
+        {
+            queueAttributes.put(Queue.CONTEXT,
+                                Collections.singletonMap(LastValueQueue.COMPACT_CONFLATION_INDEX, "true"));
+        }
         final QueueManagingVirtualHost virtualHost = BrokerTestHelper.createVirtualHost("testVH", this);
-        _queue = new LastValueQueueImpl(queueAttributes, virtualHost);
-        _queue.open();
-        _list = _queue.getEntries();
+        final LastValueQueueImpl queue = new LastValueQueueImpl(queueAttributes, virtualHost);
+        queue.open();
+        return queue;
     }
 
     @Test
@@ -226,6 +238,61 @@ public class LastValueQueueListTest extends UnitTestBase
         assertEquals("Unexpected last message", entry3, queueEntryList.getLeastSignificantOldestEntry());
     }
 
+    @Test
+    public void testConflationStatistics()
+    {
+        _list.add(createTestServerMessage(TEST_KEY_VALUE1), null);
+        _list.add(createTestServerMessage(TEST_KEY_VALUE2), null);
+        _list.add(createTestServerMessage(TEST_KEY_VALUE1), null);
+
+        assertEquals(2, _queue.getConflationKeyCount());
+        assertEquals(1L, _queue.getConflatedMessages());
+    }
+
+    @Test
+    public void testCompactConflationIndex() throws Exception
+    {
+        final LastValueQueueImpl queue = createQueue(true);
+        final LastValueQueueList list = queue.getEntries();
+
+        final QueueEntry entry1 = list.add(createTestServerMessage(TEST_KEY_VALUE1), null);
+        final QueueEntry entry2 = list.add(createTestServerMessage(TEST_KEY_VALUE2), null);
+        final QueueEntry entry3 = list.add(createTestServerMessage(TEST_KEY_VALUE1), null);
+
+        assertTrue(entry1.isDeleted());
+        assertEquals((long) 2, (long) countEntries(list));
+        assertEquals(2, queue.getConflationKeyCount());
+        assertEquals(1L, queue.getConflatedMessages());
+        assertEquals("Conflation map should not be used", 0, list.getLatestValuesMap().size());
+
+        entry2.acquire();
+        entry2.delete();
+        assertEquals(1, queue.getConflationKeyCount());
+
+        entry3.acquire();
+        entry3.delete();
+        assertEquals((long) 0, (long) countEntries(list));
+        assertEquals(0, queue.getConflationKeyCount());
+    }
+
+    @Test
+    public void testCompactConflationIndexSupersededEntryIsDiscardedOnRelease() throws Exception
+    {
+        final LastValueQueueList list = createQueue(true).getEntries();
+
+        final QueueEntry entry1 = list.add(createTestServerMessage(TEST_KEY_VALUE), null);
+        entry1.acquire();
+
+        list.add(createTestServerMessage(TEST_KEY_VALUE), null);
+        assertFalse(entry1.isDeleted());
+        assertEquals((long) 2, (long) countEntries(list));
+
+        entry1.release();
+
+        assertEquals((long) 1, (long) countEntries(list));
+        assertTrue(entry1.isDeleted());
+    }
+
     private int countEntries(LastValueQueueList list)
     {
         QueueEntryIterator iterator =
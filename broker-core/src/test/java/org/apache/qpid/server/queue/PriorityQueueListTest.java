@@ -21,6 +21,9 @@
 package org.apache.qpid.server.queue;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -189,4 +192,64 @@ public class PriorityQueueListTest extends UnitTestBase
 
         assertEquals("Unexpected last entry", newEntry, _list.getLeastSignificantOldestEntry());
     }
+
+    @Test
+    public void testIterationOrderAcrossFullPriorityRange() throws Exception
+    {
+        Map<String,Object> queueAttributes = new HashMap<>();
+        queueAttributes.put(Queue.ID, UUID.randomUUID());
+        queueAttributes.put(Queue.NAME, getTestName());
+        queueAttributes.put(PriorityQueue.PRIORITIES, 256);
+        final QueueManagingVirtualHost<?> virtualHost = BrokerTestHelper.createVirtualHost("testVH2", this);
+        PriorityQueueImpl queue = new PriorityQueueImpl(queueAttributes, virtualHost);
+        queue.open();
+        PriorityQueueList list = queue.getEntries();
+
+        QueueEntry priority3 = list.add(createMessage((byte) 3), null);
+        QueueEntry priority200 = list.add(createMessage((byte) 200), null);
+        QueueEntry priority0 = list.add(createMessage((byte) 0), null);
+        QueueEntry priority255 = list.add(createMessage((byte) 255), null);
+        QueueEntry priority199 = list.add(createMessage((byte) 199), null);
+
+        QueueEntry[] expected = {priority255, priority200, priority199, priority3, priority0};
+        QueueEntryIterator iterator = list.iterator();
+        for (QueueEntry entry : expected)
+        {
+            assertTrue(iterator.advance());
+            assertEquals(entry, iterator.getNode());
+        }
+        assertFalse(iterator.advance());
+        assertTrue(iterator.atTail());
+
+        assertEquals(priority255, list.next(list.getHead()));
+        assertEquals(priority3, list.next(priority199));
+
+        priority3.acquire();
+        priority3.delete();
+        assertEquals(priority0, list.next(priority199));
+
+        priority0.acquire();
+        priority0.delete();
+        assertNull(list.next(priority199));
+
+        QueueEntry priority64 = list.add(createMessage((byte) 64), null);
+        assertEquals(priority64, list.next(priority199));
+        assertTrue(iterator.advance());
+        assertEquals(priority64, iterator.getNode());
+    }
+
+    private ServerMessage<?> createMessage(final byte priority)
+    {
+        ServerMessage<?> message = mock(ServerMessage.class);
+        AMQMessageHeader header = mock(AMQMessageHeader.class);
+        @SuppressWarnings({ "rawtypes", "unchecked" })
+        MessageReference<ServerMessage> ref = mock(MessageReference.class);
+
+        when(message.getMessageHeader()).thenReturn(header);
+        when(message.newReference()).thenReturn(ref);
+        when(message.newReference(any(TransactionLogResource.class))).thenReturn(ref);
+        when(ref.getMessage()).thenReturn(message);
+        when(header.getPriority()).thenReturn(priority);
+        return message;
+    }
 }
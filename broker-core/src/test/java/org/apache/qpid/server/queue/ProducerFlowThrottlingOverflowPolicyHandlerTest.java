@@ -0,0 +1,271 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.qpid.server.queue;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.security.PrivilegedAction;
+import java.util.Collections;
+
+import javax.security.auth.Subject;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.qpid.server.connection.SessionPrincipal;
+import org.apache.qpid.server.logging.EventLogger;
+import org.apache.qpid.server.logging.LogMessage;
+import org.apache.qpid.server.logging.LogSubject;
+import org.apache.qpid.server.logging.messages.QueueMessages;
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.model.OverflowPolicy;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.session.AMQPSession;
+import org.apache.qpid.server.util.Action;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class ProducerFlowThrottlingOverflowPolicyHandlerTest extends UnitTestBase
+{
+    private ProducerFlowThrottlingOverflowPolicyHandler _handler;
+    private Queue<?> _queue;
+    private QueueManagingVirtualHost<?> _virtualHost;
+    private EventLogger _eventLogger;
+    private LogSubject _subject;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _eventLogger = mock(EventLogger.class);
+        _subject = mock(LogSubject.class);
+        _virtualHost = mock(QueueManagingVirtualHost.class);
+
+        _queue = mock(AbstractQueue.class);
+        when(_queue.getMaximumQueueDepthBytes()).thenReturn(-1L);
+        when(_queue.getMaximumQueueDepthMessages()).thenReturn(100L);
+        when(_queue.getOverflowPolicy()).thenReturn(OverflowPolicy.PRODUCER_FLOW_THROTTLING);
+        when(_queue.getContextValue(Double.class, Queue.QUEUE_FLOW_RESUME_LIMIT)).thenReturn(80.0);
+        when(_queue.getContextValue(Double.class, Queue.QUEUE_FLOW_THROTTLE_START_LIMIT)).thenReturn(50.0);
+        when(_queue.getContextValue(Long.class, Queue.QUEUE_FLOW_THROTTLE_PERIOD)).thenReturn(1000L);
+        when(_queue.getQueueDepthBytes()).thenReturn(0L);
+        when(_queue.getQueueDepthMessages()).thenReturn(0);
+        when(_queue.getLogSubject()).thenReturn(_subject);
+        when((QueueManagingVirtualHost) _queue.getVirtualHost()).thenReturn(_virtualHost);
+
+        _handler = new ProducerFlowThrottlingOverflowPolicyHandler(_queue, _eventLogger);
+    }
+
+    @Test
+    public void testSessionNotThrottledBelowStartLimit()
+    {
+        AMQPSession<?, ?> session = mock(AMQPSession.class);
+        when(_queue.getQueueDepthMessages()).thenReturn(50);
+
+        checkOverflow(session);
+
+        verify(session, never()).block(_queue);
+        verify(_virtualHost, never()).scheduleTask(anyLong(), any(Runnable.class));
+    }
+
+    @Test
+    public void testSessionPausedInProportionToDepth()
+    {
+        AMQPSession<?, ?> session = mock(AMQPSession.class);
+        when(_queue.getQueueDepthMessages()).thenReturn(75);
+
+        checkOverflow(session);
+
+        verify(session, times(1)).block(_queue);
+        final ArgumentCaptor<Runnable> endThrottle = ArgumentCaptor.forClass(Runnable.class);
+        verify(_virtualHost).scheduleTask(eq(500L), endThrottle.capture());
+        assertFalse("Flow should not be stopped", _handler.isQueueFlowStopped());
+
+        checkOverflow(session);
+        verify(session, times(1)).block(_queue);
+
+        endThrottle.getValue().run();
+        verify(session, times(1)).unblock(_queue);
+        verify(session, times(1)).recordProducerFlowThrottledTime(anyLong());
+
+        checkOverflow(session);
+        verify(session, times(1)).block(_queue);
+    }
+
+    @Test
+    public void testSessionBlockedWhenOverfullAndResumedWhenUnderfull()
+    {
+        AMQPSession<?, ?> session = mock(AMQPSession.class);
+        when(_queue.getQueueDepthMessages()).thenReturn(101);
+
+        checkOverflow(session);
+
+        verify(session, times(1)).block(_queue);
+        LogMessage overfullMessage = QueueMessages.OVERFULL(0, -1, 101, 100);
+        verify(_eventLogger).message(same(_subject), argThat(new ProducerFlowControlOverflowPolicyHandlerTest.LogMessageMatcher(overfullMessage)));
+        assertTrue("Flow should be stopped", _handler.isQueueFlowStopped());
+
+        when(_queue.getQueueDepthMessages()).thenReturn(90);
+        _handler.checkOverflow(null);
+        verify(session, never()).unblock(_queue);
+
+        when(_queue.getQueueDepthMessages()).thenReturn(80);
+        _handler.checkOverflow(null);
+
+        verify(session, times(1)).unblock(_queue);
+        verify(session, times(1)).recordProducerFlowThrottledTime(anyLong());
+        assertFalse("Flow should not be stopped", _handler.isQueueFlowStopped());
+        LogMessage underfullMessage = QueueMessages.UNDERFULL(0, -1, 80, 80);
+        verify(_eventLogger).message(same(_subject), argThat(new ProducerFlowControlOverflowPolicyHandlerTest.LogMessageMatcher(underfullMessage)));
+    }
+
+    @Test
+    public void testThrottledSessionRemainsBlockedWhileOverfull()
+    {
+        AMQPSession<?, ?> session = mock(AMQPSession.class);
+        when(_queue.getQueueDepthMessages()).thenReturn(90);
+
+        checkOverflow(session);
+
+        final ArgumentCaptor<Runnable> endThrottle = ArgumentCaptor.forClass(Runnable.class);
+        verify(_virtualHost).scheduleTask(eq(800L), endThrottle.capture());
+
+        when(_queue.getQueueDepthMessages()).thenReturn(101);
+        checkOverflow(session);
+
+        endThrottle.getValue().run();
+        verify(session, times(1)).block(_queue);
+        verify(session, never()).unblock(_queue);
+
+        when(_queue.getQueueDepthMessages()).thenReturn(10);
+        _handler.checkOverflow(null);
+        verify(session, times(1)).unblock(_queue);
+    }
+
+    @Test
+    public void testOnlyPublishingSessionThrottled()
+    {
+        AMQPSession<?, ?> session = mock(AMQPSession.class);
+        when(session.getConnectionReference()).thenReturn(new Object());
+        when(_queue.getQueueDepthMessages()).thenReturn(101);
+
+        checkOverflow(session, null);
+        checkOverflow(session, createEntry(new Object()));
+
+        verify(session, never()).block(_queue);
+        verify(_virtualHost, never()).scheduleTask(anyLong(), any(Runnable.class));
+    }
+
+    @Test
+    public void testSessionThrottleRemovedWhenSessionDeleted()
+    {
+        AMQPSession<?, ?> session = mock(AMQPSession.class);
+        when(_queue.getQueueDepthMessages()).thenReturn(101);
+
+        checkOverflow(session);
+        verify(session, times(1)).block(_queue);
+
+        final ArgumentCaptor<Action> deleteTask = ArgumentCaptor.forClass(Action.class);
+        verify(session).addDeleteTask(deleteTask.capture());
+        deleteTask.getValue().performAction(session);
+
+        when(_queue.getQueueDepthMessages()).thenReturn(10);
+        _handler.checkOverflow(null);
+        verify(session, never()).unblock(_queue);
+    }
+
+    @Test
+    public void testSessionBlockedAfterPruneIsUnblocked() throws Exception
+    {
+        when(_queue.getContextValue(Long.class, Queue.QUEUE_FLOW_THROTTLE_PERIOD)).thenReturn(1L);
+        _handler = new ProducerFlowThrottlingOverflowPolicyHandler(_queue, _eventLogger);
+
+        AMQPSession<?, ?> session = mock(AMQPSession.class);
+        when(_queue.getQueueDepthMessages()).thenReturn(75);
+        checkOverflow(session);
+
+        final ArgumentCaptor<Runnable> endThrottle = ArgumentCaptor.forClass(Runnable.class);
+        verify(_virtualHost).scheduleTask(eq(1L), endThrottle.capture());
+        endThrottle.getValue().run();
+        verify(session, times(1)).unblock(_queue);
+
+        final ArgumentCaptor<Action> deleteTask = ArgumentCaptor.forClass(Action.class);
+        verify(session).addDeleteTask(deleteTask.capture());
+
+        Thread.sleep(5L);
+        when(_queue.getQueueDepthMessages()).thenReturn(10);
+        _handler.checkOverflow(null);
+        verify(session).removeDeleteTask(deleteTask.getValue());
+
+        when(_queue.getQueueDepthMessages()).thenReturn(101);
+        checkOverflow(session);
+        verify(session, times(2)).block(_queue);
+        verify(session, times(2)).addDeleteTask(any(Action.class));
+
+        when(_queue.getQueueDepthMessages()).thenReturn(10);
+        _handler.checkOverflow(null);
+        verify(session, times(2)).unblock(_queue);
+    }
+
+    private void checkOverflow(AMQPSession<?, ?> session)
+    {
+        final Object connectionReference = new Object();
+        when(session.getConnectionReference()).thenReturn(connectionReference);
+        checkOverflow(session, createEntry(connectionReference));
+    }
+
+    private void checkOverflow(AMQPSession<?, ?> session, QueueEntry newlyEnqueued)
+    {
+        Subject subject = createSubject(session);
+        Subject.doAs(subject, (PrivilegedAction<Void>) () -> {
+            _handler.checkOverflow(newlyEnqueued);
+            return null;
+        });
+    }
+
+    private QueueEntry createEntry(final Object connectionReference)
+    {
+        final ServerMessage<?> message = mock(ServerMessage.class);
+        when(message.getConnectionReference()).thenReturn(connectionReference);
+        final QueueEntry entry = mock(QueueEntry.class);
+        when(entry.getMessage()).thenReturn(message);
+        return entry;
+    }
+
+    private Subject createSubject(final AMQPSession<?, ?> session)
+    {
+        SessionPrincipal sessionPrincipal = new SessionPrincipal(session);
+        return new Subject(true,
+                           Collections.singleton(sessionPrincipal),
+                           Collections.EMPTY_SET,
+                           Collections.EMPTY_SET);
+    }
+}
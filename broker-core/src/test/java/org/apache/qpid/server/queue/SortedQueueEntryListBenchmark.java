@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.server.message.AMQMessageHeader;
+import org.apache.qpid.server.message.MessageReference;
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.model.BrokerTestHelper;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.store.TransactionLogResource;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+/**
+ * Compares enqueue/consume throughput of the red/black tree and skip list sorted entry lists.
+ * Not part of the default test run, execute with {@code mvn test -Dtest=SortedQueueEntryListBenchmark}.
+ */
+public class SortedQueueEntryListBenchmark extends UnitTestBase
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(SortedQueueEntryListBenchmark.class);
+
+    private static final int PRODUCERS = 4;
+    private static final int CONSUMERS = 4;
+    private static final int MESSAGES_PER_PRODUCER = 25000;
+    private static final int DISTINCT_MESSAGES = 1000;
+
+    private QueueManagingVirtualHost<?> _virtualHost;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _virtualHost = BrokerTestHelper.createVirtualHost("testVH", this);
+    }
+
+    @Test
+    public void compareImplementations() throws Exception
+    {
+        for (int i = 0; i < 3; i++)
+        {
+            run(false);
+            run(true);
+        }
+    }
+
+    private void run(final boolean concurrent) throws Exception
+    {
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put(Queue.ID, UUID.randomUUID());
+        attributes.put(Queue.NAME, getTestName() + UUID.randomUUID());
+        attributes.put(SortedQueue.SORT_KEY, "KEY");
+        attributes.put(Queue.CONTEXT,
+                       Collections.singletonMap(SortedQueue.CONCURRENT_ENTRY_LIST, String.valueOf(concurrent)));
+        final SortedQueueImpl queue = new SortedQueueImpl(attributes, _virtualHost);
+        queue.open();
+        final QueueEntryList list = queue.getEntries();
+
+        // mocks are expensive to create, so a pool of messages with distinct sort keys is shared between the producers
+        final List<ServerMessage> distinctMessages = new ArrayList<>(DISTINCT_MESSAGES);
+        final Random random = new Random(0);
+        for (int i = 0; i < DISTINCT_MESSAGES; i++)
+        {
+            distinctMessages.add(createMessage(String.format("%08d", random.nextInt(100000000))));
+        }
+        final List<List<ServerMessage>> messages = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++)
+        {
+            final List<ServerMessage> producerMessages = new ArrayList<>(MESSAGES_PER_PRODUCER);
+            for (int i = 0; i < MESSAGES_PER_PRODUCER; i++)
+            {
+                producerMessages.add(distinctMessages.get(random.nextInt(DISTINCT_MESSAGES)));
+            }
+            messages.add(producerMessages);
+        }
+
+        final int total = PRODUCERS * MESSAGES_PER_PRODUCER;
+        final AtomicInteger consumed = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(PRODUCERS, CONSUMERS));
+        try
+        {
+            final List<Callable<Void>> producers = new ArrayList<>();
+            for (final List<ServerMessage> producerMessages : messages)
+            {
+                producers.add(() -> {
+                    for (ServerMessage message : producerMessages)
+                    {
+                        list.add(message, null);
+                    }
+                    return null;
+                });
+            }
+
+            // each consumer makes a single pass of the list, stepping over entries deleted by the others
+            final List<Callable<Void>> consumers = new ArrayList<>();
+            for (int c = 0; c < CONSUMERS; c++)
+            {
+                consumers.add(() -> {
+                    final QueueEntryIterator iterator = list.iterator();
+                    while (iterator.advance())
+                    {
+                        final QueueEntry entry = iterator.getNode();
+                        if (entry.acquire())
+                        {
+                            entry.delete();
+                            consumed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+
+            final long enqueueTime = timeAll(executor, producers);
+            final long consumeTime = timeAll(executor, consumers);
+            assertEquals(total, consumed.get());
+
+            LOGGER.info("{} sorted entry list: {} messages enqueued by {} threads in {} ms,"
+                        + " consumed by {} threads in {} ms",
+                        concurrent ? "Concurrent" : "Red/black tree",
+                        total,
+                        PRODUCERS,
+                        enqueueTime / 1000000L,
+                        CONSUMERS,
+                        consumeTime / 1000000L);
+        }
+        finally
+        {
+            executor.shutdownNow();
+            queue.close();
+        }
+    }
+
+    private long timeAll(final ExecutorService executor, final List<Callable<Void>> tasks) throws Exception
+    {
+        final long startTime = System.nanoTime();
+        for (Future<?> future : executor.invokeAll(tasks))
+        {
+            future.get();
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    private ServerMessage createMessage(final String keyValue)
+    {
+        final ServerMessage message = mock(ServerMessage.class, withSettings().stubOnly());
+        final AMQMessageHeader header = mock(AMQMessageHeader.class, withSettings().stubOnly());
+        when(message.getMessageHeader()).thenReturn(header);
+        when(header.getHeader(eq("KEY"))).thenReturn(keyValue);
+        final MessageReference reference = mock(MessageReference.class, withSettings().stubOnly());
+        when(reference.getMessage()).thenReturn(message);
+        when(message.newReference()).thenReturn(reference);
+        when(message.newReference(any(TransactionLogResource.class))).thenReturn(reference);
+        return message;
+    }
+}
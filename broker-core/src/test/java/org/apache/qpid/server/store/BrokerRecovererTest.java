@@ -22,6 +22,7 @@ package org.apache.qpid.server.store;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -232,6 +233,42 @@ public class BrokerRecovererTest extends UnitTestBase
 
     }
 
+    @Test
+    public void testCreateBrokerWithChildRecordsBeforeParents()
+    {
+        UUID authProviderId = UUID.randomUUID();
+        UUID portId = UUID.randomUUID();
+
+        resolveObjects(createPortRecord(portId, 5672, "authProvider"),
+                       createAuthProviderRecord(authProviderId, "authProvider"),
+                       _brokerEntry);
+        Broker<?> broker = _systemConfig.getContainer(Broker.class);
+
+        assertNotNull(broker);
+        broker.open();
+        assertEquals(_brokerId, broker.getId());
+        assertEquals((long) 1, (long) broker.getPorts().size());
+        assertEquals((long) 1, (long) broker.getAuthenticationProviders().size());
+    }
+
+    @Test
+    public void testRecordWithUnknownParent()
+    {
+        ConfiguredObjectRecord orphan = new ConfiguredObjectRecordImpl(UUID.randomUUID(),
+                                                                       AuthenticationProvider.class.getSimpleName(),
+                                                                       Collections.singletonMap(AuthenticationProvider.NAME, "orphan"),
+                                                                       Collections.singletonMap(Broker.class.getSimpleName(), UUID.randomUUID()));
+        try
+        {
+            resolveObjects(_brokerEntry, orphan);
+            fail("Exception is expected");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // pass
+        }
+    }
+
     @Test
     public void testCreateBrokerWithGroupProvider()
     {
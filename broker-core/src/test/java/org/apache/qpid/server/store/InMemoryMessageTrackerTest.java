@@ -0,0 +1,134 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class InMemoryMessageTrackerTest extends UnitTestBase
+{
+    private final InMemoryMessageTracker _tracker = new InMemoryMessageTracker();
+
+    @Before
+    public void setUp()
+    {
+        _tracker.configure(createParent(false));
+        assertTrue(_tracker.isEnabled());
+    }
+
+    @Test
+    public void testNotTrackedWhilstQueuesWalked()
+    {
+        final InMemoryMessageTracker tracker = new InMemoryMessageTracker();
+        tracker.configure(createParent(true));
+        assertFalse(tracker.isEnabled());
+
+        final StoredMessage<?> message = createMessage(1);
+        tracker.loaded(message);
+        tracker.reloaded(message, 100);
+
+        assertEquals(0, tracker.getMessageCount());
+        assertEquals(100, tracker.getBytesReloaded());
+    }
+
+    @Test
+    public void testCandidatesAreMostRecentFirst()
+    {
+        final StoredMessage<?> first = createMessage(1);
+        final StoredMessage<?> second = createMessage(2);
+        final StoredMessage<?> third = createMessage(3);
+        _tracker.loaded(second);
+        _tracker.loaded(third);
+        _tracker.loaded(first);
+
+        final Iterator<StoredMessage<?>> candidates = _tracker.evictionCandidates();
+        assertSame(third, candidates.next());
+        assertSame(second, candidates.next());
+        assertSame(first, candidates.next());
+        assertFalse(candidates.hasNext());
+    }
+
+    @Test
+    public void testReleasedWhilstIterating()
+    {
+        final StoredMessage<?> first = createMessage(1);
+        final StoredMessage<?> second = createMessage(2);
+        _tracker.loaded(first);
+        _tracker.loaded(second);
+
+        final Iterator<StoredMessage<?>> candidates = _tracker.evictionCandidates();
+        _tracker.released(candidates.next());
+        assertEquals(1, _tracker.getMessageCount());
+        assertSame(first, candidates.next());
+        _tracker.released(first);
+        assertEquals(0, _tracker.getMessageCount());
+    }
+
+    @Test
+    public void testReloadedMessageIsTrackedAgain()
+    {
+        final StoredMessage<?> message = createMessage(1);
+        _tracker.loaded(message);
+        _tracker.released(message);
+        assertFalse(_tracker.evictionCandidates().hasNext());
+
+        _tracker.reloaded(message, 100);
+        _tracker.reloaded(message, 20);
+
+        assertEquals(1, _tracker.getMessageCount());
+        assertEquals(120, _tracker.getBytesReloaded());
+
+        _tracker.clear();
+        assertEquals(0, _tracker.getMessageCount());
+        assertEquals(0, _tracker.getBytesReloaded());
+    }
+
+    private ConfiguredObject<?> createParent(final boolean walkQueues)
+    {
+        final ConfiguredObject<?> parent = mock(ConfiguredObject.class);
+        when(parent.getContextKeys(false)).thenReturn(
+                Collections.singleton(QueueManagingVirtualHost.FLOW_TO_DISK_WALK_QUEUES));
+        when(parent.getContextValue(Boolean.class, QueueManagingVirtualHost.FLOW_TO_DISK_WALK_QUEUES)).thenReturn(
+                walkQueues);
+        return parent;
+    }
+
+    private StoredMessage<?> createMessage(final long messageNumber)
+    {
+        final StoredMessage<?> message = mock(StoredMessage.class);
+        when(message.getMessageNumber()).thenReturn(messageNumber);
+        return message;
+    }
+}
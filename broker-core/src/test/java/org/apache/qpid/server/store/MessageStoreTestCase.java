@@ -23,6 +23,7 @@ package org.apache.qpid.server.store;
 import static junit.framework.TestCase.assertNull;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -38,8 +39,10 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -60,6 +63,7 @@ import org.apache.qpid.server.store.Transaction.EnqueueRecord;
 import org.apache.qpid.server.store.handler.DistributedTransactionHandler;
 import org.apache.qpid.server.store.handler.MessageHandler;
 import org.apache.qpid.server.store.handler.MessageInstanceHandler;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
 import org.apache.qpid.test.utils.UnitTestBase;
 
 public abstract class MessageStoreTestCase extends UnitTestBase
@@ -491,6 +495,69 @@ public abstract class MessageStoreTestCase extends UnitTestBase
     }
 
 
+    @Test
+    public void testFlowToDiskCandidatesNotTrackedWhilstQueuesWalked()
+    {
+        assertNull("Flow to disk candidates should not be tracked by default", _store.getFlowToDiskCandidates());
+    }
+
+    @Test
+    public void testFlowToDiskCandidatesEvictedWhilstContentAdded() throws Exception
+    {
+        assumeThat(flowToDiskSupported(), is(equalTo(true)));
+        reopenStoreTrackingFlowToDiskCandidates();
+        assumeThat(_store.getFlowToDiskCandidates() != null, is(equalTo(true)));
+
+        final byte[] content = "testContent".getBytes(StandardCharsets.UTF_8);
+        final int split = 4;
+        final MessageHandle<TestMessageMetaData> handle =
+                _store.addMessage(new TestMessageMetaData(1, content.length));
+
+        flowCandidatesToDisk();
+        try (QpidByteBuffer buffer = QpidByteBuffer.wrap(content, 0, split))
+        {
+            handle.addContent(buffer);
+        }
+        flowCandidatesToDisk();
+        try (QpidByteBuffer buffer = QpidByteBuffer.wrap(content, split, content.length - split))
+        {
+            handle.addContent(buffer);
+        }
+        final StoredMessage<TestMessageMetaData> message = handle.allContentAdded();
+
+        assertTrue("Complete message should be a flow to disk candidate", flowCandidatesToDisk().contains(message));
+        assertFalse("Message content should have been flowed to disk", message.isInContentInMemory());
+
+        final byte[] reloaded = new byte[content.length];
+        try (QpidByteBuffer buffer = message.getContent(0, content.length))
+        {
+            buffer.get(reloaded);
+        }
+        assertArrayEquals("Unexpected content after flow to disk", content, reloaded);
+    }
+
+    private void reopenStoreTrackingFlowToDiskCandidates() throws Exception
+    {
+        when(_parent.getContextKeys(false)).thenReturn(
+                Collections.singleton(QueueManagingVirtualHost.FLOW_TO_DISK_WALK_QUEUES));
+        when(_parent.getContextValue(Boolean.class, QueueManagingVirtualHost.FLOW_TO_DISK_WALK_QUEUES)).thenReturn(
+                false);
+        reopenStore();
+    }
+
+    private Set<StoredMessage<?>> flowCandidatesToDisk()
+    {
+        final Set<StoredMessage<?>> flowed = new HashSet<>();
+        final Iterator<StoredMessage<?>> candidates = _store.getFlowToDiskCandidates();
+        while (candidates.hasNext())
+        {
+            final StoredMessage<?> candidate = candidates.next();
+            candidate.flowToDisk();
+            flowed.add(candidate);
+        }
+        return flowed;
+    }
+
     @Test
     public void testIsInContentInMemoryBeforeFlowControl()
     {
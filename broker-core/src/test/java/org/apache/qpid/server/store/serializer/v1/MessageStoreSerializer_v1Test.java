@@ -0,0 +1,261 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.serializer.v1;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.message.EnqueueableMessage;
+import org.apache.qpid.server.store.MemoryMessageStore;
+import org.apache.qpid.server.store.MessageDurability;
+import org.apache.qpid.server.store.MessageEnqueueRecord;
+import org.apache.qpid.server.store.MessageHandle;
+import org.apache.qpid.server.store.MessageStore;
+import org.apache.qpid.server.store.StoredMessage;
+import org.apache.qpid.server.store.TestMessageMetaData;
+import org.apache.qpid.server.store.TestRecord;
+import org.apache.qpid.server.store.Transaction;
+import org.apache.qpid.server.store.TransactionLogResource;
+import org.apache.qpid.server.store.handler.DistributedTransactionHandler;
+import org.apache.qpid.server.store.handler.MessageHandler;
+import org.apache.qpid.server.store.handler.MessageInstanceHandler;
+import org.apache.qpid.server.virtualhost.TestMemoryVirtualHost;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class MessageStoreSerializer_v1Test extends UnitTestBase
+{
+    private static final String QUEUE_NAME = "queue";
+
+    private final UUID _sourceQueueId = UUID.randomUUID();
+    private final UUID _targetQueueId = UUID.randomUUID();
+    private MessageStore _sourceStore;
+    private MessageStore _targetStore;
+    private TransactionLogResource _sourceQueue;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _sourceStore = new MemoryMessageStore();
+        _sourceStore.openMessageStore(mock(TestMemoryVirtualHost.class));
+        _targetStore = new MemoryMessageStore();
+        _targetStore.openMessageStore(mock(TestMemoryVirtualHost.class));
+
+        _sourceQueue = mock(TransactionLogResource.class);
+        when(_sourceQueue.getId()).thenReturn(_sourceQueueId);
+        when(_sourceQueue.getName()).thenReturn(QUEUE_NAME);
+        when(_sourceQueue.getMessageDurability()).thenReturn(MessageDurability.DEFAULT);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        _sourceStore.closeMessageStore();
+        _targetStore.closeMessageStore();
+    }
+
+    @Test
+    public void testExportAndImportUsingMultipleThreads() throws Exception
+    {
+        final int messageCount = 50;
+        for (int i = 0; i < messageCount; i++)
+        {
+            enqueue(addMessage(i, new byte[]{(byte) i, (byte) (i + 1)}));
+        }
+
+        final byte[] extract = export(_sourceStore.newMessageStoreReader());
+        new MessageStoreSerializer_v1().deserialize(Collections.singletonMap(QUEUE_NAME, _targetQueueId),
+                                                    _targetStore,
+                                                    new ByteArrayInputStream(extract),
+                                                    4);
+
+        final List<MessageEnqueueRecord> instances = new ArrayList<>();
+        _targetStore.newMessageStoreReader().visitMessageInstances(record -> instances.add(record));
+        assertEquals("Unexpected number of imported instances", messageCount, instances.size());
+
+        final SortedMap<Long, byte[]> importedContent = new TreeMap<>();
+        _targetStore.newMessageStoreReader().visitMessages(storedMessage ->
+                                                           {
+                                                               importedContent.put(storedMessage.getMessageNumber(),
+                                                                                   getContent(storedMessage));
+                                                               return true;
+                                                           });
+        assertEquals("Unexpected number of imported messages", messageCount, importedContent.size());
+
+        // the imported messages must keep the order in which they were exported
+        int expected = 0;
+        for (byte[] content : importedContent.values())
+        {
+            assertArrayEquals("Unexpected content for message " + expected,
+                              new byte[]{(byte) expected, (byte) (expected + 1)},
+                              content);
+            expected++;
+        }
+
+        for (MessageEnqueueRecord instance : instances)
+        {
+            assertEquals("Unexpected queue", _targetQueueId, instance.getQueueId());
+            assertTrue("Instance refers to unknown message " + instance.getMessageNumber(),
+                       importedContent.containsKey(instance.getMessageNumber()));
+        }
+    }
+
+    @Test
+    public void testRecordsReferringToMessagesAddedDuringExportAreOmitted() throws Exception
+    {
+        final StoredMessage<?> exportedMessage = addMessage(1, new byte[]{1, 2, 3});
+        enqueue(exportedMessage);
+
+        final MessageStore.MessageStoreReader delegate = _sourceStore.newMessageStoreReader();
+        final MessageStore.MessageStoreReader reader = new MessageStore.MessageStoreReader()
+        {
+            @Override
+            public void visitMessages(final MessageHandler handler)
+            {
+                delegate.visitMessages(handler);
+
+                // a message arriving once the messages have been exported is also enqueued within a prepared
+                // distributed transaction
+                final StoredMessage<?> lateMessage = addMessage(2, new byte[]{4});
+                enqueue(lateMessage);
+                final Transaction transaction = _sourceStore.newTransaction();
+                transaction.recordXid(1L,
+                                      new byte[]{1},
+                                      new byte[]{2},
+                                      new Transaction.EnqueueRecord[]{new TestRecord(_sourceQueue,
+                                                                                     createEnqueueableMessage(
+                                                                                             lateMessage))},
+                                      new Transaction.DequeueRecord[0]);
+                transaction.commitTran();
+            }
+
+            @Override
+            public void visitMessageInstances(final MessageInstanceHandler handler)
+            {
+                delegate.visitMessageInstances(handler);
+            }
+
+            @Override
+            public void visitMessageInstances(final TransactionLogResource queue, final MessageInstanceHandler handler)
+            {
+                delegate.visitMessageInstances(queue, handler);
+            }
+
+            @Override
+            public void visitDistributedTransactions(final DistributedTransactionHandler handler)
+            {
+                delegate.visitDistributedTransactions(handler);
+            }
+
+            @Override
+            public StoredMessage<?> getMessage(final long messageId)
+            {
+                return delegate.getMessage(messageId);
+            }
+
+            @Override
+            public void close()
+            {
+                delegate.close();
+            }
+        };
+
+        final byte[] extract = export(reader);
+        new MessageStoreSerializer_v1().deserialize(Collections.singletonMap(QUEUE_NAME, _targetQueueId),
+                                                    _targetStore,
+                                                    new ByteArrayInputStream(extract));
+
+        final List<MessageEnqueueRecord> instances = new ArrayList<>();
+        _targetStore.newMessageStoreReader().visitMessageInstances(record -> instances.add(record));
+        assertEquals("Unexpected number of imported instances", 1, instances.size());
+
+        final StoredMessage<?> importedMessage =
+                _targetStore.newMessageStoreReader().getMessage(instances.get(0).getMessageNumber());
+        assertArrayEquals(new byte[]{1, 2, 3}, getContent(importedMessage));
+
+        final List<Transaction.StoredXidRecord> xids = new ArrayList<>();
+        _targetStore.newMessageStoreReader().visitDistributedTransactions((storedXid, enqueues, dequeues) ->
+                                                                          xids.add(storedXid));
+        assertEquals("Unexpected distributed transactions", 0, xids.size());
+    }
+
+    private byte[] export(final MessageStore.MessageStoreReader reader) throws Exception
+    {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new MessageStoreSerializer_v1().serialize(Collections.singletonMap(_sourceQueueId, QUEUE_NAME),
+                                                  reader,
+                                                  output);
+        return output.toByteArray();
+    }
+
+    private StoredMessage<?> addMessage(final long id, final byte[] content)
+    {
+        final MessageHandle<TestMessageMetaData> handle =
+                _sourceStore.addMessage(new TestMessageMetaData(id, content.length));
+        try (QpidByteBuffer buffer = QpidByteBuffer.wrap(content))
+        {
+            handle.addContent(buffer);
+        }
+        return handle.allContentAdded();
+    }
+
+    private void enqueue(final StoredMessage<?> message)
+    {
+        final Transaction transaction = _sourceStore.newTransaction();
+        transaction.enqueueMessage(_sourceQueue, createEnqueueableMessage(message));
+        transaction.commitTran();
+    }
+
+    private EnqueueableMessage createEnqueueableMessage(final StoredMessage<?> message)
+    {
+        final EnqueueableMessage enqueueableMessage = mock(EnqueueableMessage.class);
+        when(enqueueableMessage.getMessageNumber()).thenReturn(message.getMessageNumber());
+        when(enqueueableMessage.isPersistent()).thenReturn(true);
+        when(enqueueableMessage.getStoredMessage()).thenReturn((StoredMessage) message);
+        return enqueueableMessage;
+    }
+
+    private byte[] getContent(final StoredMessage<?> storedMessage)
+    {
+        final byte[] content = new byte[storedMessage.getContentSize()];
+        try (QpidByteBuffer buffer = storedMessage.getContent(0, storedMessage.getContentSize()))
+        {
+            buffer.get(content);
+        }
+        return content;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.transport;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.model.port.AmqpPort;
+import org.apache.qpid.server.transport.network.TransportEncryption;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class NonBlockingConnectionTest extends UnitTestBase
+{
+    private NetworkConnectionScheduler _scheduler;
+    private AtomicBoolean _hasWork;
+    private NonBlockingConnection _connection;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        final Socket socket = mock(Socket.class);
+        when(socket.getRemoteSocketAddress()).thenReturn(new InetSocketAddress("localhost", 5672));
+        final SocketChannel socketChannel = mock(SocketChannel.class);
+        when(socketChannel.socket()).thenReturn(socket);
+
+        _hasWork = new AtomicBoolean();
+        final ProtocolEngine protocolEngine = mock(ProtocolEngine.class);
+        doAnswer(invocation -> {
+            _hasWork.set(true);
+            return null;
+        }).when(protocolEngine).notifyWork();
+        when(protocolEngine.hasWork()).thenAnswer(invocation -> _hasWork.get());
+
+        _scheduler = mock(NetworkConnectionScheduler.class);
+        _connection = new NonBlockingConnection(socketChannel,
+                                                protocolEngine,
+                                                Collections.singleton(TransportEncryption.NONE),
+                                                () -> {},
+                                                _scheduler,
+                                                mock(AmqpPort.class));
+    }
+
+    @Test
+    public void testTlsHandshakeTasksCompleteSchedulesIdleConnection()
+    {
+        _connection.awaitTlsHandshakeTasks();
+        _connection.tlsHandshakeTasksComplete();
+
+        verify(_scheduler).schedule(_connection);
+        assertTrue("Work not flagged", _connection.isStateChanged());
+    }
+
+    @Test
+    public void testTlsHandshakeTasksCompleteWhilstConnectionScheduled()
+    {
+        assertTrue(_connection.setScheduled());
+        assertFalse(_connection.isStateChanged());
+
+        _connection.awaitTlsHandshakeTasks();
+        _connection.tlsHandshakeTasksComplete();
+
+        verify(_scheduler, never()).schedule(any(NonBlockingConnection.class));
+        assertTrue("Work must be flagged so that the running IO thread reschedules the connection",
+                   _connection.isStateChanged());
+    }
+}
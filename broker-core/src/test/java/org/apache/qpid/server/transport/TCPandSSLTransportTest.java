@@ -24,10 +24,16 @@ import static org.apache.qpid.test.utils.JvmVendor.IBM;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
@@ -38,12 +44,17 @@ import java.util.Arrays;
 import java.util.Base64;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.net.ssl.KeyManager;
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLHandshakeException;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509KeyManager;
 
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -56,6 +67,7 @@ import org.apache.qpid.server.model.Broker;
 import org.apache.qpid.server.model.Protocol;
 import org.apache.qpid.server.model.Transport;
 import org.apache.qpid.server.model.port.AmqpPort;
+import org.apache.qpid.server.transport.network.security.ssl.TlsHandshakeTrackingKeyManager;
 import org.apache.qpid.test.utils.UnitTestBase;
 
 public class TCPandSSLTransportTest extends UnitTestBase
@@ -249,17 +261,141 @@ public class TCPandSSLTransportTest extends UnitTestBase
     }
 
 
+    @Test
+    public void testTLSv1_2HandshakeTasksRunOnHandshakePool() throws Exception
+    {
+        checkHandshakeTasksRunOnHandshakePool("TLSv1.2");
+    }
+
+    @Test
+    public void testTLSv1_3HandshakeTasksRunOnHandshakePool() throws Exception
+    {
+        assumeThat("Java 11 or above is required", isJava11OrAbove(), is(true));
+        checkHandshakeTasksRunOnHandshakePool("TLSv1.3");
+    }
+
+    @Test
+    public void testResumedHandshakeReported() throws Exception
+    {
+        final KeyStore keyStore = createKeyStore();
+        final SSLContext serverContext = SSLContext.getInstance("TLS");
+        final KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(keyStore, "password".toCharArray());
+        serverContext.init(new KeyManager[]{new TlsHandshakeTrackingKeyManager((X509KeyManager) kmf.getKeyManagers()[0])},
+                           null,
+                           null);
+        final AmqpPort<?> port = createPort(serverContext);
+        final TCPandSSLTransport transport = createTransport(port, Transport.SSL);
+        try
+        {
+            final SSLContext clientContext = createClientContext(keyStore);
+            for (int i = 0; i < 2; i++)
+            {
+                try (SSLSocket sslSocket = (SSLSocket) clientContext.getSocketFactory()
+                        .createSocket(InetAddress.getLoopbackAddress(), transport.getAcceptingPort()))
+                {
+                    sslSocket.setEnabledProtocols(new String[]{"TLSv1.2"});
+                    sslSocket.startHandshake();
+                    verify(port, timeout(5000).times(1)).registerTlsHandshake(eq(i == 1), anyLong());
+                }
+            }
+        }
+        finally
+        {
+            transport.close();
+        }
+    }
+
+    private void checkHandshakeTasksRunOnHandshakePool(final String clientProtocol) throws Exception
+    {
+        final KeyStore keyStore = createKeyStore();
+        final AmqpPort<?> port = createPort(createServerContext(keyStore));
+        final ExecutorService handshakePool = Executors.newSingleThreadExecutor();
+        final AtomicInteger handshakeTaskCount = new AtomicInteger();
+        final AtomicInteger ioThreadTaskCount = new AtomicInteger();
+        when(port.executeTlsHandshakeTask(any(Runnable.class))).then(invocation -> {
+            final Runnable task = invocation.getArgument(0);
+            handshakePool.execute(() -> {
+                if (Thread.currentThread().getName().startsWith(SelectorThread.IO_THREAD_NAME_PREFIX))
+                {
+                    ioThreadTaskCount.incrementAndGet();
+                }
+                handshakeTaskCount.incrementAndGet();
+                task.run();
+            });
+            return true;
+        });
+
+        final TCPandSSLTransport transport = createTransport(port, Transport.SSL);
+        try
+        {
+            final SSLContext clientContext = createClientContext(keyStore);
+            for (int i = 1; i <= 2; i++)
+            {
+                try (SSLSocket sslSocket = (SSLSocket) clientContext.getSocketFactory()
+                        .createSocket(InetAddress.getLoopbackAddress(), transport.getAcceptingPort()))
+                {
+                    sslSocket.setEnabledProtocols(new String[]{clientProtocol});
+                    sslSocket.startHandshake();
+
+                    // keep the socket open until the broker side has also completed the handshake
+                    verify(port, timeout(5000).times(i)).registerTlsHandshake(anyBoolean(), anyLong());
+                }
+            }
+            assertThat(handshakeTaskCount.get(), is(not(equalTo(0))));
+            assertThat(ioThreadTaskCount.get(), is(equalTo(0)));
+        }
+        finally
+        {
+            transport.close();
+            handshakePool.shutdown();
+        }
+    }
+
     private void checkHandshakeWithTlsProtocol(String clientProtocol, final Transport... transports) throws Exception
+    {
+        final KeyStore keyStore = createKeyStore();
+        final AmqpPort<?> port = createPort(createServerContext(keyStore));
+        final TCPandSSLTransport transport = createTransport(port, transports);
+        try
+        {
+            handshake(createClientContext(keyStore), clientProtocol, transport);
+        }
+        finally
+        {
+            transport.close();
+        }
+    }
+
+    private KeyStore createKeyStore() throws Exception
     {
         KeyStore keyStore = KeyStore.getInstance("JKS");
         keyStore.load(new ByteArrayInputStream(Base64.getDecoder().decode(KEYSTORE_STRING)), "password".toCharArray());
+        return keyStore;
+    }
 
+    private SSLContext createServerContext(final KeyStore keyStore) throws Exception
+    {
         final SSLContext sslContext = SSLContext.getInstance("TLS");
         KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
         kmf.init(keyStore, "password".toCharArray());
 
         sslContext.init(kmf.getKeyManagers(), null, null);
+        return sslContext;
+    }
+
+    private SSLContext createClientContext(final KeyStore keyStore) throws Exception
+    {
+        SSLContext clientContext = SSLContext.getInstance("TLS");
+        TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        tmf.init(keyStore);
 
+        clientContext.init(null, tmf.getTrustManagers(), null);
+        return clientContext;
+    }
+
+    private AmqpPort<?> createPort(final SSLContext sslContext) throws Exception
+    {
         final AmqpPort<?> port = mock(AmqpPort.class);
         when(port.getPort()).thenReturn(0);
         when(port.getName()).thenReturn("testAmqp");
@@ -281,7 +417,11 @@ public class TCPandSSLTransportTest extends UnitTestBase
         final Broker broker = mock(Broker.class);
         when(broker.getEventLogger()).thenReturn(mock(EventLogger.class));
         when(port.getParent()).thenReturn(broker);
+        return port;
+    }
 
+    private TCPandSSLTransport createTransport(final AmqpPort<?> port, final Transport... transports)
+    {
         TCPandSSLTransport transport = new TCPandSSLTransport(new HashSet<>(Arrays.asList(transports)),
                                                               port,
                                                               new HashSet<>(Arrays.asList(Protocol.AMQP_0_8,
@@ -292,22 +432,19 @@ public class TCPandSSLTransportTest extends UnitTestBase
                                                               Protocol.AMQP_0_9_1);
 
         transport.start();
-        SSLContext clientContext = SSLContext.getInstance("TLS");
-        TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
-        tmf.init(keyStore);
-
-        clientContext.init(null, tmf.getTrustManagers(), null);
+        return transport;
+    }
 
+    private void handshake(final SSLContext clientContext,
+                           final String clientProtocol,
+                           final TCPandSSLTransport transport) throws Exception
+    {
         try (SSLSocket sslSocket = (SSLSocket) clientContext.getSocketFactory()
                 .createSocket(InetAddress.getLoopbackAddress(), transport.getAcceptingPort()))
         {
             sslSocket.setEnabledProtocols(new String[]{clientProtocol});
             sslSocket.startHandshake();
         }
-        finally
-        {
-            transport.close();
-        }
     }
 
     private boolean isJava11OrAbove()
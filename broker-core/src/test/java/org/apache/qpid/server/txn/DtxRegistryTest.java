@@ -0,0 +1,205 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.txn;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.store.MessageStore;
+import org.apache.qpid.server.store.Transaction;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class DtxRegistryTest extends UnitTestBase
+{
+    private static final long TIMEOUT = 10;
+
+    private MessageStore _messageStore;
+    private DtxRegistry _registry;
+    private ExecutorService _executor;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _messageStore = mock(MessageStore.class);
+        when(_messageStore.newTransaction()).thenReturn(mock(Transaction.class));
+        final QueueManagingVirtualHost<?> virtualHost = mock(QueueManagingVirtualHost.class);
+        when(virtualHost.getMessageStore()).thenReturn(_messageStore);
+        _registry = new DtxRegistry(virtualHost);
+        _executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        _executor.shutdownNow();
+    }
+
+    @Test
+    public void testOnePhaseCommit() throws Exception
+    {
+        final Xid xid = createXid(1);
+        assertTrue(_registry.registerBranch(new DtxBranch(xid, _registry)));
+        assertEquals(1, _registry.getBranchCount());
+
+        _registry.commit(xid, true);
+
+        assertNull(_registry.getBranch(xid));
+        assertEquals(0, _registry.getBranchCount());
+        assertEquals(1, _registry.getCommittedCount());
+        try
+        {
+            _registry.commit(xid, true);
+            fail("Exception not thrown");
+        }
+        catch (UnknownDtxBranchException e)
+        {
+            // pass
+        }
+    }
+
+    @Test
+    public void testTwoPhaseCommitAndRollback() throws Exception
+    {
+        final Xid committed = createXid(1);
+        final Xid rolledBack = createXid(2);
+        _registry.registerBranch(new DtxBranch(committed, _registry));
+        _registry.registerBranch(new DtxBranch(rolledBack, _registry));
+
+        _registry.prepare(committed);
+        _registry.prepare(rolledBack);
+        assertEquals(2, _registry.recover().size());
+
+        _registry.commit(committed, false);
+        _registry.rollback(rolledBack);
+
+        assertEquals(0, _registry.getBranchCount());
+        assertEquals(2, _registry.getPreparedCount());
+        assertEquals(1, _registry.getCommittedCount());
+        assertEquals(1, _registry.getRolledBackCount());
+    }
+
+    @Test
+    public void testStoreCommitDoesNotBlockOtherBranches() throws Exception
+    {
+        final CountDownLatch commitStarted = new CountDownLatch(1);
+        final CountDownLatch releaseCommit = new CountDownLatch(1);
+        final Transaction blockingTransaction = mock(Transaction.class);
+        doAnswer(invocation ->
+                 {
+                     commitStarted.countDown();
+                     releaseCommit.await(TIMEOUT, TimeUnit.SECONDS);
+                     return null;
+                 }).when(blockingTransaction).commitTran();
+        when(_messageStore.newTransaction()).thenReturn(blockingTransaction, mock(Transaction.class));
+
+        final Xid blocked = createXid(1);
+        final Xid other = createXid(2);
+        _registry.registerBranch(new DtxBranch(blocked, _registry));
+        _registry.registerBranch(new DtxBranch(other, _registry));
+
+        final Future<?> blockedCommit = _executor.submit(() ->
+                                                         {
+                                                             _registry.commit(blocked, true);
+                                                             return null;
+                                                         });
+        try
+        {
+            assertTrue("Commit not started", commitStarted.await(TIMEOUT, TimeUnit.SECONDS));
+
+            _registry.commit(other, true);
+            assertNull(_registry.getBranch(other));
+            assertEquals(1, _registry.getCommittedCount());
+        }
+        finally
+        {
+            releaseCommit.countDown();
+        }
+        blockedCommit.get(TIMEOUT, TimeUnit.SECONDS);
+        assertEquals(2, _registry.getCommittedCount());
+    }
+
+    @Test
+    public void testBranchCompletedWhilstWaitingForLock() throws Exception
+    {
+        final Xid xid = createXid(1);
+        final DtxBranch branch = new DtxBranch(xid, _registry);
+        _registry.registerBranch(branch);
+
+        final AtomicReference<Thread> waitingThread = new AtomicReference<>();
+        final Future<?> rollback;
+        final DtxBranch replacement = new DtxBranch(xid, _registry);
+        synchronized (branch)
+        {
+            rollback = _executor.submit(() ->
+                                        {
+                                            waitingThread.set(Thread.currentThread());
+                                            _registry.rollback(xid);
+                                            return null;
+                                        });
+
+            final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT);
+            while (waitingThread.get() == null || waitingThread.get().getState() != Thread.State.BLOCKED)
+            {
+                assertTrue("Rollback not waiting for branch", System.currentTimeMillis() < deadline);
+                Thread.sleep(10);
+            }
+
+            _registry.commit(xid, true);
+            assertTrue(_registry.registerBranch(replacement));
+        }
+
+        try
+        {
+            rollback.get(TIMEOUT, TimeUnit.SECONDS);
+            fail("Exception not thrown");
+        }
+        catch (ExecutionException e)
+        {
+            assertTrue(e.getCause() instanceof UnknownDtxBranchException);
+        }
+        assertSame(replacement, _registry.getBranch(xid));
+        assertEquals(0, _registry.getRolledBackCount());
+    }
+
+    private Xid createXid(final int id)
+    {
+        return new Xid(1L, new byte[]{(byte) id}, new byte[]{1});
+    }
+}
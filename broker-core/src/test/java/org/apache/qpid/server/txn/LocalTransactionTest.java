@@ -32,7 +32,9 @@ import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -470,6 +472,38 @@ public class LocalTransactionTest extends UnitTestBase
         assertEquals("Unexpected transaction state", TransactionState.COMMITTED, _storeTransaction.getState());
         assertTrue("Post commit action must be fired", _action1.isPostCommitActionFired());
     }
+
+    /**
+     * Tests that an asynchronous commit leaves the transaction available for further work whilst the store commit
+     * is outstanding, deferring the post transaction actions until the recorded future is completed.
+     */
+    @Test
+    public void testCommitAsyncWork() throws Exception
+    {
+        final LocalTransaction transaction = new LocalTransaction(_transactionLog, null, null, true);
+        final List<ListenableFuture<Void>> futures = new ArrayList<>();
+        final List<ServerTransaction.Action> actions = new ArrayList<>();
+        final AtomicBoolean deferredRun = new AtomicBoolean();
+
+        transaction.dequeue(mock(MessageEnqueueRecord.class), _action1);
+        transaction.commitAsync(() -> deferredRun.set(true), (future, action) ->
+        {
+            futures.add(future);
+            actions.add(action);
+        });
+
+        assertEquals("Unexpected number of recorded futures", 1, futures.size());
+        assertFalse("Post commit action must not be fired yet", _action1.isPostCommitActionFired());
+        assertFalse("Deferred action must not be run yet", deferredRun.get());
+
+        transaction.dequeue(mock(MessageEnqueueRecord.class), _action2);
+
+        actions.get(0).postCommit();
+
+        assertTrue("Post commit action must be fired", _action1.isPostCommitActionFired());
+        assertTrue("Deferred action must be run", deferredRun.get());
+        assertNotFired(_action2);
+    }
     
     /** 
      * Tests the dequeuing of a message with a rollback.  Test ensures that the underlying store transaction is 
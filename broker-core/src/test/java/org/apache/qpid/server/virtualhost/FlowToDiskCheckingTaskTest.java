@@ -21,13 +21,16 @@
 
 package org.apache.qpid.server.virtualhost;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -35,6 +38,8 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.apache.qpid.server.consumer.ConsumerOption;
+import org.apache.qpid.server.consumer.TestConsumerTarget;
 import org.apache.qpid.server.message.AMQMessageHeader;
 import org.apache.qpid.server.message.MessageReference;
 import org.apache.qpid.server.message.ServerMessage;
@@ -96,6 +101,40 @@ public class FlowToDiskCheckingTaskTest extends UnitTestBase
         verify(message.getStoredMessage()).flowToDisk();
     }
 
+    @Test
+    public void testFlowToDiskPrefersQueuesWithoutConsumers() throws Exception
+    {
+        final Queue<?> consumedQueue =
+                _virtualHost.createChild(Queue.class, Collections.singletonMap(Queue.NAME, getTestName() + "_consumed"));
+        try
+        {
+            consumedQueue.addConsumer(new TestConsumerTarget(), null, ServerMessage.class, "test",
+                                      EnumSet.of(ConsumerOption.ACQUIRES, ConsumerOption.SEES_REQUEUES), 0);
+
+            final ServerMessage consumedMessage = createMessage(10, 20);
+            consumedQueue.enqueue(consumedMessage, null, null);
+            final ServerMessage unconsumedMessage = createMessage(10, 20);
+            _queue.enqueue(unconsumedMessage, null, null);
+
+            assertTrue(_virtualHost.getInMemoryMessageSize() > 30L);
+            _virtualHost.setTargetSize(30L);
+            assertTrue(_virtualHost.isOverTargetSize());
+
+            _task.execute();
+
+            verify(consumedMessage.getStoredMessage(), never()).flowToDisk();
+            verify(unconsumedMessage.getStoredMessage()).flowToDisk();
+            assertEquals(-1L, consumedQueue.getFlowToDiskDistance());
+            assertEquals(0L, consumedQueue.getTotalFlowedToDiskBytes());
+            assertEquals(0L, _queue.getFlowToDiskDistance());
+            assertTrue(_queue.getTotalFlowedToDiskBytes() >= 30L);
+        }
+        finally
+        {
+            consumedQueue.close();
+        }
+    }
+
     private void makeVirtualHostTargetSizeExceeded()
     {
         if (_virtualHost.getInMemoryMessageSize() == 0)
@@ -61,12 +61,17 @@ public class ServerAssembler
     private final Method[] _incompleteMethodArray = new Method[ARRAY_SIZE + 1];
     private final Map<Integer, Method> _incompleteMethodMap = new HashMap<>();
 
-    private final Map<Integer,List<ServerFrame>> _segments;
+    // Segments spanning more than one frame accumulate the frame bodies in a list, held in the same way for the
+    // control and command tracks of low-value channels.  Lists held in the array are reused from one segment to
+    // the next.
+    private static final int ARRAY_TRACKS = 2;
+    @SuppressWarnings("unchecked")
+    private final List<QpidByteBuffer>[] _segmentArray = new List[(ARRAY_SIZE + 1) * ARRAY_TRACKS];
+    private final Map<Integer, List<QpidByteBuffer>> _segmentMap = new HashMap<>();
 
     public ServerAssembler(ServerConnection connection)
     {
         _connection = connection;
-        _segments = new HashMap<>();
     }
 
     public void received(final List<ServerFrame> frames)
@@ -146,30 +151,69 @@ public class ServerAssembler
     }
 
 
-    private int segmentKey(ServerFrame frame)
+    private boolean isArraySegment(ServerFrame frame)
     {
-        return (frame.getTrack() + 1) * frame.getChannel();
+        final int channel = frame.getChannel();
+        return (channel & ARRAY_SIZE) == channel && frame.getTrack() >= 0 && frame.getTrack() < ARRAY_TRACKS;
     }
 
-    private List<ServerFrame> getSegment(ServerFrame frame)
+    private List<QpidByteBuffer> getSegment(ServerFrame frame)
     {
-        return _segments.get(segmentKey(frame));
+        if (isArraySegment(frame))
+        {
+            return _segmentArray[frame.getChannel() * ARRAY_TRACKS + frame.getTrack()];
+        }
+        else
+        {
+            return _segmentMap.get(segmentKey(frame));
+        }
     }
 
-    private void setSegment(ServerFrame frame, List<ServerFrame> segment)
+    private List<QpidByteBuffer> startSegment(ServerFrame frame)
     {
-        int key = segmentKey(frame);
-        if (_segments.containsKey(key))
+        List<QpidByteBuffer> segment = getSegment(frame);
+        if (segment == null)
+        {
+            segment = new ArrayList<>();
+            if (isArraySegment(frame))
+            {
+                _segmentArray[frame.getChannel() * ARRAY_TRACKS + frame.getTrack()] = segment;
+            }
+            else
+            {
+                _segmentMap.put(segmentKey(frame), segment);
+            }
+        }
+        else if (!segment.isEmpty())
         {
             error(new ProtocolError(Frame.L2, "segment in progress: %s",
                                     frame));
+            disposeAndClear(segment);
         }
-        _segments.put(segmentKey(frame), segment);
+        return segment;
     }
 
-    private void clearSegment(ServerFrame frame)
+    private void clearSegment(ServerFrame frame, List<QpidByteBuffer> segment)
     {
-        _segments.remove(segmentKey(frame));
+        disposeAndClear(segment);
+        if (!isArraySegment(frame))
+        {
+            _segmentMap.remove(segmentKey(frame));
+        }
+    }
+
+    private int segmentKey(ServerFrame frame)
+    {
+        return (frame.getChannel() << 4) | (frame.getTrack() & 0xF);
+    }
+
+    private void disposeAndClear(List<QpidByteBuffer> segment)
+    {
+        for (QpidByteBuffer buffer : segment)
+        {
+            buffer.dispose();
+        }
+        segment.clear();
     }
 
     private void emit(int channel, ProtocolEvent event)
@@ -206,32 +250,14 @@ public class ServerAssembler
         }
         else
         {
-            List<ServerFrame> frames;
-            if (frame.isFirstFrame())
-            {
-                frames = new ArrayList<>();
-                setSegment(frame, frames);
-            }
-            else
-            {
-                frames = getSegment(frame);
-            }
+            final List<QpidByteBuffer> segment = frame.isFirstFrame() ? startSegment(frame) : getSegment(frame);
 
-            frames.add(frame);
+            segment.add(frame.getBody());
 
             if (frame.isLastFrame())
             {
-                clearSegment(frame);
-                List<QpidByteBuffer> frameBuffers = new ArrayList<>(frames.size());
-                for (ServerFrame f : frames)
-                {
-                    frameBuffers.add(f.getBody());
-                }
-                QpidByteBuffer combined = QpidByteBuffer.concatenate(frameBuffers);
-                for (QpidByteBuffer buffer : frameBuffers)
-                {
-                    buffer.dispose();
-                }
+                QpidByteBuffer combined = QpidByteBuffer.concatenate(segment);
+                clearSegment(frame, segment);
                 assemble(frame, combined);
             }
         }
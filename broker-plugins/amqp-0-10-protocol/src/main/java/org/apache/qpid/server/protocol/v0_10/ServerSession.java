@@ -1360,10 +1360,34 @@ public class ServerSession extends SessionInvoker
     }
 
 
-    public void commit()
+    public void commit(final Method method)
     {
-        _transaction.commit();
-        getAMQPConnection().incrementTransactionBeginCounter();
+        if(_transaction instanceof LocalTransaction)
+        {
+            // the command is completed once the store commit completes, any work which follows it is processed
+            // meanwhile
+            ((LocalTransaction) _transaction).commitAsync(() -> getAMQPConnection().incrementTransactionBeginCounter(),
+                                                          (future, action) -> recordFuture(future, new ServerTransaction.Action()
+                                                          {
+                                                              @Override
+                                                              public void postCommit()
+                                                              {
+                                                                  action.postCommit();
+                                                                  processed(method);
+                                                              }
+
+                                                              @Override
+                                                              public void onRollback()
+                                                              {
+                                                                  action.onRollback();
+                                                              }
+                                                          }));
+        }
+        else
+        {
+            _transaction.commit();
+            getAMQPConnection().incrementTransactionBeginCounter();
+        }
     }
 
     public void rollback()
@@ -620,7 +620,7 @@ public class ServerSessionDelegate extends MethodDelegate<ServerSession> impleme
     public void txCommit(ServerSession session, TxCommit method)
     {
         // TODO - check current tx mode
-        session.commit();
+        session.commit(method);
     }
 
     @Override
@@ -0,0 +1,252 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v0_10;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v0_10.transport.MessageAcceptMode;
+import org.apache.qpid.server.protocol.v0_10.transport.MessageAcquireMode;
+import org.apache.qpid.server.protocol.v0_10.transport.MessageTransfer;
+import org.apache.qpid.server.protocol.v0_10.transport.ProtocolEvent;
+import org.apache.qpid.server.protocol.v0_10.transport.SegmentType;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class ServerAssemblerTest extends UnitTestBase
+{
+    private static final byte COMMAND_TRACK = ServerFrame.L2;
+    private static final int WARM_UP_ITERATIONS = 20000;
+    private static final int MEASURED_ITERATIONS = 10000;
+    /**
+     * Decoding the message.transfer command and handing it to the connection allocates a few hundred bytes;
+     * the body itself must not be copied onto the heap.
+     */
+    private static final int MAX_BYTES_PER_TRANSFER = 1024;
+    /**
+     * A body spanning several frames adds only the composite buffer over its frame buffers, never a copy of the
+     * content.
+     */
+    private static final int MAX_MULTI_FRAME_BYTES_PER_TRANSFER = 1024;
+
+    private final List<MessageTransfer> _transfers = new ArrayList<>();
+    private final List<Integer> _bodySizes = new ArrayList<>();
+    private ServerAssembler _assembler;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        final ServerConnection connection = mock(ServerConnection.class);
+        doAnswer(invocation ->
+                 {
+                     final ProtocolEvent event = invocation.getArgument(0);
+                     assertTrue("Unexpected event " + event, event instanceof MessageTransfer);
+                     final MessageTransfer transfer = (MessageTransfer) event;
+                     _transfers.add(transfer);
+                     _bodySizes.add(transfer.getBodySize());
+                     return null;
+                 }).when(connection).received(any(ProtocolEvent.class));
+        _assembler = new ServerAssembler(connection);
+    }
+
+    @Test
+    public void testSingleFrameSegments()
+    {
+        _assembler.received(Arrays.asList(commandFrame(1, true, true), bodyFrame(1, 1024, true, true)));
+
+        assertEquals(1, _transfers.size());
+        assertEquals(1, _transfers.get(0).getChannel());
+        assertEquals("queue", _transfers.get(0).getDestination());
+        assertEquals(Integer.valueOf(1024), _bodySizes.get(0));
+    }
+
+    @Test
+    public void testInterleavedMultiFrameSegments()
+    {
+        for (int i = 0; i < 2; i++)
+        {
+            _assembler.received(Arrays.asList(commandFrame(1, true, false),
+                                              commandFrame(2, true, false),
+                                              commandFrame(300, true, false),
+                                              commandFrame(2, false, true),
+                                              commandFrame(1, false, true),
+                                              commandFrame(300, false, true),
+                                              bodyFrame(1, 32 * 1024, true, false),
+                                              bodyFrame(2, 1024, true, true),
+                                              bodyFrame(300, 32 * 1024, true, false),
+                                              bodyFrame(1, 32 * 1024, false, true),
+                                              bodyFrame(300, 32 * 1024, false, true)));
+        }
+
+        assertEquals(6, _transfers.size());
+        for (int i = 0; i < 2; i++)
+        {
+            assertEquals(2, _transfers.get(3 * i).getChannel());
+            assertEquals(Integer.valueOf(1024), _bodySizes.get(3 * i));
+            assertEquals(1, _transfers.get(3 * i + 1).getChannel());
+            assertEquals(Integer.valueOf(64 * 1024), _bodySizes.get(3 * i + 1));
+            assertEquals(300, _transfers.get(3 * i + 2).getChannel());
+            assertEquals(Integer.valueOf(64 * 1024), _bodySizes.get(3 * i + 2));
+        }
+    }
+
+    @Test
+    public void testMessageTransferAllocation()
+    {
+        final com.sun.management.ThreadMXBean threadMXBean = getThreadMXBean();
+
+        final long singleFrame = measureTransferAllocation(threadMXBean, 1024, 1);
+        final long multiFrame = measureTransferAllocation(threadMXBean, 64 * 1024, 2);
+
+        assertTrue(String.format("Assembling %d 1 KB transfers allocated %d bytes", MEASURED_ITERATIONS, singleFrame),
+                   singleFrame < (long) MAX_BYTES_PER_TRANSFER * MEASURED_ITERATIONS);
+        assertTrue(String.format("Assembling %d 64 KB transfers of two body frames allocated %d bytes, against %d"
+                                 + " bytes for single frame 1 KB transfers", MEASURED_ITERATIONS, multiFrame,
+                                 singleFrame),
+                   multiFrame - singleFrame < (long) MAX_MULTI_FRAME_BYTES_PER_TRANSFER * MEASURED_ITERATIONS);
+    }
+
+    private long measureTransferAllocation(final com.sun.management.ThreadMXBean threadMXBean,
+                                           final int bodySize,
+                                           final int bodyFrames)
+    {
+        final int[] transfers = new int[1];
+        // a mock would allocate for each invocation it dispatches, hiding what the assembler itself allocates
+        final ServerConnection connection = new ServerConnection(1, null, null, null, null)
+        {
+            @Override
+            public void received(final ProtocolEvent event)
+            {
+                final MessageTransfer transfer = (MessageTransfer) event;
+                assertEquals(bodySize, transfer.getBodySize());
+                transfer.setBody(null);
+                transfers[0]++;
+            }
+        };
+        final ServerAssembler assembler = new ServerAssembler(connection);
+
+        final QpidByteBuffer command = encodeCommand();
+        final QpidByteBuffer body = QpidByteBuffer.allocateDirect(bodySize);
+        try
+        {
+            assembleTransfers(threadMXBean, assembler, command, body, bodyFrames, WARM_UP_ITERATIONS);
+            final long allocated =
+                    assembleTransfers(threadMXBean, assembler, command, body, bodyFrames, MEASURED_ITERATIONS);
+            assertEquals(WARM_UP_ITERATIONS + MEASURED_ITERATIONS, transfers[0]);
+            return allocated;
+        }
+        finally
+        {
+            command.dispose();
+            body.dispose();
+        }
+    }
+
+    private long assembleTransfers(final com.sun.management.ThreadMXBean threadMXBean,
+                                   final ServerAssembler assembler,
+                                   final QpidByteBuffer command,
+                                   final QpidByteBuffer body,
+                                   final int bodyFrames,
+                                   final int iterations)
+    {
+        final long threadId = Thread.currentThread().getId();
+        final int bodyFrameSize = body.remaining() / bodyFrames;
+        final ServerFrame[] frames = new ServerFrame[1 + bodyFrames];
+        long allocated = 0;
+        for (int i = 0; i < iterations; i++)
+        {
+            // the frames are created outside the measurement, as the network layer would have done
+            frames[0] = new ServerFrame((byte) (ServerFrame.FIRST_SEG | ServerFrame.FIRST_FRAME | ServerFrame.LAST_FRAME),
+                                        SegmentType.COMMAND, COMMAND_TRACK, 1,
+                                        command.view(0, command.remaining()));
+            for (int f = 0; f < bodyFrames; f++)
+            {
+                byte flags = ServerFrame.LAST_SEG;
+                flags |= f == 0 ? ServerFrame.FIRST_FRAME : 0;
+                flags |= f == bodyFrames - 1 ? ServerFrame.LAST_FRAME : 0;
+                frames[1 + f] = new ServerFrame(flags, SegmentType.BODY, COMMAND_TRACK, 1,
+                                                body.view(f * bodyFrameSize, bodyFrameSize));
+            }
+
+            final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            for (ServerFrame frame : frames)
+            {
+                assembler.frame(frame);
+            }
+            allocated += threadMXBean.getThreadAllocatedBytes(threadId) - before;
+        }
+        return allocated;
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean()
+    {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        return threadMXBean;
+    }
+
+    private QpidByteBuffer encodeCommand()
+    {
+        final ServerEncoder encoder = new ServerEncoder(1024, false);
+        encoder.writeUint16(MessageTransfer.TYPE);
+        encoder.writeUint16(0);
+        new MessageTransfer("queue", MessageAcceptMode.NONE, MessageAcquireMode.PRE_ACQUIRED, null,
+                            (QpidByteBuffer) null).write(encoder);
+        return encoder.getBuffer();
+    }
+
+    private ServerFrame commandFrame(final int channel, final boolean first, final boolean last)
+    {
+        final QpidByteBuffer encoded = encodeCommand();
+        final int split = encoded.remaining() / 2;
+
+        final QpidByteBuffer body = first ? encoded.view(0, last ? encoded.remaining() : split)
+                                          : encoded.view(split, encoded.remaining() - split);
+        encoded.dispose();
+        byte flags = ServerFrame.FIRST_SEG;
+        flags |= first ? ServerFrame.FIRST_FRAME : 0;
+        flags |= last ? ServerFrame.LAST_FRAME : 0;
+        return new ServerFrame(flags, SegmentType.COMMAND, COMMAND_TRACK, channel, body);
+    }
+
+    private ServerFrame bodyFrame(final int channel, final int size, final boolean first, final boolean last)
+    {
+        byte flags = ServerFrame.LAST_SEG;
+        flags |= first ? ServerFrame.FIRST_FRAME : 0;
+        flags |= last ? ServerFrame.LAST_FRAME : 0;
+        return new ServerFrame(flags, SegmentType.BODY, COMMAND_TRACK, channel, QpidByteBuffer.wrap(new byte[size]));
+    }
+}
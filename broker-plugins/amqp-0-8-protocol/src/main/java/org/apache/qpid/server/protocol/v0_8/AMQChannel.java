@@ -1103,7 +1103,7 @@ public class AMQChannel extends AbstractAMQPSession<AMQChannel, ConsumerTarget_0
                         _connection.incrementTransactionBeginCounter();
                     }
                 }
-            });
+            }, this);
         }
         else
         {
@@ -1114,6 +1114,8 @@ public class AMQChannel extends AbstractAMQPSession<AMQChannel, ConsumerTarget_0
 
     private void rollback(Runnable postRollbackTask)
     {
+        // complete any outstanding commits first so that their commit-oks precede the rollback-ok
+        sync();
 
         // stop all subscriptions
         _rollingBack = true;
@@ -1623,10 +1625,6 @@ public class AMQChannel extends AbstractAMQPSession<AMQChannel, ConsumerTarget_0
         {
             cmd.complete();
         }
-        if(_transaction instanceof LocalTransaction)
-        {
-            ((LocalTransaction)_transaction).sync();
-        }
     }
 
     @Override
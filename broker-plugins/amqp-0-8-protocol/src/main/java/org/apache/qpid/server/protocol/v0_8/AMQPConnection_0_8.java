@@ -56,6 +56,13 @@ public interface AMQPConnection_0_8<C extends AMQPConnection_0_8<C>> extends AMQ
     @ManagedContextDefault(name= FORCE_MESSAGE_VALIDATION)
     boolean DEFAULT_FORCE_MESSAGE_VALIDATION = false;
 
+    String SHORT_STRING_INTERN_TABLE_SIZE = "qpid.amqp_0_8.shortStringInternTableSize";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = SHORT_STRING_INTERN_TABLE_SIZE,
+            description = "The number of slots in the table of exchange names, queue names and routing keys shared"
+                          + " by all AMQP 0-8, 0-9 and 0-9-1 connections to avoid decoding them afresh from every frame.")
+    int DEFAULT_SHORT_STRING_INTERN_TABLE_SIZE = 4096;
+
     @DerivedAttribute(description = "The actual negotiated value of heartbeat delay.")
     int getHeartbeatDelay();
 
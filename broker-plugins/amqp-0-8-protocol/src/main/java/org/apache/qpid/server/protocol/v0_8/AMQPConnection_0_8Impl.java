@@ -191,6 +191,14 @@ public class AMQPConnection_0_8Impl
         _closeWhenNoRoute = port.getCloseWhenNoRoute();
     }
 
+    static void configureShortStringInternTable(final Broker<?> broker)
+    {
+        final int internTableSize = broker.getContextKeys(false).contains(SHORT_STRING_INTERN_TABLE_SIZE)
+                ? broker.getContextValue(Integer.class, SHORT_STRING_INTERN_TABLE_SIZE)
+                : DEFAULT_SHORT_STRING_INTERN_TABLE_SIZE;
+        AMQShortString.setInternTableSize(internTableSize);
+    }
+
     @Override
     public boolean isTransportBlockedForWriting()
     {
@@ -24,6 +24,9 @@ package org.apache.qpid.server.protocol.v0_8;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.google.common.cache.Cache;
 import org.slf4j.Logger;
@@ -47,6 +50,7 @@ public final class AMQShortString implements Comparable<AMQShortString>
     public static final int MAX_LENGTH = 255;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AMQShortString.class);
+
     private static final NullCache<ByteBuffer, AMQShortString> NULL_CACHE = new NullCache<>();
 
     // Unfortunately CacheBuilder does not yet support keyEquivalence, so we have to wrap the keys in ByteBuffers
@@ -54,6 +58,9 @@ public final class AMQShortString implements Comparable<AMQShortString>
     private static final ThreadLocal<Cache<ByteBuffer, AMQShortString>> CACHE =
             ThreadLocal.withInitial(() -> CacheFactory.getCache("amqShortStringCache", NULL_CACHE));
 
+    private static volatile InternTable _internTable =
+            new InternTable(AMQPConnection_0_8.DEFAULT_SHORT_STRING_INTERN_TABLE_SIZE);
+
     private final byte[] _data;
     private int _hashCode;
     private String _asString = null;
@@ -135,6 +142,37 @@ public final class AMQShortString implements Comparable<AMQShortString>
         }
     }
 
+    /**
+     * Reads a short string naming an exchange, queue or routing key, or a similar name such as a content type or
+     * application id, interning it in the table shared by all threads.
+     * Such names repeat from frame to frame, so they are usually decoded by comparing them in place in the buffer,
+     * without allocating.  Values which rarely repeat should be read with {@link #readAMQShortString(QpidByteBuffer)}
+     * so that they do not displace the names from the table.
+     */
+    public static AMQShortString readInternedAMQShortString(QpidByteBuffer buffer)
+    {
+        final int position = buffer.position();
+        final int length = buffer.remaining() > 0 ? buffer.get(position) & 0xff : 0;
+        if (length == 0 || length >= buffer.remaining())
+        {
+            final byte[] data = readAMQShortStringAsBytes(buffer);
+            return data == null ? null : new AMQShortString(data);
+        }
+        return _internTable.intern(buffer, position + 1, length);
+    }
+
+    private boolean equalsBytesAt(final QpidByteBuffer buffer, final int offset)
+    {
+        for (int i = 0; i < _data.length; i++)
+        {
+            if (_data[i] != buffer.get(offset + i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static AMQShortString createAMQShortString(byte[] data)
     {
         if (data == null)
@@ -142,6 +180,11 @@ public final class AMQShortString implements Comparable<AMQShortString>
             throw new NullPointerException("Cannot create AMQShortString with null data[]");
         }
 
+        final AMQShortString interned = _internTable.get(data);
+        if (interned != null)
+        {
+            return interned;
+        }
         final AMQShortString cached = getShortStringCache().getIfPresent(ByteBuffer.wrap(data));
         return cached != null ? cached : new AMQShortString(data);
     }
@@ -150,6 +193,11 @@ public final class AMQShortString implements Comparable<AMQShortString>
     {
         final byte[] data = EncodingUtils.asUTF8Bytes(string);
 
+        final AMQShortString interned = _internTable.get(data);
+        if (interned != null)
+        {
+            return interned;
+        }
         final AMQShortString cached = getShortStringCache().getIfPresent(ByteBuffer.wrap(data));
         if (cached != null)
         {
@@ -405,4 +453,140 @@ public final class AMQShortString implements Comparable<AMQShortString>
     {
         CACHE.set(cache);
     }
+
+    /**
+     * Sets the number of slots of the intern table shared by all threads decoding AMQP 0-x frames.  The table is
+     * replaced, and its contents and statistics discarded, only if the size changes.
+     */
+    public static void setInternTableSize(final int size)
+    {
+        if (_internTable.getCapacity() != InternTable.capacityFor(size))
+        {
+            _internTable = new InternTable(size);
+        }
+    }
+
+    /**
+     * Returns the number of short strings held by the intern table shared by all threads decoding AMQP 0-x frames.
+     */
+    public static int getInternedCount()
+    {
+        return _internTable.getSize();
+    }
+
+    public static long getInternHitCount()
+    {
+        return _internTable.getHitCount();
+    }
+
+    public static long getInternMissCount()
+    {
+        return _internTable.getMissCount();
+    }
+
+    private static int hash(final byte[] data)
+    {
+        int hash = 0;
+        for (final byte b : data)
+        {
+            hash = (31 * hash) + b;
+        }
+        return hash;
+    }
+
+    /**
+     * A bounded table of decoded names shared between threads.  Each string has a single slot determined by its hash
+     * code; a string decoded into an occupied slot replaces the previous occupant.  Only names are interned, so once
+     * the names in use have been decoded lookups rarely miss and the slots are almost only read.  Lookups compare the
+     * bytes in place in the network buffer and take no locks.
+     */
+    static final class InternTable
+    {
+        private final AtomicReferenceArray<AMQShortString> _slots;
+        private final int _mask;
+        private final AtomicInteger _size = new AtomicInteger();
+        private final LongAdder _hitCount = new LongAdder();
+        private final LongAdder _missCount = new LongAdder();
+
+        InternTable(final int size)
+        {
+            final int capacity = capacityFor(size);
+            _slots = new AtomicReferenceArray<>(capacity);
+            _mask = capacity - 1;
+        }
+
+        static int capacityFor(final int size)
+        {
+            return Integer.highestOneBit(Math.max(1, Math.min(size, 1 << 20)) * 2 - 1);
+        }
+
+        int getCapacity()
+        {
+            return _slots.length();
+        }
+
+        AMQShortString intern(final QpidByteBuffer buffer, final int offset, final int length)
+        {
+            int hash = 0;
+            for (int i = 0; i < length; i++)
+            {
+                hash = (31 * hash) + buffer.get(offset + i);
+            }
+
+            final int index = index(hash);
+            final AMQShortString interned = _slots.get(index);
+            if (interned != null
+                && interned.length() == length
+                && interned.hashCode() == hash
+                && interned.equalsBytesAt(buffer, offset))
+            {
+                buffer.position(offset + length);
+                _hitCount.increment();
+                return interned;
+            }
+
+            _missCount.increment();
+            final byte[] data = new byte[length];
+            buffer.position(offset);
+            buffer.get(data, 0, length);
+            final AMQShortString decoded = new AMQShortString(data);
+            decoded._hashCode = hash;
+            if (_slots.getAndSet(index, decoded) == null)
+            {
+                _size.incrementAndGet();
+            }
+            return decoded;
+        }
+
+        AMQShortString get(final byte[] data)
+        {
+            final int hash = hash(data);
+            final AMQShortString interned = _slots.get(index(hash));
+            if (interned != null && interned.hashCode() == hash && Arrays.equals(interned._data, data))
+            {
+                return interned;
+            }
+            return null;
+        }
+
+        int getSize()
+        {
+            return _size.get();
+        }
+
+        long getHitCount()
+        {
+            return _hitCount.sum();
+        }
+
+        long getMissCount()
+        {
+            return _missCount.sum();
+        }
+
+        private int index(final int hash)
+        {
+            return (hash ^ (hash >>> 16)) & _mask;
+        }
+    }
 }
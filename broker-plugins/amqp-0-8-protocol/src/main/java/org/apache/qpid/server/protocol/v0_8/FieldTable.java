@@ -23,11 +23,9 @@ package org.apache.qpid.server.protocol.v0_8;
 import java.lang.ref.SoftReference;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -299,7 +297,7 @@ public class FieldTable
 
     public int size()
     {
-        return getProperties().size();
+        return _fieldTableSupport.keys().size();
     }
 
     public boolean isEmpty()
@@ -314,7 +312,7 @@ public class FieldTable
 
     public Set<String> keys()
     {
-        return new LinkedHashSet<>(getProperties().keySet());
+        return new LinkedHashSet<>(_fieldTableSupport.keys());
     }
 
     public Object get(String key)
@@ -373,6 +371,23 @@ public class FieldTable
         return new FieldTable(fieldTable._fieldTableSupport);
     }
 
+    /**
+     * Returns a field table backed by a heap copy of the encoded form of the given table, so that the table no longer
+     * refers to the network buffer it was read from but is still neither decoded nor re-encoded.
+     */
+    public static FieldTable copyEncodedFieldTable(final FieldTable fieldTable)
+    {
+        if (fieldTable == null)
+        {
+            return null;
+        }
+
+        try (QpidByteBuffer encodedForm = QpidByteBuffer.wrap(fieldTable.getDataAsBytes()))
+        {
+            return new FieldTable(encodedForm);
+        }
+    }
+
     public void validate()
     {
         _fieldTableSupport.validate();
@@ -384,6 +399,8 @@ public class FieldTable
 
         boolean containsKey(String key);
 
+        Set<String> keys();
+
         long getEncodedSize();
 
         void writeToBuffer(QpidByteBuffer buffer);
@@ -437,12 +454,33 @@ public class FieldTable
             return value != null && value != NOT_PRESENT;
         }
 
+        @Override
+        public synchronized Set<String> keys()
+        {
+            final Set<String> keys = new LinkedHashSet<>();
+            _encodedForm.mark();
+            try
+            {
+                while (_encodedForm.hasRemaining())
+                {
+                    keys.add(AMQShortString.readAMQShortStringAsString(_encodedForm));
+                    AMQTypeMap.getType(_encodedForm.get()).skip(_encodedForm);
+                }
+            }
+            finally
+            {
+                _encodedForm.reset();
+            }
+            return keys;
+        }
+
         @Override
         public synchronized void writeToBuffer(final QpidByteBuffer buffer)
         {
-            byte[] encodedCopy = new byte[_encodedForm.remaining()];
-            _encodedForm.copyTo(encodedCopy);
-            buffer.put(encodedCopy);
+            try (QpidByteBuffer encodedForm = _encodedForm.duplicate())
+            {
+                buffer.put(encodedForm);
+            }
         }
 
         @Override
@@ -470,9 +508,41 @@ public class FieldTable
         }
 
         @Override
-        public void validate()
+        public synchronized void validate()
         {
-            decode();
+            _encodedForm.mark();
+            try
+            {
+                while (_encodedForm.hasRemaining())
+                {
+                    final int keyLength = _encodedForm.getUnsignedByte();
+                    if (keyLength == 0)
+                    {
+                        checkPropertyName(null);
+                    }
+                    if (keyLength > _encodedForm.remaining())
+                    {
+                        throw new IllegalStateException(String.format(
+                                "Malformed field table detected: key length '%d' exceeds remaining size '%d'",
+                                keyLength,
+                                _encodedForm.remaining()));
+                    }
+                    if (_strictAMQP)
+                    {
+                        _encodedForm.position(_encodedForm.position() - 1);
+                        checkPropertyName(AMQShortString.readAMQShortStringAsString(_encodedForm));
+                    }
+                    else
+                    {
+                        _encodedForm.position(_encodedForm.position() + keyLength);
+                    }
+                    AMQTypeMap.getType(_encodedForm.get()).skip(_encodedForm);
+                }
+            }
+            finally
+            {
+                _encodedForm.reset();
+            }
         }
 
         @Override
@@ -541,8 +611,10 @@ public class FieldTable
             {
                 while (_encodedForm.hasRemaining())
                 {
-                    final byte[] bytes = AMQShortString.readAMQShortStringAsBytes(_encodedForm);
-                    if (Arrays.equals(keyBytes, bytes))
+                    final int keyLength = _encodedForm.getUnsignedByte();
+                    final int keyPosition = _encodedForm.position();
+                    _encodedForm.position(keyPosition + keyLength);
+                    if (keyLength == keyBytes.length && keyEquals(keyBytes, keyPosition))
                     {
                         return AMQTypedValue.readFromBuffer(_encodedForm);
                     }
@@ -560,9 +632,21 @@ public class FieldTable
             return null;
         }
 
+        private boolean keyEquals(final byte[] keyBytes, final int position)
+        {
+            for (int i = 0; i < keyBytes.length; i++)
+            {
+                if (keyBytes[i] != _encodedForm.get(position + i))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         private synchronized Map<String, AMQTypedValue> decode()
         {
-            final Map<String, AMQTypedValue> properties = new HashMap<>();
+            final Map<String, AMQTypedValue> properties = new LinkedHashMap<>();
             final long encodedSize = getEncodedSize();
             if (encodedSize > 0)
             {
@@ -631,6 +715,12 @@ public class FieldTable
             return _properties.containsKey(key);
         }
 
+        @Override
+        public Set<String> keys()
+        {
+            return _properties.keySet();
+        }
+
         @Override
         public void writeToBuffer(final QpidByteBuffer buffer)
         {
@@ -74,6 +74,12 @@ public class ProtocolEngineCreator_0_8 implements ProtocolEngineCreator
         return protocolEngine;
     }
 
+    @Override
+    public void initialise(final Broker<?> broker)
+    {
+        AMQPConnection_0_8Impl.configureShortStringInternTable(broker);
+    }
+
     @Override
     public byte[] getSuggestedAlternativeHeader()
     {
@@ -75,6 +75,12 @@ public class ProtocolEngineCreator_0_9_1 implements ProtocolEngineCreator
         return protocolEngine;
     }
 
+    @Override
+    public void initialise(final Broker<?> broker)
+    {
+        AMQPConnection_0_8Impl.configureShortStringInternTable(broker);
+    }
+
     @Override
     public byte[] getSuggestedAlternativeHeader()
     {
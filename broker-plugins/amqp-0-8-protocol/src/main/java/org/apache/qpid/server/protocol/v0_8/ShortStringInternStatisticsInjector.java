@@ -0,0 +1,144 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v0_8;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.server.model.Broker;
+import org.apache.qpid.server.model.ConfiguredObjectInjectedAttribute;
+import org.apache.qpid.server.model.ConfiguredObjectInjectedOperation;
+import org.apache.qpid.server.model.ConfiguredObjectInjectedStatistic;
+import org.apache.qpid.server.model.InjectedAttributeStatisticOrOperation;
+import org.apache.qpid.server.model.StatisticType;
+import org.apache.qpid.server.model.StatisticUnit;
+import org.apache.qpid.server.plugin.ConfiguredObjectAttributeInjector;
+import org.apache.qpid.server.plugin.PluggableService;
+
+/**
+ * Injects the statistics of the short string intern table shared by all AMQP 0-8, 0-9 and 0-9-1 connections into
+ * the Broker, where they are reported once rather than by every connection.
+ */
+@PluggableService
+public class ShortStringInternStatisticsInjector implements ConfiguredObjectAttributeInjector
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShortStringInternStatisticsInjector.class);
+
+    private final InjectedAttributeStatisticOrOperation.TypeValidator _typeValidator = Broker.class::isAssignableFrom;
+
+    @Override
+    public InjectedAttributeStatisticOrOperation.TypeValidator getTypeValidator()
+    {
+        return _typeValidator;
+    }
+
+    @Override
+    public Collection<ConfiguredObjectInjectedAttribute<?, ?>> getInjectedAttributes()
+    {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Collection<ConfiguredObjectInjectedStatistic<?, ?>> getInjectedStatistics()
+    {
+        final List<ConfiguredObjectInjectedStatistic<?, ?>> statistics = new ArrayList<>();
+        addStatistic(statistics,
+                     "internedShortStringCount",
+                     "getInternedShortStringCount",
+                     "Number of names held by the short string intern table shared by all AMQP 0-8, 0-9 and 0-9-1"
+                     + " connections.",
+                     StatisticType.POINT_IN_TIME,
+                     "Interned short strings");
+        addStatistic(statistics,
+                     "shortStringInternHitCount",
+                     "getShortStringInternHitCount",
+                     "Number of names decoded by all AMQP 0-8, 0-9 and 0-9-1 connections which were found in the"
+                     + " shared short string intern table.",
+                     StatisticType.CUMULATIVE,
+                     "Short string intern hits");
+        addStatistic(statistics,
+                     "shortStringInternMissCount",
+                     "getShortStringInternMissCount",
+                     "Number of names decoded by all AMQP 0-8, 0-9 and 0-9-1 connections which were not found in the"
+                     + " shared short string intern table.",
+                     StatisticType.CUMULATIVE,
+                     "Short string intern misses");
+        return statistics;
+    }
+
+    @Override
+    public Collection<ConfiguredObjectInjectedOperation<?>> getInjectedOperations()
+    {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public String getType()
+    {
+        return "AMQP_0_8_ShortStringIntern";
+    }
+
+    private void addStatistic(final List<ConfiguredObjectInjectedStatistic<?, ?>> statistics,
+                              final String statisticName,
+                              final String methodName,
+                              final String description,
+                              final StatisticType statisticType,
+                              final String label)
+    {
+        try
+        {
+            final Method method = ShortStringInternStatisticsInjector.class.getDeclaredMethod(methodName, Broker.class);
+            statistics.add(new ConfiguredObjectInjectedStatistic<>(statisticName,
+                                                                   method,
+                                                                   new Object[0],
+                                                                   description,
+                                                                   _typeValidator,
+                                                                   StatisticUnit.COUNT,
+                                                                   statisticType,
+                                                                   label));
+        }
+        catch (NoSuchMethodException e)
+        {
+            LOGGER.warn("Failed to inject statistic '{}'", statisticName, e);
+        }
+    }
+
+    public static int getInternedShortStringCount(Broker<?> broker)
+    {
+        return AMQShortString.getInternedCount();
+    }
+
+    public static long getShortStringInternHitCount(Broker<?> broker)
+    {
+        return AMQShortString.getInternHitCount();
+    }
+
+    public static long getShortStringInternMissCount(Broker<?> broker)
+    {
+        return AMQShortString.getInternMissCount();
+    }
+}
@@ -194,7 +194,7 @@ public class BasicConsumeBody extends AMQMethodBodyImpl implements EncodableAMQD
     {
 
         int ticket = buffer.getUnsignedShort();
-        AMQShortString queue = AMQShortString.readAMQShortString(buffer);
+        AMQShortString queue = AMQShortString.readInternedAMQShortString(buffer);
         AMQShortString consumerTag = AMQShortString.readAMQShortString(buffer);
         byte bitfield = buffer.get();
 
@@ -21,6 +21,7 @@
 package org.apache.qpid.server.protocol.v0_8.transport;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -356,11 +357,14 @@ public class BasicContentHeaderProperties
         }
         _encodedForm = buffer.view(0,size);
 
-        try (QpidByteBuffer byteBuffer = _encodedForm.slice())
+        final int start = buffer.position();
+        decode(buffer);
+        if (buffer.position() - start > size)
         {
-            decode(byteBuffer);
+            dispose();
+            throw new AMQFrameDecodingException("Content header properties exceed property list size " + size, null);
         }
-        buffer.position(buffer.position()+size);
+        buffer.position(start + size);
 
     }
 
@@ -368,12 +372,12 @@ public class BasicContentHeaderProperties
     {
         if ((_propertyFlags & (CONTENT_TYPE_MASK)) != 0)
         {
-            _contentType = AMQShortString.readAMQShortString(buffer);
+            _contentType = AMQShortString.readInternedAMQShortString(buffer);
         }
 
         if ((_propertyFlags & ENCODING_MASK) != 0)
         {
-            _encoding = AMQShortString.readAMQShortString(buffer);
+            _encoding = AMQShortString.readInternedAMQShortString(buffer);
         }
 
         if ((_propertyFlags & HEADERS_MASK) != 0)
@@ -418,22 +422,22 @@ public class BasicContentHeaderProperties
 
         if ((_propertyFlags & TYPE_MASK) != 0)
         {
-            _type = AMQShortString.readAMQShortString(buffer);
+            _type = AMQShortString.readInternedAMQShortString(buffer);
         }
 
         if ((_propertyFlags & USER_ID_MASK) != 0)
         {
-            _userId = AMQShortString.readAMQShortString(buffer);
+            _userId = AMQShortString.readInternedAMQShortString(buffer);
         }
 
         if ((_propertyFlags & APPLICATION_ID_MASK) != 0)
         {
-            _appId = AMQShortString.readAMQShortString(buffer);
+            _appId = AMQShortString.readInternedAMQShortString(buffer);
         }
 
         if ((_propertyFlags & CLUSTER_ID_MASK) != 0)
         {
-            _clusterId = AMQShortString.readAMQShortString(buffer);
+            _clusterId = AMQShortString.readInternedAMQShortString(buffer);
         }
 
     }
@@ -506,7 +510,7 @@ public class BasicContentHeaderProperties
 
     public synchronized Collection<String> getHeaderNames()
     {
-        return getHeadersAsMap().keySet();
+        return _headers == null ? Collections.emptySet() : _headers.keys();
     }
 
     public synchronized boolean containsHeader(String name)
@@ -832,7 +836,7 @@ public class BasicContentHeaderProperties
         nullEncodedForm();
         if (_headers != null)
         {
-            final FieldTable headers = FieldTable.convertToDecodedFieldTable(_headers);
+            final FieldTable headers = FieldTable.copyEncodedFieldTable(_headers);
             _headers.dispose();
             _headers = headers;
         }
@@ -126,7 +126,7 @@ public class BasicGetBody extends AMQMethodBodyImpl implements EncodableAMQDataB
     {
 
         int ticket = buffer.getUnsignedShort();
-        AMQShortString queue = AMQShortString.readAMQShortString(buffer);
+        AMQShortString queue = AMQShortString.readInternedAMQShortString(buffer);
         boolean noAck = (buffer.get() & 0x01) != 0;
         if(!dispatcher.ignoreAllButCloseOk())
         {
@@ -122,9 +122,9 @@ public class ExchangeBoundBody extends AMQMethodBodyImpl implements EncodableAMQ
                                final ServerChannelMethodProcessor dispatcher)
     {
 
-        AMQShortString exchange = AMQShortString.readAMQShortString(buffer);
-        AMQShortString routingKey = AMQShortString.readAMQShortString(buffer);
-        AMQShortString queue = AMQShortString.readAMQShortString(buffer);
+        AMQShortString exchange = AMQShortString.readInternedAMQShortString(buffer);
+        AMQShortString routingKey = AMQShortString.readInternedAMQShortString(buffer);
+        AMQShortString queue = AMQShortString.readInternedAMQShortString(buffer);
         if(!dispatcher.ignoreAllButCloseOk())
         {
             dispatcher.receiveExchangeBound(exchange, routingKey, queue);
@@ -206,8 +206,8 @@ public class ExchangeDeclareBody extends AMQMethodBodyImpl implements EncodableA
     {
 
         int ticket = buffer.getUnsignedShort();
-        AMQShortString exchange = AMQShortString.readAMQShortString(buffer);
-        AMQShortString type = AMQShortString.readAMQShortString(buffer);
+        AMQShortString exchange = AMQShortString.readInternedAMQShortString(buffer);
+        AMQShortString type = AMQShortString.readInternedAMQShortString(buffer);
         byte bitfield = buffer.get();
         boolean passive = (bitfield & 0x1) == 0x1;
         boolean durable = (bitfield & 0x2) == 0x2;
@@ -139,7 +139,7 @@ public class ExchangeDeleteBody extends AMQMethodBodyImpl implements EncodableAM
     {
 
         int ticket = buffer.getUnsignedShort();
-        AMQShortString exchange = AMQShortString.readAMQShortString(buffer);
+        AMQShortString exchange = AMQShortString.readInternedAMQShortString(buffer);
         byte bitfield = buffer.get();
         boolean ifUnused = (bitfield & 0x01) == 0x01;
         boolean nowait = (bitfield & 0x02) == 0x02;
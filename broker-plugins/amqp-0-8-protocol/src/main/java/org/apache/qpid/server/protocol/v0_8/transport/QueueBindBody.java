@@ -166,9 +166,9 @@ public class QueueBindBody extends AMQMethodBodyImpl implements EncodableAMQData
     {
 
         int ticket = buffer.getUnsignedShort();
-        AMQShortString queue = AMQShortString.readAMQShortString(buffer);
-        AMQShortString exchange = AMQShortString.readAMQShortString(buffer);
-        AMQShortString bindingKey = AMQShortString.readAMQShortString(buffer);
+        AMQShortString queue = AMQShortString.readInternedAMQShortString(buffer);
+        AMQShortString exchange = AMQShortString.readInternedAMQShortString(buffer);
+        AMQShortString bindingKey = AMQShortString.readInternedAMQShortString(buffer);
         boolean nowait = (buffer.get() & 0x01) == 0x01;
         FieldTable arguments = EncodingUtils.readFieldTable(buffer);
         if(!dispatcher.ignoreAllButCloseOk())
@@ -194,7 +194,7 @@ public class QueueDeclareBody extends AMQMethodBodyImpl implements EncodableAMQD
     {
 
         int ticket = buffer.getUnsignedShort();
-        AMQShortString queue = AMQShortString.readAMQShortString(buffer);
+        AMQShortString queue = AMQShortString.readInternedAMQShortString(buffer);
         byte bitfield = buffer.get();
 
         boolean passive = (bitfield & 0x01 ) == 0x01;
@@ -152,7 +152,7 @@ public class QueueDeleteBody extends AMQMethodBodyImpl implements EncodableAMQDa
     {
 
         int ticket = buffer.getUnsignedShort();
-        AMQShortString queue = AMQShortString.readAMQShortString(buffer);
+        AMQShortString queue = AMQShortString.readInternedAMQShortString(buffer);
         byte bitfield = buffer.get();
 
         boolean ifUnused = (bitfield & 0x01) == 0x01;
@@ -149,9 +149,9 @@ public class QueueUnbindBody extends AMQMethodBodyImpl implements EncodableAMQDa
     {
 
         int ticket = buffer.getUnsignedShort();
-        AMQShortString queue = AMQShortString.readAMQShortString(buffer);
-        AMQShortString exchange = AMQShortString.readAMQShortString(buffer);
-        AMQShortString routingKey = AMQShortString.readAMQShortString(buffer);
+        AMQShortString queue = AMQShortString.readInternedAMQShortString(buffer);
+        AMQShortString exchange = AMQShortString.readInternedAMQShortString(buffer);
+        AMQShortString routingKey = AMQShortString.readInternedAMQShortString(buffer);
         FieldTable arguments = EncodingUtils.readFieldTable(buffer);
         if(!dispatcher.ignoreAllButCloseOk())
         {
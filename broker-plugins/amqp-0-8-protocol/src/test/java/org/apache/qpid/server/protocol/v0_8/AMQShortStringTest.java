@@ -165,7 +165,7 @@ public class AMQShortStringTest extends UnitTestBase
         AMQShortString.setShortStringCache(cache);
         try
         {
-            AMQShortString string = AMQShortString.createAMQShortString("hello");
+            AMQShortString string = AMQShortString.createAMQShortString(getTestName());
             QpidByteBuffer qpidByteBuffer = QpidByteBuffer.allocate(2 * (string.length() + 1));
             string.writeToBuffer(qpidByteBuffer);
             string.writeToBuffer(qpidByteBuffer);
@@ -185,6 +185,86 @@ public class AMQShortStringTest extends UnitTestBase
         }
     }
 
+    @Test
+    public void testOnlyNamesAreInterned()
+    {
+        final AMQShortString string = AMQShortString.createAMQShortString(getTestName());
+        final QpidByteBuffer qpidByteBuffer = QpidByteBuffer.allocate(2 * (string.length() + 1));
+        string.writeToBuffer(qpidByteBuffer);
+        string.writeToBuffer(qpidByteBuffer);
+        qpidByteBuffer.flip();
+
+        final long misses = AMQShortString.getInternMissCount();
+        final AMQShortString str1 = AMQShortString.readAMQShortString(qpidByteBuffer);
+        final AMQShortString str2 = AMQShortString.readAMQShortString(qpidByteBuffer);
+
+        assertEquals(string, str1);
+        assertEquals(string, str2);
+        assertEquals("Values read without interning should not consult the intern table",
+                     misses,
+                     AMQShortString.getInternMissCount());
+    }
+
+    @Test
+    public void testDecodedStringsAreInterned()
+    {
+        final AMQShortString exchange = AMQShortString.createAMQShortString(getTestName() + ".exchange");
+        final AMQShortString other = AMQShortString.createAMQShortString(getTestName() + ".other");
+        final QpidByteBuffer qpidByteBuffer = QpidByteBuffer.allocate(3 * (exchange.length() + 1));
+        exchange.writeToBuffer(qpidByteBuffer);
+        other.writeToBuffer(qpidByteBuffer);
+        exchange.writeToBuffer(qpidByteBuffer);
+        qpidByteBuffer.flip();
+
+        final AMQShortString str1 = AMQShortString.readInternedAMQShortString(qpidByteBuffer);
+        final AMQShortString str2 = AMQShortString.readInternedAMQShortString(qpidByteBuffer);
+        final AMQShortString str3 = AMQShortString.readInternedAMQShortString(qpidByteBuffer);
+
+        assertEquals(exchange, str1);
+        assertEquals(other, str2);
+        assertSame(str1, str3);
+        assertEquals(exchange.hashCode(), str3.hashCode());
+        assertEquals(0, qpidByteBuffer.remaining());
+        assertSame(str1, AMQShortString.createAMQShortString(getTestName() + ".exchange"));
+    }
+
+    @Test
+    public void testInternTableSharedBetweenThreads() throws Exception
+    {
+        final AMQShortString string = AMQShortString.createAMQShortString(getTestName());
+        final QpidByteBuffer qpidByteBuffer = QpidByteBuffer.allocate(2 * (string.length() + 1));
+        string.writeToBuffer(qpidByteBuffer);
+        string.writeToBuffer(qpidByteBuffer);
+        qpidByteBuffer.flip();
+
+        final AMQShortString[] decoded = new AMQShortString[1];
+        final Thread thread =
+                new Thread(() -> decoded[0] = AMQShortString.readInternedAMQShortString(qpidByteBuffer));
+        thread.start();
+        thread.join();
+
+        final long hits = AMQShortString.getInternHitCount();
+        assertSame(decoded[0], AMQShortString.readInternedAMQShortString(qpidByteBuffer));
+        assertTrue(AMQShortString.getInternHitCount() > hits);
+        assertTrue(AMQShortString.getInternedCount() > 0);
+    }
+
+    @Test
+    public void testInternTableIsBounded()
+    {
+        final AMQShortString.InternTable table = new AMQShortString.InternTable(4);
+        for (int i = 0; i < 100; i++)
+        {
+            final AMQShortString string = AMQShortString.createAMQShortString("string" + i);
+            final QpidByteBuffer qpidByteBuffer = QpidByteBuffer.allocate(string.length() + 1);
+            string.writeToBuffer(qpidByteBuffer);
+            qpidByteBuffer.flip();
+            assertEquals(string, table.intern(qpidByteBuffer, 1, string.length()));
+        }
+        assertTrue(table.getSize() <= 4);
+        assertEquals(100, table.getMissCount());
+    }
+
     /**
      * A helper method to generate a string with given length containing given
      * character
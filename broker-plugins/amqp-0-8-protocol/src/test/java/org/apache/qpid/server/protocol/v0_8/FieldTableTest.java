@@ -26,6 +26,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -559,6 +560,41 @@ public class FieldTableTest extends UnitTestBase
         assertTrue("Expected key is not found", fieldTable.containsKey("testKey"));
     }
 
+    @Test
+    public void testEncodedFormLookupAndPassthrough()
+    {
+        final Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("string", "value");
+        properties.put("int", 1);
+        properties.put("nested", Collections.singletonMap("inner", 2L));
+        properties.put("array", Arrays.asList("a", "b"));
+        properties.put("last", true);
+        final FieldTable ft = new FieldTable(properties);
+        final byte[] encoded = ft.getDataAsBytes();
+
+        final FieldTable fieldTable = new FieldTable(QpidByteBuffer.wrap(encoded));
+        fieldTable.validate();
+        assertEquals(Arrays.asList("string", "int", "nested", "array", "last"),
+                     new ArrayList<>(fieldTable.keys()));
+        assertEquals(5, fieldTable.size());
+        assertEquals(true, fieldTable.get("last"));
+        assertEquals(1, fieldTable.get("int"));
+        assertNull(fieldTable.get("missing"));
+
+        final QpidByteBuffer buf = QpidByteBuffer.allocate((int) fieldTable.getEncodedSize() + Integer.BYTES);
+        fieldTable.writeToBuffer(buf);
+        buf.flip();
+        buf.position(Integer.BYTES);
+        final byte[] written = new byte[buf.remaining()];
+        buf.get(written);
+        assertBytesEqual(encoded, written);
+
+        final FieldTable copy = FieldTable.copyEncodedFieldTable(fieldTable);
+        fieldTable.dispose();
+        assertBytesEqual(encoded, copy.getDataAsBytes());
+        assertEquals("value", copy.get("string"));
+    }
+
     private FieldTable buildMalformedFieldTable()
     {
         final QpidByteBuffer buf = QpidByteBuffer.allocate(1);
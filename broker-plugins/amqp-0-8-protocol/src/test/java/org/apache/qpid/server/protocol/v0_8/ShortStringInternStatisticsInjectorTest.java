@@ -0,0 +1,99 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v0_8;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.model.Broker;
+import org.apache.qpid.server.model.BrokerModel;
+import org.apache.qpid.server.model.ConfiguredObjectInjectedStatistic;
+import org.apache.qpid.server.model.ConfiguredObjectTypeRegistry;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class ShortStringInternStatisticsInjectorTest extends UnitTestBase
+{
+    private static final Set<String> STATISTIC_NAMES = new HashSet<>(Arrays.asList("internedShortStringCount",
+                                                                                    "shortStringInternHitCount",
+                                                                                    "shortStringInternMissCount"));
+
+    private final ShortStringInternStatisticsInjector _injector = new ShortStringInternStatisticsInjector();
+
+    @Test
+    public void testStatisticsInjectedIntoBrokerOnly()
+    {
+        final ConfiguredObjectTypeRegistry typeRegistry = BrokerModel.getInstance().getTypeRegistry();
+
+        final Set<String> brokerStatistics = new HashSet<>();
+        typeRegistry.getStatistics(Broker.class).forEach(statistic -> brokerStatistics.add(statistic.getName()));
+        assertTrue(brokerStatistics.containsAll(STATISTIC_NAMES));
+
+        final Set<String> queueStatistics = new HashSet<>();
+        typeRegistry.getStatistics(Queue.class).forEach(statistic -> queueStatistics.add(statistic.getName()));
+        assertTrue(Collections.disjoint(queueStatistics, STATISTIC_NAMES));
+    }
+
+    @Test
+    public void testStatisticsReportSharedInternTable()
+    {
+        final Map<String, ConfiguredObjectInjectedStatistic> statistics = new HashMap<>();
+        for (ConfiguredObjectInjectedStatistic<?, ?> statistic : _injector.getInjectedStatistics())
+        {
+            statistics.put(statistic.getName(), statistic);
+        }
+        final Broker<?> broker = mock(Broker.class);
+
+        final AMQShortString name = AMQShortString.createAMQShortString(getTestName() + ".queue");
+        final QpidByteBuffer qpidByteBuffer = QpidByteBuffer.allocate(2 * (name.length() + 1));
+        name.writeToBuffer(qpidByteBuffer);
+        name.writeToBuffer(qpidByteBuffer);
+        qpidByteBuffer.flip();
+
+        final long misses = getValue(statistics, "shortStringInternMissCount", broker);
+        AMQShortString.readInternedAMQShortString(qpidByteBuffer);
+        assertTrue(getValue(statistics, "shortStringInternMissCount", broker) > misses);
+
+        final long hits = getValue(statistics, "shortStringInternHitCount", broker);
+        AMQShortString.readInternedAMQShortString(qpidByteBuffer);
+        assertTrue(getValue(statistics, "shortStringInternHitCount", broker) > hits);
+
+        assertEquals((long) AMQShortString.getInternedCount(),
+                     getValue(statistics, "internedShortStringCount", broker));
+    }
+
+    private long getValue(final Map<String, ConfiguredObjectInjectedStatistic> statistics,
+                          final String name,
+                          final Broker<?> broker)
+    {
+        return ((Number) statistics.get(name).getValue(broker)).longValue();
+    }
+}
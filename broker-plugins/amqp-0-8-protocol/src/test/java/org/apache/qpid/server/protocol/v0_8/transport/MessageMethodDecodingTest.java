@@ -0,0 +1,395 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v0_8.transport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v0_8.AMQFrameDecodingException;
+import org.apache.qpid.server.protocol.v0_8.AMQShortString;
+import org.apache.qpid.server.protocol.v0_8.FieldTable;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class MessageMethodDecodingTest extends UnitTestBase
+{
+    private static final int WARM_UP_ITERATIONS = 20000;
+    private static final int MEASURED_ITERATIONS = 10000;
+
+    @Test
+    public void testPublishAckAndRejectDecodeWithoutAllocating()
+    {
+        final com.sun.management.ThreadMXBean threadMXBean = getThreadMXBean();
+
+        final AMQShortString exchange = AMQShortString.valueOf("amq.direct");
+        final AMQShortString routingKey = AMQShortString.valueOf(getTestName());
+        final QpidByteBuffer publish = QpidByteBuffer.allocate(false, 3 + 2 + exchange.length() + routingKey.length());
+        publish.putUnsignedShort(0);
+        exchange.writeToBuffer(publish);
+        routingKey.writeToBuffer(publish);
+        publish.put((byte) 0x01);
+        publish.flip();
+
+        final QpidByteBuffer ack = QpidByteBuffer.allocate(false, 9);
+        ack.putLong(42L);
+        ack.put((byte) 0x01);
+        ack.flip();
+
+        final QpidByteBuffer reject = QpidByteBuffer.allocate(false, 9);
+        reject.putLong(43L);
+        reject.put((byte) 0x01);
+        reject.flip();
+
+        final RecordingChannelMethodProcessor processor = new RecordingChannelMethodProcessor();
+        try
+        {
+            decode(publish, ack, reject, processor, WARM_UP_ITERATIONS);
+
+            final long threadId = Thread.currentThread().getId();
+            final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            decode(publish, ack, reject, processor, MEASURED_ITERATIONS);
+            final long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+            assertEquals(exchange, processor._exchange);
+            assertEquals(routingKey, processor._routingKey);
+            assertTrue("Unexpected mandatory flag", processor._mandatory);
+            assertEquals(42L, processor._ackedDeliveryTag);
+            assertEquals(43L, processor._rejectedDeliveryTag);
+            assertEquals(3L * (WARM_UP_ITERATIONS + MEASURED_ITERATIONS), processor._frameCount);
+            assertTrue(String.format("Decoding %d publish, ack and reject frames allocated %d bytes",
+                                     MEASURED_ITERATIONS, allocated),
+                       allocated < MEASURED_ITERATIONS);
+        }
+        finally
+        {
+            publish.dispose();
+            ack.dispose();
+            reject.dispose();
+        }
+    }
+
+    @Test
+    public void testContentHeaderNamePropertiesAreShared() throws Exception
+    {
+        final BasicContentHeaderProperties properties = new BasicContentHeaderProperties();
+        properties.setContentType("text/plain");
+        properties.setAppId(getTestName());
+        properties.setMessageId("ID:" + getTestName());
+        final ContentHeaderBody body = new ContentHeaderBody(properties, 10L);
+
+        final QpidByteBuffer buffer = QpidByteBuffer.allocate(false, 2 * body.getSize());
+        body.writePayload(buffer);
+        body.writePayload(buffer);
+        buffer.flip();
+
+        final RecordingChannelMethodProcessor processor = new RecordingChannelMethodProcessor();
+        try
+        {
+            ContentHeaderBody.process(buffer, processor, body.getSize());
+            final BasicContentHeaderProperties first = processor._properties;
+            ContentHeaderBody.process(buffer, processor, body.getSize());
+            final BasicContentHeaderProperties second = processor._properties;
+
+            assertEquals(0, buffer.remaining());
+            assertEquals(10L, processor._bodySize);
+            assertNotSame(first, second);
+            assertEquals(properties.getContentType(), second.getContentType());
+            assertSame(first.getContentType(), second.getContentType());
+            assertEquals(properties.getAppId(), second.getAppId());
+            assertSame(first.getAppId(), second.getAppId());
+            assertEquals(properties.getMessageId(), second.getMessageId());
+
+            first.dispose();
+            second.dispose();
+        }
+        finally
+        {
+            buffer.dispose();
+        }
+    }
+
+    @Test(expected = AMQFrameDecodingException.class)
+    public void testContentHeaderPropertiesOverrunningFrameRejected() throws Exception
+    {
+        final BasicContentHeaderProperties properties = new BasicContentHeaderProperties();
+        properties.setContentType("text/plain");
+        final ContentHeaderBody body = new ContentHeaderBody(properties, 10L);
+
+        final QpidByteBuffer buffer = QpidByteBuffer.allocate(false, body.getSize() + 1);
+        body.writePayload(buffer);
+        buffer.put((byte) 0xCE);
+        buffer.flip();
+
+        try
+        {
+            ContentHeaderBody.process(buffer, new RecordingChannelMethodProcessor(), body.getSize() - 1);
+        }
+        finally
+        {
+            buffer.dispose();
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean()
+    {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        return threadMXBean;
+    }
+
+    private static void decode(final QpidByteBuffer publish,
+                               final QpidByteBuffer ack,
+                               final QpidByteBuffer reject,
+                               final ServerChannelMethodProcessor processor,
+                               final int iterations)
+    {
+        for (int i = 0; i < iterations; i++)
+        {
+            BasicPublishBody.process(publish, processor);
+            publish.position(0);
+            BasicAckBody.process(ack, processor);
+            ack.position(0);
+            BasicRejectBody.process(reject, processor);
+            reject.position(0);
+        }
+    }
+
+    private static class RecordingChannelMethodProcessor implements ServerChannelMethodProcessor
+    {
+        private long _frameCount;
+        private AMQShortString _exchange;
+        private AMQShortString _routingKey;
+        private boolean _mandatory;
+        private long _ackedDeliveryTag;
+        private long _rejectedDeliveryTag;
+        private BasicContentHeaderProperties _properties;
+        private long _bodySize;
+
+        @Override
+        public void receiveBasicPublish(final AMQShortString exchange,
+                                        final AMQShortString routingKey,
+                                        final boolean mandatory,
+                                        final boolean immediate)
+        {
+            _frameCount++;
+            _exchange = exchange;
+            _routingKey = routingKey;
+            _mandatory = mandatory;
+        }
+
+        @Override
+        public void receiveBasicAck(final long deliveryTag, final boolean multiple)
+        {
+            _frameCount++;
+            _ackedDeliveryTag = deliveryTag;
+        }
+
+        @Override
+        public void receiveBasicReject(final long deliveryTag, final boolean requeue)
+        {
+            _frameCount++;
+            _rejectedDeliveryTag = deliveryTag;
+        }
+
+        @Override
+        public void receiveMessageHeader(final BasicContentHeaderProperties properties, final long bodySize)
+        {
+            _frameCount++;
+            _properties = properties;
+            _bodySize = bodySize;
+        }
+
+        @Override
+        public boolean ignoreAllButCloseOk()
+        {
+            return false;
+        }
+
+        @Override
+        public void receiveAccessRequest(final AMQShortString realm,
+                                         final boolean exclusive,
+                                         final boolean passive,
+                                         final boolean active,
+                                         final boolean write,
+                                         final boolean read)
+        {
+        }
+
+        @Override
+        public void receiveExchangeDeclare(final AMQShortString exchange,
+                                           final AMQShortString type,
+                                           final boolean passive,
+                                           final boolean durable,
+                                           final boolean autoDelete,
+                                           final boolean internal,
+                                           final boolean nowait,
+                                           final FieldTable arguments)
+        {
+        }
+
+        @Override
+        public void receiveExchangeDelete(final AMQShortString exchange, final boolean ifUnused, final boolean nowait)
+        {
+        }
+
+        @Override
+        public void receiveExchangeBound(final AMQShortString exchange,
+                                         final AMQShortString routingKey,
+                                         final AMQShortString queue)
+        {
+        }
+
+        @Override
+        public void receiveQueueDeclare(final AMQShortString queue,
+                                        final boolean passive,
+                                        final boolean durable,
+                                        final boolean exclusive,
+                                        final boolean autoDelete,
+                                        final boolean nowait,
+                                        final FieldTable arguments)
+        {
+        }
+
+        @Override
+        public void receiveQueueBind(final AMQShortString queue,
+                                     final AMQShortString exchange,
+                                     final AMQShortString bindingKey,
+                                     final boolean nowait,
+                                     final FieldTable arguments)
+        {
+        }
+
+        @Override
+        public void receiveQueuePurge(final AMQShortString queue, final boolean nowait)
+        {
+        }
+
+        @Override
+        public void receiveQueueDelete(final AMQShortString queue,
+                                       final boolean ifUnused,
+                                       final boolean ifEmpty,
+                                       final boolean nowait)
+        {
+        }
+
+        @Override
+        public void receiveQueueUnbind(final AMQShortString queue,
+                                       final AMQShortString exchange,
+                                       final AMQShortString bindingKey,
+                                       final FieldTable arguments)
+        {
+        }
+
+        @Override
+        public void receiveBasicRecover(final boolean requeue, final boolean sync)
+        {
+        }
+
+        @Override
+        public void receiveBasicQos(final long prefetchSize, final int prefetchCount, final boolean global)
+        {
+        }
+
+        @Override
+        public void receiveBasicConsume(final AMQShortString queue,
+                                        final AMQShortString consumerTag,
+                                        final boolean noLocal,
+                                        final boolean noAck,
+                                        final boolean exclusive,
+                                        final boolean nowait,
+                                        final FieldTable arguments)
+        {
+        }
+
+        @Override
+        public void receiveBasicCancel(final AMQShortString consumerTag, final boolean noWait)
+        {
+        }
+
+        @Override
+        public void receiveBasicGet(final AMQShortString queue, final boolean noAck)
+        {
+        }
+
+        @Override
+        public void receiveTxSelect()
+        {
+        }
+
+        @Override
+        public void receiveTxCommit()
+        {
+        }
+
+        @Override
+        public void receiveTxRollback()
+        {
+        }
+
+        @Override
+        public void receiveConfirmSelect(final boolean nowait)
+        {
+        }
+
+        @Override
+        public void receiveChannelFlow(final boolean active)
+        {
+        }
+
+        @Override
+        public void receiveChannelFlowOk(final boolean active)
+        {
+        }
+
+        @Override
+        public void receiveChannelClose(final int replyCode,
+                                        final AMQShortString replyText,
+                                        final int classId,
+                                        final int methodId)
+        {
+        }
+
+        @Override
+        public void receiveChannelCloseOk()
+        {
+        }
+
+        @Override
+        public void receiveMessageContent(final QpidByteBuffer data)
+        {
+        }
+
+        @Override
+        public void receiveBasicNack(final long deliveryTag, final boolean multiple, final boolean requeue)
+        {
+        }
+    }
+}
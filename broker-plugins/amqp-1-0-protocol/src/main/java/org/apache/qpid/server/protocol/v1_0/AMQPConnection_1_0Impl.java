@@ -1217,7 +1217,7 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
                 long payloadLength = (long) payload.remaining();
                 if (payloadLength <= maxPayloadSize)
                 {
-                    send(new TransportFrame(channel, body, payload));
+                    send(new TransportFrame(channel, body, payload), writer);
                     return (int)payloadLength;
                 }
                 else
@@ -1231,7 +1231,7 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
                     try (QpidByteBuffer payloadDup = payload.view(0, maxPayloadSize))
                     {
                         payload.position(payload.position() + maxPayloadSize);
-                        send(new TransportFrame(channel, body, payloadDup));
+                        send(new TransportFrame(channel, body, payloadDup), writer);
                     }
 
                     return maxPayloadSize;
@@ -1456,6 +1456,11 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
     }
 
     private void send(final AMQFrame amqFrame)
+    {
+        send(amqFrame, null);
+    }
+
+    private <T> void send(final AMQFrame<T> amqFrame, final ValueWriter<T> writer)
     {
         updateLastWriteTime();
         FRAME_LOGGER.debug("SEND[{}|{}] : {}",
@@ -1463,7 +1468,7 @@ public class AMQPConnection_1_0Impl extends AbstractAMQPConnection<AMQPConnectio
                            amqFrame.getChannel(),
                            amqFrame.getFrameBody() == null ? "<<HEARTBEAT>>" : amqFrame.getFrameBody());
 
-        int size = _frameWriter.send(amqFrame);
+        int size = writer == null ? _frameWriter.send(amqFrame) : _frameWriter.send(amqFrame, writer);
         if (size > getMaxFrameSize())
         {
             throw new OversizeFrameException(amqFrame, size);
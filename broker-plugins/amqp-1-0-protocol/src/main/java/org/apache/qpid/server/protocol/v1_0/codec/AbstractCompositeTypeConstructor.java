@@ -26,11 +26,21 @@ import java.util.Map;
 
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.protocol.v1_0.type.AmqpErrorException;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
 import org.apache.qpid.server.protocol.v1_0.type.transport.AmqpError;
 import org.apache.qpid.server.protocol.v1_0.type.transport.Error;
 
 public abstract class AbstractCompositeTypeConstructor<T> implements DescribedTypeConstructor<T>
 {
+    /** Returned by {@link FieldValueReader#readUnsignedInt} when the field is absent or null. */
+    public static final long ABSENT = -1L;
+
+    private static final byte TRUE = (byte) 0x41;
+    private static final byte FALSE = (byte) 0x42;
+    private static final byte UINT0 = (byte) 0x43;
+    private static final byte SMALL_UINT = (byte) 0x52;
+    private static final byte UINT = (byte) 0x70;
+
     @Override
     public TypeConstructor<T> construct(final Object descriptor,
                                         final QpidByteBuffer in,
@@ -176,6 +186,60 @@ public abstract class AbstractCompositeTypeConstructor<T> implements DescribedTy
             return (F) value;
         }
 
+        /**
+         * Reads a uint field straight from the buffer without boxing it.
+         *
+         * @return the value of the field, or {@link #ABSENT} if the field is not present or is null
+         */
+        public long readUnsignedInt(final int fieldIndex,
+                                    final String fieldName,
+                                    final boolean mandatory) throws AmqpErrorException
+        {
+            if (fieldIndex < _count && _in.hasRemaining())
+            {
+                final int position = _in.position();
+                final byte formatCode = _in.get();
+                if (formatCode == UINT0)
+                {
+                    return 0L;
+                }
+                else if (formatCode == SMALL_UINT && _in.hasRemaining())
+                {
+                    return _in.getUnsignedByte();
+                }
+                else if (formatCode == UINT && _in.remaining() >= 4)
+                {
+                    return _in.getUnsignedInt();
+                }
+                _in.position(position);
+            }
+
+            final UnsignedInteger value = readValue(fieldIndex, fieldName, mandatory, UnsignedInteger.class);
+            return value == null ? ABSENT : value.longValue();
+        }
+
+        /**
+         * Reads a boolean field straight from the buffer.  The canonical {@link Boolean} instances are returned, so
+         * nothing is allocated.
+         *
+         * @return the value of the field, or null if the field is not present or is null
+         */
+        public Boolean readBoolean(final int fieldIndex,
+                                   final String fieldName,
+                                   final boolean mandatory) throws AmqpErrorException
+        {
+            if (fieldIndex < _count && _in.hasRemaining())
+            {
+                final byte formatCode = _in.get(_in.position());
+                if (formatCode == TRUE || formatCode == FALSE)
+                {
+                    _in.position(_in.position() + 1);
+                    return formatCode == TRUE;
+                }
+            }
+            return readValue(fieldIndex, fieldName, mandatory, Boolean.class);
+        }
+
         public <K, V> Map<K, V> readMapValue(final int fieldIndex,
                                              final String fieldName,
                                              final boolean mandatory,
@@ -39,13 +39,21 @@ public class FrameWriter
     }
 
     public <T> int send(AMQFrame<T> frame)
+    {
+        final T frameBody = frame.getFrameBody();
+        return send(frame, frameBody == null ? null : _registry.getValueWriter(frameBody));
+    }
+
+    /**
+     * Sends the frame using a writer for its body already obtained by the caller, for instance to determine how
+     * much of a payload fits into the frame.
+     */
+    public <T> int send(AMQFrame<T> frame, ValueWriter<T> typeWriter)
     {
         final QpidByteBuffer payload = frame.getPayload();
 
         final int payloadLength = payload == null ? 0 : payload.remaining();
-        final T frameBody = frame.getFrameBody();
 
-        final ValueWriter<T> typeWriter = frameBody == null ? null : _registry.getValueWriter(frameBody);
         int bodySize;
         if (typeWriter == null)
         {
@@ -23,6 +23,7 @@ package org.apache.qpid.server.protocol.v1_0.codec;
 import java.nio.charset.Charset;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.protocol.v1_0.type.AmqpErrorException;
@@ -36,6 +37,14 @@ public class SymbolTypeConstructor extends VariableWidthTypeConstructor<Symbol>
     private static final ConcurrentMap<BinaryString, Symbol> SYMBOL_MAP =
             new ConcurrentHashMap<>(2048);
 
+    /**
+     * Direct mapped table of recently decoded symbols, probed using a hash computed over the encoded bytes so that
+     * the symbols which recur in every frame (outcomes, capabilities, annotation keys) are decoded without copying
+     * them out of the buffer.  A collision simply replaces the slot; the map above remains the canonical source.
+     */
+    private static final int RECENT_SYMBOLS_SIZE = 1024;
+    private static final AtomicReferenceArray<Symbol> RECENT_SYMBOLS = new AtomicReferenceArray<>(RECENT_SYMBOLS_SIZE);
+
     public static SymbolTypeConstructor getInstance(int i)
     {
         return new SymbolTypeConstructor(i);
@@ -72,17 +81,53 @@ public class SymbolTypeConstructor extends VariableWidthTypeConstructor<Symbol>
             throw new AmqpErrorException(AmqpError.DECODE_ERROR, "Cannot construct symbol: insufficient input data");
         }
 
+        final int position = in.position();
+        final int slot = slot(in, position, size);
+        Symbol symbolVal = RECENT_SYMBOLS.get(slot);
+        if (symbolVal != null && matches(symbolVal, in, position, size))
+        {
+            in.position(position + size);
+            return symbolVal;
+        }
+
         byte[] data = new byte[size];
         in.get(data);
         final BinaryString binaryStr = new BinaryString(data);
 
-        Symbol symbolVal = SYMBOL_MAP.get(binaryStr);
+        symbolVal = SYMBOL_MAP.get(binaryStr);
         if (symbolVal == null)
         {
             symbolVal = Symbol.valueOf(new String(data, ASCII));
             SYMBOL_MAP.putIfAbsent(binaryStr, symbolVal);
         }
+        RECENT_SYMBOLS.lazySet(slot, symbolVal);
 
         return symbolVal;
     }
+
+    private static int slot(final QpidByteBuffer in, final int position, final int size)
+    {
+        int hash = size;
+        for (int i = 0; i < size; i++)
+        {
+            hash = 31 * hash + in.get(position + i);
+        }
+        return (hash ^ (hash >>> 16)) & (RECENT_SYMBOLS_SIZE - 1);
+    }
+
+    private static boolean matches(final Symbol symbol, final QpidByteBuffer in, final int position, final int size)
+    {
+        if (symbol.length() != size)
+        {
+            return false;
+        }
+        for (int i = 0; i < size; i++)
+        {
+            if (symbol.charAt(i) != in.get(position + i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -88,6 +88,73 @@ public class ValueHandler implements DescribedTypeConstructorRegistry.Source
         return constructor.construct(in, this);
     }
 
+    /**
+     * Moves the position of the buffer past the next encoded value without constructing it.
+     */
+    public static void skip(QpidByteBuffer in) throws AmqpErrorException
+    {
+        if(!in.hasRemaining())
+        {
+            throw new AmqpErrorException(AmqpError.DECODE_ERROR, "Insufficient data - expected type, no data remaining");
+        }
+        byte formatCode = in.get();
+
+        if(formatCode == DESCRIBED_TYPE)
+        {
+            skip(in);
+            skip(in);
+            return;
+        }
+
+        final int size;
+        switch((formatCode >> 4) & 0x0F)
+        {
+            case 0x4:
+                size = 0;
+                break;
+            case 0x5:
+                size = 1;
+                break;
+            case 0x6:
+                size = 2;
+                break;
+            case 0x7:
+                size = 4;
+                break;
+            case 0x8:
+                size = 8;
+                break;
+            case 0x9:
+                size = 16;
+                break;
+            case 0xa:
+            case 0xc:
+            case 0xe:
+                checkRemaining(in, 1);
+                size = in.getUnsignedByte();
+                break;
+            case 0xb:
+            case 0xd:
+            case 0xf:
+                checkRemaining(in, 4);
+                size = in.getInt();
+                break;
+            default:
+                throw new AmqpErrorException(ConnectionError.FRAMING_ERROR,"Unknown type format-code 0x%02x", formatCode);
+        }
+        checkRemaining(in, size);
+        in.position(in.position() + size);
+    }
+
+    private static void checkRemaining(final QpidByteBuffer in, final int size) throws AmqpErrorException
+    {
+        if (size < 0 || in.remaining() < size)
+        {
+            throw new AmqpErrorException(AmqpError.DECODE_ERROR,
+                                         "Insufficient data - expected %d bytes, %d remaining", size, in.remaining());
+        }
+    }
+
     public TypeConstructor readConstructor(QpidByteBuffer in) throws AmqpErrorException
     {
         if(!in.hasRemaining())
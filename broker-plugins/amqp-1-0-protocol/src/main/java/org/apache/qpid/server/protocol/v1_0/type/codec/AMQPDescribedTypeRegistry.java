@@ -29,6 +29,7 @@ import java.util.Map;
 
 import org.apache.qpid.server.protocol.v1_0.codec.*;
 import org.apache.qpid.server.protocol.v1_0.type.RestrictedType;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedLong;
 import org.apache.qpid.server.protocol.v1_0.type.extensions.soleconn.SoleConnectionDetectionPolicy;
 import org.apache.qpid.server.protocol.v1_0.type.extensions.soleconn.SoleConnectionEnforcementPolicy;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.StdDistMode;
@@ -73,19 +74,43 @@ public class AMQPDescribedTypeRegistry implements DescribedTypeConstructorRegist
     private final Map<Object, DescribedTypeConstructor> _constructorRegistry = new HashMap<>();
     private final Map<Object, DescribedTypeConstructor> _sectionDecoderRegistryMap = new HashMap<>();
 
-
-
+    /**
+     * The numeric descriptors of all the AMQP defined types fall within the first 256 values of the amqp domain, so
+     * these are additionally held in arrays indexed by descriptor value to avoid hashing on every decoded frame.
+     */
+    private static final int INDEXED_DESCRIPTOR_LIMIT = 256;
+    private final DescribedTypeConstructor[] _indexedConstructors = new DescribedTypeConstructor[INDEXED_DESCRIPTOR_LIMIT];
+    private final DescribedTypeConstructor[] _indexedSectionDecoders = new DescribedTypeConstructor[INDEXED_DESCRIPTOR_LIMIT];
 
     @Override
     public void register(Object descriptor, DescribedTypeConstructor constructor)
     {
         _constructorRegistry.put(descriptor, constructor);
+        final int index = descriptorIndex(descriptor);
+        if (index >= 0)
+        {
+            _indexedConstructors[index] = constructor;
+        }
     }
 
     @Override
     public DescribedTypeConstructor getConstructor(Object descriptor)
     {
-        return _constructorRegistry.get(descriptor);
+        final int index = descriptorIndex(descriptor);
+        return index >= 0 ? _indexedConstructors[index] : _constructorRegistry.get(descriptor);
+    }
+
+    private static int descriptorIndex(final Object descriptor)
+    {
+        if (descriptor instanceof UnsignedLong)
+        {
+            final long value = ((UnsignedLong) descriptor).longValue();
+            if (value >= 0 && value < INDEXED_DESCRIPTOR_LIMIT)
+            {
+                return (int) value;
+            }
+        }
+        return -1;
     }
 
     private AMQPDescribedTypeRegistry()
@@ -399,12 +424,18 @@ public class AMQPDescribedTypeRegistry implements DescribedTypeConstructorRegist
         public void register(final Object descriptor, final DescribedTypeConstructor constructor)
         {
             _sectionDecoderRegistryMap.put(descriptor, constructor);
+            final int index = descriptorIndex(descriptor);
+            if (index >= 0)
+            {
+                _indexedSectionDecoders[index] = constructor;
+            }
         }
 
         @Override
         public DescribedTypeConstructor getConstructor(final Object descriptor)
         {
-            return _sectionDecoderRegistryMap.get(descriptor);
+            final int index = descriptorIndex(descriptor);
+            return index >= 0 ? _indexedSectionDecoders[index] : _sectionDecoderRegistryMap.get(descriptor);
         }
     };
 
@@ -20,6 +20,8 @@
  */
 package org.apache.qpid.server.protocol.v1_0.type.messaging;
 
+import java.util.Map;
+
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.protocol.v1_0.codec.DescribedTypeConstructor;
 import org.apache.qpid.server.protocol.v1_0.codec.ValueHandler;
@@ -37,7 +39,14 @@ public abstract class AbstractSection<T, S extends NonEncodingRetainingSection<T
                                                                                             .registerMessagingLayer()
                                                                                             .registerTransactionLayer()
                                                                                             .registerSecurityLayer();
+    private static final byte MAP8 = (byte) 0xc1;
+    private static final byte MAP32 = (byte) 0xd1;
+    private static final Object NOT_PRESENT = new Object();
+    // after this many entry lookups it is cheaper to decode the whole section once
+    private static final int MAX_ENTRY_LOOKUPS = 8;
+
     private T _value;
+    private int _entryLookups;
 
     private S _section;
     private QpidByteBuffer _encodedForm;
@@ -59,9 +68,12 @@ public abstract class AbstractSection<T, S extends NonEncodingRetainingSection<T
 
     protected AbstractSection(final AbstractSection<T, S> otherAbstractSection)
     {
-        _value = otherAbstractSection.getValue();
-        _section = otherAbstractSection._section;
-        _encodedForm = otherAbstractSection.getEncodedForm();
+        synchronized (otherAbstractSection)
+        {
+            _value = otherAbstractSection._value;
+            _section = otherAbstractSection._section;
+            _encodedForm = otherAbstractSection.getEncodedForm();
+        }
         _encodedSize = _encodedForm.remaining();
     }
 
@@ -78,6 +90,85 @@ public abstract class AbstractSection<T, S extends NonEncodingRetainingSection<T
         return _value;
     }
 
+    /**
+     * For a section whose value is a map, returns the value of the entry with the given key, or null if there is no
+     * such entry.  Until the section has been decoded only the keys up to the entry and the entry's value are decoded.
+     */
+    protected synchronized Object getMapValue(final Object key)
+    {
+        final Object value = findMapEntry(key, true);
+        return value == NOT_PRESENT ? null : value;
+    }
+
+    protected synchronized boolean containsMapKey(final Object key)
+    {
+        return findMapEntry(key, false) != NOT_PRESENT;
+    }
+
+    private Object findMapEntry(final Object key, final boolean decodeValue)
+    {
+        if (_value == null && _encodedForm != null && ++_entryLookups <= MAX_ENTRY_LOOKUPS)
+        {
+            try (QpidByteBuffer input = _encodedForm.duplicate())
+            {
+                final int count = readMapCount(input);
+                if (count >= 0)
+                {
+                    final ValueHandler handler = new ValueHandler(TYPE_REGISTRY);
+                    for (int i = 0; i < count / 2; i++)
+                    {
+                        if (key.equals(handler.parse(input)))
+                        {
+                            return decodeValue ? handler.parse(input) : Boolean.TRUE;
+                        }
+                        ValueHandler.skip(input);
+                    }
+                    return NOT_PRESENT;
+                }
+            }
+            catch (AmqpErrorException e)
+            {
+                throw new ConnectionScopedRuntimeException("Cannot decode section", e);
+            }
+        }
+
+        final Map<?, ?> map = (Map<?, ?>) getValue();
+        if (map != null && map.containsKey(key))
+        {
+            return decodeValue ? map.get(key) : Boolean.TRUE;
+        }
+        return NOT_PRESENT;
+    }
+
+    /**
+     * Reads the descriptor and map header of the section, returning the number of map elements, or -1 if the section
+     * is not encoded as a described map in which case the caller should decode it in full.
+     */
+    private int readMapCount(final QpidByteBuffer input) throws AmqpErrorException
+    {
+        if (!input.hasRemaining() || input.get() != ValueHandler.DESCRIBED_TYPE)
+        {
+            return -1;
+        }
+        ValueHandler.skip(input);
+        if (!input.hasRemaining())
+        {
+            return -1;
+        }
+        final byte formatCode = input.get();
+        if (formatCode == MAP8 && input.hasRemaining(2))
+        {
+            input.get();
+            return input.getUnsignedByte();
+        }
+        else if (formatCode == MAP32 && input.hasRemaining(8))
+        {
+            input.getInt();
+            return input.getInt();
+        }
+        return -1;
+    }
+
     @Override
     public synchronized final QpidByteBuffer getEncodedForm()
     {
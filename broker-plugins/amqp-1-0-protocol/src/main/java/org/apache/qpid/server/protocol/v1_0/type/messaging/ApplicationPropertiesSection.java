@@ -51,6 +51,19 @@ public class ApplicationPropertiesSection extends AbstractSection<Map<String,Obj
         return new ApplicationPropertiesSection(this);
     }
 
+    /**
+     * Returns the value of the named property, decoding only as much of the section as is needed to find it.
+     */
+    public Object getProperty(final String name)
+    {
+        return getMapValue(name);
+    }
+
+    public boolean containsProperty(final String name)
+    {
+        return containsMapKey(name);
+    }
+
     @Override
     protected DescribedTypeConstructor<ApplicationProperties> createNonEncodingRetainingSectionConstructor()
     {
@@ -51,6 +51,14 @@ public class MessageAnnotationsSection extends AbstractSection<Map<Symbol,Object
         return new MessageAnnotationsSection(this);
     }
 
+    /**
+     * Returns the value of the given annotation, decoding only as much of the section as is needed to find it.
+     */
+    public Object getAnnotation(final Symbol key)
+    {
+        return getMapValue(key);
+    }
+
     @Override
     protected DescribedTypeConstructor<MessageAnnotations> createNonEncodingRetainingSectionConstructor()
     {
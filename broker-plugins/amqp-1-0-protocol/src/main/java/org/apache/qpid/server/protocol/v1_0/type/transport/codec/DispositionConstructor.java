@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.protocol.v1_0.type.transport.codec;
+
+import org.apache.qpid.server.protocol.v1_0.codec.AbstractCompositeTypeConstructor;
+import org.apache.qpid.server.protocol.v1_0.codec.DescribedTypeConstructorRegistry;
+import org.apache.qpid.server.protocol.v1_0.type.AmqpErrorException;
+import org.apache.qpid.server.protocol.v1_0.type.DeliveryState;
+import org.apache.qpid.server.protocol.v1_0.type.Symbol;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedLong;
+import org.apache.qpid.server.protocol.v1_0.type.transport.AmqpError;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Disposition;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Error;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Role;
+
+/**
+ * Decodes disposition performatives.  Written by hand rather than generated so that the uint and boolean fields are
+ * read straight from the buffer as primitives.
+ */
+public final class DispositionConstructor extends AbstractCompositeTypeConstructor<Disposition>
+{
+    private static final DispositionConstructor INSTANCE = new DispositionConstructor();
+
+    public static void register(DescribedTypeConstructorRegistry registry)
+    {
+        registry.register(Symbol.valueOf("amqp:disposition:list"), INSTANCE);
+        registry.register(UnsignedLong.valueOf(0x00000000000015), INSTANCE);
+    }
+
+    @Override
+    protected String getTypeName()
+    {
+        return Disposition.class.getSimpleName();
+    }
+
+    @Override
+    protected Disposition construct(final FieldValueReader fieldValueReader) throws AmqpErrorException
+    {
+        final Disposition obj = new Disposition();
+
+        final Boolean role = fieldValueReader.readBoolean(0, "role", true);
+        obj.setRole(Role.valueOf(role));
+
+        obj.setFirst(UnsignedInteger.valueOf((int) fieldValueReader.readUnsignedInt(1, "first", true)));
+
+        final long last = fieldValueReader.readUnsignedInt(2, "last", false);
+        if (last != ABSENT)
+        {
+            obj.setLast(UnsignedInteger.valueOf((int) last));
+        }
+
+        final Boolean settled = fieldValueReader.readBoolean(3, "settled", false);
+        if (settled != null)
+        {
+            obj.setSettled(settled);
+        }
+
+        final DeliveryState state = fieldValueReader.readValue(4, "state", false, DeliveryState.class);
+        if (state != null)
+        {
+            obj.setState(state);
+        }
+
+        final Boolean batchable = fieldValueReader.readBoolean(5, "batchable", false);
+        if (batchable != null)
+        {
+            obj.setBatchable(batchable);
+        }
+
+        return obj;
+    }
+}
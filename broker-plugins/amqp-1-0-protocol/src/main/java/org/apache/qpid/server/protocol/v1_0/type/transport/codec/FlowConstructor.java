@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.protocol.v1_0.type.transport.codec;
+
+import java.util.Map;
+
+import org.apache.qpid.server.protocol.v1_0.codec.AbstractCompositeTypeConstructor;
+import org.apache.qpid.server.protocol.v1_0.codec.DescribedTypeConstructorRegistry;
+import org.apache.qpid.server.protocol.v1_0.type.AmqpErrorException;
+import org.apache.qpid.server.protocol.v1_0.type.Symbol;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedLong;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Flow;
+
+/**
+ * Decodes flow performatives.  Written by hand rather than generated so that the uint and boolean fields are read
+ * straight from the buffer as primitives.
+ */
+public final class FlowConstructor extends AbstractCompositeTypeConstructor<Flow>
+{
+    private static final FlowConstructor INSTANCE = new FlowConstructor();
+
+    public static void register(DescribedTypeConstructorRegistry registry)
+    {
+        registry.register(Symbol.valueOf("amqp:flow:list"), INSTANCE);
+        registry.register(UnsignedLong.valueOf(0x00000000000013), INSTANCE);
+    }
+
+    @Override
+    protected String getTypeName()
+    {
+        return Flow.class.getSimpleName();
+    }
+
+    @Override
+    protected Flow construct(final FieldValueReader fieldValueReader) throws AmqpErrorException
+    {
+        final Flow obj = new Flow();
+
+        final long nextIncomingId = fieldValueReader.readUnsignedInt(0, "nextIncomingId", false);
+        if (nextIncomingId != ABSENT)
+        {
+            obj.setNextIncomingId(UnsignedInteger.valueOf((int) nextIncomingId));
+        }
+
+        obj.setIncomingWindow(UnsignedInteger.valueOf((int) fieldValueReader.readUnsignedInt(1, "incomingWindow", true)));
+        obj.setNextOutgoingId(UnsignedInteger.valueOf((int) fieldValueReader.readUnsignedInt(2, "nextOutgoingId", true)));
+        obj.setOutgoingWindow(UnsignedInteger.valueOf((int) fieldValueReader.readUnsignedInt(3, "outgoingWindow", true)));
+
+        final long handle = fieldValueReader.readUnsignedInt(4, "handle", false);
+        if (handle != ABSENT)
+        {
+            obj.setHandle(UnsignedInteger.valueOf((int) handle));
+        }
+
+        final long deliveryCount = fieldValueReader.readUnsignedInt(5, "deliveryCount", false);
+        if (deliveryCount != ABSENT)
+        {
+            obj.setDeliveryCount(UnsignedInteger.valueOf((int) deliveryCount));
+        }
+
+        final long linkCredit = fieldValueReader.readUnsignedInt(6, "linkCredit", false);
+        if (linkCredit != ABSENT)
+        {
+            obj.setLinkCredit(UnsignedInteger.valueOf((int) linkCredit));
+        }
+
+        final long available = fieldValueReader.readUnsignedInt(7, "available", false);
+        if (available != ABSENT)
+        {
+            obj.setAvailable(UnsignedInteger.valueOf((int) available));
+        }
+
+        final Boolean drain = fieldValueReader.readBoolean(8, "drain", false);
+        if (drain != null)
+        {
+            obj.setDrain(drain);
+        }
+
+        final Boolean echo = fieldValueReader.readBoolean(9, "echo", false);
+        if (echo != null)
+        {
+            obj.setEcho(echo);
+        }
+
+        final Map<Symbol, Object> properties =
+                fieldValueReader.readMapValue(10, "properties", false, Symbol.class, Object.class);
+        if (properties != null)
+        {
+            obj.setProperties(properties);
+        }
+
+        return obj;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.protocol.v1_0.type.transport.codec;
+
+import org.apache.qpid.server.protocol.v1_0.codec.AbstractCompositeTypeConstructor;
+import org.apache.qpid.server.protocol.v1_0.codec.DescribedTypeConstructorRegistry;
+import org.apache.qpid.server.protocol.v1_0.type.AmqpErrorException;
+import org.apache.qpid.server.protocol.v1_0.type.Binary;
+import org.apache.qpid.server.protocol.v1_0.type.DeliveryState;
+import org.apache.qpid.server.protocol.v1_0.type.Symbol;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedLong;
+import org.apache.qpid.server.protocol.v1_0.type.transport.AmqpError;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Error;
+import org.apache.qpid.server.protocol.v1_0.type.transport.ReceiverSettleMode;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Transfer;
+
+/**
+ * Decodes transfer performatives.  Written by hand rather than generated so that the uint and boolean fields are
+ * read straight from the buffer as primitives.
+ */
+public final class TransferConstructor extends AbstractCompositeTypeConstructor<Transfer>
+{
+    private static final TransferConstructor INSTANCE = new TransferConstructor();
+
+    public static void register(DescribedTypeConstructorRegistry registry)
+    {
+        registry.register(Symbol.valueOf("amqp:transfer:list"), INSTANCE);
+        registry.register(UnsignedLong.valueOf(0x00000000000014), INSTANCE);
+    }
+
+    @Override
+    protected String getTypeName()
+    {
+        return Transfer.class.getSimpleName();
+    }
+
+    @Override
+    protected Transfer construct(final FieldValueReader fieldValueReader) throws AmqpErrorException
+    {
+        final Transfer obj = new Transfer();
+
+        obj.setHandle(UnsignedInteger.valueOf((int) fieldValueReader.readUnsignedInt(0, "handle", true)));
+
+        final long deliveryId = fieldValueReader.readUnsignedInt(1, "deliveryId", false);
+        if (deliveryId != ABSENT)
+        {
+            obj.setDeliveryId(UnsignedInteger.valueOf((int) deliveryId));
+        }
+
+        final Binary deliveryTag = fieldValueReader.readValue(2, "deliveryTag", false, Binary.class);
+        if (deliveryTag != null)
+        {
+            obj.setDeliveryTag(deliveryTag);
+        }
+
+        final long messageFormat = fieldValueReader.readUnsignedInt(3, "messageFormat", false);
+        if (messageFormat != ABSENT)
+        {
+            obj.setMessageFormat(UnsignedInteger.valueOf((int) messageFormat));
+        }
+
+        final Boolean settled = fieldValueReader.readBoolean(4, "settled", false);
+        if (settled != null)
+        {
+            obj.setSettled(settled);
+        }
+
+        final Boolean more = fieldValueReader.readBoolean(5, "more", false);
+        if (more != null)
+        {
+            obj.setMore(more);
+        }
+
+        final Object rcvSettleMode = fieldValueReader.readValue(6, "rcvSettleMode", false, Object.class);
+        if (rcvSettleMode != null)
+        {
+            try
+            {
+                obj.setRcvSettleMode(ReceiverSettleMode.valueOf(rcvSettleMode));
+            }
+            catch (RuntimeException e)
+            {
+                Error error = new Error(AmqpError.DECODE_ERROR, "Could not decode value field 'rcvSettleMode' of 'Transfer'");
+                throw new AmqpErrorException(error, e);
+            }
+        }
+
+        final DeliveryState state = fieldValueReader.readValue(7, "state", false, DeliveryState.class);
+        if (state != null)
+        {
+            obj.setState(state);
+        }
+
+        final Boolean resume = fieldValueReader.readBoolean(8, "resume", false);
+        if (resume != null)
+        {
+            obj.setResume(resume);
+        }
+
+        final Boolean aborted = fieldValueReader.readBoolean(9, "aborted", false);
+        if (aborted != null)
+        {
+            obj.setAborted(aborted);
+        }
+
+        final Boolean batchable = fieldValueReader.readBoolean(10, "batchable", false);
+        if (batchable != null)
+        {
+            obj.setBatchable(batchable);
+        }
+
+        return obj;
+    }
+}
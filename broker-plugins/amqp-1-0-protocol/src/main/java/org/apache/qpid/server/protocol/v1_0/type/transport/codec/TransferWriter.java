@@ -23,160 +23,302 @@
 
 package org.apache.qpid.server.protocol.v1_0.type.transport.codec;
 
-import org.apache.qpid.server.protocol.v1_0.codec.AbstractDescribedTypeWriter;
-import org.apache.qpid.server.protocol.v1_0.codec.AbstractListWriter;
-import org.apache.qpid.server.protocol.v1_0.codec.UnsignedLongWriter;
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.protocol.v1_0.codec.ValueWriter;
-
-import org.apache.qpid.server.protocol.v1_0.type.UnsignedLong;
+import org.apache.qpid.server.protocol.v1_0.type.Binary;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.transport.ReceiverSettleMode;
 import org.apache.qpid.server.protocol.v1_0.type.transport.Transfer;
 
-public class TransferWriter extends AbstractDescribedTypeWriter<Transfer>
+/**
+ * Writes the transfer performative in a single pass.  Transfers are by far the most frequently sent performative, so
+ * rather than creating a value writer for each field, as the generic list writers do, the fields are encoded
+ * directly.  Only the delivery state, a described type, is delegated to the registry.  The encodings chosen are the
+ * same as those of the generic writers.
+ */
+public class TransferWriter implements ValueWriter<Transfer>
 {
-    private static final ValueWriter<UnsignedLong> DESCRIPTOR_WRITER = UnsignedLongWriter.getWriter((byte) 0x14);
-
+    private static final byte DESCRIBED_TYPE = (byte) 0x00;
+    private static final byte SMALL_ULONG = (byte) 0x53;
+    private static final byte DESCRIPTOR = (byte) 0x14;
+    private static final byte LIST8 = (byte) 0xc0;
+    private static final byte LIST32 = (byte) 0xd0;
+    private static final byte NULL = (byte) 0x40;
+    private static final byte TRUE = (byte) 0x41;
+    private static final byte FALSE = (byte) 0x42;
+    private static final byte UINT0 = (byte) 0x43;
+    private static final byte SMALL_UINT = (byte) 0x52;
+    private static final byte UINT = (byte) 0x70;
+    private static final byte UBYTE = (byte) 0x50;
+    private static final byte VBIN8 = (byte) 0xa0;
+    private static final byte VBIN32 = (byte) 0xb0;
+
+    private final Transfer _value;
+    private final ValueWriter<?> _stateWriter;
+    private final int _count;
+    private final int _length;
 
     private TransferWriter(final Registry registry, final Transfer object)
     {
-        super(DESCRIPTOR_WRITER, new Writer(registry, object));
+        _value = object;
+        _stateWriter = object.getState() == null ? null : registry.getValueWriter(object.getState());
+        _count = calculateCount();
+
+        int length = 1; // byte for the count
+        for (int field = 0; field < _count; field++)
+        {
+            length += getFieldSize(field);
+        }
+        if (length > 255)
+        {
+            length += 3; // four bytes for the count, to match the length
+        }
+        _length = length;
     }
 
-    private static class Writer extends AbstractListWriter<Transfer>
+    private int calculateCount()
     {
-        private final Transfer _value;
-        private final int _count;
-
-        private int _field;
-
-        public Writer(final Registry registry, final Transfer object)
+        if( _value.getBatchable() != null)
         {
-            super(registry);
-
-            _value = object;
-            _count = calculateCount();
+            return 11;
         }
 
-        private int calculateCount()
+        if( _value.getAborted() != null)
         {
-            if( _value.getBatchable() != null)
-            {
-                return 11;
-            }
-
-            if( _value.getAborted() != null)
-            {
-                return 10;
-            }
-
-            if( _value.getResume() != null)
-            {
-                return 9;
-            }
-
-            if( _value.getState() != null)
-            {
-                return 8;
-            }
-
-            if( _value.getRcvSettleMode() != null)
-            {
-                return 7;
-            }
-
-            if( _value.getMore() != null)
-            {
-                return 6;
-            }
-
-            if( _value.getSettled() != null)
-            {
-                return 5;
-            }
-
-            if( _value.getMessageFormat() != null)
-            {
-                return 4;
-            }
-
-            if( _value.getDeliveryTag() != null)
-            {
-                return 3;
-            }
+            return 10;
+        }
 
-            if( _value.getDeliveryId() != null)
-            {
-                return 2;
-            }
+        if( _value.getResume() != null)
+        {
+            return 9;
+        }
 
-            if( _value.getHandle() != null)
-            {
-                return 1;
-            }
+        if( _value.getState() != null)
+        {
+            return 8;
+        }
 
-            return 0;
+        if( _value.getRcvSettleMode() != null)
+        {
+            return 7;
         }
 
-        @Override
-        protected int getCount()
+        if( _value.getMore() != null)
         {
-            return _count;
+            return 6;
         }
 
-        @Override
-        protected boolean hasNext()
+        if( _value.getSettled() != null)
         {
-            return _field < _count;
+            return 5;
         }
 
-        @Override
-        protected Object next()
+        if( _value.getMessageFormat() != null)
         {
-            switch(_field++)
-            {
+            return 4;
+        }
 
-                case 0:
-                    return _value.getHandle();
+        if( _value.getDeliveryTag() != null)
+        {
+            return 3;
+        }
 
-                case 1:
-                    return _value.getDeliveryId();
+        if( _value.getDeliveryId() != null)
+        {
+            return 2;
+        }
 
-                case 2:
-                    return _value.getDeliveryTag();
+        if( _value.getHandle() != null)
+        {
+            return 1;
+        }
 
-                case 3:
-                    return _value.getMessageFormat();
+        return 0;
+    }
 
-                case 4:
-                    return _value.getSettled();
+    @Override
+    public int getEncodedSize()
+    {
+        return 3 + (_length > 255 ? 5 : 2) + _length;
+    }
 
-                case 5:
-                    return _value.getMore();
+    @Override
+    public void writeToBuffer(final QpidByteBuffer buffer)
+    {
+        buffer.put(DESCRIBED_TYPE);
+        buffer.put(SMALL_ULONG);
+        buffer.put(DESCRIPTOR);
+        if (_length > 255)
+        {
+            buffer.put(LIST32);
+            buffer.putInt(_length);
+            buffer.putInt(_count);
+        }
+        else
+        {
+            buffer.put(LIST8);
+            buffer.put((byte) _length);
+            buffer.put((byte) _count);
+        }
 
-                case 6:
-                    return _value.getRcvSettleMode();
+        for (int field = 0; field < _count; field++)
+        {
+            writeField(field, buffer);
+        }
+    }
 
-                case 7:
-                    return _value.getState();
+    private int getFieldSize(final int field)
+    {
+        switch (field)
+        {
+            case 0:
+                return getSize(_value.getHandle());
+            case 1:
+                return getSize(_value.getDeliveryId());
+            case 2:
+                return getSize(_value.getDeliveryTag());
+            case 3:
+                return getSize(_value.getMessageFormat());
+            case 4:
+            case 5:
+            case 8:
+            case 9:
+            case 10:
+                return 1;
+            case 6:
+                return _value.getRcvSettleMode() == null ? 1 : 2;
+            case 7:
+                return _stateWriter == null ? 1 : _stateWriter.getEncodedSize();
+            default:
+                throw new IllegalArgumentException("Unknown transfer field " + field);
+        }
+    }
 
-                case 8:
-                    return _value.getResume();
+    private void writeField(final int field, final QpidByteBuffer buffer)
+    {
+        switch (field)
+        {
+            case 0:
+                write(_value.getHandle(), buffer);
+                break;
+            case 1:
+                write(_value.getDeliveryId(), buffer);
+                break;
+            case 2:
+                write(_value.getDeliveryTag(), buffer);
+                break;
+            case 3:
+                write(_value.getMessageFormat(), buffer);
+                break;
+            case 4:
+                write(_value.getSettled(), buffer);
+                break;
+            case 5:
+                write(_value.getMore(), buffer);
+                break;
+            case 6:
+                final ReceiverSettleMode rcvSettleMode = _value.getRcvSettleMode();
+                if (rcvSettleMode == null)
+                {
+                    buffer.put(NULL);
+                }
+                else
+                {
+                    buffer.put(UBYTE);
+                    buffer.put(rcvSettleMode.getValue().byteValue());
+                }
+                break;
+            case 7:
+                if (_stateWriter == null)
+                {
+                    buffer.put(NULL);
+                }
+                else
+                {
+                    _stateWriter.writeToBuffer(buffer);
+                }
+                break;
+            case 8:
+                write(_value.getResume(), buffer);
+                break;
+            case 9:
+                write(_value.getAborted(), buffer);
+                break;
+            case 10:
+                write(_value.getBatchable(), buffer);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown transfer field " + field);
+        }
+    }
 
-                case 9:
-                    return _value.getAborted();
+    private static int getSize(final UnsignedInteger value)
+    {
+        if (value == null || value.intValue() == 0)
+        {
+            return 1;
+        }
+        return (value.intValue() & 0xFFFFFF00) == 0 ? 2 : 5;
+    }
 
-                case 10:
-                    return _value.getBatchable();
+    private static int getSize(final Binary value)
+    {
+        if (value == null)
+        {
+            return 1;
+        }
+        final int length = value.getArray().length;
+        return ((length & 0xFFFFFF00) == 0 ? 2 : 5) + length;
+    }
 
-                default:
-                    return null;
-            }
+    private static void write(final UnsignedInteger value, final QpidByteBuffer buffer)
+    {
+        if (value == null)
+        {
+            buffer.put(NULL);
+        }
+        else if (value.intValue() == 0)
+        {
+            buffer.put(UINT0);
+        }
+        else if ((value.intValue() & 0xFFFFFF00) == 0)
+        {
+            buffer.put(SMALL_UINT);
+            buffer.put((byte) value.intValue());
+        }
+        else
+        {
+            buffer.put(UINT);
+            buffer.putInt(value.intValue());
         }
+    }
 
-        @Override
-        protected void reset()
+    private static void write(final Binary value, final QpidByteBuffer buffer)
+    {
+        if (value == null)
         {
-            _field = 0;
+            buffer.put(NULL);
         }
+        else
+        {
+            final byte[] data = value.getArray();
+            if ((data.length & 0xFFFFFF00) == 0)
+            {
+                buffer.put(VBIN8);
+                buffer.put((byte) data.length);
+            }
+            else
+            {
+                buffer.put(VBIN32);
+                buffer.putInt(data.length);
+            }
+            buffer.put(data);
+        }
+    }
+
+    private static void write(final Boolean value, final QpidByteBuffer buffer)
+    {
+        buffer.put(value == null ? NULL : value ? TRUE : FALSE);
     }
 
     private static final Factory<Transfer> FACTORY = new Factory<Transfer>()
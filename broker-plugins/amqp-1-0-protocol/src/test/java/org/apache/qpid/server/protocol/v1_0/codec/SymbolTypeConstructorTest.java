@@ -0,0 +1,62 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v1_0.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v1_0.type.Symbol;
+
+public class SymbolTypeConstructorTest
+{
+    @Test
+    public void construct() throws Exception
+    {
+        final SymbolTypeConstructor constructor = SymbolTypeConstructor.getInstance(1);
+        final QpidByteBuffer buffer = QpidByteBuffer.wrap(new byte[]{4, 't', 'e', 's', 't', 4, 't', 'e', 's', 't', 1});
+
+        final Symbol symbol1 = constructor.construct(buffer, null);
+        final Symbol symbol2 = constructor.construct(buffer, null);
+
+        assertSame(Symbol.valueOf("test"), symbol1);
+        assertSame(symbol1, symbol2);
+        assertEquals(1, buffer.remaining());
+    }
+
+    @Test
+    public void constructDistinguishesSymbolsOfSameLength() throws Exception
+    {
+        final SymbolTypeConstructor constructor = SymbolTypeConstructor.getInstance(4);
+        for (int i = 0; i < 2; i++)
+        {
+            assertSame(Symbol.valueOf("ab"), constructor.construct(QpidByteBuffer.wrap(new byte[]{0, 0, 0, 2, 'a', 'b'}), null));
+            assertSame(Symbol.valueOf("ba"), constructor.construct(QpidByteBuffer.wrap(new byte[]{0, 0, 0, 2, 'b', 'a'}), null));
+        }
+
+        final Symbol nonAscii = constructor.construct(QpidByteBuffer.wrap(new byte[]{0, 0, 0, 2, 'a', (byte) 0xe2}), null);
+        assertNotEquals(Symbol.valueOf("ab"), nonAscii);
+        assertEquals(2, nonAscii.length());
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v1_0.type.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v1_0.type.Binary;
+import org.apache.qpid.server.protocol.v1_0.type.Symbol;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class AbstractSectionTest extends UnitTestBase
+{
+    @Test
+    public void testApplicationPropertyLookupWithoutDecodingSection()
+    {
+        final UUID uuid = UUID.randomUUID();
+        final Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("string", "value");
+        properties.put("int", 1);
+        properties.put("long", Long.MAX_VALUE);
+        properties.put("binary", new Binary(new byte[300]));
+        properties.put("timestamp", new Date(1L));
+        properties.put("boolean", Boolean.TRUE);
+        properties.put("null", null);
+        properties.put("uuid", uuid);
+
+        final ApplicationPropertiesSection section = encodeAndDecode(new ApplicationProperties(properties));
+        try
+        {
+            assertEquals(uuid, section.getProperty("uuid"));
+            assertEquals(Long.MAX_VALUE, section.getProperty("long"));
+            assertTrue(section.containsProperty("null"));
+            assertNull(section.getProperty("null"));
+            assertFalse(section.containsProperty("missing"));
+            assertTrue("Section unexpectedly decoded", section.toString().startsWith("<Undecoded"));
+
+            assertEquals(properties, section.getValue());
+            assertEquals("value", section.getProperty("string"));
+        }
+        finally
+        {
+            section.dispose();
+        }
+    }
+
+    @Test
+    public void testAnnotationLookupSkipsCompoundAndDescribedValues()
+    {
+        final Map<Symbol, Object> annotations = new LinkedHashMap<>();
+        annotations.put(Symbol.valueOf("list"), Arrays.asList(1, "two", 3L));
+        annotations.put(Symbol.valueOf("map"), Collections.singletonMap("key", UnsignedInteger.ONE));
+        annotations.put(Symbol.valueOf("described"), new Header());
+        annotations.put(Symbol.valueOf("x-opt-delivery-time"), 10L);
+
+        final MessageAnnotationsSection section = encodeAndDecode(new MessageAnnotations(annotations));
+        try
+        {
+            assertEquals(10L, section.getAnnotation(Symbol.valueOf("x-opt-delivery-time")));
+            assertNull(section.getAnnotation(Symbol.valueOf("x-qpid-not-valid-before")));
+            assertTrue("Section unexpectedly decoded", section.toString().startsWith("<Undecoded"));
+        }
+        finally
+        {
+            section.dispose();
+        }
+    }
+
+    @Test
+    public void testRepeatedLookupsDecodeSection()
+    {
+        final ApplicationPropertiesSection section =
+                encodeAndDecode(new ApplicationProperties(Collections.singletonMap("key", "value")));
+        try
+        {
+            for (int i = 0; i < 10; i++)
+            {
+                assertEquals("value", section.getProperty("key"));
+            }
+            assertFalse("Section not decoded", section.toString().startsWith("<Undecoded"));
+        }
+        finally
+        {
+            section.dispose();
+        }
+    }
+
+    @Test
+    public void testCopyDoesNotDecodeSection()
+    {
+        final ApplicationPropertiesSection section =
+                encodeAndDecode(new ApplicationProperties(Collections.singletonMap("key", "value")));
+        final ApplicationPropertiesSection copy = section.copy();
+        try
+        {
+            assertTrue("Section unexpectedly decoded", section.toString().startsWith("<Undecoded"));
+            assertEquals("value", copy.getProperty("key"));
+        }
+        finally
+        {
+            copy.dispose();
+            section.dispose();
+        }
+    }
+
+    private ApplicationPropertiesSection encodeAndDecode(final ApplicationProperties applicationProperties)
+    {
+        final ApplicationPropertiesSection encoded = applicationProperties.createEncodingRetainingSection();
+        try (QpidByteBuffer encodedForm = encoded.getEncodedForm())
+        {
+            return new ApplicationPropertiesSection(encodedForm);
+        }
+        finally
+        {
+            encoded.dispose();
+        }
+    }
+
+    private MessageAnnotationsSection encodeAndDecode(final MessageAnnotations messageAnnotations)
+    {
+        final MessageAnnotationsSection encoded = messageAnnotations.createEncodingRetainingSection();
+        try (QpidByteBuffer encodedForm = encoded.getEncodedForm())
+        {
+            return new MessageAnnotationsSection(encodedForm);
+        }
+        finally
+        {
+            encoded.dispose();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v1_0.type.transport.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v1_0.codec.ValueHandler;
+import org.apache.qpid.server.protocol.v1_0.codec.ValueWriter;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.codec.AMQPDescribedTypeRegistry;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.Accepted;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Disposition;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Role;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class DispositionConstructorTest extends UnitTestBase
+{
+    private static final AMQPDescribedTypeRegistry TYPE_REGISTRY = AMQPDescribedTypeRegistry.newInstance()
+                                                                                            .registerTransportLayer()
+                                                                                            .registerMessagingLayer()
+                                                                                            .registerTransactionLayer()
+                                                                                            .registerSecurityLayer();
+
+    @Test
+    public void testDisposition() throws Exception
+    {
+        final Disposition disposition = new Disposition();
+        disposition.setRole(Role.RECEIVER);
+        disposition.setFirst(UnsignedInteger.valueOf(100000));
+        disposition.setLast(UnsignedInteger.valueOf(100010));
+        disposition.setSettled(true);
+        disposition.setState(new Accepted());
+
+        final Disposition decoded = encodeAndDecode(disposition);
+
+        assertEquals(Role.RECEIVER, decoded.getRole());
+        assertEquals(UnsignedInteger.valueOf(100000), decoded.getFirst());
+        assertEquals(UnsignedInteger.valueOf(100010), decoded.getLast());
+        assertEquals(Boolean.TRUE, decoded.getSettled());
+        assertTrue(decoded.getState() instanceof Accepted);
+        assertNull(decoded.getBatchable());
+    }
+
+    @Test
+    public void testMinimalDisposition() throws Exception
+    {
+        final Disposition disposition = new Disposition();
+        disposition.setRole(Role.SENDER);
+        disposition.setFirst(UnsignedInteger.ZERO);
+
+        final Disposition decoded = encodeAndDecode(disposition);
+
+        assertEquals(Role.SENDER, decoded.getRole());
+        assertEquals(UnsignedInteger.ZERO, decoded.getFirst());
+        assertNull(decoded.getLast());
+        assertNull(decoded.getSettled());
+        assertNull(decoded.getState());
+    }
+
+    private Disposition encodeAndDecode(final Disposition disposition) throws Exception
+    {
+        final ValueWriter<Disposition> writer = TYPE_REGISTRY.getValueWriter(disposition);
+        final QpidByteBuffer buffer = QpidByteBuffer.allocate(writer.getEncodedSize());
+        writer.writeToBuffer(buffer);
+        buffer.flip();
+
+        final Object decoded = new ValueHandler(TYPE_REGISTRY).parse(buffer);
+        assertEquals("Unexpected trailing bytes", 0, buffer.remaining());
+        assertTrue("Unexpected type " + decoded, decoded instanceof Disposition);
+        return (Disposition) decoded;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v1_0.type.transport.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v1_0.codec.ValueHandler;
+import org.apache.qpid.server.protocol.v1_0.codec.ValueWriter;
+import org.apache.qpid.server.protocol.v1_0.type.Symbol;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.codec.AMQPDescribedTypeRegistry;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Flow;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class FlowConstructorTest extends UnitTestBase
+{
+    private static final AMQPDescribedTypeRegistry TYPE_REGISTRY = AMQPDescribedTypeRegistry.newInstance()
+                                                                                            .registerTransportLayer()
+                                                                                            .registerMessagingLayer()
+                                                                                            .registerTransactionLayer()
+                                                                                            .registerSecurityLayer();
+
+    @Test
+    public void testLinkFlow() throws Exception
+    {
+        final Flow flow = new Flow();
+        flow.setNextIncomingId(UnsignedInteger.valueOf(1000));
+        flow.setIncomingWindow(UnsignedInteger.valueOf(2048));
+        flow.setNextOutgoingId(UnsignedInteger.ONE);
+        flow.setOutgoingWindow(UnsignedInteger.MAX_VALUE);
+        flow.setHandle(UnsignedInteger.ZERO);
+        flow.setDeliveryCount(UnsignedInteger.valueOf(70000));
+        flow.setLinkCredit(UnsignedInteger.valueOf(100));
+        flow.setDrain(true);
+        flow.setProperties(Collections.singletonMap(Symbol.valueOf("key"), "value"));
+
+        final Flow decoded = encodeAndDecode(flow);
+
+        assertEquals(UnsignedInteger.valueOf(1000), decoded.getNextIncomingId());
+        assertEquals(UnsignedInteger.valueOf(2048), decoded.getIncomingWindow());
+        assertEquals(UnsignedInteger.ONE, decoded.getNextOutgoingId());
+        assertEquals(UnsignedInteger.MAX_VALUE, decoded.getOutgoingWindow());
+        assertEquals(UnsignedInteger.ZERO, decoded.getHandle());
+        assertEquals(UnsignedInteger.valueOf(70000), decoded.getDeliveryCount());
+        assertEquals(UnsignedInteger.valueOf(100), decoded.getLinkCredit());
+        assertNull(decoded.getAvailable());
+        assertEquals(Boolean.TRUE, decoded.getDrain());
+        assertNull(decoded.getEcho());
+        assertEquals(flow.getProperties(), decoded.getProperties());
+    }
+
+    @Test
+    public void testSessionFlow() throws Exception
+    {
+        final Flow flow = new Flow();
+        flow.setIncomingWindow(UnsignedInteger.valueOf(2048));
+        flow.setNextOutgoingId(UnsignedInteger.ZERO);
+        flow.setOutgoingWindow(UnsignedInteger.valueOf(2048));
+
+        final Flow decoded = encodeAndDecode(flow);
+
+        assertNull(decoded.getNextIncomingId());
+        assertEquals(UnsignedInteger.valueOf(2048), decoded.getIncomingWindow());
+        assertEquals(UnsignedInteger.ZERO, decoded.getNextOutgoingId());
+        assertEquals(UnsignedInteger.valueOf(2048), decoded.getOutgoingWindow());
+        assertNull(decoded.getHandle());
+        assertNull(decoded.getLinkCredit());
+        assertNull(decoded.getProperties());
+    }
+
+    private Flow encodeAndDecode(final Flow flow) throws Exception
+    {
+        final ValueWriter<Flow> writer = TYPE_REGISTRY.getValueWriter(flow);
+        final QpidByteBuffer buffer = QpidByteBuffer.allocate(writer.getEncodedSize());
+        writer.writeToBuffer(buffer);
+        buffer.flip();
+
+        final Object decoded = new ValueHandler(TYPE_REGISTRY).parse(buffer);
+        assertEquals("Unexpected trailing bytes", 0, buffer.remaining());
+        assertTrue("Unexpected type " + decoded, decoded instanceof Flow);
+        return (Flow) decoded;
+    }
+}
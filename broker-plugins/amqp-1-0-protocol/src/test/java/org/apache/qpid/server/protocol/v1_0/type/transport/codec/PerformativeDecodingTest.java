@@ -0,0 +1,159 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v1_0.type.transport.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v1_0.codec.ValueHandler;
+import org.apache.qpid.server.protocol.v1_0.type.AmqpErrorException;
+import org.apache.qpid.server.protocol.v1_0.type.Binary;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.codec.AMQPDescribedTypeRegistry;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.Accepted;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Disposition;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Flow;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Role;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Transfer;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class PerformativeDecodingTest extends UnitTestBase
+{
+    private static final AMQPDescribedTypeRegistry TYPE_REGISTRY = AMQPDescribedTypeRegistry.newInstance()
+                                                                                            .registerTransportLayer()
+                                                                                            .registerMessagingLayer()
+                                                                                            .registerTransactionLayer()
+                                                                                            .registerSecurityLayer();
+    private static final int WARM_UP_ITERATIONS = 20000;
+    private static final int MEASURED_ITERATIONS = 10000;
+    /**
+     * The three performatives, the delivery tag and the uint values they hold amount to roughly 500 bytes; anything
+     * beyond twice that means the fields are being decoded through intermediate objects.
+     */
+    private static final int MAX_BYTES_PER_FRAME_SET = 1024;
+
+    @Test
+    public void testTransferDispositionAndFlowDecodeAllocation() throws Exception
+    {
+        final com.sun.management.ThreadMXBean threadMXBean = getThreadMXBean();
+
+        final Transfer transfer = new Transfer();
+        transfer.setHandle(UnsignedInteger.ZERO);
+        transfer.setDeliveryId(UnsignedInteger.valueOf(100000));
+        transfer.setDeliveryTag(new Binary(new byte[]{0, 0, 0, 0, 0, 0, 0, 1}));
+        transfer.setMessageFormat(UnsignedInteger.ZERO);
+        transfer.setSettled(true);
+
+        final Disposition disposition = new Disposition();
+        disposition.setRole(Role.RECEIVER);
+        disposition.setFirst(UnsignedInteger.valueOf(100000));
+        disposition.setLast(UnsignedInteger.valueOf(100010));
+        disposition.setSettled(true);
+        disposition.setState(new Accepted());
+
+        final Flow flow = new Flow();
+        flow.setNextIncomingId(UnsignedInteger.valueOf(100000));
+        flow.setIncomingWindow(UnsignedInteger.valueOf(2048));
+        flow.setNextOutgoingId(UnsignedInteger.valueOf(100000));
+        flow.setOutgoingWindow(UnsignedInteger.valueOf(2048));
+        flow.setHandle(UnsignedInteger.ZERO);
+        flow.setDeliveryCount(UnsignedInteger.valueOf(100000));
+        flow.setLinkCredit(UnsignedInteger.valueOf(500));
+        flow.setDrain(false);
+
+        final QpidByteBuffer buffer = encode(transfer, disposition, flow);
+        final ValueHandler valueHandler = new ValueHandler(TYPE_REGISTRY);
+        try
+        {
+            decode(valueHandler, buffer, WARM_UP_ITERATIONS);
+
+            final long threadId = Thread.currentThread().getId();
+            final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            decode(valueHandler, buffer, MEASURED_ITERATIONS);
+            final long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+            assertTrue(String.format("Decoding %d transfer, disposition and flow frames allocated %d bytes",
+                                     MEASURED_ITERATIONS, allocated),
+                       allocated < MAX_BYTES_PER_FRAME_SET * MEASURED_ITERATIONS);
+
+            buffer.position(0);
+            final Transfer decodedTransfer = (Transfer) valueHandler.parse(buffer);
+            assertEquals(transfer.getDeliveryId(), decodedTransfer.getDeliveryId());
+            assertEquals(transfer.getDeliveryTag(), decodedTransfer.getDeliveryTag());
+            assertEquals(Boolean.TRUE, decodedTransfer.getSettled());
+            final Disposition decodedDisposition = (Disposition) valueHandler.parse(buffer);
+            assertEquals(disposition.getLast(), decodedDisposition.getLast());
+            assertTrue(decodedDisposition.getState() instanceof Accepted);
+            final Flow decodedFlow = (Flow) valueHandler.parse(buffer);
+            assertEquals(flow.getLinkCredit(), decodedFlow.getLinkCredit());
+            assertEquals(Boolean.FALSE, decodedFlow.getDrain());
+            assertEquals(0, buffer.remaining());
+        }
+        finally
+        {
+            buffer.dispose();
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean()
+    {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        return threadMXBean;
+    }
+
+    private static QpidByteBuffer encode(final Object... performatives)
+    {
+        int size = 0;
+        for (Object performative : performatives)
+        {
+            size += TYPE_REGISTRY.getValueWriter(performative).getEncodedSize();
+        }
+        final QpidByteBuffer buffer = QpidByteBuffer.allocate(false, size);
+        for (Object performative : performatives)
+        {
+            TYPE_REGISTRY.getValueWriter(performative).writeToBuffer(buffer);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void decode(final ValueHandler valueHandler, final QpidByteBuffer buffer, final int iterations)
+            throws AmqpErrorException
+    {
+        for (int i = 0; i < iterations; i++)
+        {
+            buffer.position(0);
+            valueHandler.parse(buffer);
+            valueHandler.parse(buffer);
+            valueHandler.parse(buffer);
+        }
+    }
+}
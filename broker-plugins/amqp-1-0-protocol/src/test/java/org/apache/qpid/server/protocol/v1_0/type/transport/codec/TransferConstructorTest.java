@@ -0,0 +1,131 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v1_0.type.transport.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v1_0.codec.ValueHandler;
+import org.apache.qpid.server.protocol.v1_0.type.AmqpErrorException;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.codec.AMQPDescribedTypeRegistry;
+import org.apache.qpid.server.protocol.v1_0.type.transport.AmqpError;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Transfer;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class TransferConstructorTest extends UnitTestBase
+{
+    private static final AMQPDescribedTypeRegistry TYPE_REGISTRY = AMQPDescribedTypeRegistry.newInstance()
+                                                                                            .registerTransportLayer()
+                                                                                            .registerMessagingLayer()
+                                                                                            .registerTransactionLayer()
+                                                                                            .registerSecurityLayer();
+
+    @Test
+    public void testUnsignedIntEncodings() throws Exception
+    {
+        final Transfer transfer = decode(0x00, 0x53, 0x14, 0xc0, 0x0a, 0x04,
+                                         0x43,
+                                         0x70, 0xff, 0xff, 0xff, 0xff,
+                                         0x40,
+                                         0x52, 0x07);
+
+        assertSame(UnsignedInteger.ZERO, transfer.getHandle());
+        assertEquals(UnsignedInteger.MAX_VALUE, transfer.getDeliveryId());
+        assertNull(transfer.getDeliveryTag());
+        assertEquals(UnsignedInteger.valueOf(7), transfer.getMessageFormat());
+    }
+
+    @Test
+    public void testBooleanEncodings() throws Exception
+    {
+        final Transfer transfer = decode(0x00, 0x53, 0x14, 0xc0, 0x0b, 0x08,
+                                         0x52, 0x01,
+                                         0x40,
+                                         0x40,
+                                         0x40,
+                                         0x41,
+                                         0x56, 0x00,
+                                         0x40,
+                                         0x40);
+
+        assertEquals(UnsignedInteger.ONE, transfer.getHandle());
+        assertNull(transfer.getDeliveryId());
+        assertNull(transfer.getMessageFormat());
+        assertSame(Boolean.TRUE, transfer.getSettled());
+        assertEquals(Boolean.FALSE, transfer.getMore());
+        assertNull(transfer.getState());
+        assertNull(transfer.getResume());
+        assertNull(transfer.getAborted());
+    }
+
+    @Test
+    public void testNullMandatoryHandle() throws Exception
+    {
+        assertDecodeError(0x00, 0x53, 0x14, 0xc0, 0x02, 0x01, 0x40);
+    }
+
+    @Test
+    public void testWrongTypeForHandle() throws Exception
+    {
+        assertDecodeError(0x00, 0x53, 0x14, 0xc0, 0x03, 0x01, 0x53, 0x01);
+    }
+
+    @Test
+    public void testTruncatedHandle() throws Exception
+    {
+        assertDecodeError(0x00, 0x53, 0x14, 0xc0, 0x03, 0x01, 0x70, 0x00);
+    }
+
+    private void assertDecodeError(final int... bytes)
+    {
+        try
+        {
+            decode(bytes);
+            fail("Exception not thrown");
+        }
+        catch (AmqpErrorException e)
+        {
+            assertEquals(AmqpError.DECODE_ERROR, e.getError().getCondition());
+        }
+    }
+
+    private Transfer decode(final int... bytes) throws AmqpErrorException
+    {
+        final QpidByteBuffer buffer = QpidByteBuffer.allocate(bytes.length);
+        for (int b : bytes)
+        {
+            buffer.put((byte) b);
+        }
+        buffer.flip();
+
+        final Object decoded = new ValueHandler(TYPE_REGISTRY).parse(buffer);
+        assertEquals("Unexpected trailing bytes", 0, buffer.remaining());
+        assertTrue("Unexpected type " + decoded, decoded instanceof Transfer);
+        return (Transfer) decoded;
+    }
+}
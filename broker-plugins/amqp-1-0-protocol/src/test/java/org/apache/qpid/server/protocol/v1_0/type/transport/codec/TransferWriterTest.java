@@ -0,0 +1,121 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v1_0.type.transport.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v1_0.codec.ValueHandler;
+import org.apache.qpid.server.protocol.v1_0.codec.ValueWriter;
+import org.apache.qpid.server.protocol.v1_0.type.Binary;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.codec.AMQPDescribedTypeRegistry;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.Accepted;
+import org.apache.qpid.server.protocol.v1_0.type.transport.ReceiverSettleMode;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Transfer;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class TransferWriterTest extends UnitTestBase
+{
+    private static final AMQPDescribedTypeRegistry TYPE_REGISTRY = AMQPDescribedTypeRegistry.newInstance()
+                                                                                            .registerTransportLayer()
+                                                                                            .registerMessagingLayer()
+                                                                                            .registerTransactionLayer()
+                                                                                            .registerSecurityLayer();
+
+    @Test
+    public void testTypicalTransfer() throws Exception
+    {
+        final Transfer transfer = new Transfer();
+        transfer.setHandle(UnsignedInteger.ZERO);
+        transfer.setDeliveryId(UnsignedInteger.valueOf(100000));
+        transfer.setDeliveryTag(new Binary(new byte[]{0, 0, 0, 0, 0, 0, 0, 1}));
+        transfer.setMessageFormat(UnsignedInteger.ZERO);
+        transfer.setSettled(true);
+        transfer.setState(new Accepted());
+
+        final Transfer decoded = encodeAndDecode(transfer);
+
+        assertEquals(UnsignedInteger.ZERO, decoded.getHandle());
+        assertEquals(UnsignedInteger.valueOf(100000), decoded.getDeliveryId());
+        assertEquals(transfer.getDeliveryTag(), decoded.getDeliveryTag());
+        assertEquals(UnsignedInteger.ZERO, decoded.getMessageFormat());
+        assertEquals(Boolean.TRUE, decoded.getSettled());
+        assertNull(decoded.getMore());
+        assertNull(decoded.getRcvSettleMode());
+        assertTrue(decoded.getState() instanceof Accepted);
+        assertNull(decoded.getResume());
+    }
+
+    @Test
+    public void testContinuationTransfer() throws Exception
+    {
+        final Transfer transfer = new Transfer();
+        transfer.setHandle(UnsignedInteger.valueOf(3));
+        transfer.setMore(false);
+        transfer.setRcvSettleMode(ReceiverSettleMode.SECOND);
+
+        final Transfer decoded = encodeAndDecode(transfer);
+
+        assertEquals(UnsignedInteger.valueOf(3), decoded.getHandle());
+        assertNull(decoded.getDeliveryId());
+        assertNull(decoded.getDeliveryTag());
+        assertEquals(Boolean.FALSE, decoded.getMore());
+        assertEquals(ReceiverSettleMode.SECOND, decoded.getRcvSettleMode());
+        assertNull(decoded.getState());
+    }
+
+    @Test
+    public void testLargeTransfer() throws Exception
+    {
+        final Transfer transfer = new Transfer();
+        transfer.setHandle(UnsignedInteger.valueOf(Integer.MAX_VALUE));
+        transfer.setDeliveryId(UnsignedInteger.valueOf(255));
+        transfer.setDeliveryTag(new Binary(new byte[300]));
+        transfer.setBatchable(true);
+
+        final Transfer decoded = encodeAndDecode(transfer);
+
+        assertEquals(UnsignedInteger.valueOf(Integer.MAX_VALUE), decoded.getHandle());
+        assertEquals(UnsignedInteger.valueOf(255), decoded.getDeliveryId());
+        assertEquals(transfer.getDeliveryTag(), decoded.getDeliveryTag());
+        assertEquals(Boolean.TRUE, decoded.getBatchable());
+    }
+
+    private Transfer encodeAndDecode(final Transfer transfer) throws Exception
+    {
+        final ValueWriter<Transfer> writer = TYPE_REGISTRY.getValueWriter(transfer);
+        final int encodedSize = writer.getEncodedSize();
+        final QpidByteBuffer buffer = QpidByteBuffer.allocate(encodedSize);
+        writer.writeToBuffer(buffer);
+        assertEquals("Unexpected encoded size", 0, buffer.remaining());
+        buffer.flip();
+
+        final Object decoded = new ValueHandler(TYPE_REGISTRY).parse(buffer);
+        assertEquals("Unexpected trailing bytes", 0, buffer.remaining());
+        assertTrue("Unexpected type " + decoded, decoded instanceof Transfer);
+        return (Transfer) decoded;
+    }
+}
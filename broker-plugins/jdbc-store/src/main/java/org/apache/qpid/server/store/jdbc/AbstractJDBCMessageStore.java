@@ -32,6 +32,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -61,6 +62,7 @@ import org.apache.qpid.server.plugin.MessageMetaDataType;
 import org.apache.qpid.server.store.Event;
 import org.apache.qpid.server.store.EventListener;
 import org.apache.qpid.server.store.EventManager;
+import org.apache.qpid.server.store.InMemoryMessageTracker;
 import org.apache.qpid.server.store.MessageDurability;
 import org.apache.qpid.server.store.MessageEnqueueRecord;
 import org.apache.qpid.server.store.MessageHandle;
@@ -109,6 +111,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     private String _tablePrefix = "";
     private final AtomicLong _inMemorySize = new AtomicLong();
     private final AtomicLong _bytesEvacuatedFromMemory = new AtomicLong();
+    private final InMemoryMessageTracker _inMemoryMessages = new InMemoryMessageTracker();
     private final Set<StoredJDBCMessage<?>> _messages = Collections.newSetFromMap(new ConcurrentHashMap<>());
     private final Set<MessageDeleteListener> _messageDeleteListeners = Collections.newSetFromMap(new ConcurrentHashMap<>());
     private final Set<Action<Connection>> _deleteActions = Collections.newSetFromMap(new ConcurrentHashMap<>());
@@ -231,6 +234,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     protected void initMessageStore(final ConfiguredObject<?> parent)
     {
         _parent = parent;
+        _inMemoryMessages.configure(parent);
 
         int corePoolSize = getContextValue(Integer.class, EXECUTOR_THREADS, EXECUTOR_THREADS_DEFAULT);
 
@@ -260,6 +264,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
             message.clear(true);
         }
         _messages.clear();
+        _inMemoryMessages.clear();
         _inMemorySize.set(0);
         _bytesEvacuatedFromMemory.set(0);
         if(_executor != null)
@@ -449,6 +454,12 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     {
         final StoredJDBCMessage<T> message = new StoredJDBCMessage<>(newMessageId, metaData, recovered);
         _messages.add(message);
+        if (recovered)
+        {
+            // new messages are only tracked once all their content has been added, as flowing a partially
+            // received message to disk would store it truncated
+            _inMemoryMessages.loaded(message);
+        }
         return message;
     }
 
@@ -1204,6 +1215,18 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         return _bytesEvacuatedFromMemory.get();
     }
 
+    @Override
+    public long getBytesReloadedIntoMemory()
+    {
+        return _inMemoryMessages.getBytesReloaded();
+    }
+
+    @Override
+    public Iterator<StoredMessage<?>> getFlowToDiskCandidates()
+    {
+        return _inMemoryMessages.isEnabled() ? _inMemoryMessages.evictionCandidates() : null;
+    }
+
     protected class JDBCTransaction implements Transaction
     {
         private final ConnectionWrapper _connWrapper;
@@ -1543,6 +1566,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
                         metaData = (T) AbstractJDBCMessageStore.this.getMetaData(_messageId);
                         _messageDataRef = new MessageDataRef<>(metaData, _messageDataRef.getData(), false);
                         _inMemorySize.addAndGet(getMetadataSize());
+                        _inMemoryMessages.reloaded(this, getMetadataSize());
                     }
                     catch (SQLException e)
                     {
@@ -1579,6 +1603,13 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         public StoredMessage<T> allContentAdded()
         {
             _inMemorySize.addAndGet(getContentSize());
+            synchronized (this)
+            {
+                if (_messageDataRef != null)
+                {
+                    _inMemoryMessages.loaded(this);
+                }
+            }
             return this;
         }
 
@@ -1596,6 +1627,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
                     data = AbstractJDBCMessageStore.this.getAllContent(_messageId);
                     _messageDataRef.setData(data);
                     _inMemorySize.addAndGet(getContentSize());
+                    _inMemoryMessages.reloaded(this, getContentSize());
                 }
                 else
                 {
@@ -1697,6 +1729,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
             }
             _messageDataRef = null;
             _inMemorySize.addAndGet(-bytesCleared);
+            _inMemoryMessages.released(this);
             if (!_messageDeleteListeners.isEmpty())
             {
                 for (final MessageDeleteListener messageDeleteListener : _messageDeleteListeners)
@@ -1752,6 +1785,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
                 final long bytesCleared = _messageDataRef.clear(false);
                 _inMemorySize.addAndGet(-bytesCleared);
                 _bytesEvacuatedFromMemory.addAndGet(bytesCleared);
+                _inMemoryMessages.released(this);
             }
             return true;
         }
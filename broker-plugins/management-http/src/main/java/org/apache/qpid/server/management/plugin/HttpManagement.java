@@ -101,6 +101,8 @@ import org.apache.qpid.server.management.plugin.servlet.rest.SaslServlet;
 import org.apache.qpid.server.management.plugin.servlet.rest.StructureServlet;
 import org.apache.qpid.server.management.plugin.servlet.rest.TimeZoneServlet;
 import org.apache.qpid.server.management.plugin.servlet.rest.VirtualHostQueryServlet;
+import org.apache.qpid.server.management.plugin.servlet.statistics.StatisticsPublisher;
+import org.apache.qpid.server.management.plugin.servlet.statistics.StatisticsWebSocketServlet;
 import org.apache.qpid.server.model.AbstractConfigurationChangeListener;
 import org.apache.qpid.server.model.AuthenticationProvider;
 import org.apache.qpid.server.model.Broker;
@@ -188,6 +190,7 @@ public class HttpManagement extends AbstractPluginAdapter<HttpManagement> implem
     private volatile boolean _serveUncompressedDojo;
     private volatile Long _saslExchangeExpiry;
     private volatile ThreadPoolExecutor _jettyServerExecutor;
+    private volatile StatisticsPublisher _statisticsPublisher;
 
     @ManagedObjectFactoryConstructor
     public HttpManagement(Map<String, Object> attributes, Broker broker)
@@ -222,6 +225,7 @@ public class HttpManagement extends AbstractPluginAdapter<HttpManagement> implem
             try
             {
                 _server.start();
+                _statisticsPublisher.start();
                 logOperationalListenMessages();
             }
             catch (PortBindFailureException e)
@@ -257,6 +261,11 @@ public class HttpManagement extends AbstractPluginAdapter<HttpManagement> implem
             }
         }
 
+        if (_statisticsPublisher != null)
+        {
+            _statisticsPublisher.stop();
+        }
+
         if (_jettyServerExecutor != null)
         {
             _jettyServerExecutor.shutdown();
@@ -385,6 +394,10 @@ public class HttpManagement extends AbstractPluginAdapter<HttpManagement> implem
         root.addServlet(new ServletHolder(new QueueReportServlet()), "/service/queuereport/*");
         root.addServlet(new ServletHolder(new MetaDataServlet()), "/service/metadata");
         root.addServlet(new ServletHolder(new TimeZoneServlet()), "/service/timezones");
+
+        _statisticsPublisher = new StatisticsPublisher(getBroker(),
+                                                       getContextValue(Long.class, STATISTICS_PUBLISH_INTERVAL_CONTEXT_NAME));
+        root.addServlet(new ServletHolder(new StatisticsWebSocketServlet(_statisticsPublisher)), "/service/statistics");
     }
 
     private void addFiltersAndServletsForUserInterfaces(final ServletContextHandler root)
@@ -549,13 +562,15 @@ public class HttpManagement extends AbstractPluginAdapter<HttpManagement> implem
         ConnectionFactory[] connectionFactories;
         Collection<Transport> transports = port.getTransports();
         SslContextFactory sslContextFactory = null;
+        TlsHandshakeStatisticsListener handshakeListener = null;
         if (!transports.contains(Transport.SSL))
         {
             connectionFactories = new ConnectionFactory[]{httpConnectionFactory};
         }
         else if (transports.contains(Transport.SSL))
         {
-            sslContextFactory = createSslContextFactory(port);
+            handshakeListener = new TlsHandshakeStatisticsListener(port);
+            sslContextFactory = createSslContextFactory(port, handshakeListener);
             ConnectionFactory sslConnectionFactory;
             if (port.getTransports().contains(Transport.TCP))
             {
@@ -599,6 +614,11 @@ public class HttpManagement extends AbstractPluginAdapter<HttpManagement> implem
             }
         };
 
+        if (handshakeListener != null)
+        {
+            connector.addBean(handshakeListener);
+        }
+
         connector.setAcceptQueueSize(port.getAcceptBacklogSize());
         String bindingAddress = port.getBindingAddress();
         if (bindingAddress != null && !bindingAddress.trim().equals("") && !bindingAddress.trim().equals("*"))
@@ -666,7 +686,8 @@ public class HttpManagement extends AbstractPluginAdapter<HttpManagement> implem
         return connector;
     }
 
-    private SslContextFactory createSslContextFactory(final HttpPort<?> port)
+    private SslContextFactory createSslContextFactory(final HttpPort<?> port,
+                                                     final TlsHandshakeStatisticsListener handshakeListener)
     {
         SslContextFactory.Server factory = new SslContextFactory.Server()
         {
@@ -674,6 +695,7 @@ public class HttpManagement extends AbstractPluginAdapter<HttpManagement> implem
             public void customize(final SSLEngine sslEngine)
             {
                 super.customize(sslEngine);
+                handshakeListener.handshakeStarted(sslEngine);
                 if (port.getTlsCipherSuiteAllowList() != null
                     && !port.getTlsCipherSuiteAllowList().isEmpty())
                 {
@@ -90,6 +90,13 @@ public interface HttpManagementConfiguration<X extends HttpManagementConfigurati
     @ManagedContextDefault( name = DISABLE_UI_CONTEXT_NAME)
     boolean DEFAULT_DISABLE_UI = false;
 
+    String STATISTICS_PUBLISH_INTERVAL_CONTEXT_NAME = "qpid.httpManagement.statisticsPublishInterval";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = STATISTICS_PUBLISH_INTERVAL_CONTEXT_NAME,
+            description = "Interval (in milliseconds) at which statistics updates are pushed to management clients"
+                          + " subscribed through the statistics WebSocket.")
+    long DEFAULT_STATISTICS_PUBLISH_INTERVAL = 5000L;
+
     AuthenticationProvider getAuthenticationProvider(HttpServletRequest request);
     Port<?> getPort(HttpServletRequest request);
 }
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.management.plugin;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLEngine;
+
+import org.eclipse.jetty.io.ssl.SslHandshakeListener;
+
+import org.apache.qpid.server.model.port.HttpPort;
+import org.apache.qpid.server.transport.network.security.ssl.TlsHandshakeTrackingKeyManager;
+
+/**
+ * Reports completed TLS handshakes to the HTTP port so that they are reflected in the port statistics.
+ * The handshake start time is taken when the SSL engine is created for the newly accepted connection, as Jetty
+ * does not expose the arrival of the ClientHello; engines whose handshake never completes are dropped from the
+ * start time map once they are garbage collected.
+ */
+class TlsHandshakeStatisticsListener implements SslHandshakeListener
+{
+    private final HttpPort<?> _port;
+    private final Map<SSLEngine, Long> _handshakeStartTimes = Collections.synchronizedMap(new WeakHashMap<>());
+
+    TlsHandshakeStatisticsListener(final HttpPort<?> port)
+    {
+        _port = port;
+    }
+
+    void handshakeStarted(final SSLEngine sslEngine)
+    {
+        _handshakeStartTimes.put(sslEngine, System.nanoTime());
+    }
+
+    @Override
+    public void handshakeSucceeded(final Event event)
+    {
+        final SSLEngine sslEngine = event.getSSLEngine();
+        final Long startTime = _handshakeStartTimes.remove(sslEngine);
+        if (startTime != null)
+        {
+            _port.registerTlsHandshake(TlsHandshakeTrackingKeyManager.isResumedHandshake(sslEngine),
+                                       TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        }
+    }
+
+    @Override
+    public void handshakeFailed(final Event event, final Throwable failure)
+    {
+        _handshakeStartTimes.remove(event.getSSLEngine());
+    }
+}
@@ -23,9 +23,11 @@ package org.apache.qpid.server.management.plugin.servlet.query;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.PriorityQueue;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,9 +48,11 @@ public final class ConfiguredObjectQuery
 
     private final ConfiguredObjectExpressionFactory _expressionFactory = new ConfiguredObjectExpressionFactory();
 
-    private final List<List<Object>> _results;
+    private final List<ConfiguredObject<?>> _resultObjects;
+    private final List<Expression> _valueExpressions;
     private final List<String> _headers;
     private final int _totalNumberOfRows;
+    private List<List<Object>> _results;
 
     interface HeadersAndValueExpressions
     {
@@ -84,21 +88,53 @@ public final class ConfiguredObjectQuery
         HeadersAndValueExpressions headersAndValueExpressions = parseSelectClause(selectClause);
 
         List<ConfiguredObject<?>> filteredObjects = whereClause == null ? objects : filterObjects(objects, whereClause);
-        List<ConfiguredObject<?>> orderedObjects = orderByClause == null ? filteredObjects : orderObjects(filteredObjects,
-                                                                                                          orderByClause,
-                                                                                                          headersAndValueExpressions);
-        List<ConfiguredObject<?>> limitedOrderedObjects = applyLimitAndOffset(orderedObjects, limit, offset);
+        List<ConfiguredObject<?>> limitedOrderedObjects = orderByClause == null
+                ? applyLimitAndOffset(filteredObjects, limit, offset)
+                : orderObjects(filteredObjects, orderByClause, headersAndValueExpressions, limit, offset);
 
         _headers = headersAndValueExpressions.getHeaders();
-        _results = evaluateResults(limitedOrderedObjects, headersAndValueExpressions.getValueExpressions());
+        _valueExpressions = headersAndValueExpressions.getValueExpressions();
+        _resultObjects = limitedOrderedObjects;
         _totalNumberOfRows = filteredObjects.size();
     }
 
     public List<List<Object>> getResults()
     {
+        if (_results == null)
+        {
+            _results = new ArrayList<>(_resultObjects.size());
+            getResultRows().forEach(_results::add);
+        }
         return _results;
     }
 
+    /**
+     * Returns the result rows without materialising them: the select expressions are evaluated for each object
+     * as the iteration reaches it, allowing the rows to be written out as they are produced.
+     * <p>
+     * The where and orderBy clauses are evaluated by the constructor, so their {@link EvaluationException}s are
+     * raised before any row is produced. A select expression that fails to evaluate yields a null value instead.
+     */
+    public Iterable<List<Object>> getResultRows()
+    {
+        return () -> new Iterator<List<Object>>()
+        {
+            private final Iterator<ConfiguredObject<?>> _objectIterator = _resultObjects.iterator();
+
+            @Override
+            public boolean hasNext()
+            {
+                return _objectIterator.hasNext();
+            }
+
+            @Override
+            public List<Object> next()
+            {
+                return evaluateResult(_objectIterator.next());
+            }
+        };
+    }
+
     public List<String> getHeaders()
     {
         return _headers;
@@ -226,32 +262,27 @@ public final class ConfiguredObjectQuery
         return filteredObjects;
     }
 
-    private List<List<Object>> evaluateResults(final List<ConfiguredObject<?>> filteredObjects, List<Expression> valueExpressions)
+    private List<Object> evaluateResult(final ConfiguredObject<?> object)
     {
-        List<List<Object>> values = new ArrayList<>();
-        for (ConfiguredObject<?> object : filteredObjects)
+        List<Object> objectVals = new ArrayList<>(_valueExpressions.size());
+        for (Expression<ConfiguredObject<?>> evaluator : _valueExpressions)
         {
-            List<Object> objectVals = new ArrayList<>();
-            for (Expression<ConfiguredObject<?>> evaluator : valueExpressions)
+            Object value;
+            try
             {
-                Object value;
-                try
-                {
-                    value = evaluator.evaluate(object);
-                }
-                catch (RuntimeException e)
-                {
-                    LOGGER.debug("Error while evaluating select clause", e);
-                    value = null;
-                }
-                objectVals.add(value);
+                value = evaluator.evaluate(object);
+            }
+            catch (RuntimeException e)
+            {
+                LOGGER.debug("Error while evaluating select clause", e);
+                value = null;
             }
-            values.add(objectVals);
+            objectVals.add(value);
         }
-        return values;
+        return objectVals;
     }
 
-    private List<ConfiguredObject<?>> applyLimitAndOffset(final List<ConfiguredObject<?>> orderedObjects, final int limit, int offset)
+    private <T> List<T> applyLimitAndOffset(final List<T> orderedObjects, final int limit, int offset)
     {
         int size = orderedObjects.size();
         int firstIndex = offset < 0 ? Math.max(0, size + offset) : Math.min(size, offset);
@@ -291,6 +322,21 @@ public final class ConfiguredObjectQuery
 
         @Override
         public int compare(final Object o1, final Object o2)
+        {
+            return compareKeys(evaluateKeys(o1), evaluateKeys(o2));
+        }
+
+        Object[] evaluateKeys(final Object o)
+        {
+            final Object[] keys = new Object[_orderByExpressions.size()];
+            for (int i = 0; i < keys.length; i++)
+            {
+                keys[i] = _orderByExpressions.get(i).evaluate(o);
+            }
+            return keys;
+        }
+
+        int compareKeys(final Object[] leftKeys, final Object[] rightKeys)
         {
             int index = 0;
             int comparisonResult = 0;
@@ -298,8 +344,8 @@ public final class ConfiguredObjectQuery
             {
                 try
                 {
-                    Comparable left = (Comparable) orderByExpression.evaluate(o1);
-                    Comparable right = (Comparable) orderByExpression.evaluate(o2);
+                    Comparable left = (Comparable) leftKeys[index];
+                    Comparable right = (Comparable) rightKeys[index];
                     if (left == null && right != null)
                     {
                         comparisonResult = -1;
@@ -334,14 +380,95 @@ public final class ConfiguredObjectQuery
 
     private List<ConfiguredObject<?>> orderObjects(final List<ConfiguredObject<?>> unorderedResults,
                                                    final String orderByClause,
-                                                   final HeadersAndValueExpressions headersAndValue)
+                                                   final HeadersAndValueExpressions headersAndValue,
+                                                   final int limit,
+                                                   final int offset)
     {
         List<OrderByExpression> orderByExpressions = parseOrderByClause(orderByClause, headersAndValue);
-        List<ConfiguredObject<?>> orderedObjects = new ArrayList<>(unorderedResults.size());
-        orderedObjects.addAll(unorderedResults);
-        Comparator<Object> comparator = new OrderByComparator(orderByExpressions, headersAndValue.getValueExpressions());
-        Collections.sort(orderedObjects, comparator);
-        return orderedObjects;
+        OrderByComparator orderByComparator = new OrderByComparator(orderByExpressions, headersAndValue.getValueExpressions());
+
+        // the order by expressions are evaluated once per object rather than on every comparison; ties are broken
+        // on the original position so that the ordering is stable whichever selection strategy is used
+        Comparator<SortableObject> comparator = (o1, o2) -> {
+            int result = orderByComparator.compareKeys(o1._keys, o2._keys);
+            return result != 0 ? result : Integer.compare(o1._position, o2._position);
+        };
+
+        final int size = unorderedResults.size();
+        if (limit >= 0 && offset >= 0 && (long) offset + limit < size)
+        {
+            return selectTopObjects(unorderedResults, orderByComparator, comparator, offset + limit, offset);
+        }
+
+        List<SortableObject> orderedObjects = new ArrayList<>(size);
+        int position = 0;
+        for (ConfiguredObject<?> object : unorderedResults)
+        {
+            orderedObjects.add(new SortableObject(object, position++, orderByComparator.evaluateKeys(object)));
+        }
+        orderedObjects.sort(comparator);
+        return toObjects(applyLimitAndOffset(orderedObjects, limit, offset));
+    }
+
+    /**
+     * Selects the first {@code count} objects in order by keeping only the best candidates seen so far in a bounded
+     * heap, so that a page near the start of a large result set does not require the whole set to be sorted.
+     */
+    private List<ConfiguredObject<?>> selectTopObjects(final List<ConfiguredObject<?>> unorderedResults,
+                                                       final OrderByComparator orderByComparator,
+                                                       final Comparator<SortableObject> comparator,
+                                                       final int count,
+                                                       final int offset)
+    {
+        if (count == 0)
+        {
+            return Collections.emptyList();
+        }
+
+        final PriorityQueue<SortableObject> heap = new PriorityQueue<>(count, comparator.reversed());
+        int position = 0;
+        for (ConfiguredObject<?> object : unorderedResults)
+        {
+            final SortableObject candidate =
+                    new SortableObject(object, position++, orderByComparator.evaluateKeys(object));
+            if (heap.size() < count)
+            {
+                heap.add(candidate);
+            }
+            else if (comparator.compare(candidate, heap.peek()) < 0)
+            {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+
+        final List<SortableObject> topObjects = new ArrayList<>(heap);
+        topObjects.sort(comparator);
+        return toObjects(topObjects.subList(Math.min(offset, topObjects.size()), topObjects.size()));
+    }
+
+    private List<ConfiguredObject<?>> toObjects(final List<SortableObject> sortableObjects)
+    {
+        final List<ConfiguredObject<?>> objects = new ArrayList<>(sortableObjects.size());
+        for (SortableObject sortableObject : sortableObjects)
+        {
+            objects.add(sortableObject._object);
+        }
+        return objects;
+    }
+
+    private static final class SortableObject
+    {
+        private final ConfiguredObject<?> _object;
+        private final int _position;
+        private final Object[] _keys;
+
+        private SortableObject(final ConfiguredObject<?> object, final int position, final Object[] keys)
+        {
+            _object = object;
+            _position = position;
+            _keys = keys;
+        }
     }
 
     private List<OrderByExpression> parseOrderByClause(final String orderByClause,
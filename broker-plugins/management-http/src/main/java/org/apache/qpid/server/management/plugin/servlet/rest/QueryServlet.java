@@ -107,10 +107,19 @@ public abstract class QueryServlet<X extends ConfiguredObject<?>> extends Abstra
                     {
                         Map<String, Object> resultsObject = new LinkedHashMap<>();
                         resultsObject.put("headers", query.getHeaders());
-                        resultsObject.put("results", query.getResults());
+                        // the rows are evaluated as they are serialised rather than being materialised up front
+                        resultsObject.put("results", query.getResultRows());
                         resultsObject.put("total", query.getTotalNumberOfRows());
 
-                        sendJsonResponse(resultsObject, request, response);
+                        try
+                        {
+                            sendJsonResponse(resultsObject, request, response);
+                        }
+                        catch (IOException | RuntimeException e)
+                        {
+                            logStreamingFailure(response, e);
+                            throw e;
+                        }
                     }
                 }
                 catch (SelectorParsingException e)
@@ -155,7 +164,24 @@ public abstract class QueryServlet<X extends ConfiguredObject<?>> extends Abstra
         try (PrintWriter writer = response.getWriter())
         {
             CSV_FORMAT.printRecord(writer, query.getHeaders());
-            CSV_FORMAT.printRecords(writer, query.getResults());
+            for (List<Object> row : query.getResultRows())
+            {
+                CSV_FORMAT.printRecord(writer, row);
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logStreamingFailure(response, e);
+            throw e;
+        }
+    }
+
+    private void logStreamingFailure(final HttpServletResponse response, final Exception e)
+    {
+        if (response.isCommitted())
+        {
+            // the status line has already been sent, so the failure can only be signalled by aborting the response
+            LOGGER.warn("Query results could not be written in full, aborting the response", e);
         }
     }
 
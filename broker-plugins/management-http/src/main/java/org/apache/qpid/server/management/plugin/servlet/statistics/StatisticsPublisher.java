@@ -0,0 +1,417 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.management.plugin.servlet.statistics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.server.model.Broker;
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.model.ConfiguredObjectJacksonModule;
+import org.apache.qpid.server.model.Model;
+import org.apache.qpid.server.util.DaemonThreadFactory;
+
+/**
+ * Periodically samples the statistics of the objects selected by the current subscriptions and pushes the changes
+ * since the previous sample to the subscribers.
+ * <p>
+ * The statistics of each object are read once per interval however many subscribers select it, and subscribers
+ * with identical subscriptions share the same serialised message. A subscriber receives the values of all the
+ * statistics it selects when it subscribes, or after a message could not be delivered to it, and thereafter only
+ * the statistics whose values have changed.
+ */
+public class StatisticsPublisher
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsPublisher.class);
+
+    public interface Subscriber
+    {
+        /**
+         * @return false if the message could not be accepted, for instance because the previous message is still
+         * being written to a slow client
+         */
+        boolean publish(String message);
+    }
+
+    private final Broker<?> _broker;
+    private final long _interval;
+    private final ObjectMapper _objectMapper = ConfiguredObjectJacksonModule.newObjectMapper(false);
+    private final Map<Subscriber, SubscriberState> _subscribers = new ConcurrentHashMap<>();
+    private Map<UUID, ObjectStatistics> _previousStatistics = Collections.emptyMap();
+    private Map<UUID, ConfiguredObject<?>> _resolvedObjects = Collections.emptyMap();
+    private volatile ScheduledExecutorService _executor;
+
+    public StatisticsPublisher(final Broker<?> broker, final long interval)
+    {
+        _broker = broker;
+        _interval = interval;
+    }
+
+    public void start()
+    {
+        final ScheduledThreadPoolExecutor executor =
+                new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("HttpManagement-StatisticsPublisher"));
+        executor.scheduleWithFixedDelay(this::publishSafely, _interval, _interval, TimeUnit.MILLISECONDS);
+        _executor = executor;
+    }
+
+    public void stop()
+    {
+        final ScheduledExecutorService executor = _executor;
+        if (executor != null)
+        {
+            executor.shutdownNow();
+            _executor = null;
+        }
+        _subscribers.clear();
+    }
+
+    public void subscribe(final Subscriber subscriber, final List<StatisticsSubscription> subscriptions)
+    {
+        _subscribers.put(subscriber, new SubscriberState(subscriptions));
+    }
+
+    public void unsubscribe(final Subscriber subscriber)
+    {
+        _subscribers.remove(subscriber);
+    }
+
+    private void publishSafely()
+    {
+        try
+        {
+            publish();
+        }
+        catch (RuntimeException e)
+        {
+            LOGGER.warn("Unexpected exception whilst publishing statistics", e);
+        }
+    }
+
+    synchronized void publish()
+    {
+        if (_subscribers.isEmpty())
+        {
+            _previousStatistics = Collections.emptyMap();
+            _resolvedObjects = Collections.emptyMap();
+            return;
+        }
+
+        final Map<UUID, ObjectStatistics> currentStatistics = sampleStatistics();
+        final Map<MessageKey, String> messages = new HashMap<>();
+        final long timestamp = System.currentTimeMillis();
+        for (Map.Entry<Subscriber, SubscriberState> entry : _subscribers.entrySet())
+        {
+            final SubscriberState state = entry.getValue();
+            final MessageKey key = new MessageKey(state._subscriptions, state._fullUpdateRequired);
+            final String message = messages.computeIfAbsent(key, k -> createMessage(k, timestamp, currentStatistics));
+            if (message != null)
+            {
+                state._fullUpdateRequired = !entry.getKey().publish(message);
+            }
+        }
+        _previousStatistics = currentStatistics;
+    }
+
+    private Map<UUID, ObjectStatistics> sampleStatistics()
+    {
+        final Map<Class<? extends ConfiguredObject>, Set<String>> statisticsByCategory = new HashMap<>();
+        final Set<Class<? extends ConfiguredObject>> allStatisticsCategories = new HashSet<>();
+        final Map<Class<? extends ConfiguredObject>, Set<UUID>> idsByCategory = new HashMap<>();
+        final Set<Class<? extends ConfiguredObject>> allObjectsCategories = new HashSet<>();
+        for (SubscriberState state : _subscribers.values())
+        {
+            for (StatisticsSubscription subscription : state._subscriptions)
+            {
+                if (subscription.getStatistics().isEmpty())
+                {
+                    allStatisticsCategories.add(subscription.getCategory());
+                }
+                if (subscription.getIds().isEmpty())
+                {
+                    allObjectsCategories.add(subscription.getCategory());
+                }
+                statisticsByCategory.computeIfAbsent(subscription.getCategory(), c -> new HashSet<>())
+                                    .addAll(subscription.getStatistics());
+                idsByCategory.computeIfAbsent(subscription.getCategory(), c -> new HashSet<>())
+                             .addAll(subscription.getIds());
+            }
+        }
+
+        final Map<UUID, ObjectStatistics> currentStatistics = new HashMap<>();
+        final Map<UUID, ConfiguredObject<?>> resolvedObjects = new HashMap<>();
+        for (Map.Entry<Class<? extends ConfiguredObject>, Set<String>> entry : statisticsByCategory.entrySet())
+        {
+            final Class<? extends ConfiguredObject> category = entry.getKey();
+            final List<String> statisticNames = allStatisticsCategories.contains(category)
+                    ? Collections.emptyList()
+                    : new ArrayList<>(entry.getValue());
+            final Collection<ConfiguredObject<?>> objects = allObjectsCategories.contains(category)
+                    ? getObjects(category)
+                    : getObjects(category, idsByCategory.get(category), resolvedObjects);
+            for (ConfiguredObject<?> object : objects)
+            {
+                currentStatistics.put(object.getId(),
+                                      new ObjectStatistics(category,
+                                                           object.getName(),
+                                                           object.getStatistics(statisticNames)));
+            }
+        }
+        _resolvedObjects = resolvedObjects;
+        return currentStatistics;
+    }
+
+    /**
+     * Returns the objects of the category with the given ids. Objects found by an earlier sample are looked up by id
+     * from their parent, so the category is walked only when a subscribed object has not yet been found.
+     */
+    private Collection<ConfiguredObject<?>> getObjects(final Class<? extends ConfiguredObject> category,
+                                                      final Set<UUID> ids,
+                                                      final Map<UUID, ConfiguredObject<?>> resolvedObjects)
+    {
+        boolean unresolved = false;
+        for (UUID id : ids)
+        {
+            final ConfiguredObject<?> object = _resolvedObjects.get(id);
+            if (object != null && isCurrent(category, object))
+            {
+                resolvedObjects.put(id, object);
+            }
+            else
+            {
+                unresolved = true;
+            }
+        }
+
+        if (unresolved)
+        {
+            for (ConfiguredObject<?> object : getObjects(category))
+            {
+                if (ids.contains(object.getId()))
+                {
+                    resolvedObjects.put(object.getId(), object);
+                }
+            }
+        }
+
+        final Collection<ConfiguredObject<?>> objects = new ArrayList<>();
+        for (UUID id : ids)
+        {
+            final ConfiguredObject<?> object = resolvedObjects.get(id);
+            if (object != null)
+            {
+                objects.add(object);
+            }
+        }
+        return objects;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean isCurrent(final Class<? extends ConfiguredObject> category, final ConfiguredObject<?> object)
+    {
+        final ConfiguredObject<?> parent = object.getParent();
+        return parent != null && parent.getChildById((Class<ConfiguredObject>) category, object.getId()) == object;
+    }
+
+    private Collection<ConfiguredObject<?>> getObjects(final Class<? extends ConfiguredObject> category)
+    {
+        final Model model = _broker.getModel();
+        final List<Class<? extends ConfiguredObject>> hierarchy = new ArrayList<>();
+        Class<? extends ConfiguredObject> element = category;
+        while (element != null && element != Broker.class)
+        {
+            hierarchy.add(0, element);
+            element = model.getParentType(element);
+        }
+
+        Collection<ConfiguredObject<?>> objects = Collections.singletonList(_broker);
+        for (Class<? extends ConfiguredObject> childCategory : hierarchy)
+        {
+            final Collection<ConfiguredObject<?>> children = new ArrayList<>();
+            for (ConfiguredObject<?> parent : objects)
+            {
+                @SuppressWarnings("unchecked")
+                final Collection<? extends ConfiguredObject<?>> parentChildren =
+                        (Collection<? extends ConfiguredObject<?>>) parent.getChildren(childCategory);
+                children.addAll(parentChildren);
+            }
+            objects = children;
+        }
+        return objects;
+    }
+
+    private String createMessage(final MessageKey key,
+                                 final long timestamp,
+                                 final Map<UUID, ObjectStatistics> currentStatistics)
+    {
+        final List<Map<String, Object>> objects = new ArrayList<>();
+        final List<UUID> removed = new ArrayList<>();
+        for (StatisticsSubscription subscription : key._subscriptions)
+        {
+            for (Map.Entry<UUID, ObjectStatistics> entry : currentStatistics.entrySet())
+            {
+                final UUID id = entry.getKey();
+                final ObjectStatistics current = entry.getValue();
+                if (current._category == subscription.getCategory() && subscription.selects(id))
+                {
+                    final ObjectStatistics previous = key._fullUpdate ? null : _previousStatistics.get(id);
+                    final Map<String, Object> changes = getChanges(subscription, current, previous);
+                    if (!changes.isEmpty() || previous == null)
+                    {
+                        final Map<String, Object> object = new LinkedHashMap<>();
+                        object.put(ConfiguredObject.ID, id);
+                        object.put(ConfiguredObject.NAME, current._name);
+                        object.put("type", subscription.getCategory().getSimpleName());
+                        object.put("statistics", changes);
+                        objects.add(object);
+                    }
+                }
+            }
+
+            if (!key._fullUpdate)
+            {
+                for (Map.Entry<UUID, ObjectStatistics> entry : _previousStatistics.entrySet())
+                {
+                    if (entry.getValue()._category == subscription.getCategory()
+                        && subscription.selects(entry.getKey())
+                        && !currentStatistics.containsKey(entry.getKey()))
+                    {
+                        removed.add(entry.getKey());
+                    }
+                }
+            }
+        }
+
+        if (objects.isEmpty() && removed.isEmpty() && !key._fullUpdate)
+        {
+            return null;
+        }
+
+        final Map<String, Object> message = new LinkedHashMap<>();
+        message.put("timestamp", timestamp);
+        message.put("full", key._fullUpdate);
+        message.put("objects", objects);
+        message.put("removed", removed);
+        try
+        {
+            return _objectMapper.writeValueAsString(message);
+        }
+        catch (JsonProcessingException e)
+        {
+            throw new IllegalStateException("Failed to serialise statistics", e);
+        }
+    }
+
+    private Map<String, Object> getChanges(final StatisticsSubscription subscription,
+                                           final ObjectStatistics current,
+                                           final ObjectStatistics previous)
+    {
+        final Map<String, Object> changes = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> statistic : current._statistics.entrySet())
+        {
+            final String name = statistic.getKey();
+            if ((subscription.getStatistics().isEmpty() || subscription.getStatistics().contains(name))
+                && (previous == null || !Objects.equals(previous._statistics.get(name), statistic.getValue())))
+            {
+                changes.put(name, statistic.getValue());
+            }
+        }
+        return changes;
+    }
+
+    private static final class SubscriberState
+    {
+        private final List<StatisticsSubscription> _subscriptions;
+        private volatile boolean _fullUpdateRequired = true;
+
+        private SubscriberState(final List<StatisticsSubscription> subscriptions)
+        {
+            _subscriptions = Collections.unmodifiableList(new ArrayList<>(subscriptions));
+        }
+    }
+
+    private static final class ObjectStatistics
+    {
+        private final Class<? extends ConfiguredObject> _category;
+        private final String _name;
+        private final Map<String, Object> _statistics;
+
+        private ObjectStatistics(final Class<? extends ConfiguredObject> category,
+                                 final String name,
+                                 final Map<String, Object> statistics)
+        {
+            _category = category;
+            _name = name;
+            _statistics = statistics;
+        }
+    }
+
+    private static final class MessageKey
+    {
+        private final List<StatisticsSubscription> _subscriptions;
+        private final boolean _fullUpdate;
+
+        private MessageKey(final List<StatisticsSubscription> subscriptions, final boolean fullUpdate)
+        {
+            _subscriptions = subscriptions;
+            _fullUpdate = fullUpdate;
+        }
+
+        @Override
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass())
+            {
+                return false;
+            }
+            final MessageKey that = (MessageKey) o;
+            return _fullUpdate == that._fullUpdate && _subscriptions.equals(that._subscriptions);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(_subscriptions, _fullUpdate);
+        }
+    }
+}
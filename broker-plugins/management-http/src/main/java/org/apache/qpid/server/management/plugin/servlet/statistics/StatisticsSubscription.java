@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.management.plugin.servlet.statistics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.model.Model;
+
+/**
+ * Selects the objects of one category, and the statistics of those objects, that a subscriber wishes to receive.
+ * An empty set of ids selects every object of the category; an empty set of statistic names selects every statistic.
+ */
+public final class StatisticsSubscription
+{
+    static final String CATEGORY = "category";
+    static final String IDS = "ids";
+    static final String STATISTICS = "statistics";
+
+    private final Class<? extends ConfiguredObject> _category;
+    private final Set<UUID> _ids;
+    private final Set<String> _statistics;
+
+    public StatisticsSubscription(final Class<? extends ConfiguredObject> category,
+                                  final Set<UUID> ids,
+                                  final Set<String> statistics)
+    {
+        _category = category;
+        _ids = Collections.unmodifiableSet(new HashSet<>(ids));
+        _statistics = Collections.unmodifiableSet(new HashSet<>(statistics));
+    }
+
+    public Class<? extends ConfiguredObject> getCategory()
+    {
+        return _category;
+    }
+
+    public Set<UUID> getIds()
+    {
+        return _ids;
+    }
+
+    public Set<String> getStatistics()
+    {
+        return _statistics;
+    }
+
+    boolean selects(final UUID id)
+    {
+        return _ids.isEmpty() || _ids.contains(id);
+    }
+
+    static StatisticsSubscription fromMap(final Model model, final Map<?, ?> map)
+    {
+        final Object categoryName = map.get(CATEGORY);
+        if (!(categoryName instanceof String))
+        {
+            throw new IllegalArgumentException("Subscription category is not specified");
+        }
+        Class<? extends ConfiguredObject> category = null;
+        for (Class<? extends ConfiguredObject> supportedCategory : model.getSupportedCategories())
+        {
+            if (((String) categoryName).equalsIgnoreCase(supportedCategory.getSimpleName()))
+            {
+                category = supportedCategory;
+                break;
+            }
+        }
+        if (category == null)
+        {
+            throw new IllegalArgumentException(String.format("Unknown category '%s'", categoryName));
+        }
+
+        final Set<UUID> ids = new HashSet<>();
+        for (Object id : toCollection(map.get(IDS), IDS))
+        {
+            try
+            {
+                ids.add(UUID.fromString(String.valueOf(id)));
+            }
+            catch (IllegalArgumentException e)
+            {
+                throw new IllegalArgumentException(String.format("Invalid object id '%s'", id));
+            }
+        }
+
+        final Set<String> statistics = new HashSet<>();
+        for (Object statistic : toCollection(map.get(STATISTICS), STATISTICS))
+        {
+            statistics.add(String.valueOf(statistic));
+        }
+        return new StatisticsSubscription(category, ids, statistics);
+    }
+
+    private static Collection<?> toCollection(final Object value, final String name)
+    {
+        if (value == null)
+        {
+            return Collections.emptySet();
+        }
+        else if (value instanceof Collection)
+        {
+            return (Collection<?>) value;
+        }
+        throw new IllegalArgumentException(String.format("Subscription '%s' must be a list", name));
+    }
+
+    @Override
+    public boolean equals(final Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass())
+        {
+            return false;
+        }
+        final StatisticsSubscription that = (StatisticsSubscription) o;
+        return _category.equals(that._category)
+               && _ids.equals(that._ids)
+               && _statistics.equals(that._statistics);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(_category, _ids, _statistics);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "StatisticsSubscription{" +
+               "category=" + _category.getSimpleName() +
+               ", ids=" + _ids +
+               ", statistics=" + _statistics +
+               '}';
+    }
+}
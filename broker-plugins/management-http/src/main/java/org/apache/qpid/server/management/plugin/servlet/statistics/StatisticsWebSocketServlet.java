@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.management.plugin.servlet.statistics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketConnect;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketError;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
+import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+import org.eclipse.jetty.websocket.servlet.WebSocketServlet;
+import org.eclipse.jetty.websocket.servlet.WebSocketServletFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.server.management.plugin.HttpManagementUtil;
+import org.apache.qpid.server.model.Model;
+
+/**
+ * Accepts WebSocket connections from management clients wishing to receive statistics updates.
+ * <p>
+ * A client subscribes by sending a text message of the form
+ * <pre>
+ * {"subscriptions": [{"category": "queue", "ids": [...], "statistics": ["queueDepthMessages", ...]}]}
+ * </pre>
+ * where {@code ids} and {@code statistics} are optional. Each message replaces the client's previous subscriptions.
+ * The servlet is mapped beneath the REST service path so the upgrade request is authenticated in the same way as
+ * any other management request.
+ */
+public class StatisticsWebSocketServlet extends WebSocketServlet
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsWebSocketServlet.class);
+    private static final String SUBSCRIPTIONS = "subscriptions";
+
+    private final StatisticsPublisher _publisher;
+
+    public StatisticsWebSocketServlet(final StatisticsPublisher publisher)
+    {
+        _publisher = publisher;
+    }
+
+    @Override
+    public void configure(final WebSocketServletFactory factory)
+    {
+        final Model model = HttpManagementUtil.getBroker(getServletContext()).getModel();
+        factory.setCreator((req, resp) -> new StatisticsWebSocket(model));
+    }
+
+    @WebSocket
+    public class StatisticsWebSocket implements StatisticsPublisher.Subscriber
+    {
+        private final ObjectMapper _objectMapper = new ObjectMapper();
+        private final AtomicBoolean _sending = new AtomicBoolean();
+        private final Model _model;
+        private volatile Session _session;
+
+        StatisticsWebSocket(final Model model)
+        {
+            _model = model;
+        }
+
+        @OnWebSocketConnect @SuppressWarnings("unused")
+        public void onWebSocketConnect(final Session session)
+        {
+            _session = session;
+        }
+
+        @OnWebSocketMessage @SuppressWarnings("unused")
+        public void onWebSocketText(final Session session, final String text)
+        {
+            try
+            {
+                final Map<?, ?> request = _objectMapper.readValue(text, Map.class);
+                final Object subscriptions = request.get(SUBSCRIPTIONS);
+                if (!(subscriptions instanceof List))
+                {
+                    throw new IllegalArgumentException("Subscriptions are not specified");
+                }
+                final List<StatisticsSubscription> parsedSubscriptions = new ArrayList<>();
+                for (Object subscription : (List<?>) subscriptions)
+                {
+                    if (!(subscription instanceof Map))
+                    {
+                        throw new IllegalArgumentException("Invalid subscription " + subscription);
+                    }
+                    parsedSubscriptions.add(StatisticsSubscription.fromMap(_model, (Map<?, ?>) subscription));
+                }
+                _publisher.subscribe(this, parsedSubscriptions);
+            }
+            catch (IOException | IllegalArgumentException e)
+            {
+                LOGGER.debug("Invalid statistics subscription request '{}'", text, e);
+                sendError(e.getMessage());
+            }
+        }
+
+        @OnWebSocketClose @SuppressWarnings("unused")
+        public void onWebSocketClose(final int statusCode, final String reason)
+        {
+            _publisher.unsubscribe(this);
+            _session = null;
+        }
+
+        @OnWebSocketError @SuppressWarnings("unused")
+        public void onWebSocketError(final Throwable error)
+        {
+            LOGGER.debug("Statistics WebSocket error", error);
+            _publisher.unsubscribe(this);
+        }
+
+        @Override
+        public boolean publish(final String message)
+        {
+            final Session session = _session;
+            if (session == null || !session.isOpen() || !_sending.compareAndSet(false, true))
+            {
+                return false;
+            }
+            session.getRemote().sendString(message, new WriteCallback()
+            {
+                @Override
+                public void writeFailed(final Throwable x)
+                {
+                    _sending.set(false);
+                }
+
+                @Override
+                public void writeSuccess()
+                {
+                    _sending.set(false);
+                }
+            });
+            return true;
+        }
+
+        private void sendError(final String errorMessage)
+        {
+            final Session session = _session;
+            if (session != null && session.isOpen())
+            {
+                try
+                {
+                    session.getRemote().sendString(_objectMapper.writeValueAsString(
+                            Collections.singletonMap("errorMessage", errorMessage)), null);
+                }
+                catch (JsonProcessingException e)
+                {
+                    session.close(StatusCode.SERVER_ERROR, "Failed to send error");
+                }
+            }
+        }
+    }
+}
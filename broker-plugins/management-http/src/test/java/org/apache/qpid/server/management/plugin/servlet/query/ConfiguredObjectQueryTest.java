@@ -21,8 +21,12 @@
 package org.apache.qpid.server.management.plugin.servlet.query;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.Instant;
@@ -776,6 +780,60 @@ public class ConfiguredObjectQueryTest extends UnitTestBase
         assertQueryResults(new Object[][]{{"test-0"},{"test-1"},{"test-2"}}, _query.getResults());
     }
 
+    @Test
+    public void testLimitAndOffsetWithOrderingSelectsTopRows()
+    {
+        final int[] values = {7, 3, 9, 1, 5, 3, 8, 0, 6, 2};
+        for (int i = 0; i < values.length; i++)
+        {
+            final int foo = values[i];
+            final String name = "test-" + i;
+            _objects.add(createCO(new HashMap<String, Object>()
+            {{
+                put("name", name);
+                put("foo", foo);
+            }}));
+        }
+
+        _query = new ConfiguredObjectQuery(_objects, "foo", null, "foo", "3", "0");
+        assertQueryResults(new Object[][]{{0}, {1}, {2}}, _query.getResults());
+        assertEquals("Unexpected total", (long) values.length, (long) _query.getTotalNumberOfRows());
+
+        _query = new ConfiguredObjectQuery(_objects, "foo", null, "foo DESC", "2", "1");
+        assertQueryResults(new Object[][]{{8}, {7}}, _query.getResults());
+
+        _query = new ConfiguredObjectQuery(_objects, "foo", null, "foo", "0", "0");
+        assertQueryResults(new Object[0][1], _query.getResults());
+
+        // equal keys keep their original relative order, as they would with a full sort
+        _query = new ConfiguredObjectQuery(_objects, "name", null, "foo", "2", "3");
+        assertQueryResults(new Object[][]{{"test-1"}, {"test-5"}}, _query.getResults());
+
+        _query = new ConfiguredObjectQuery(_objects, "name", null, "foo", "-1", "3");
+        final List<List<Object>> results = _query.getResults();
+        assertEquals("Unexpected number of result rows", 7, results.size());
+        assertEquals("test-1", results.get(0).get(0));
+        assertEquals("test-5", results.get(1).get(0));
+    }
+
+    @Test
+    public void testResultRowsEvaluatedLazily()
+    {
+        final ConfiguredObject object = createCO(new HashMap<String, Object>()
+        {{
+            put("name", "test");
+        }});
+        _objects.add(object);
+
+        _query = new ConfiguredObjectQuery(_objects, "name", null);
+        verify(object, never()).getAttribute("name");
+
+        final Iterator<List<Object>> rows = _query.getResultRows().iterator();
+        assertTrue(rows.hasNext());
+        assertEquals(Collections.singletonList("test"), rows.next());
+        assertFalse(rows.hasNext());
+    }
+
     private void assertQueryResults(final Object[][] expectedAttributes,
                                     final List<List<Object>> results)
     {
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.qpid.server.management.plugin.servlet.rest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.model.Model;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class QueryServletTest extends UnitTestBase
+{
+    private final List<ConfiguredObject<?>> _objects = new ArrayList<>();
+    private HttpServletRequest _request;
+    private HttpServletResponse _response;
+    private ConfiguredObject<?> _parent;
+    private OutputStream _outputStream;
+    private ByteArrayOutputStream _responseBody;
+    private TestQueryServlet _servlet;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _request = mock(HttpServletRequest.class);
+        _response = mock(HttpServletResponse.class);
+        _parent = mock(ConfiguredObject.class);
+        _responseBody = new ByteArrayOutputStream();
+        _outputStream = _responseBody;
+        _servlet = new TestQueryServlet();
+    }
+
+    @Test
+    public void testWhereClauseFailingAtEvaluationSendsUnprocessableEntity() throws Exception
+    {
+        // TO_DATE fails to evaluate against a numeric attribute
+        _objects.add(createObject(1));
+
+        when(_request.getParameter("select")).thenReturn("number");
+        when(_request.getParameter("where")).thenReturn("TO_DATE(number) < NOW()");
+
+        _servlet.doGet(_request, _response, _parent);
+
+        verify(_response).setStatus(AbstractServlet.SC_UNPROCESSABLE_ENTITY);
+        verify(_response, never()).setStatus(HttpServletResponse.SC_OK);
+
+        final Map<?, ?> body = new ObjectMapper().readValue(_responseBody.toByteArray(), Map.class);
+        assertEquals("Unexpected response", Collections.singleton("errorMessage"), body.keySet());
+    }
+
+    @Test
+    public void testSelectClauseFailingAtEvaluationStreamsNull() throws Exception
+    {
+        // TO_DATE fails to evaluate against a numeric attribute
+        _objects.add(createObject(1));
+
+        when(_request.getParameter("select")).thenReturn("TO_DATE(number)");
+
+        _servlet.doGet(_request, _response, _parent);
+
+        verify(_response).setStatus(HttpServletResponse.SC_OK);
+
+        final Map<?, ?> body = new ObjectMapper().readValue(_responseBody.toByteArray(), Map.class);
+        assertEquals("Unexpected results",
+                     Collections.singletonList(Collections.singletonList(null)),
+                     body.get("results"));
+        assertEquals("Unexpected total", 1, body.get("total"));
+    }
+
+    @Test
+    public void testFailureAfterResponseCommittedIsPropagated() throws Exception
+    {
+        _objects.add(createObject(1));
+
+        when(_request.getParameter("select")).thenReturn("number");
+        when(_response.isCommitted()).thenReturn(true);
+        _outputStream = new OutputStream()
+        {
+            @Override
+            public void write(final int b) throws IOException
+            {
+                throw new IOException("Test write failure");
+            }
+        };
+
+        try
+        {
+            _servlet.doGet(_request, _response, _parent);
+            fail("Exception not thrown");
+        }
+        catch (IOException e)
+        {
+            assertTrue("Unexpected exception " + e, e.getMessage().contains("Test write failure"));
+        }
+        verify(_response, never()).setStatus(AbstractServlet.SC_UNPROCESSABLE_ENTITY);
+    }
+
+    private ConfiguredObject<?> createObject(final int number)
+    {
+        final ConfiguredObject<?> object = mock(ConfiguredObject.class);
+        when(object.getAttributeNames()).thenReturn(Collections.singleton("number"));
+        when(object.getAttribute("number")).thenReturn(number);
+        return object;
+    }
+
+    private class TestQueryServlet extends QueryServlet<ConfiguredObject<?>>
+    {
+        @Override
+        protected OutputStream getOutputStream(final HttpServletRequest request, final HttpServletResponse response)
+        {
+            return _outputStream;
+        }
+
+        @Override
+        protected ConfiguredObject<?> getParent(final HttpServletRequest request,
+                                                final ConfiguredObject<?> managedObject)
+        {
+            return managedObject;
+        }
+
+        @Override
+        protected Class<? extends ConfiguredObject> getSupportedCategory(final String categoryName,
+                                                                         final Model brokerModel)
+        {
+            return Queue.class;
+        }
+
+        @Override
+        protected String getRequestedCategory(final HttpServletRequest request,
+                                              final ConfiguredObject<?> managedObject)
+        {
+            return "queue";
+        }
+
+        @Override
+        protected List<ConfiguredObject<?>> getAllObjects(final ConfiguredObject<?> parent,
+                                                          final Class<? extends ConfiguredObject> category,
+                                                          final HttpServletRequest request)
+        {
+            return _objects;
+        }
+    }
+}
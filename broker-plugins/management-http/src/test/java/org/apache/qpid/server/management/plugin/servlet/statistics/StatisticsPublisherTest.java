@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.management.plugin.servlet.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.server.model.Broker;
+import org.apache.qpid.server.model.BrokerModel;
+import org.apache.qpid.server.model.VirtualHostNode;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class StatisticsPublisherTest extends UnitTestBase
+{
+    private final ObjectMapper _objectMapper = new ObjectMapper();
+    private final List<VirtualHostNode<?>> _nodes = new ArrayList<>();
+    private Broker<?> _broker;
+    private StatisticsPublisher _publisher;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        _broker = mock(Broker.class);
+        when(_broker.getModel()).thenReturn(BrokerModel.getInstance());
+        doReturn(_nodes).when(_broker).getChildren(VirtualHostNode.class);
+        _publisher = new StatisticsPublisher(_broker, 1000L);
+    }
+
+    @Test
+    public void testFullUpdateThenChangesOnly() throws Exception
+    {
+        final Map<String, Object> statistics = new HashMap<>();
+        statistics.put("a", 1);
+        statistics.put("b", 2);
+        final VirtualHostNode<?> node = createNode("node", statistics);
+
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        _publisher.subscribe(subscriber, Collections.singletonList(createSubscription()));
+
+        _publisher.publish();
+        Map<String, Object> message = subscriber.takeMessage();
+        assertEquals(Boolean.TRUE, message.get("full"));
+        assertEquals(statistics, getObjectStatistics(message, node.getId()));
+
+        _publisher.publish();
+        assertTrue("Unexpected message when nothing has changed", subscriber._messages.isEmpty());
+
+        statistics.put("b", 3);
+        _publisher.publish();
+        message = subscriber.takeMessage();
+        assertEquals(Boolean.FALSE, message.get("full"));
+        assertEquals(Collections.singletonMap("b", 3), getObjectStatistics(message, node.getId()));
+
+        _nodes.clear();
+        _publisher.publish();
+        message = subscriber.takeMessage();
+        assertEquals(Collections.singletonList(node.getId().toString()), message.get("removed"));
+    }
+
+    @Test
+    public void testStatisticsSampledOnceForSubscribersWithSameSubscription() throws Exception
+    {
+        final VirtualHostNode<?> node = createNode("node", Collections.singletonMap("a", 1));
+
+        final RecordingSubscriber subscriber1 = new RecordingSubscriber();
+        final RecordingSubscriber subscriber2 = new RecordingSubscriber();
+        _publisher.subscribe(subscriber1, Collections.singletonList(createSubscription()));
+        _publisher.subscribe(subscriber2, Collections.singletonList(createSubscription()));
+
+        _publisher.publish();
+
+        verify(node, times(1)).getStatistics(anyList());
+        assertEquals(1, subscriber1._messages.size());
+        assertSame(subscriber1._messages.get(0), subscriber2._messages.get(0));
+    }
+
+    @Test
+    public void testFullUpdateAfterMessageNotAccepted() throws Exception
+    {
+        final Map<String, Object> statistics = new HashMap<>();
+        statistics.put("a", 1);
+        statistics.put("b", 2);
+        final VirtualHostNode<?> node = createNode("node", statistics);
+
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        _publisher.subscribe(subscriber, Collections.singletonList(createSubscription()));
+        _publisher.publish();
+        subscriber.takeMessage();
+
+        subscriber._accept = false;
+        statistics.put("a", 5);
+        _publisher.publish();
+        subscriber.takeMessage();
+
+        subscriber._accept = true;
+        _publisher.publish();
+        final Map<String, Object> message = subscriber.takeMessage();
+        assertEquals(Boolean.TRUE, message.get("full"));
+        assertEquals(statistics, getObjectStatistics(message, node.getId()));
+    }
+
+    @Test
+    public void testSubscriptionSelectsObjectsAndStatistics() throws Exception
+    {
+        final Map<String, Object> statistics = new HashMap<>();
+        statistics.put("a", 1);
+        statistics.put("b", 2);
+        final VirtualHostNode<?> node1 = createNode("node1", statistics);
+        final VirtualHostNode<?> node2 = createNode("node2", statistics);
+
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        _publisher.subscribe(subscriber,
+                             Collections.singletonList(new StatisticsSubscription(VirtualHostNode.class,
+                                                                                  Collections.singleton(node2.getId()),
+                                                                                  Collections.singleton("b"))));
+        _publisher.publish();
+
+        final Map<String, Object> message = subscriber.takeMessage();
+        final List<?> objects = (List<?>) message.get("objects");
+        assertEquals(1, objects.size());
+        assertEquals(Collections.singletonMap("b", 2), getObjectStatistics(message, node2.getId()));
+    }
+
+    @Test
+    public void testOnlySubscribedObjectsSampled() throws Exception
+    {
+        final VirtualHostNode<?> node1 = createNode("node1", Collections.singletonMap("a", 1));
+        final VirtualHostNode<?> node2 = createNode("node2", Collections.singletonMap("a", 2));
+
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        _publisher.subscribe(subscriber,
+                             Collections.singletonList(new StatisticsSubscription(VirtualHostNode.class,
+                                                                                  Collections.singleton(node2.getId()),
+                                                                                  Collections.emptySet())));
+        _publisher.publish();
+        _publisher.publish();
+        _publisher.publish();
+
+        verify(node1, never()).getStatistics(anyList());
+        verify(node2, times(3)).getStatistics(anyList());
+        verify(_broker, times(1)).getChildren(VirtualHostNode.class);
+        subscriber.takeMessage();
+
+        _nodes.remove(node2);
+        _publisher.publish();
+        final Map<String, Object> message = subscriber.takeMessage();
+        assertEquals(Collections.singletonList(node2.getId().toString()), message.get("removed"));
+    }
+
+    private StatisticsSubscription createSubscription()
+    {
+        return new StatisticsSubscription(VirtualHostNode.class, Collections.emptySet(), Collections.emptySet());
+    }
+
+    private VirtualHostNode<?> createNode(final String name, final Map<String, Object> statistics)
+    {
+        final VirtualHostNode<?> node = mock(VirtualHostNode.class);
+        when(node.getId()).thenReturn(UUID.randomUUID());
+        when(node.getName()).thenReturn(name);
+        when(node.getStatistics(anyList())).then(invocation -> new HashMap<>(statistics));
+        doReturn(_broker).when(node).getParent();
+        when(_broker.getChildById(eq(VirtualHostNode.class), any(UUID.class)))
+                .then(invocation -> _nodes.stream()
+                                          .filter(n -> n.getId().equals(invocation.getArgument(1)))
+                                          .findFirst()
+                                          .orElse(null));
+        _nodes.add(node);
+        return node;
+    }
+
+    private Map<?, ?> getObjectStatistics(final Map<String, Object> message, final UUID id)
+    {
+        for (Object object : (List<?>) message.get("objects"))
+        {
+            final Map<?, ?> objectMap = (Map<?, ?>) object;
+            if (id.toString().equals(objectMap.get("id")))
+            {
+                return (Map<?, ?>) objectMap.get("statistics");
+            }
+        }
+        return null;
+    }
+
+    private class RecordingSubscriber implements StatisticsPublisher.Subscriber
+    {
+        private final List<String> _messages = new ArrayList<>();
+        private boolean _accept = true;
+
+        @Override
+        public boolean publish(final String message)
+        {
+            _messages.add(message);
+            return _accept;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> takeMessage() throws Exception
+        {
+            assertEquals("Unexpected number of messages", 1, _messages.size());
+            return _objectMapper.readValue(_messages.remove(0), Map.class);
+        }
+    }
+}
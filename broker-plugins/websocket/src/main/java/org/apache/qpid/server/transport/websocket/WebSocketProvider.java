@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
 import java.security.Principal;
 import java.security.cert.Certificate;
 import java.security.cert.X509Certificate;
@@ -392,7 +393,9 @@ class WebSocketProvider implements AcceptingTransport
                         iter.next().run();
                     }
 
-                    int lastRead;
+                    // Jetty may reuse the payload array once this method returns, whereas the protocol engine may
+                    // retain slices of the buffers it receives, so each payload is copied into the network buffer.
+                    // Only the outbound path avoids copying.
                     int remaining = len;
                     do
                     {
@@ -498,6 +501,7 @@ class WebSocketProvider implements AcceptingTransport
         private final MultiVersionProtocolEngine _protocolEngine;
         private final ThreadPool _threadPool;
         private final Runnable _tickJob;
+        private final BinaryMessageWriter _messageWriter;
 
         private Certificate _certificate;
         private long _maxWriteIdleMillis;
@@ -514,6 +518,7 @@ class WebSocketProvider implements AcceptingTransport
             _remoteAddress = remoteAddress;
             _protocolEngine = protocolEngine;
             _threadPool = threadPool;
+            _messageWriter = new BinaryMessageWriter(connection);
             _tickJob = new Runnable()
                         {
                             @Override
@@ -650,43 +655,35 @@ class WebSocketProvider implements AcceptingTransport
 
         public synchronized void doWrite()
         {
-            int size = 0;
+            if (_buffers.isEmpty())
+            {
+                return;
+            }
+
             List<QpidByteBuffer> toBeWritten = new ArrayList<>(_buffers.size());
             QpidByteBuffer buf;
             while((buf = _buffers.poll())!= null)
             {
-                // TODO: For efficiency perhaps only coalesce sequential small buffers and let large buffers
-                // go alone in a binary message.  This would likely avoid the memory copies of large transfer payloads
-                size += buf.remaining();
                 toBeWritten.add(buf);
             }
 
-            byte[] data = new byte[size];
-            int offset = 0;
-
-            for(QpidByteBuffer tmp : toBeWritten)
-            {
-                int remaining = tmp.remaining();
-                tmp.get(data, offset, remaining);
-                tmp.dispose();
-                offset += remaining;
-            }
-            if(size > 0)
+            try
             {
-                try
+                long written = QpidByteBuffer.write(_messageWriter, toBeWritten);
+                if (LOGGER.isDebugEnabled())
                 {
-                    _connection.getRemote().sendBytes(ByteBuffer.wrap(data));
-                    if (LOGGER.isDebugEnabled())
-                    {
-                        LOGGER.debug("Written {} byte(s)", data.length);
-                    }
-                }
-                catch (IOException e)
-                {
-                    LOGGER.info("Exception on write: {}", e.getMessage());
-                    close();
+                    LOGGER.debug("Written {} byte(s)", written);
                 }
             }
+            catch (IOException e)
+            {
+                LOGGER.info("Exception on write: {}", e.getMessage());
+                close();
+            }
+            finally
+            {
+                toBeWritten.forEach(QpidByteBuffer::dispose);
+            }
         }
 
         public synchronized void doWork()
@@ -721,6 +718,116 @@ class WebSocketProvider implements AcceptingTransport
 
 
 
+    /**
+     * Writes the buffers passed to a single gathering write as one binary WebSocket message. Large buffers are sent
+     * as message fragments straight from the buffer; runs of small buffers are first coalesced so that each
+     * fragment (and each blocking write) carries a reasonable amount of data.
+     */
+    static class BinaryMessageWriter implements GatheringByteChannel
+    {
+        static final int ZERO_COPY_THRESHOLD = 4096;
+
+        private final Session _session;
+        private ByteBuffer _pendingFragment;
+
+        BinaryMessageWriter(final Session session)
+        {
+            _session = session;
+        }
+
+        @Override
+        public long write(final ByteBuffer[] srcs, final int offset, final int length) throws IOException
+        {
+            long written = 0;
+            ByteBuffer coalesced = null;
+            for (int i = offset; i < offset + length; i++)
+            {
+                final ByteBuffer src = srcs[i];
+                final int remaining = src.remaining();
+                if (remaining == 0)
+                {
+                    continue;
+                }
+                written += remaining;
+
+                if (remaining >= ZERO_COPY_THRESHOLD)
+                {
+                    if (coalesced != null)
+                    {
+                        coalesced.flip();
+                        sendFragment(coalesced);
+                        coalesced = null;
+                    }
+                    sendFragment(src.duplicate());
+                }
+                else
+                {
+                    if (coalesced == null)
+                    {
+                        coalesced = ByteBuffer.allocate(coalescedSize(srcs, i, offset + length));
+                    }
+                    coalesced.put(src.duplicate());
+                }
+            }
+
+            if (coalesced != null)
+            {
+                coalesced.flip();
+                sendFragment(coalesced);
+            }
+            if (_pendingFragment != null)
+            {
+                _session.getRemote().sendPartialBytes(_pendingFragment, true);
+                _pendingFragment = null;
+            }
+            return written;
+        }
+
+        private int coalescedSize(final ByteBuffer[] srcs, final int from, final int to)
+        {
+            int size = 0;
+            for (int i = from; i < to && srcs[i].remaining() < ZERO_COPY_THRESHOLD; i++)
+            {
+                size += srcs[i].remaining();
+            }
+            return size;
+        }
+
+        /** Sending is deferred by one fragment so that the final fragment can be marked as the end of the message. */
+        private void sendFragment(final ByteBuffer fragment) throws IOException
+        {
+            if (_pendingFragment != null)
+            {
+                _session.getRemote().sendPartialBytes(_pendingFragment, false);
+            }
+            _pendingFragment = fragment;
+        }
+
+        @Override
+        public long write(final ByteBuffer[] srcs) throws IOException
+        {
+            return write(srcs, 0, srcs.length);
+        }
+
+        @Override
+        public int write(final ByteBuffer src) throws IOException
+        {
+            return (int) write(new ByteBuffer[]{src});
+        }
+
+        @Override
+        public boolean isOpen()
+        {
+            return _session.isOpen();
+        }
+
+        @Override
+        public void close()
+        {
+            _session.close();
+        }
+    }
+
     private class WebSocketIdleTimeoutChecker extends Thread
     {
 
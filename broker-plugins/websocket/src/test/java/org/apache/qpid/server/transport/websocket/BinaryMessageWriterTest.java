@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.transport.websocket;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class BinaryMessageWriterTest extends UnitTestBase
+{
+    private final List<ByteBuffer> _fragments = new ArrayList<>();
+    private final List<byte[]> _fragmentContents = new ArrayList<>();
+    private final List<Boolean> _lastFlags = new ArrayList<>();
+    private WebSocketProvider.BinaryMessageWriter _writer;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        final RemoteEndpoint remote = mock(RemoteEndpoint.class);
+        doAnswer(invocation ->
+                 {
+                     final ByteBuffer fragment = invocation.getArgument(0);
+                     final byte[] content = new byte[fragment.remaining()];
+                     fragment.duplicate().get(content);
+                     _fragments.add(fragment);
+                     _fragmentContents.add(content);
+                     _lastFlags.add(invocation.getArgument(1));
+                     return null;
+                 }).when(remote).sendPartialBytes(any(ByteBuffer.class), anyBoolean());
+        final Session session = mock(Session.class);
+        when(session.getRemote()).thenReturn(remote);
+        _writer = new WebSocketProvider.BinaryMessageWriter(session);
+    }
+
+    @Test
+    public void testSmallBuffersCoalescedIntoSingleFragment() throws Exception
+    {
+        final ByteBuffer first = buffer(10, (byte) 1);
+        final ByteBuffer empty = ByteBuffer.allocate(0);
+        final ByteBuffer second = buffer(20, (byte) 2);
+
+        final long written = _writer.write(new ByteBuffer[]{first, empty, second});
+
+        assertEquals("Unexpected number of bytes written", 30, written);
+        assertEquals("Unexpected number of fragments", 1, _fragments.size());
+        assertTrue("Single fragment should end the message", _lastFlags.get(0));
+        assertArrayEquals("Unexpected fragment content", concat(first, second), _fragmentContents.get(0));
+    }
+
+    @Test
+    public void testLargeBufferSentWithoutCopy() throws Exception
+    {
+        final ByteBuffer small1 = buffer(10, (byte) 1);
+        final ByteBuffer large = buffer(WebSocketProvider.BinaryMessageWriter.ZERO_COPY_THRESHOLD, (byte) 2);
+        final ByteBuffer small2 = buffer(5, (byte) 3);
+        final ByteBuffer small3 = buffer(7, (byte) 4);
+
+        final long written = _writer.write(new ByteBuffer[]{small1, large, small2, small3});
+
+        assertEquals("Unexpected number of bytes written",
+                     10 + WebSocketProvider.BinaryMessageWriter.ZERO_COPY_THRESHOLD + 5 + 7,
+                     written);
+        assertEquals("Unexpected number of fragments", 3, _fragments.size());
+
+        assertArrayEquals("Unexpected first fragment", concat(small1), _fragmentContents.get(0));
+        assertFalse("First fragment should not end the message", _lastFlags.get(0));
+
+        assertSame("Large buffer should be sent from its own backing array",
+                   large.array(),
+                   _fragments.get(1).array());
+        assertArrayEquals("Unexpected second fragment", concat(large), _fragmentContents.get(1));
+        assertFalse("Second fragment should not end the message", _lastFlags.get(1));
+
+        assertArrayEquals("Unexpected last fragment", concat(small2, small3), _fragmentContents.get(2));
+        assertTrue("Last fragment should end the message", _lastFlags.get(2));
+    }
+
+    @Test
+    public void testEachWriteIsSeparateMessage() throws Exception
+    {
+        final ByteBuffer large = buffer(WebSocketProvider.BinaryMessageWriter.ZERO_COPY_THRESHOLD, (byte) 1);
+
+        _writer.write(large);
+        _writer.write(buffer(3, (byte) 2));
+
+        assertEquals("Unexpected number of fragments", 2, _fragments.size());
+        assertTrue("First write should end its message", _lastFlags.get(0));
+        assertTrue("Second write should end its message", _lastFlags.get(1));
+    }
+
+    private static ByteBuffer buffer(final int size, final byte seed)
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (int i = 0; i < size; i++)
+        {
+            buffer.put((byte) (seed + i));
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static byte[] concat(final ByteBuffer... buffers)
+    {
+        int size = 0;
+        for (ByteBuffer buffer : buffers)
+        {
+            size += buffer.remaining();
+        }
+        final ByteBuffer result = ByteBuffer.allocate(size);
+        for (ByteBuffer buffer : buffers)
+        {
+            result.put(buffer.duplicate());
+        }
+        return result.array();
+    }
+}
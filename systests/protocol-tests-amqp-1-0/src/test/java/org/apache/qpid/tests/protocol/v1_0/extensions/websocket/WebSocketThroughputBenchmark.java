@@ -0,0 +1,160 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.tests.protocol.v1_0.extensions.websocket;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assume.assumeThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.server.protocol.v1_0.type.Binary;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.Accepted;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Attach;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Begin;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Disposition;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Flow;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Role;
+import org.apache.qpid.tests.protocol.v1_0.FrameTransport;
+import org.apache.qpid.tests.protocol.v1_0.Interaction;
+import org.apache.qpid.tests.utils.BrokerAdmin;
+import org.apache.qpid.tests.utils.BrokerAdminUsingTestBase;
+import org.apache.qpid.tests.utils.ConfigItem;
+
+/**
+ * Compares the rate at which the broker takes in messages sent over an AMQP WebSocket port with that over a plain
+ * TCP port, for small and large messages.
+ * Not part of the default test run, execute with {@code mvn verify -Dtest=WebSocketThroughputBenchmark}.
+ */
+@ConfigItem(name = "qpid.tests.mms.messagestore.persistence", value = "false", jvm = true)
+public class WebSocketThroughputBenchmark extends BrokerAdminUsingTestBase
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebSocketThroughputBenchmark.class);
+
+    private static final long BYTES_PER_RUN = 64 * 1024 * 1024;
+    private static final int[] MESSAGE_SIZES = {1024, 64 * 1024};
+    private static final int ROUNDS = 3;
+
+    @Before
+    public void setUp()
+    {
+        assumeThat("Broker support for AMQP over websockets is required", getBrokerAdmin().isWebSocketSupported(), is(true));
+        assumeThat("Broker support for Anonymous open is required", getBrokerAdmin().isAnonymousSupported(), is(true));
+        getBrokerAdmin().createQueue(BrokerAdmin.TEST_QUEUE_NAME);
+    }
+
+    @After
+    public void tearDown()
+    {
+        getBrokerAdmin().deleteQueue(BrokerAdmin.TEST_QUEUE_NAME);
+    }
+
+    @Test
+    public void compareTransports() throws Exception
+    {
+        for (int round = 0; round < ROUNDS; round++)
+        {
+            for (int messageSize : MESSAGE_SIZES)
+            {
+                final long tcpTime = send(new FrameTransport(getBrokerAdmin(), BrokerAdmin.PortType.ANONYMOUS_AMQP),
+                                          messageSize);
+                final long webSocketTime = send(new WebSocketFrameTransport(getBrokerAdmin()), messageSize);
+                LOGGER.info("{} messages of {} bytes sent in {} ms over TCP ({} MB/s),"
+                            + " in {} ms over WebSocket ({} MB/s)",
+                            BYTES_PER_RUN / messageSize,
+                            messageSize,
+                            tcpTime / 1000000L,
+                            megabytesPerSecond(tcpTime),
+                            webSocketTime / 1000000L,
+                            megabytesPerSecond(webSocketTime));
+            }
+        }
+    }
+
+    /**
+     * Sends the messages pre-settled, in batches bounded by the link credit granted by the broker. The last message of
+     * each batch is sent unsettled: its disposition shows that the broker has taken in the whole batch, after which
+     * the broker has restored the credit the batch consumed. Synchronising on each batch also bounds the chain of
+     * futures the interaction keeps for the frames it has sent.
+     */
+    private long send(final FrameTransport frameTransport, final int messageSize) throws Exception
+    {
+        try (FrameTransport transport = frameTransport.connect())
+        {
+            final Interaction interaction = transport.newInteraction();
+            final Flow flow = interaction.negotiateOpen()
+                                         .begin().consumeResponse(Begin.class)
+                                         .attachRole(Role.SENDER)
+                                         .attachTargetAddress(BrokerAdmin.TEST_QUEUE_NAME)
+                                         .attach().consumeResponse(Attach.class)
+                                         .consumeResponse(Flow.class)
+                                         .getLatestResponse(Flow.class);
+            assumeThat(flow.getLinkCredit(), is(notNullValue()));
+            assumeThat(flow.getLinkCredit(), is(greaterThan(UnsignedInteger.ZERO)));
+            final long credit = flow.getLinkCredit().longValue();
+
+            interaction.transferPayloadData(new Binary(new byte[messageSize]));
+
+            final long startTime = System.nanoTime();
+            long remaining = BYTES_PER_RUN / messageSize;
+            while (remaining > 0)
+            {
+                final long batch = Math.min(remaining, credit);
+                for (long i = 1; i < batch; i++)
+                {
+                    interaction.transferDeliveryId()
+                               .transferSettled(true)
+                               .transfer();
+                }
+                final Disposition disposition = interaction.transferDeliveryId()
+                                                           .transferSettled(false)
+                                                           .transfer()
+                                                           .sync()
+                                                           .consume(Disposition.class, Flow.class);
+                assertThat(disposition.getState(), is(instanceOf(Accepted.class)));
+                remaining -= batch;
+            }
+            final long time = System.nanoTime() - startTime;
+
+            interaction.doCloseConnection();
+            return time;
+        }
+        finally
+        {
+            getBrokerAdmin().deleteQueue(BrokerAdmin.TEST_QUEUE_NAME);
+            getBrokerAdmin().createQueue(BrokerAdmin.TEST_QUEUE_NAME);
+        }
+    }
+
+    private static long megabytesPerSecond(final long nanos)
+    {
+        return BYTES_PER_RUN * 1000000000L / (nanos * 1024 * 1024);
+    }
+}
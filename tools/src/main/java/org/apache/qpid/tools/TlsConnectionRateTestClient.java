@@ -0,0 +1,360 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.tools;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import org.apache.qpid.tools.util.ArgumentsParser;
+
+/**
+ * Measures the rate at which TLS connections can be established with a broker port, either resuming the TLS
+ * session negotiated by an earlier connection or performing a full handshake for every connection.
+ * Only the TLS handshake is performed: no AMQP or HTTP traffic is exchanged.
+ */
+public class TlsConnectionRateTestClient
+{
+    public static void main(String[] args) throws Exception
+    {
+        ArgumentsParser parser = new ArgumentsParser();
+        Arguments arguments;
+        try
+        {
+            arguments = parser.parse(args, Arguments.class);
+            arguments.validate();
+        }
+        catch(IllegalArgumentException e)
+        {
+            System.out.println("Invalid argument:" + e.getMessage());
+            parser.usage(Arguments.class, Arguments.REQUIRED);
+            System.out.println("\nRun example:" );
+            System.out.println("  java \\" );
+            System.out.println("    -Djavax.net.ssl.trustStore=java_client_truststore.jks \\");
+            System.out.println("    -Djavax.net.ssl.trustStorePassword=password \\");
+            System.out.println("    org.apache.qpid.tools.TlsConnectionRateTestClient \\");
+            System.out.println("      host=localhost port=5671 connections=1000 threads=4 mode=both protocol=TLSv1.2");
+            System.out.println("\n  With TLSv1.3 the session ticket is sent after the handshake, so");
+            System.out.println("  postHandshakeReadTimeout needs to be set for sessions to be resumed.");
+            return;
+        }
+
+        TlsConnectionRateTestClient client = new TlsConnectionRateTestClient();
+        client.run(arguments);
+    }
+
+    public void run(Arguments arguments) throws Exception
+    {
+        log(arguments.toString());
+        final SSLContext sslContext = createSslContext(arguments);
+
+        if (arguments.getMode().equals("full") || arguments.getMode().equals("both"))
+        {
+            runMode(arguments, sslContext, false);
+        }
+        if (arguments.getMode().equals("resumed") || arguments.getMode().equals("both"))
+        {
+            runMode(arguments, sslContext, true);
+        }
+    }
+
+    private void runMode(final Arguments arguments, final SSLContext sslContext, final boolean resume)
+            throws Exception
+    {
+        final int threads = arguments.getThreads();
+        final AtomicInteger resumedCount = new AtomicInteger();
+        final List<Long> handshakeTimes = Collections.synchronizedList(new ArrayList<>());
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final long startTime = System.nanoTime();
+        try
+        {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++)
+            {
+                final int connections = arguments.getConnections() / threads
+                                        + (i < arguments.getConnections() % threads ? 1 : 0);
+                futures.add(executor.submit(() ->
+                                            {
+                                                for (int c = 0; c < connections; c++)
+                                                {
+                                                    connect(arguments, sslContext, resume, resumedCount, handshakeTimes);
+                                                }
+                                                return null;
+                                            }));
+            }
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        catch (ExecutionException e)
+        {
+            log("Connection failed: " + e.getCause());
+            throw e;
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        final long elapsedNanos = System.nanoTime() - startTime;
+
+        final Long[] times = handshakeTimes.toArray(new Long[0]);
+        Arrays.sort(times);
+        long total = 0;
+        for (long time : times)
+        {
+            total += time;
+        }
+        final double elapsedSeconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        log(String.format("%s handshakes: connections=%d, resumed=%d, elapsed=%.3fs, rate=%.1f connections/s",
+                          resume ? "Resumed" : "Full",
+                          times.length,
+                          resumedCount.get(),
+                          elapsedSeconds,
+                          times.length / elapsedSeconds));
+        if (times.length > 0)
+        {
+            log(String.format("    handshake time (ms): mean=%.3f, p50=%.3f, p90=%.3f, p99=%.3f, max=%.3f",
+                              toMillis(total / times.length),
+                              toMillis(percentile(times, 50)),
+                              toMillis(percentile(times, 90)),
+                              toMillis(percentile(times, 99)),
+                              toMillis(times[times.length - 1])));
+        }
+    }
+
+    private void connect(final Arguments arguments,
+                         final SSLContext sslContext,
+                         final boolean resume,
+                         final AtomicInteger resumedCount,
+                         final List<Long> handshakeTimes) throws IOException
+    {
+        try (SSLSocket socket = (SSLSocket) sslContext.getSocketFactory()
+                                                      .createSocket(arguments.getHost(), arguments.getPort()))
+        {
+            if (arguments.getProtocol() != null)
+            {
+                socket.setEnabledProtocols(new String[]{arguments.getProtocol()});
+            }
+
+            final long connectTime = System.currentTimeMillis();
+            final long handshakeStart = System.nanoTime();
+            socket.startHandshake();
+            handshakeTimes.add(System.nanoTime() - handshakeStart);
+
+            if (socket.getSession().getCreationTime() < connectTime)
+            {
+                resumedCount.incrementAndGet();
+            }
+
+            if (arguments.getPostHandshakeReadTimeout() > 0)
+            {
+                // allows post-handshake messages such as TLSv1.3 session tickets to be received
+                socket.setSoTimeout(arguments.getPostHandshakeReadTimeout());
+                try
+                {
+                    socket.getInputStream().read();
+                }
+                catch (SocketTimeoutException e)
+                {
+                    // expected, the broker waits for the client to send its protocol header
+                }
+            }
+
+            if (!resume)
+            {
+                socket.getSession().invalidate();
+            }
+        }
+    }
+
+    private SSLContext createSslContext(final Arguments arguments)
+    {
+        try
+        {
+            if (arguments.isTrustAll())
+            {
+                TrustManager[] trustAllCerts = new TrustManager[]{
+                        new X509TrustManager()
+                        {
+                            public X509Certificate[] getAcceptedIssuers()
+                            {
+                                return null;
+                            }
+
+                            public void checkClientTrusted(X509Certificate[] certs, String authType)
+                            {
+                            }
+
+                            public void checkServerTrusted(X509Certificate[] certs, String authType)
+                            {
+                            }
+                        }
+                };
+                SSLContext sslContext = SSLContext.getInstance("TLS");
+                sslContext.init(null, trustAllCerts, new java.security.SecureRandom());
+                return sslContext;
+            }
+            else
+            {
+                SSLContext sslContext = SSLContext.getInstance("TLS");
+                sslContext.init(null, null, null);
+                return sslContext;
+            }
+        }
+        catch (NoSuchAlgorithmException | KeyManagementException e)
+        {
+            throw new RuntimeException("Failed to create SSL context", e);
+        }
+    }
+
+    private static long percentile(final Long[] sortedTimes, final int percentile)
+    {
+        final int index = (int) Math.ceil(percentile / 100.0 * sortedTimes.length) - 1;
+        return sortedTimes[Math.max(index, 0)];
+    }
+
+    private static double toMillis(final long nanos)
+    {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private void log(String logMessage)
+    {
+        System.out.println(logMessage);
+    }
+
+    public static class Arguments
+    {
+        private static final Set<String> REQUIRED = new HashSet<>(Arrays.asList("host", "port"));
+        private static final Set<String> MODES = new HashSet<>(Arrays.asList("full", "resumed", "both"));
+
+        private String host = null;
+        private int port = -1;
+        private int connections = 1000;
+        private int threads = 1;
+        private String mode = "both";
+        private String protocol = null;
+        private int postHandshakeReadTimeout = 0;
+        private boolean trustAll = false;
+
+        public Arguments()
+        {
+        }
+
+        public void validate()
+        {
+            if (host == null || host.equals(""))
+            {
+                throw new IllegalArgumentException("Mandatory argument 'host' is not specified");
+            }
+
+            if (port <= 0)
+            {
+                throw new IllegalArgumentException("Mandatory argument 'port' is not specified");
+            }
+
+            if (connections <= 0 || threads <= 0)
+            {
+                throw new IllegalArgumentException("Arguments 'connections' and 'threads' must be positive");
+            }
+
+            if (!MODES.contains(mode))
+            {
+                throw new IllegalArgumentException("Argument 'mode' must be one of " + MODES);
+            }
+        }
+
+        public String getHost()
+        {
+            return host;
+        }
+
+        public int getPort()
+        {
+            return port;
+        }
+
+        public int getConnections()
+        {
+            return connections;
+        }
+
+        public int getThreads()
+        {
+            return threads;
+        }
+
+        public String getMode()
+        {
+            return mode;
+        }
+
+        public String getProtocol()
+        {
+            return protocol;
+        }
+
+        public int getPostHandshakeReadTimeout()
+        {
+            return postHandshakeReadTimeout;
+        }
+
+        public boolean isTrustAll()
+        {
+            return trustAll;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Arguments{" +
+                   "host='" + host + '\'' +
+                   ", port=" + port +
+                   ", connections=" + connections +
+                   ", threads=" + threads +
+                   ", mode='" + mode + '\'' +
+                   ", protocol='" + protocol + '\'' +
+                   ", postHandshakeReadTimeout=" + postHandshakeReadTimeout +
+                   ", trustAll=" + trustAll +
+                   '}';
+        }
+    }
+}